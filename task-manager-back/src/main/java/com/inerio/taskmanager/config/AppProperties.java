@@ -12,9 +12,145 @@ public class AppProperties {
     /** Number of days of inactivity after which an anonymous user may be purged. */
     private int retentionDays = 90;
 
+    /** Number of inactive accounts purged concurrently by the retention job. */
+    private int retentionWorkers = 2;
+
+    /** Number of inactive accounts fetched per page (and per checkpoint) by the retention job. */
+    private int retentionPageSize = 100;
+
+    /** Maximum number of tasks deleted per transaction by the retention job. */
+    private int retentionBatchSize = 500;
+
+    /** Time budget (ms) of one retention run; an interrupted run resumes from its checkpoint. */
+    private long retentionBudgetMs = 7_200_000;
+
+    /** Maximum size of the connection pool reserved to bulk operations and cluster-wide jobs. */
+    private int bulkPoolSize = 5;
+
+    /** Number of threads running bulk operations. */
+    private int bulkThreads = 2;
+
+    /** Maximum size of the connection pool holding the advisory locks of cluster-wide jobs. */
+    private int jobLockPoolSize = 2;
+
+    /** Maximum number of bulk operations waiting for a thread; further requests get a 503. */
+    private int bulkQueueCapacity = 20;
+
+    /** Retry-After (s) sent with a 503 when the bulk operations are saturated. */
+    private int bulkRetryAfterSeconds = 30;
+
+    /** Maximum number of interactive (move / reorder) requests in flight. */
+    private int interactiveMaxConcurrent = 32;
+
+    /** Time (ms) an interactive request waits for a slot before it gets a 503. */
+    private long interactiveWaitMs = 250;
+
+    /** Retry-After (s) sent with a 503 when the interactive requests are saturated. */
+    private int interactiveRetryAfterSeconds = 1;
+
+    /** Number of days the run history of cluster-wide jobs is kept. */
+    private int jobHistoryDays = 30;
+
+    /** Number of days boards, columns and tasks stay in the trash before they are purged. */
+    private int trashRetentionDays = 30;
+
+    /** Maximum number of rows deleted per transaction by the trash purge. */
+    private int trashPurgeBatchSize = 500;
+
+    /** Delay (ms) between two runs of the trash purge. */
+    private long trashPurgeIntervalMs = 3_600_000;
+
+    /** Number of days after their completion tasks are moved to the archive. */
+    private int taskArchiveAfterDays = 30;
+
+    /** Maximum number of tasks archived per transaction. */
+    private int taskArchiveBatchSize = 500;
+
+    /** Delay (ms) between two runs of the task archiving. */
+    private long taskArchiveIntervalMs = 3_600_000;
+
+    /** Number of tasks fetched per round trip by the cursor of a board export. */
+    private int boardExportFetchSize = 500;
+
+    /** Number of tasks inserted per JDBC batch by a board import. */
+    private int boardImportBatchSize = 500;
+
+    /** Maximum number of rows of a CSV task import. */
+    private int taskImportMaxRows = 50_000;
+
+    /**
+     * Maximum size (bytes) of an import body (CSV tasks or board JSON). The body is copied to a
+     * temporary file before the import opens its transaction; larger bodies are rejected.
+     */
+    private long importMaxBytes = 64L * 1024 * 1024;
+
     /** Base directory on disk where task attachments are stored. */
     private String uploadDir = "uploads";
 
+    /**
+     * Minimum time (ms) between two writes of the same task: PATCHes arriving meanwhile are merged
+     * into the next write, while a PATCH with nothing pending is written at once.
+     * {@code 0} disables merging.
+     */
+    private long patchMergeWindowMs = 250;
+
+    /** Delay (ms) between two runs of the collector reclaiming unreferenced attachment blobs. */
+    private long blobGcIntervalMs = 600_000;
+
+    /** Maximum total size (bytes) of the attachments charged to one account. */
+    private long attachmentQuotaBytes = 100L * 1024 * 1024;
+
+    /** Maximum number of task folders moved to the sharded upload layout per migration run. */
+    private int uploadMigrationBatchSize = 500;
+
+    /** Delay (ms) between two runs of the upload layout migration. */
+    private long uploadMigrationIntervalMs = 5_000;
+
+    /** Maximum number of attachment outbox entries processed per transaction. */
+    private int attachmentOutboxBatchSize = 100;
+
+    /** Delay (ms) between two polls of the attachment outbox (it is also drained after each commit). */
+    private long attachmentOutboxIntervalMs = 30_000;
+
+    /** Failed attempts after which an attachment outbox entry is abandoned. */
+    private int attachmentOutboxMaxAttempts = 10;
+
+    /** Cron expression (Europe/Paris) of the upload tree reconciliation. */
+    private String uploadGcCron = "0 30 4 * * *";
+
+    /** Number of task folders checked against the database per query by the reconciliation. */
+    private int uploadGcBatchSize = 1_000;
+
+    /** Number of shard directories the reconciliation walks concurrently. */
+    private int uploadGcParallelism = 4;
+
+    /** Minimum age (ms) of an untracked file or folder before the reconciliation touches it. */
+    private long uploadGcGraceMs = 3_600_000;
+
+    /** Time (ms) orphans stay in quarantine before they are deleted. */
+    private long uploadGcQuarantineMs = 86_400_000;
+
+    /**
+     * Maximum size (bytes) of an attachment uploaded in chunks. {@link #attachmentQuotaBytes} caps
+     * the effective maximum, so the default matches it.
+     */
+    private long attachmentMaxBytes = 100L * 1024 * 1024;
+
+    /** Maximum size (bytes) of one chunk of a chunked upload. */
+    private long uploadChunkMaxBytes = 16L * 1024 * 1024;
+
+    /** Time (ms) after which an idle chunked upload is discarded. */
+    private long uploadSessionTtlMs = 86_400_000;
+
+    /** Longest side (px) of the thumbnails generated for image attachments. */
+    private int thumbnailSize = 256;
+
+    /** Number of background threads generating thumbnails. */
+    private int thumbnailThreads = 2;
+
+    /** Maximum number of thumbnails waiting for generation; further requests are dropped. */
+    private int thumbnailQueueCapacity = 100;
+
     /** Comma-separated list of allowed CORS origins. */
     private String corsAllowedOrigins = "http://localhost:4200";
 
@@ -29,9 +165,135 @@ public class AppProperties {
     public int getRetentionDays() { return retentionDays; }
     public void setRetentionDays(int retentionDays) { this.retentionDays = retentionDays; }
 
+    public int getRetentionWorkers() { return retentionWorkers; }
+    public void setRetentionWorkers(int retentionWorkers) { this.retentionWorkers = retentionWorkers; }
+
+    public int getRetentionPageSize() { return retentionPageSize; }
+    public void setRetentionPageSize(int retentionPageSize) { this.retentionPageSize = retentionPageSize; }
+
+    public int getRetentionBatchSize() { return retentionBatchSize; }
+    public void setRetentionBatchSize(int retentionBatchSize) { this.retentionBatchSize = retentionBatchSize; }
+
+    public long getRetentionBudgetMs() { return retentionBudgetMs; }
+    public void setRetentionBudgetMs(long retentionBudgetMs) { this.retentionBudgetMs = retentionBudgetMs; }
+
+    public int getBulkPoolSize() { return bulkPoolSize; }
+    public void setBulkPoolSize(int bulkPoolSize) { this.bulkPoolSize = bulkPoolSize; }
+
+    public int getBulkThreads() { return bulkThreads; }
+    public void setBulkThreads(int bulkThreads) { this.bulkThreads = bulkThreads; }
+
+    public int getJobLockPoolSize() { return jobLockPoolSize; }
+    public void setJobLockPoolSize(int jobLockPoolSize) { this.jobLockPoolSize = jobLockPoolSize; }
+
+    public int getBulkQueueCapacity() { return bulkQueueCapacity; }
+    public void setBulkQueueCapacity(int bulkQueueCapacity) { this.bulkQueueCapacity = bulkQueueCapacity; }
+
+    public int getBulkRetryAfterSeconds() { return bulkRetryAfterSeconds; }
+    public void setBulkRetryAfterSeconds(int bulkRetryAfterSeconds) { this.bulkRetryAfterSeconds = bulkRetryAfterSeconds; }
+
+    public int getInteractiveMaxConcurrent() { return interactiveMaxConcurrent; }
+    public void setInteractiveMaxConcurrent(int interactiveMaxConcurrent) { this.interactiveMaxConcurrent = interactiveMaxConcurrent; }
+
+    public long getInteractiveWaitMs() { return interactiveWaitMs; }
+    public void setInteractiveWaitMs(long interactiveWaitMs) { this.interactiveWaitMs = interactiveWaitMs; }
+
+    public int getInteractiveRetryAfterSeconds() { return interactiveRetryAfterSeconds; }
+    public void setInteractiveRetryAfterSeconds(int interactiveRetryAfterSeconds) { this.interactiveRetryAfterSeconds = interactiveRetryAfterSeconds; }
+
+    public int getJobHistoryDays() { return jobHistoryDays; }
+    public void setJobHistoryDays(int jobHistoryDays) { this.jobHistoryDays = jobHistoryDays; }
+
+    public int getTrashRetentionDays() { return trashRetentionDays; }
+    public void setTrashRetentionDays(int trashRetentionDays) { this.trashRetentionDays = trashRetentionDays; }
+
+    public int getTrashPurgeBatchSize() { return trashPurgeBatchSize; }
+    public void setTrashPurgeBatchSize(int trashPurgeBatchSize) { this.trashPurgeBatchSize = trashPurgeBatchSize; }
+
+    public long getTrashPurgeIntervalMs() { return trashPurgeIntervalMs; }
+    public void setTrashPurgeIntervalMs(long trashPurgeIntervalMs) { this.trashPurgeIntervalMs = trashPurgeIntervalMs; }
+
+    public int getTaskArchiveAfterDays() { return taskArchiveAfterDays; }
+    public void setTaskArchiveAfterDays(int taskArchiveAfterDays) { this.taskArchiveAfterDays = taskArchiveAfterDays; }
+
+    public int getTaskArchiveBatchSize() { return taskArchiveBatchSize; }
+    public void setTaskArchiveBatchSize(int taskArchiveBatchSize) { this.taskArchiveBatchSize = taskArchiveBatchSize; }
+
+    public long getTaskArchiveIntervalMs() { return taskArchiveIntervalMs; }
+    public void setTaskArchiveIntervalMs(long taskArchiveIntervalMs) { this.taskArchiveIntervalMs = taskArchiveIntervalMs; }
+
+    public int getBoardExportFetchSize() { return boardExportFetchSize; }
+    public void setBoardExportFetchSize(int boardExportFetchSize) { this.boardExportFetchSize = boardExportFetchSize; }
+
+    public int getBoardImportBatchSize() { return boardImportBatchSize; }
+    public void setBoardImportBatchSize(int boardImportBatchSize) { this.boardImportBatchSize = boardImportBatchSize; }
+
+    public int getTaskImportMaxRows() { return taskImportMaxRows; }
+    public void setTaskImportMaxRows(int taskImportMaxRows) { this.taskImportMaxRows = taskImportMaxRows; }
+
+    public long getImportMaxBytes() { return importMaxBytes; }
+    public void setImportMaxBytes(long importMaxBytes) { this.importMaxBytes = importMaxBytes; }
+
     public String getUploadDir() { return uploadDir; }
     public void setUploadDir(String uploadDir) { this.uploadDir = uploadDir; }
 
+    public long getPatchMergeWindowMs() { return patchMergeWindowMs; }
+    public void setPatchMergeWindowMs(long patchMergeWindowMs) { this.patchMergeWindowMs = patchMergeWindowMs; }
+
+    public long getBlobGcIntervalMs() { return blobGcIntervalMs; }
+    public void setBlobGcIntervalMs(long blobGcIntervalMs) { this.blobGcIntervalMs = blobGcIntervalMs; }
+
+    public long getAttachmentQuotaBytes() { return attachmentQuotaBytes; }
+    public void setAttachmentQuotaBytes(long attachmentQuotaBytes) { this.attachmentQuotaBytes = attachmentQuotaBytes; }
+
+    public int getUploadMigrationBatchSize() { return uploadMigrationBatchSize; }
+    public void setUploadMigrationBatchSize(int uploadMigrationBatchSize) { this.uploadMigrationBatchSize = uploadMigrationBatchSize; }
+
+    public long getUploadMigrationIntervalMs() { return uploadMigrationIntervalMs; }
+    public void setUploadMigrationIntervalMs(long uploadMigrationIntervalMs) { this.uploadMigrationIntervalMs = uploadMigrationIntervalMs; }
+
+    public int getAttachmentOutboxBatchSize() { return attachmentOutboxBatchSize; }
+    public void setAttachmentOutboxBatchSize(int attachmentOutboxBatchSize) { this.attachmentOutboxBatchSize = attachmentOutboxBatchSize; }
+
+    public long getAttachmentOutboxIntervalMs() { return attachmentOutboxIntervalMs; }
+    public void setAttachmentOutboxIntervalMs(long attachmentOutboxIntervalMs) { this.attachmentOutboxIntervalMs = attachmentOutboxIntervalMs; }
+
+    public int getAttachmentOutboxMaxAttempts() { return attachmentOutboxMaxAttempts; }
+    public void setAttachmentOutboxMaxAttempts(int attachmentOutboxMaxAttempts) { this.attachmentOutboxMaxAttempts = attachmentOutboxMaxAttempts; }
+
+    public String getUploadGcCron() { return uploadGcCron; }
+    public void setUploadGcCron(String uploadGcCron) { this.uploadGcCron = uploadGcCron; }
+
+    public int getUploadGcBatchSize() { return uploadGcBatchSize; }
+    public void setUploadGcBatchSize(int uploadGcBatchSize) { this.uploadGcBatchSize = uploadGcBatchSize; }
+
+    public int getUploadGcParallelism() { return uploadGcParallelism; }
+    public void setUploadGcParallelism(int uploadGcParallelism) { this.uploadGcParallelism = uploadGcParallelism; }
+
+    public long getUploadGcGraceMs() { return uploadGcGraceMs; }
+    public void setUploadGcGraceMs(long uploadGcGraceMs) { this.uploadGcGraceMs = uploadGcGraceMs; }
+
+    public long getUploadGcQuarantineMs() { return uploadGcQuarantineMs; }
+    public void setUploadGcQuarantineMs(long uploadGcQuarantineMs) { this.uploadGcQuarantineMs = uploadGcQuarantineMs; }
+
+    public long getAttachmentMaxBytes() { return attachmentMaxBytes; }
+    public void setAttachmentMaxBytes(long attachmentMaxBytes) { this.attachmentMaxBytes = attachmentMaxBytes; }
+
+    public long getUploadChunkMaxBytes() { return uploadChunkMaxBytes; }
+    public void setUploadChunkMaxBytes(long uploadChunkMaxBytes) { this.uploadChunkMaxBytes = uploadChunkMaxBytes; }
+
+    public long getUploadSessionTtlMs() { return uploadSessionTtlMs; }
+    public void setUploadSessionTtlMs(long uploadSessionTtlMs) { this.uploadSessionTtlMs = uploadSessionTtlMs; }
+
+    public int getThumbnailSize() { return thumbnailSize; }
+    public void setThumbnailSize(int thumbnailSize) { this.thumbnailSize = thumbnailSize; }
+
+    public int getThumbnailThreads() { return thumbnailThreads; }
+    public void setThumbnailThreads(int thumbnailThreads) { this.thumbnailThreads = thumbnailThreads; }
+
+    public int getThumbnailQueueCapacity() { return thumbnailQueueCapacity; }
+    public void setThumbnailQueueCapacity(int thumbnailQueueCapacity) { this.thumbnailQueueCapacity = thumbnailQueueCapacity; }
+
     public String getCorsAllowedOrigins() { return corsAllowedOrigins; }
     public void setCorsAllowedOrigins(String corsAllowedOrigins) { this.corsAllowedOrigins = corsAllowedOrigins; }
 
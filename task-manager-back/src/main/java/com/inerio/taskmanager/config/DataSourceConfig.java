@@ -0,0 +1,66 @@
+package com.inerio.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Separate connection pools on the same database, so that heavy work cannot starve the UI.
+ * <p>
+ * The interactive pool ({@code HikariPoolTaskManager}, configured by
+ * {@code spring.datasource.hikari.*}) serves requests. The bulk pool
+ * ({@code HikariPoolTaskManagerBulk}, at most {@code app.bulk-pool-size} connections) serves bulk
+ * operations and cluster-wide jobs: once it is exhausted they wait on each other, while drag and
+ * drop keeps its own connections. The application sees a single {@link PoolRoutingDataSource}.
+ * </p>
+ * <p>
+ * A third, small pool ({@code HikariPoolTaskManagerJobLocks}, at most
+ * {@code app.job-lock-pool-size} connections) only holds the advisory locks of
+ * {@link com.inerio.taskmanager.service.JobCoordinator}: a lock connection stays checked out for the
+ * whole run of its job, and must not take a bulk connection away from the job itself.
+ * </p>
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource interactiveDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public HikariDataSource bulkDataSource(DataSourceProperties properties, AppProperties props) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("HikariPoolTaskManagerBulk");
+        pool.setMaximumPoolSize(props.getBulkPoolSize());
+        pool.setMinimumIdle(0);
+        pool.setInitializationFailTimeout(-1);
+        // Tells bulk sessions apart in pg_stat_activity.
+        pool.addDataSourceProperty("ApplicationName", "task-manager-bulk");
+        return pool;
+    }
+
+    @Bean
+    public HikariDataSource jobLockDataSource(DataSourceProperties properties, AppProperties props) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("HikariPoolTaskManagerJobLocks");
+        pool.setMaximumPoolSize(props.getJobLockPoolSize());
+        pool.setMinimumIdle(0);
+        pool.setInitializationFailTimeout(-1);
+        pool.addDataSourceProperty("ApplicationName", "task-manager-job-locks");
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("interactiveDataSource") DataSource interactive,
+                                 @Qualifier("bulkDataSource") DataSource bulk) {
+        return new PoolRoutingDataSource(interactive, bulk);
+    }
+}
@@ -0,0 +1,67 @@
+package com.inerio.taskmanager.config;
+
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Data source handing out connections from the interactive pool, or from the bulk pool for work
+ * wrapped in {@link #onBulkPool}.
+ * <p>
+ * The choice is made per thread when a connection is acquired, i.e. when a transaction begins:
+ * a transaction opened inside {@link #onBulkPool} keeps its bulk connection to the end. Threads
+ * started by such work only follow it if they come from an {@link #inheritPool} factory.
+ * </p>
+ */
+public class PoolRoutingDataSource extends AbstractRoutingDataSource {
+
+    /** Pools a connection can come from. */
+    public enum Pool { INTERACTIVE, BULK }
+
+    private static final ThreadLocal<Pool> CURRENT = new ThreadLocal<>();
+
+    public PoolRoutingDataSource(DataSource interactive, DataSource bulk) {
+        setTargetDataSources(Map.of(Pool.INTERACTIVE, interactive, Pool.BULK, bulk));
+        setDefaultTargetDataSource(interactive);
+    }
+
+    /**
+     * Runs work whose connections come from the bulk pool.
+     *
+     * @param work the work
+     * @return its result
+     */
+    public static <T> T onBulkPool(Supplier<T> work) {
+        Pool previous = CURRENT.get();
+        CURRENT.set(Pool.BULK);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Wraps a factory of one-task threads so that they use the pool of the calling thread.
+     *
+     * @param factory thread factory, e.g. of virtual threads
+     * @return the wrapped factory
+     */
+    public static ThreadFactory inheritPool(ThreadFactory factory) {
+        Pool pool = CURRENT.get();
+        if (pool == null) return factory;
+        return r -> factory.newThread(() -> {
+            CURRENT.set(pool);
+            r.run();
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Pool pool = CURRENT.get();
+        return pool != null ? pool : Pool.INTERACTIVE;
+    }
+}
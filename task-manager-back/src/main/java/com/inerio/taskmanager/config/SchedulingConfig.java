@@ -3,7 +3,10 @@ package com.inerio.taskmanager.config;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-/** Enable @Scheduled tasks (used for SSE heartbeats). */
+/**
+ * Enable @Scheduled tasks. Per-node jobs (e.g. SSE heartbeats) run on every node; cluster-wide
+ * jobs go through {@link com.inerio.taskmanager.service.JobCoordinator} to run on one node at a time.
+ */
 @Configuration
 @EnableScheduling
 public class SchedulingConfig { }
@@ -4,6 +4,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
 import java.io.IOException;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
@@ -12,10 +13,14 @@ import org.springframework.web.filter.OncePerRequestFilter;
 /**
  * Adds basic security headers to all HTTP responses.
  * Note: CSP is typically applied on the frontend (static hosting). Here we set only API-safe headers.
+ * {@code Cache-Control: no-store} is a default: a handler that sets its own Cache-Control
+ * (e.g. attachment downloads) replaces it instead of adding a second, conflicting value.
  */
 @Component
 public class SecurityHeadersFilter extends OncePerRequestFilter {
 
+    private static final String CACHE_CONTROL = "Cache-Control";
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
@@ -28,7 +33,16 @@ public class SecurityHeadersFilter extends OncePerRequestFilter {
         response.setHeader("Strict-Transport-Security", "max-age=31536000; includeSubDomains");
         response.setHeader("Permissions-Policy",
                 "camera=(), microphone=(), geolocation=(), payment=()");
-        response.setHeader("Cache-Control", "no-store");
-        filterChain.doFilter(request, response);
+        response.setHeader(CACHE_CONTROL, "no-store");
+        filterChain.doFilter(request, new HttpServletResponseWrapper(response) {
+            @Override
+            public void addHeader(String name, String value) {
+                if (CACHE_CONTROL.equalsIgnoreCase(name)) {
+                    super.setHeader(name, value);
+                } else {
+                    super.addHeader(name, value);
+                }
+            }
+        });
     }
 }
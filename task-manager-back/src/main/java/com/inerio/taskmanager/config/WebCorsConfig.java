@@ -28,7 +28,8 @@ public class WebCorsConfig {
                 registry.addMapping("/**")
                         .allowedOrigins(cors.getAllowedOrigins().toArray(String[]::new))
                         .allowedMethods(cors.getAllowedMethods().toArray(String[]::new))
-                        .allowedHeaders(cors.getAllowedHeaders().toArray(String[]::new));
+                        .allowedHeaders(cors.getAllowedHeaders().toArray(String[]::new))
+                        .exposedHeaders("X-Total-Count");
             }
         };
     }
@@ -0,0 +1,118 @@
+package com.inerio.taskmanager.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Serves file-backed {@link Resource} bodies (attachment downloads) without copying them through
+ * the JVM heap.
+ * <p>
+ * Spring MVC already handles {@code Range} (206 via {@link ResourceRegion}), {@code Accept-Ranges}
+ * and conditional requests (304) for {@code ResponseEntity<Resource>}; this configuration swaps the
+ * two converters that write the bytes. When the servlet container advertises sendfile support
+ * (Tomcat NIO over plain HTTP), the file and range are handed to Tomcat, which streams them with
+ * {@code sendfile(2)} after the handler returns. Otherwise the bytes are pushed with
+ * {@link FileChannel#transferTo}. Multipart (multi-range) responses keep Spring's default path.
+ * </p>
+ */
+@Configuration
+public class ZeroCopyResourceConfig implements WebMvcConfigurer {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Override
+    public void extendMessageConverters(@NonNull List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            Class<?> type = converters.get(i).getClass();
+            if (type == ResourceHttpMessageConverter.class) {
+                converters.set(i, new ZeroCopyResourceHttpMessageConverter());
+            } else if (type == ResourceRegionHttpMessageConverter.class) {
+                converters.set(i, new ZeroCopyResourceRegionHttpMessageConverter());
+            }
+        }
+    }
+
+    /**
+     * Writes {@code count} bytes of {@code file} starting at {@code position}, through sendfile
+     * when the container supports it, otherwise through {@link FileChannel#transferTo}.
+     */
+    static void transfer(Path file, long position, long count, HttpOutputMessage outputMessage) throws IOException {
+        HttpServletRequest request = currentRequest();
+        if (request != null
+                && !"HEAD".equals(request.getMethod())
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, position);
+            request.setAttribute(SENDFILE_END, position + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputMessage.getBody());
+            long sent = 0;
+            while (sent < count) {
+                long n = channel.transferTo(position + sent, count - sent, target);
+                if (n <= 0) break;
+                sent += n;
+            }
+        }
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs
+                ? attrs.getRequest()
+                : null;
+    }
+
+    /** Full-body writes of file resources. */
+    static class ZeroCopyResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+
+        @Override
+        protected void writeContent(@NonNull Resource resource, @NonNull HttpOutputMessage outputMessage) throws IOException {
+            if (!resource.isFile()) {
+                super.writeContent(resource, outputMessage);
+                return;
+            }
+            transfer(resource.getFile().toPath(), 0, resource.contentLength(), outputMessage);
+        }
+    }
+
+    /** Single-range (206) writes of file resources. */
+    static class ZeroCopyResourceRegionHttpMessageConverter extends ResourceRegionHttpMessageConverter {
+
+        @Override
+        protected void writeResourceRegion(@NonNull ResourceRegion region, @NonNull HttpOutputMessage outputMessage) throws IOException {
+            Resource resource = region.getResource();
+            if (!resource.isFile()) {
+                super.writeResourceRegion(region, outputMessage);
+                return;
+            }
+            long start = region.getPosition();
+            long end = start + region.getCount() - 1;
+            HttpHeaders headers = outputMessage.getHeaders();
+            headers.add(HttpHeaders.CONTENT_RANGE, "bytes " + start + '-' + end + '/' + resource.contentLength());
+            headers.setContentLength(region.getCount());
+            transfer(resource.getFile().toPath(), start, region.getCount(), outputMessage);
+        }
+    }
+}
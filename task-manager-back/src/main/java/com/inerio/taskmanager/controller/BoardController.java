@@ -1,13 +1,24 @@
 package com.inerio.taskmanager.controller;
 
+import com.inerio.taskmanager.dto.BoardCopyDto;
 import com.inerio.taskmanager.dto.BoardDto;
+import com.inerio.taskmanager.dto.BoardImportResultDto;
 import com.inerio.taskmanager.dto.BoardMapperDto;
 import com.inerio.taskmanager.dto.BoardReorderDto;
 import com.inerio.taskmanager.model.Board;
+import com.inerio.taskmanager.service.AttachmentArchiveService;
 import com.inerio.taskmanager.service.BoardService;
+import com.inerio.taskmanager.service.BoardTransferService;
+import com.inerio.taskmanager.service.Bulkhead;
+import com.inerio.taskmanager.service.ReadCoalescer;
 import com.inerio.taskmanager.service.UserAccountService;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,6 +29,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller exposing CRUD and ordering endpoints for Kanban boards.
@@ -29,21 +41,37 @@ public class BoardController {
 
     private final BoardService boardService;
     private final UserAccountService userAccountService;
+    private final ReadCoalescer reads;
+    private final AttachmentArchiveService archives;
+    private final Bulkhead bulkhead;
+    private final BoardTransferService transfers;
 
-    public BoardController(BoardService boardService, UserAccountService userAccountService) {
+    public BoardController(BoardService boardService, UserAccountService userAccountService, ReadCoalescer reads,
+                           AttachmentArchiveService archives, Bulkhead bulkhead, BoardTransferService transfers) {
         this.boardService = boardService;
         this.userAccountService = userAccountService;
+        this.reads = reads;
+        this.archives = archives;
+        this.bulkhead = bulkhead;
+        this.transfers = transfers;
     }
 
     @GetMapping
     public ResponseEntity<List<BoardDto>> getAllBoards(@RequestHeader("X-Client-Id") String uid) {
         userAccountService.touch(uid);
-        List<Board> boards = boardService.getAllBoards(uid);
-        if (boards.isEmpty()) return ResponseEntity.noContent().build();
-        List<BoardDto> boardDtos = boards.stream().map(BoardMapperDto::toDto).toList();
+        List<BoardDto> boardDtos = reads.load(uid, "boards", null,
+                () -> boardService.getAllBoards(uid).stream().map(BoardMapperDto::toDto).toList());
+        if (boardDtos.isEmpty()) return ResponseEntity.noContent().build();
         return ResponseEntity.ok(boardDtos);
     }
 
+    /** Lists the caller's named templates, which the board list leaves out. */
+    @GetMapping("/templates")
+    public ResponseEntity<List<BoardDto>> getTemplates(@RequestHeader("X-Client-Id") String uid) {
+        userAccountService.touch(uid);
+        return ResponseEntity.ok(boardService.getTemplates(uid).stream().map(BoardMapperDto::toDto).toList());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BoardDto> getBoardById(@RequestHeader("X-Client-Id") String uid, @PathVariable Long id) {
         userAccountService.touch(uid);
@@ -53,6 +81,45 @@ public class BoardController {
             .orElse(ResponseEntity.notFound().build());
     }
 
+    /** Downloads the attachments of every task of the board as a ZIP archive, one folder per task. */
+    @GetMapping("/{id}/attachments.zip")
+    public ResponseEntity<StreamingResponseBody> downloadAttachmentsZip(@RequestHeader("X-Client-Id") String uid,
+                                                                        @PathVariable Long id) {
+        userAccountService.touch(uid);
+        if (!boardService.ownsBoard(uid, id)) return ResponseEntity.notFound().build();
+        List<AttachmentArchiveService.Entry> entries = archives.boardEntries(id);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"board-" + id + "-attachments.zip\"")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(out -> archives.write(entries, out));
+    }
+
+    /**
+     * Streams a backup of the board (columns and tasks, not attachment content) as JSON.
+     * {@code X-Total-Count} carries the number of tasks, so clients can show the progress of the
+     * download.
+     */
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportBoard(@RequestHeader("X-Client-Id") String uid,
+                                                             @PathVariable Long id) {
+        userAccountService.touch(uid);
+        if (!boardService.ownsBoard(uid, id)) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"board-" + id + ".json\"")
+                .header("X-Total-Count", String.valueOf(transfers.countTasks(id)))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> transfers.export(id, out));
+    }
+
+    /** Creates a board from a backup written by {@code GET /{id}/export}, read as a stream. */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BoardImportResultDto> importBoard(@RequestHeader("X-Client-Id") String uid,
+                                                            InputStream body) throws IOException {
+        userAccountService.touch(uid);
+        BoardImportResultDto result = transfers.importBoard(uid, body);
+        return ResponseEntity.created(URI.create("/api/v1/boards/" + result.boardId())).body(result);
+    }
+
     @PostMapping
     public ResponseEntity<BoardDto> createBoard(@RequestHeader("X-Client-Id") String uid, @RequestBody Board board) {
         userAccountService.touch(uid);
@@ -61,6 +128,34 @@ public class BoardController {
         return ResponseEntity.created(URI.create("/api/v1/boards/" + created.getId())).body(dto);
     }
 
+    /**
+     * Copies a board, or creates a board from a template, with its columns, tasks and attachments.
+     * Runs in the bulk bulkhead: a large board is copied without holding an interactive connection.
+     */
+    @PostMapping("/{id}/clone")
+    public CompletableFuture<ResponseEntity<BoardDto>> cloneBoard(@RequestHeader("X-Client-Id") String uid,
+                                                                  @PathVariable Long id,
+                                                                  @RequestBody(required = false) BoardCopyDto body) {
+        userAccountService.touch(uid);
+        String name = body == null ? null : body.name();
+        return bulkhead.bulk(() -> copied(uid, boardService.cloneBoard(uid, id, name, false)));
+    }
+
+    /** Saves a copy of a board as a named template. */
+    @PostMapping("/{id}/template")
+    public CompletableFuture<ResponseEntity<BoardDto>> saveAsTemplate(@RequestHeader("X-Client-Id") String uid,
+                                                                      @PathVariable Long id,
+                                                                      @RequestBody(required = false) BoardCopyDto body) {
+        userAccountService.touch(uid);
+        String name = body == null ? null : body.name();
+        return bulkhead.bulk(() -> copied(uid, boardService.cloneBoard(uid, id, name, true)));
+    }
+
+    private ResponseEntity<BoardDto> copied(String uid, Long id) {
+        BoardDto dto = boardService.getBoardById(uid, id).map(BoardMapperDto::toDto).orElseThrow();
+        return ResponseEntity.created(URI.create("/api/v1/boards/" + id)).body(dto);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<BoardDto> updateBoard(@RequestHeader("X-Client-Id") String uid,
                                                 @PathVariable Long id,
@@ -74,12 +169,21 @@ public class BoardController {
         }
     }
 
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<Void> restoreBoard(@RequestHeader("X-Client-Id") String uid, @PathVariable Long id) {
+        userAccountService.touch(uid);
+        boardService.restoreBoard(uid, id);
+        return ResponseEntity.noContent().build();
+    }
+
     @PutMapping("/reorder")
     public ResponseEntity<Void> reorderBoards(@RequestHeader("X-Client-Id") String uid,
                                               @RequestBody List<BoardReorderDto> items) {
-        userAccountService.touch(uid);
-        boardService.reorderBoards(uid, items);
-        return ResponseEntity.noContent().build();
+        return bulkhead.interactive(() -> {
+            userAccountService.touch(uid);
+            boardService.reorderBoards(uid, items);
+            return ResponseEntity.noContent().build();
+        });
     }
 
     @DeleteMapping("/{id}")
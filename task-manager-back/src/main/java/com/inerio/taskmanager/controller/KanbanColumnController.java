@@ -1,13 +1,18 @@
 package com.inerio.taskmanager.controller;
 
+import com.inerio.taskmanager.dto.ColumnTasksResultDto;
 import com.inerio.taskmanager.dto.KanbanColumnDto;
 import com.inerio.taskmanager.dto.KanbanColumnMoveDto;
 import com.inerio.taskmanager.model.KanbanColumn;
 import com.inerio.taskmanager.service.BoardService;
+import com.inerio.taskmanager.service.Bulkhead;
 import com.inerio.taskmanager.service.KanbanColumnService;
+import com.inerio.taskmanager.service.ReadCoalescer;
+import com.inerio.taskmanager.service.TaskService;
 import com.inerio.taskmanager.service.UserAccountService;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,11 +22,14 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
  * REST controller exposing CRUD and reordering endpoints for Kanban columns.
  * All operations are scoped to the caller via the {@code X-Client-Id} header.
+ * Bulk actions on the tasks of a column (complete all, delete or move the completed ones) go
+ * through the bulk {@link Bulkhead}.
  */
 @RestController
 @RequestMapping("/api/v1/boards/{boardId}/kanbanColumns")
@@ -30,13 +38,22 @@ public class KanbanColumnController {
     private final KanbanColumnService kanbanColumnService;
     private final BoardService boardService;
     private final UserAccountService userAccountService;
+    private final ReadCoalescer reads;
+    private final Bulkhead bulkhead;
+    private final TaskService taskService;
 
     public KanbanColumnController(KanbanColumnService kanbanColumnService,
                                   BoardService boardService,
-                                  UserAccountService userAccountService) {
+                                  UserAccountService userAccountService,
+                                  ReadCoalescer reads,
+                                  Bulkhead bulkhead,
+                                  TaskService taskService) {
         this.kanbanColumnService = kanbanColumnService;
         this.boardService = boardService;
         this.userAccountService = userAccountService;
+        this.reads = reads;
+        this.bulkhead = bulkhead;
+        this.taskService = taskService;
     }
 
     @GetMapping
@@ -44,7 +61,8 @@ public class KanbanColumnController {
                                                                      @PathVariable Long boardId) {
         userAccountService.touch(uid);
         if (!boardService.ownsBoard(uid, boardId)) return ResponseEntity.notFound().build();
-        List<KanbanColumnDto> dtos = kanbanColumnService.getAllKanbanColumnDtos(boardId);
+        List<KanbanColumnDto> dtos = reads.load(uid, "kanbanColumns", boardId,
+                () -> kanbanColumnService.getAllKanbanColumnDtos(boardId));
         return ResponseEntity.ok(dtos);
     }
 
@@ -94,13 +112,56 @@ public class KanbanColumnController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<Void> restoreKanbanColumn(@RequestHeader("X-Client-Id") String uid,
+                                                    @PathVariable Long boardId,
+                                                    @PathVariable Long id) {
+        userAccountService.touch(uid);
+        if (!boardService.ownsBoard(uid, boardId)) return ResponseEntity.notFound().build();
+        kanbanColumnService.restoreKanbanColumn(uid, id);
+        return ResponseEntity.noContent().build();
+    }
+
     @PutMapping("/move")
     public ResponseEntity<?> moveKanbanColumn(@RequestHeader("X-Client-Id") String uid,
                                               @PathVariable Long boardId,
                                               @RequestBody @Valid KanbanColumnMoveDto moveDto) {
+        return bulkhead.interactive(() -> {
+            userAccountService.touch(uid);
+            if (!boardService.ownsBoard(uid, boardId)) return ResponseEntity.notFound().build();
+            kanbanColumnService.moveKanbanColumn(moveDto.getKanbanColumnId(), moveDto.getTargetPosition());
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    @PostMapping("/{id}/tasks/complete")
+    public CompletableFuture<ResponseEntity<ColumnTasksResultDto>> completeAllTasks(@RequestHeader("X-Client-Id") String uid,
+                                                                                    @PathVariable Long boardId,
+                                                                                    @PathVariable Long id) {
         userAccountService.touch(uid);
-        if (!boardService.ownsBoard(uid, boardId)) return ResponseEntity.notFound().build();
-        kanbanColumnService.moveKanbanColumn(moveDto.getKanbanColumnId(), moveDto.getTargetPosition());
-        return ResponseEntity.ok().build();
+        if (!boardService.ownsBoard(uid, boardId)) return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        return bulkhead.bulk(() -> ResponseEntity.ok(
+                new ColumnTasksResultDto(taskService.completeAllOfColumn(boardId, id))));
+    }
+
+    @DeleteMapping("/{id}/tasks/completed")
+    public CompletableFuture<ResponseEntity<ColumnTasksResultDto>> deleteCompletedTasks(@RequestHeader("X-Client-Id") String uid,
+                                                                                        @PathVariable Long boardId,
+                                                                                        @PathVariable Long id) {
+        userAccountService.touch(uid);
+        if (!boardService.ownsBoard(uid, boardId)) return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        return bulkhead.bulk(() -> ResponseEntity.ok(
+                new ColumnTasksResultDto(taskService.deleteCompletedOfColumn(boardId, id))));
+    }
+
+    @PostMapping("/{id}/tasks/completed/move")
+    public CompletableFuture<ResponseEntity<ColumnTasksResultDto>> moveCompletedTasks(@RequestHeader("X-Client-Id") String uid,
+                                                                                      @PathVariable Long boardId,
+                                                                                      @PathVariable Long id,
+                                                                                      @RequestParam Long targetColumnId) {
+        userAccountService.touch(uid);
+        if (!boardService.ownsBoard(uid, boardId)) return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        return bulkhead.bulk(() -> ResponseEntity.ok(
+                new ColumnTasksResultDto(taskService.moveCompletedOfColumn(boardId, id, targetColumnId))));
     }
 }
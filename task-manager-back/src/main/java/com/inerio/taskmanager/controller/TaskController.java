@@ -1,22 +1,45 @@
 package com.inerio.taskmanager.controller;
 
+import com.inerio.taskmanager.dto.ArchivedTaskPageDto;
+import com.inerio.taskmanager.dto.AttachmentUploadDto;
+import com.inerio.taskmanager.dto.AttachmentUploadInitDto;
+import com.inerio.taskmanager.dto.TaskBatchDto;
+import com.inerio.taskmanager.dto.TaskBatchResultDto;
 import com.inerio.taskmanager.dto.TaskDto;
+import com.inerio.taskmanager.dto.TaskImportResultDto;
 import com.inerio.taskmanager.dto.TaskMapperDto;
 import com.inerio.taskmanager.dto.TaskMoveDto;
+import com.inerio.taskmanager.dto.TaskPatchDto;
 import com.inerio.taskmanager.dto.TaskReorderDto;
+import com.inerio.taskmanager.dto.TaskSummaryDto;
 import com.inerio.taskmanager.model.KanbanColumn;
+import com.inerio.taskmanager.service.AttachmentArchiveService;
 import com.inerio.taskmanager.service.BoardService;
+import com.inerio.taskmanager.service.Bulkhead;
+import com.inerio.taskmanager.service.ChunkedUploadService;
 import com.inerio.taskmanager.service.KanbanColumnService;
+import com.inerio.taskmanager.service.ReadCoalescer;
+import com.inerio.taskmanager.service.TaskArchiveService;
+import com.inerio.taskmanager.service.TaskBatchService;
+import com.inerio.taskmanager.service.TaskImportService;
+import com.inerio.taskmanager.service.TaskPatchCoalescer;
 import com.inerio.taskmanager.service.TaskService;
 import com.inerio.taskmanager.service.UserAccountService;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -26,10 +49,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller exposing CRUD, reordering, and attachment endpoints for tasks.
  * All operations are scoped to the caller via the {@code X-Client-Id} header.
+ * Moves and reorders go through the interactive {@link Bulkhead}, mass deletions through the bulk one.
  */
 @RestController
 @RequestMapping("/api/v1/tasks")
@@ -39,59 +64,139 @@ public class TaskController {
     private final KanbanColumnService kanbanColumnService;
     private final UserAccountService userAccountService;
     private final BoardService boardService;
+    private final ReadCoalescer reads;
+    private final TaskPatchCoalescer patches;
+    private final TaskBatchService batches;
+    private final ChunkedUploadService chunkedUploads;
+    private final AttachmentArchiveService archives;
+    private final Bulkhead bulkhead;
+    private final TaskArchiveService archive;
+    private final TaskImportService imports;
 
     public TaskController(TaskService taskService,
                           KanbanColumnService kanbanColumnService,
                           UserAccountService userAccountService,
-                          BoardService boardService) {
+                          BoardService boardService,
+                          ReadCoalescer reads,
+                          TaskPatchCoalescer patches,
+                          TaskBatchService batches,
+                          ChunkedUploadService chunkedUploads,
+                          AttachmentArchiveService archives,
+                          Bulkhead bulkhead,
+                          TaskArchiveService archive,
+                          TaskImportService imports) {
         this.taskService = taskService;
         this.kanbanColumnService = kanbanColumnService;
         this.userAccountService = userAccountService;
         this.boardService = boardService;
+        this.reads = reads;
+        this.patches = patches;
+        this.batches = batches;
+        this.chunkedUploads = chunkedUploads;
+        this.archives = archives;
+        this.bulkhead = bulkhead;
+        this.archive = archive;
+        this.imports = imports;
     }
 
     @PutMapping("/reorder")
     public ResponseEntity<Void> reorderTasks(@RequestHeader("X-Client-Id") String uid,
                                              @RequestBody @Valid List<TaskReorderDto> reorderedTasks) {
-        userAccountService.touch(uid);
-        taskService.reorderTasks(reorderedTasks);
-        return ResponseEntity.ok().build();
+        return bulkhead.interactive(() -> {
+            userAccountService.touch(uid);
+            taskService.reorderTasks(reorderedTasks);
+            return ResponseEntity.ok().build();
+        });
     }
 
     @PostMapping("/move")
     public ResponseEntity<?> moveTask(@RequestHeader("X-Client-Id") String uid,
                                       @RequestBody @Valid TaskMoveDto moveRequest) {
+        return bulkhead.interactive(() -> {
+            userAccountService.touch(uid);
+            if (!taskService.ownsTask(uid, moveRequest.getTaskId())
+                || !taskService.ownsColumn(uid, moveRequest.getTargetKanbanColumnId())) {
+                return ResponseEntity.notFound().build();
+            }
+            taskService.moveTask(
+                moveRequest.getTaskId(),
+                moveRequest.getTargetKanbanColumnId(),
+                moveRequest.getTargetPosition()
+            );
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    /**
+     * Applies an ordered list of create/update/move/delete operations in one transaction.
+     * Either every operation is applied or none is; a task or column that is not owned yields 404.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskBatchResultDto>> batch(@RequestHeader("X-Client-Id") String uid,
+                                                          @RequestBody @Valid TaskBatchDto batch) {
         userAccountService.touch(uid);
-        if (!taskService.ownsTask(uid, moveRequest.getTaskId())
-            || !taskService.ownsColumn(uid, moveRequest.getTargetKanbanColumnId())) {
-            return ResponseEntity.notFound().build();
-        }
-        taskService.moveTask(
-            moveRequest.getTaskId(),
-            moveRequest.getTargetKanbanColumnId(),
-            moveRequest.getTargetPosition()
-        );
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(batches.apply(uid, batch.getOperations()));
     }
 
-    /** Return all tasks for this UID (used by the front on refresh). */
+    /**
+     * Return all tasks for this UID (used by the front on refresh).
+     * {@code view=summary} or {@code fields=a,b} return trimmed {@link TaskSummaryDto} rows instead.
+     */
     @GetMapping
-    public ResponseEntity<List<TaskDto>> getAllTasks(@RequestHeader("X-Client-Id") String uid) {
+    public ResponseEntity<List<?>> getAllTasks(@RequestHeader("X-Client-Id") String uid,
+                                               @RequestParam(required = false) String view,
+                                               @RequestParam(required = false) String fields) {
         userAccountService.touch(uid);
-        List<TaskDto> tasks = taskService.getAllTasksForOwner(uid).stream()
-                .map(TaskMapperDto::toDto)
-                .toList();
+        Set<String> requested = requestedFields(fields);
+        boolean summary = isSummary(view, requested);
+        List<?> tasks = reads.load(uid, "tasks", variant(summary, requested), () -> summary
+                ? retain(taskService.getTaskSummariesForOwner(uid, withAttachmentCount(requested)), requested)
+                : taskService.getAllTasksForOwner(uid).stream().map(TaskMapperDto::toDto).toList());
         if (tasks.isEmpty()) return ResponseEntity.noContent().build();
         return ResponseEntity.ok(tasks);
     }
 
+    /**
+     * Archived (completed long ago) tasks of the caller, optionally of one board, most recently
+     * completed first.
+     */
+    @GetMapping("/archived")
+    public ResponseEntity<ArchivedTaskPageDto> getArchivedTasks(@RequestHeader("X-Client-Id") String uid,
+                                                                @RequestParam(required = false) Long boardId,
+                                                                @RequestParam(defaultValue = "0") int page,
+                                                                @RequestParam(defaultValue = "50") int size) {
+        userAccountService.touch(uid);
+        if (boardId != null && !boardService.ownsBoard(uid, boardId)) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(archive.findArchived(uid, boardId, page, size));
+    }
+
+    /**
+     * Imports tasks from a CSV file (header row, then one task per row) into the columns of a
+     * board, in one statement and with one {@code tasks.changed} event. All rows are imported or,
+     * if any is invalid, none: the response then lists the row errors.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<TaskImportResultDto> importTasks(@RequestHeader("X-Client-Id") String uid,
+                                                           @RequestParam Long boardId,
+                                                           InputStream body) throws IOException {
+        userAccountService.touch(uid);
+        if (!boardService.ownsBoard(uid, boardId)) return ResponseEntity.notFound().build();
+        TaskImportResultDto result = imports.importCsv(boardId, body);
+        return result.errors().isEmpty() ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+    }
+
     @GetMapping("/kanbanColumn/{kanbanColumnId}")
-    public ResponseEntity<List<TaskDto>> getTasksByListId(@RequestHeader("X-Client-Id") String uid,
-                                                          @PathVariable Long kanbanColumnId) {
+    public ResponseEntity<List<?>> getTasksByListId(@RequestHeader("X-Client-Id") String uid,
+                                                    @PathVariable Long kanbanColumnId,
+                                                    @RequestParam(required = false) String view,
+                                                    @RequestParam(required = false) String fields) {
         userAccountService.touch(uid);
         if (!taskService.ownsColumn(uid, kanbanColumnId)) return ResponseEntity.notFound().build();
-        List<TaskDto> tasks = taskService.getTasksByKanbanColumnId(kanbanColumnId)
-                .stream().map(TaskMapperDto::toDto).toList();
+        Set<String> requested = requestedFields(fields);
+        boolean summary = isSummary(view, requested);
+        List<?> tasks = reads.load(uid, "tasks/kanbanColumn", List.of(kanbanColumnId, variant(summary, requested)), () -> summary
+                ? retain(taskService.getTaskSummariesByKanbanColumnId(kanbanColumnId, withAttachmentCount(requested)), requested)
+                : taskService.getTasksByKanbanColumnId(kanbanColumnId).stream().map(TaskMapperDto::toDto).toList());
         if (tasks.isEmpty()) return ResponseEntity.noContent().build();
         return ResponseEntity.ok(tasks);
     }
@@ -121,6 +226,21 @@ public class TaskController {
         return ResponseEntity.ok(saved);
     }
 
+    /**
+     * Partial update: only the properties present in the body are written.
+     * Rapid successive patches of the same task are merged into one write; the response
+     * is sent once the write containing this patch has been applied, with this patch's own outcome.
+     */
+    @PatchMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Void>> patchTask(@RequestHeader("X-Client-Id") String uid,
+                                                             @PathVariable Long id,
+                                                             @RequestBody @Valid TaskPatchDto patch) {
+        userAccountService.touch(uid);
+        if (!taskService.ownsTask(uid, id)) return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        if (patch.isEmpty()) return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        return patches.submit(id, patch).thenApply(v -> ResponseEntity.noContent().build());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TaskDto> getTaskById(@RequestHeader("X-Client-Id") String uid, @PathVariable Long id) {
         userAccountService.touch(uid);
@@ -137,29 +257,42 @@ public class TaskController {
         return ResponseEntity.noContent().build();
     }
 
-    @DeleteMapping("/kanbanColumn/{kanbanColumnId}")
-    public ResponseEntity<Void> deleteTasksByKanbanColumnId(@RequestHeader("X-Client-Id") String uid,
-                                                            @PathVariable Long kanbanColumnId) {
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<Void> restoreTask(@RequestHeader("X-Client-Id") String uid, @PathVariable Long id) {
         userAccountService.touch(uid);
-        if (!taskService.ownsColumn(uid, kanbanColumnId)) return ResponseEntity.notFound().build();
-        taskService.deleteTasksByKanbanColumnId(kanbanColumnId);
+        taskService.restoreTask(uid, id);
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping("/kanbanColumn/{kanbanColumnId}")
+    public CompletableFuture<ResponseEntity<Void>> deleteTasksByKanbanColumnId(@RequestHeader("X-Client-Id") String uid,
+                                                                               @PathVariable Long kanbanColumnId) {
+        userAccountService.touch(uid);
+        if (!taskService.ownsColumn(uid, kanbanColumnId)) return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        return bulkhead.bulk(() -> {
+            taskService.deleteTasksByKanbanColumnId(kanbanColumnId);
+            return ResponseEntity.noContent().build();
+        });
+    }
+
     @DeleteMapping("/board/{boardId}")
-    public ResponseEntity<Void> deleteTasksByBoardId(@RequestHeader("X-Client-Id") String uid,
-                                                     @PathVariable Long boardId) {
+    public CompletableFuture<ResponseEntity<Void>> deleteTasksByBoardId(@RequestHeader("X-Client-Id") String uid,
+                                                                        @PathVariable Long boardId) {
         userAccountService.touch(uid);
-        if (!boardService.ownsBoard(uid, boardId)) return ResponseEntity.notFound().build();
-        taskService.deleteTasksByBoardId(boardId);
-        return ResponseEntity.noContent().build();
+        if (!boardService.ownsBoard(uid, boardId)) return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        return bulkhead.bulk(() -> {
+            taskService.deleteTasksByBoardId(boardId);
+            return ResponseEntity.noContent().build();
+        });
     }
 
     @DeleteMapping("/all")
-    public ResponseEntity<Void> deleteAllTasks(@RequestHeader("X-Client-Id") String uid) {
+    public CompletableFuture<ResponseEntity<Void>> deleteAllTasks(@RequestHeader("X-Client-Id") String uid) {
         userAccountService.touch(uid);
-        taskService.deleteAllTasksForOwner(uid);
-        return ResponseEntity.noContent().build();
+        return bulkhead.bulk(() -> {
+            taskService.deleteAllTasksForOwner(uid);
+            return ResponseEntity.noContent().build();
+        });
     }
 
     @PostMapping("/{id}/attachments")
@@ -172,13 +305,107 @@ public class TaskController {
         return ResponseEntity.ok(updatedTask);
     }
 
+    /**
+     * Opens a resumable chunked upload for attachments larger than a single request allows.
+     * The returned session carries the upload id and the offset of the next chunk.
+     */
+    @PostMapping("/{id}/attachments/uploads")
+    public ResponseEntity<AttachmentUploadDto> initChunkedUpload(@RequestHeader("X-Client-Id") String uid,
+                                                                 @PathVariable Long id,
+                                                                 @RequestBody AttachmentUploadInitDto request) {
+        userAccountService.touch(uid);
+        if (!taskService.ownsTask(uid, id)) return ResponseEntity.notFound().build();
+        AttachmentUploadDto upload = chunkedUploads.init(id, request);
+        return ResponseEntity.created(URI.create("/api/v1/tasks/" + id + "/attachments/uploads/" + upload.uploadId()))
+                .body(upload);
+    }
+
+    /** Returns the state of a chunked upload: a client resumes from its {@code offset}. */
+    @GetMapping("/{id}/attachments/uploads/{uploadId}")
+    public ResponseEntity<AttachmentUploadDto> getChunkedUpload(@RequestHeader("X-Client-Id") String uid,
+                                                                @PathVariable Long id,
+                                                                @PathVariable String uploadId) {
+        userAccountService.touch(uid);
+        if (!taskService.ownsTask(uid, id)) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(chunkedUploads.status(id, uploadId));
+    }
+
+    /**
+     * Appends a chunk (raw bytes) at {@code offset}, which must equal the current offset of the
+     * upload (409 otherwise).
+     */
+    @PutMapping(value = "/{id}/attachments/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<AttachmentUploadDto> putChunk(@RequestHeader("X-Client-Id") String uid,
+                                                        @PathVariable Long id,
+                                                        @PathVariable String uploadId,
+                                                        @RequestParam long offset,
+                                                        InputStream body) throws IOException {
+        userAccountService.touch(uid);
+        if (!taskService.ownsTask(uid, id)) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(chunkedUploads.writeChunk(id, uploadId, offset, body));
+    }
+
+    /** Publishes a fully received chunked upload as an attachment of the task. */
+    @PostMapping("/{id}/attachments/uploads/{uploadId}/complete")
+    public ResponseEntity<TaskDto> completeChunkedUpload(@RequestHeader("X-Client-Id") String uid,
+                                                         @PathVariable Long id,
+                                                         @PathVariable String uploadId) throws IOException {
+        userAccountService.touch(uid);
+        if (!taskService.ownsTask(uid, id)) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(TaskMapperDto.toDto(chunkedUploads.complete(id, uploadId)));
+    }
+
+    /** Abandons a chunked upload. */
+    @DeleteMapping("/{id}/attachments/uploads/{uploadId}")
+    public ResponseEntity<Void> abortChunkedUpload(@RequestHeader("X-Client-Id") String uid,
+                                                   @PathVariable Long id,
+                                                   @PathVariable String uploadId) {
+        userAccountService.touch(uid);
+        if (!taskService.ownsTask(uid, id)) return ResponseEntity.notFound().build();
+        chunkedUploads.abort(id, uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /** Downloads every attachment of the task as a ZIP archive streamed while it is built. */
+    @GetMapping("/{id}/attachments.zip")
+    public ResponseEntity<StreamingResponseBody> downloadAttachmentsZip(@RequestHeader("X-Client-Id") String uid,
+                                                                        @PathVariable Long id) {
+        userAccountService.touch(uid);
+        if (!taskService.ownsTask(uid, id)) return ResponseEntity.notFound().build();
+        List<AttachmentArchiveService.Entry> entries = archives.taskEntries(id);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"task-" + id + "-attachments.zip\"")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(out -> archives.write(entries, out));
+    }
+
+    /**
+     * Downloads an attachment. Supports {@code Range}, {@code If-None-Match} and {@code If-Modified-Since};
+     * {@code v} set to the attachment's {@code sha256} (as listed in its details) makes the response
+     * cacheable as immutable.
+     */
     @GetMapping("/{id}/attachments/{filename:.+}")
     public ResponseEntity<?> downloadAttachment(@RequestHeader("X-Client-Id") String uid,
                                                 @PathVariable Long id,
-                                                @PathVariable String filename) {
+                                                @PathVariable String filename,
+                                                @RequestParam(required = false) String v) {
+        userAccountService.touch(uid);
+        if (!taskService.ownsTask(uid, id)) return ResponseEntity.notFound().build();
+        return taskService.downloadAttachment(id, filename, v);
+    }
+
+    /**
+     * Downloads the downscaled preview of an image attachment. Serves the original until the
+     * thumbnail has been generated; same validators and {@code v} semantics as the download.
+     */
+    @GetMapping("/{id}/attachments/{filename:.+}/thumbnail")
+    public ResponseEntity<?> downloadThumbnail(@RequestHeader("X-Client-Id") String uid,
+                                               @PathVariable Long id,
+                                               @PathVariable String filename,
+                                               @RequestParam(required = false) String v) {
         userAccountService.touch(uid);
         if (!taskService.ownsTask(uid, id)) return ResponseEntity.notFound().build();
-        return taskService.downloadAttachment(id, filename);
+        return taskService.downloadThumbnail(id, filename, v);
     }
 
     @DeleteMapping("/{id}/attachments/{filename:.+}")
@@ -199,4 +426,33 @@ public class TaskController {
         TaskDto updatedTask = TaskMapperDto.toDto(taskService.deleteAllAttachments(id));
         return ResponseEntity.ok(updatedTask);
     }
+
+    /** Parses the sparse fieldset up front so unknown fields fail before any query runs. */
+    private static Set<String> requestedFields(String fields) {
+        return (fields == null || fields.isBlank()) ? null : TaskSummaryDto.parseFields(fields);
+    }
+
+    /** A sparse fieldset always implies the summary projection; otherwise {@code view} decides. */
+    private static boolean isSummary(String view, Set<String> requested) {
+        if (requested != null) return true;
+        if (view == null || view.isBlank() || "full".equalsIgnoreCase(view)) return false;
+        if ("summary".equalsIgnoreCase(view)) return true;
+        throw new IllegalArgumentException("Unknown view: " + view);
+    }
+
+    /** Coalescing key part distinguishing the full view, the summary view and each sparse fieldset. */
+    private static Object variant(boolean summary, Set<String> requested) {
+        if (requested != null) return requested;
+        return summary ? "summary" : "full";
+    }
+
+    /** The attachment count is the one summary field computed by a subquery: skip it unless it is returned. */
+    private static boolean withAttachmentCount(Set<String> requested) {
+        return requested == null || requested.contains("attachmentCount");
+    }
+
+    private static List<TaskSummaryDto> retain(List<TaskSummaryDto> summaries, Set<String> requested) {
+        if (requested == null) return List.copyOf(summaries);
+        return summaries.stream().map(s -> s.trimmed(requested)).toList();
+    }
 }
@@ -0,0 +1,29 @@
+package com.inerio.taskmanager.dto;
+
+import com.inerio.taskmanager.model.ArchivedTask;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of an archived task.
+ *
+ * @param id             identifier the task had while live
+ * @param title          task title
+ * @param description    task description
+ * @param kanbanColumnId ID of the column the task was in
+ * @param creationDate   creation timestamp
+ * @param dueDate        optional due date
+ * @param completedAt    when the task was completed
+ * @param archivedAt     when the task was archived
+ */
+public record ArchivedTaskDto(Long id, String title, String description, Long kanbanColumnId,
+                              LocalDateTime creationDate, LocalDate dueDate,
+                              Instant completedAt, Instant archivedAt) {
+
+    public static ArchivedTaskDto of(ArchivedTask task) {
+        return new ArchivedTaskDto(task.getId(), task.getTitle(), task.getDescription(),
+                task.getKanbanColumn().getId(), task.getCreationDate(), task.getDueDate(),
+                task.getCompletedAt(), task.getArchivedAt());
+    }
+}
@@ -0,0 +1,13 @@
+package com.inerio.taskmanager.dto;
+
+import java.util.List;
+
+/**
+ * One page of archived tasks, most recently completed first.
+ *
+ * @param items   tasks of the page
+ * @param page    zero-based page number
+ * @param size    requested page size
+ * @param hasNext whether a further page exists
+ */
+public record ArchivedTaskPageDto(List<ArchivedTaskDto> items, int page, int size, boolean hasNext) { }
@@ -0,0 +1,28 @@
+package com.inerio.taskmanager.dto;
+
+import java.time.Instant;
+
+import com.inerio.taskmanager.model.TaskAttachment;
+
+/**
+ * Metadata of a task attachment, as returned in {@link TaskDto#getAttachmentDetails()}.
+ *
+ * @param filename    sanitized filename (download path segment)
+ * @param size        content size in bytes
+ * @param contentType MIME type declared at upload
+ * @param sha256      SHA-256 checksum of the content (hex)
+ * @param uploadedAt  upload timestamp
+ */
+public record AttachmentDto(String filename, long size, String contentType, String sha256, Instant uploadedAt) {
+
+    /**
+     * Converts attachment metadata to its DTO.
+     *
+     * @param attachment the entity; must not be {@code null}
+     * @return the corresponding DTO
+     */
+    public static AttachmentDto of(TaskAttachment attachment) {
+        return new AttachmentDto(attachment.getFilename(), attachment.getSize(), attachment.getContentType(),
+                attachment.getBlobSha256(), attachment.getUploadedAt());
+    }
+}
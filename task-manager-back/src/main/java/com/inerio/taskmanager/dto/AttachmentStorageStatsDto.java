@@ -0,0 +1,16 @@
+package com.inerio.taskmanager.dto;
+
+/**
+ * Snapshot of the content-addressed attachment store.
+ *
+ * @param blobCount       number of distinct stored contents
+ * @param storedBytes     bytes actually occupied by those contents
+ * @param referencedBytes bytes the attachments would occupy if every copy were stored separately
+ */
+public record AttachmentStorageStatsDto(Long blobCount, Long storedBytes, Long referencedBytes) {
+
+    /** @return bytes saved by deduplication */
+    public long savedBytes() {
+        return referencedBytes - storedBytes;
+    }
+}
@@ -0,0 +1,17 @@
+package com.inerio.taskmanager.dto;
+
+import java.time.Instant;
+
+/**
+ * State of a chunked upload, returned by every step of the protocol.
+ *
+ * @param uploadId     session id, used in the chunk, complete and abort URLs
+ * @param filename     sanitized filename the attachment will be stored under
+ * @param contentType  declared MIME type
+ * @param size         declared total size in bytes
+ * @param offset       bytes durably received: the offset of the next chunk
+ * @param maxChunkSize largest chunk the server accepts in one request
+ * @param expiresAt    time after which the session is discarded unless more data arrives
+ */
+public record AttachmentUploadDto(String uploadId, String filename, String contentType, long size,
+                                  long offset, long maxChunkSize, Instant expiresAt) { }
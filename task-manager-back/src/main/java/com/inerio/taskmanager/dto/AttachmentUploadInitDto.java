@@ -0,0 +1,10 @@
+package com.inerio.taskmanager.dto;
+
+/**
+ * Request opening a chunked upload.
+ *
+ * @param filename    original filename (sanitized by the server)
+ * @param contentType MIME type of the content
+ * @param size        total size in bytes
+ */
+public record AttachmentUploadInitDto(String filename, String contentType, long size) { }
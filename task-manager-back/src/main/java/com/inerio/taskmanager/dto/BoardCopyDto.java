@@ -0,0 +1,8 @@
+package com.inerio.taskmanager.dto;
+
+/**
+ * Request body for copying a board or saving it as a template.
+ *
+ * @param name name of the copy; {@code null} or blank to derive it from the source board
+ */
+public record BoardCopyDto(String name) { }
@@ -22,6 +22,9 @@ public class BoardDto {
     /** Columns belonging to this board. */
     private List<KanbanColumnDto> columns;
 
+    /** Whether the board is a named template rather than a sidebar board. */
+    private boolean template;
+
     /** Default no-args constructor (required by serialization frameworks). */
     public BoardDto() { }
 
@@ -111,4 +114,22 @@ public class BoardDto {
     public void setColumns(List<KanbanColumnDto> columns) {
         this.columns = columns;
     }
+
+    /**
+     * Returns whether the board is a named template.
+     *
+     * @return {@code true} for a template
+     */
+    public boolean isTemplate() {
+        return template;
+    }
+
+    /**
+     * Sets whether the board is a named template.
+     *
+     * @param template {@code true} for a template
+     */
+    public void setTemplate(boolean template) {
+        this.template = template;
+    }
 }
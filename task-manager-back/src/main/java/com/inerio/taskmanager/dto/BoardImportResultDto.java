@@ -0,0 +1,10 @@
+package com.inerio.taskmanager.dto;
+
+/**
+ * Outcome of a board import.
+ *
+ * @param boardId id of the board created
+ * @param columns number of columns imported
+ * @param tasks   number of tasks imported
+ */
+public record BoardImportResultDto(Long boardId, int columns, long tasks) { }
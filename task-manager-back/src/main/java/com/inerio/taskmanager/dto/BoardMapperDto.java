@@ -28,11 +28,13 @@ public final class BoardMapperDto {
                 .toList()
             : null;
 
-        return new BoardDto(
+        BoardDto dto = new BoardDto(
             board.getId(),
             board.getName(),
             board.getPosition(),
             columns
         );
+        dto.setTemplate(board.isTemplate());
+        return dto;
     }
 }
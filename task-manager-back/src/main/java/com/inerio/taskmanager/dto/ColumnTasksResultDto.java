@@ -0,0 +1,8 @@
+package com.inerio.taskmanager.dto;
+
+/**
+ * Outcome of a bulk action on the tasks of a column.
+ *
+ * @param tasks number of tasks the action applied to
+ */
+public record ColumnTasksResultDto(int tasks) { }
@@ -0,0 +1,44 @@
+package com.inerio.taskmanager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Request body of <b>POST</b> {@code /api/v1/tasks/batch}: an ordered list of task operations
+ * applied all-or-nothing in a single transaction.
+ */
+public class TaskBatchDto {
+
+    /** Maximum number of operations accepted in one batch. */
+    public static final int MAX_OPERATIONS = 500;
+
+    /** Operations, applied in list order. */
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = MAX_OPERATIONS, message = "At most " + MAX_OPERATIONS + " operations per batch")
+    @Valid
+    private List<TaskBatchOpDto> operations;
+
+    /** Default constructor for serialization frameworks. */
+    public TaskBatchDto() { }
+
+    /**
+     * Creates a batch from the given operations.
+     *
+     * @param operations operations in application order
+     */
+    public TaskBatchDto(List<TaskBatchOpDto> operations) {
+        this.operations = operations;
+    }
+
+    /** @return the operations in application order */
+    public List<TaskBatchOpDto> getOperations() {
+        return operations;
+    }
+
+    /** @param operations the operations to set */
+    public void setOperations(List<TaskBatchOpDto> operations) {
+        this.operations = operations;
+    }
+}
@@ -0,0 +1,89 @@
+package com.inerio.taskmanager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * One operation of a task batch (see {@link TaskBatchDto}).
+ * <ul>
+ *   <li>{@code create}: {@code task} holds the new task (its {@code kanbanColumnId} is the target column);</li>
+ *   <li>{@code update}: {@code id} plus a partial {@code patch};</li>
+ *   <li>{@code move}: {@code id} plus {@code targetKanbanColumnId} (the task is appended);</li>
+ *   <li>{@code delete}: {@code id}.</li>
+ * </ul>
+ */
+public class TaskBatchOpDto {
+
+    /** Operation kind. */
+    @NotNull(message = "Operation is required")
+    @Pattern(regexp = "create|update|move|delete", message = "Operation must be one of create, update, move, delete")
+    private String op;
+
+    /** Target task ID (update, move, delete). */
+    private Long id;
+
+    /** Destination column ID (move). */
+    private Long targetKanbanColumnId;
+
+    /** Task to create (create). */
+    @Valid
+    private TaskDto task;
+
+    /** Partial update (update). */
+    @Valid
+    private TaskPatchDto patch;
+
+    /** Default constructor for serialization frameworks. */
+    public TaskBatchOpDto() { }
+
+    /** @return the operation kind */
+    public String getOp() {
+        return op;
+    }
+
+    /** @param op the operation kind to set */
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    /** @return the target task ID */
+    public Long getId() {
+        return id;
+    }
+
+    /** @param id the target task ID to set */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /** @return the destination column ID */
+    public Long getTargetKanbanColumnId() {
+        return targetKanbanColumnId;
+    }
+
+    /** @param targetKanbanColumnId the destination column ID to set */
+    public void setTargetKanbanColumnId(Long targetKanbanColumnId) {
+        this.targetKanbanColumnId = targetKanbanColumnId;
+    }
+
+    /** @return the task to create */
+    public TaskDto getTask() {
+        return task;
+    }
+
+    /** @param task the task to create */
+    public void setTask(TaskDto task) {
+        this.task = task;
+    }
+
+    /** @return the partial update */
+    public TaskPatchDto getPatch() {
+        return patch;
+    }
+
+    /** @param patch the partial update to set */
+    public void setPatch(TaskPatchDto patch) {
+        this.patch = patch;
+    }
+}
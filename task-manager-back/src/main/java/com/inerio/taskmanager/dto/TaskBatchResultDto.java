@@ -0,0 +1,11 @@
+package com.inerio.taskmanager.dto;
+
+/**
+ * Outcome of one operation of a task batch, in request order.
+ *
+ * @param index  zero-based index of the operation in the request
+ * @param op     operation kind
+ * @param id     affected task ID (the new ID for {@code create})
+ * @param status {@code created}, {@code updated}, {@code moved}, {@code deleted} or {@code unchanged}
+ */
+public record TaskBatchResultDto(int index, String op, Long id, String status) { }
@@ -44,6 +44,9 @@ public class TaskDto {
     /** Attachment filenames associated with the task. */
     private List<String> attachments;
 
+    /** Attachment metadata (size, MIME type, checksum, upload time), in the same order. */
+    private List<AttachmentDto> attachmentDetails;
+
     /** Default constructor required for serialization frameworks. */
     public TaskDto() {
     }
@@ -209,4 +212,22 @@ public class TaskDto {
     public void setAttachments(List<String> attachments) {
         this.attachments = attachments;
     }
+
+    /**
+     * Returns attachment metadata.
+     *
+     * @return metadata in the same order as {@link #getAttachments()}; may be empty
+     */
+    public List<AttachmentDto> getAttachmentDetails() {
+        return attachmentDetails;
+    }
+
+    /**
+     * Sets attachment metadata.
+     *
+     * @param attachmentDetails attachment metadata
+     */
+    public void setAttachmentDetails(List<AttachmentDto> attachmentDetails) {
+        this.attachmentDetails = attachmentDetails;
+    }
 }
@@ -0,0 +1,11 @@
+package com.inerio.taskmanager.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a CSV task import: either every row was imported, or none was and the errors say why.
+ *
+ * @param imported number of tasks imported
+ * @param errors   row errors, by row number (the header is row 1); empty on success
+ */
+public record TaskImportResultDto(int imported, List<String> errors) { }
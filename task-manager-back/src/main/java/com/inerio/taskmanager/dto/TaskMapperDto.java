@@ -29,7 +29,8 @@ public final class TaskMapperDto {
         dto.setPosition(task.getPosition());
         dto.setCreationDate(task.getCreationDate());
         dto.setDueDate(task.getDueDate());
-        dto.setAttachments(task.getAttachments());
+        dto.setAttachments(task.getAttachmentNames());
+        dto.setAttachmentDetails(task.getAttachments().stream().map(AttachmentDto::of).toList());
         return dto;
     }
 
@@ -0,0 +1,129 @@
+package com.inerio.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * DTO for a partial task update.
+ * <p>
+ * Consumed by the <b>PATCH</b> {@code /api/v1/tasks/{id}} endpoint. Only the properties present
+ * in the request body are changed; an explicit {@code null} clears a nullable field
+ * (description, due date). Presence is tracked by the setters.
+ * </p>
+ */
+public class TaskPatchDto {
+
+    /** New title (must not be blank when present). */
+    @Size(max = 255, message = "Title must be at most 255 characters")
+    @Pattern(regexp = "(?s).*\\S.*", message = "Title must not be blank")
+    private String title;
+
+    /** New description (nullable). */
+    @Size(max = 5000, message = "Description must be at most 5000 characters")
+    private String description;
+
+    /** New completion flag. */
+    private Boolean completed;
+
+    /** New due date (nullable). */
+    private LocalDate dueDate;
+
+    /** Names of the properties present in the request, in arrival order. */
+    @JsonIgnore
+    private final Set<String> changedFields = new LinkedHashSet<>();
+
+    /** Default constructor for serialization frameworks. */
+    public TaskPatchDto() { }
+
+    /**
+     * Returns the names of the properties that were set.
+     *
+     * @return read-only view of the changed field names
+     */
+    @JsonIgnore
+    public Set<String> getChangedFields() {
+        return Collections.unmodifiableSet(changedFields);
+    }
+
+    /**
+     * Indicates whether no property was set.
+     *
+     * @return {@code true} if the patch changes nothing
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return changedFields.isEmpty();
+    }
+
+    /**
+     * Folds a later patch into this one; the later value wins for every field it sets.
+     *
+     * @param later patch received after this one
+     */
+    public void merge(TaskPatchDto later) {
+        if (later.changedFields.contains("title")) setTitle(later.title);
+        if (later.changedFields.contains("description")) setDescription(later.description);
+        if (later.changedFields.contains("completed")) setCompleted(later.completed);
+        if (later.changedFields.contains("dueDate")) setDueDate(later.dueDate);
+    }
+
+    /**
+     * Returns an independent copy of this patch.
+     *
+     * @return copy with the same changed fields and values
+     */
+    public TaskPatchDto copy() {
+        TaskPatchDto copy = new TaskPatchDto();
+        copy.merge(this);
+        return copy;
+    }
+
+    /** @return the new title */
+    public String getTitle() {
+        return title;
+    }
+
+    /** @param title the new title */
+    public void setTitle(String title) {
+        this.title = title;
+        changedFields.add("title");
+    }
+
+    /** @return the new description */
+    public String getDescription() {
+        return description;
+    }
+
+    /** @param description the new description ({@code null} clears it) */
+    public void setDescription(String description) {
+        this.description = description;
+        changedFields.add("description");
+    }
+
+    /** @return the new completion flag */
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    /** @param completed the new completion flag */
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+        changedFields.add("completed");
+    }
+
+    /** @return the new due date */
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    /** @param dueDate the new due date ({@code null} clears it) */
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+        changedFields.add("dueDate");
+    }
+}
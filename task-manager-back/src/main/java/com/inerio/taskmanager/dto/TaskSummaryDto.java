@@ -0,0 +1,196 @@
+package com.inerio.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Trimmed, read-only view of a task used by list endpoints
+ * ({@code view=summary} or {@code fields=...}).
+ * <p>
+ * Built directly from a JPQL constructor expression so the description and the
+ * attachment filenames are never read; only the attachment count is computed.
+ * Fields that were not requested are nulled and omitted from the JSON output.
+ * </p>
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskSummaryDto {
+
+    /** Field names accepted by the {@code fields} query parameter. */
+    public static final Set<String> FIELDS = Set.of(
+            "id", "title", "completed", "dueDate", "position", "kanbanColumnId", "attachmentCount");
+
+    /** Unique identifier (always returned). */
+    private Long id;
+
+    /** Task title. */
+    private String title;
+
+    /** Completion flag. */
+    private Boolean completed;
+
+    /** Optional due date. */
+    private LocalDate dueDate;
+
+    /** Zero-based position within the column. */
+    private Integer position;
+
+    /** ID of the parent Kanban column. */
+    private Long kanbanColumnId;
+
+    /** Number of attachments stored for the task. */
+    private Integer attachmentCount;
+
+    /** Default constructor required for serialization frameworks. */
+    public TaskSummaryDto() { }
+
+    /**
+     * Creates a fully-populated summary (used by JPQL constructor expressions).
+     *
+     * @param id              task ID
+     * @param title           task title
+     * @param completed       completion flag
+     * @param dueDate         due date (nullable)
+     * @param position        zero-based position within the column
+     * @param kanbanColumnId  parent column ID
+     * @param attachmentCount number of attachments
+     */
+    public TaskSummaryDto(Long id, String title, Boolean completed, LocalDate dueDate,
+                          Integer position, Long kanbanColumnId, Integer attachmentCount) {
+        this.id = id;
+        this.title = title;
+        this.completed = completed;
+        this.dueDate = dueDate;
+        this.position = position;
+        this.kanbanColumnId = kanbanColumnId;
+        this.attachmentCount = attachmentCount;
+    }
+
+    /**
+     * Creates a summary without the attachment count (used by JPQL constructor expressions
+     * when the count was not requested, so that it is not computed).
+     *
+     * @param id             task ID
+     * @param title          task title
+     * @param completed      completion flag
+     * @param dueDate        due date (nullable)
+     * @param position       zero-based position within the column
+     * @param kanbanColumnId parent column ID
+     */
+    public TaskSummaryDto(Long id, String title, Boolean completed, LocalDate dueDate,
+                          Integer position, Long kanbanColumnId) {
+        this(id, title, completed, dueDate, position, kanbanColumnId, null);
+    }
+
+    /**
+     * Parses a comma-separated {@code fields} parameter.
+     *
+     * @param fields raw parameter value (e.g. {@code "title,completed"})
+     * @return the requested field names, always including {@code id}
+     * @throws IllegalArgumentException if an unknown field is requested
+     */
+    public static Set<String> parseFields(String fields) {
+        Set<String> out = new LinkedHashSet<>();
+        out.add("id");
+        Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(f -> !f.isEmpty())
+                .forEach(f -> {
+                    if (!FIELDS.contains(f)) {
+                        throw new IllegalArgumentException("Unknown task field: " + f);
+                    }
+                    out.add(f);
+                });
+        return out;
+    }
+
+    /**
+     * Returns a copy holding only the requested fields; the others are left {@code null}
+     * so they are omitted from the output. The receiver is not modified.
+     *
+     * @param fields requested field names
+     * @return trimmed copy
+     */
+    public TaskSummaryDto trimmed(Set<String> fields) {
+        return new TaskSummaryDto(
+                id,
+                fields.contains("title") ? title : null,
+                fields.contains("completed") ? completed : null,
+                fields.contains("dueDate") ? dueDate : null,
+                fields.contains("position") ? position : null,
+                fields.contains("kanbanColumnId") ? kanbanColumnId : null,
+                fields.contains("attachmentCount") ? attachmentCount : null);
+    }
+
+    /** @return the task ID */
+    public Long getId() {
+        return id;
+    }
+
+    /** @param id the task ID to set */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /** @return the task title */
+    public String getTitle() {
+        return title;
+    }
+
+    /** @param title the task title to set */
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    /** @return the completion flag */
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    /** @param completed the completion flag to set */
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    /** @return the due date, or {@code null} if not set */
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    /** @param dueDate the due date to set */
+    public void setDueDate(LocalDate dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    /** @return the zero-based position within the column */
+    public Integer getPosition() {
+        return position;
+    }
+
+    /** @param position the zero-based position to set */
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+
+    /** @return the parent column ID */
+    public Long getKanbanColumnId() {
+        return kanbanColumnId;
+    }
+
+    /** @param kanbanColumnId the parent column ID to set */
+    public void setKanbanColumnId(Long kanbanColumnId) {
+        this.kanbanColumnId = kanbanColumnId;
+    }
+
+    /** @return the number of attachments */
+    public Integer getAttachmentCount() {
+        return attachmentCount;
+    }
+
+    /** @param attachmentCount the number of attachments to set */
+    public void setAttachmentCount(Integer attachmentCount) {
+        this.attachmentCount = attachmentCount;
+    }
+}
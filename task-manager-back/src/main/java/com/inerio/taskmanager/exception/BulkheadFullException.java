@@ -0,0 +1,27 @@
+package com.inerio.taskmanager.exception;
+
+/**
+ * Runtime exception indicating that a class of requests has reached its concurrency limit.
+ * Surfaced as a 503 with a {@code Retry-After} header by {@link GlobalExceptionHandler}.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int retryAfterSeconds;
+
+    /**
+     * Creates a new exception.
+     *
+     * @param message           detail message naming the saturated bulkhead
+     * @param retryAfterSeconds delay suggested to the client before retrying
+     */
+    public BulkheadFullException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,20 @@
+package com.inerio.taskmanager.exception;
+
+/**
+ * Runtime exception indicating that an operation lost a race with a concurrent change of the same
+ * data and was rolled back; it can be retried as is. Surfaced as a 409 by {@link GlobalExceptionHandler}.
+ */
+public class ConcurrentChangeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new exception with a detail message and the failure that revealed the conflict.
+     *
+     * @param message detail message describing the conflict
+     * @param cause   underlying failure
+     */
+    public ConcurrentChangeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
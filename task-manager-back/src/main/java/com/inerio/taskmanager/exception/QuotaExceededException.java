@@ -0,0 +1,19 @@
+package com.inerio.taskmanager.exception;
+
+/**
+ * Runtime exception indicating that an upload would take an account past its attachment storage quota.
+ * Surfaced as a 413 by {@link GlobalExceptionHandler}.
+ */
+public class QuotaExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new exception with a detail message.
+     *
+     * @param message detail message describing the exceeded quota
+     */
+    public QuotaExceededException(String message) {
+        super(message);
+    }
+}
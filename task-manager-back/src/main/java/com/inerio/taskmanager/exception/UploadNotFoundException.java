@@ -0,0 +1,19 @@
+package com.inerio.taskmanager.exception;
+
+/**
+ * Runtime exception indicating that a chunked upload session does not exist (never created,
+ * completed, aborted or expired). Surfaced as a 404 by {@link GlobalExceptionHandler}.
+ */
+public class UploadNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new exception with a detail message.
+     *
+     * @param message detail message describing the missing upload
+     */
+    public UploadNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.inerio.taskmanager.exception;
+
+/**
+ * Runtime exception indicating that an attachment or an upload chunk exceeds the configured size
+ * limit. Surfaced as a 413 by {@link GlobalExceptionHandler}.
+ */
+public class UploadTooLargeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new exception with a detail message.
+     *
+     * @param message detail message describing the exceeded limit
+     */
+    public UploadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,95 @@
+package com.inerio.taskmanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Completed task moved out of the {@code task} table by {@code TaskArchiveService}.
+ * <p>
+ * Rows are written by a set-based statement and never updated; they keep the id of the task they
+ * were, and go away with their column like live tasks do.
+ * </p>
+ */
+@Entity
+@Immutable
+@Table(
+        name = "archived_task",
+        indexes = @Index(name = "ix_archived_task_column_completed", columnList = "kanban_column_id, completed_at")
+)
+public class ArchivedTask {
+
+    /** Identifier of the task before it was archived. */
+    @Id
+    private Long id;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    /** Column the task was in. */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "kanban_column_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private KanbanColumn kanbanColumn;
+
+    @Column(name = "creation_date", nullable = false)
+    private LocalDateTime creationDate;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    @Column(name = "completed_at", nullable = false)
+    private Instant completedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    /** Default constructor for JPA. */
+    public ArchivedTask() { }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public KanbanColumn getKanbanColumn() {
+        return kanbanColumn;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+}
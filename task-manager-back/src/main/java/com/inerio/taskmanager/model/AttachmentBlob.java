@@ -0,0 +1,67 @@
+package com.inerio.taskmanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Content-addressed attachment blob.
+ * <p>
+ * Each distinct attachment content is stored once on disk under a path derived from its SHA-256
+ * digest; {@code refCount} counts the task attachments that point at it. Blobs whose count drops
+ * to zero are reclaimed by a background collector.
+ * </p>
+ */
+@Entity
+@Table(name = "attachment_blob")
+public class AttachmentBlob {
+
+    /** Lower-case hex SHA-256 digest of the content. */
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    /** Content size in bytes. */
+    @Column(nullable = false)
+    private long size;
+
+    /** Number of task attachments referencing this blob. */
+    @Column(nullable = false)
+    private int refCount;
+
+    /** First time this content was stored. */
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    /** Default constructor for JPA. */
+    public AttachmentBlob() { }
+
+    /**
+     * Creates an unreferenced blob record.
+     *
+     * @param sha256 content digest (hex)
+     * @param size   content size in bytes
+     */
+    public AttachmentBlob(String sha256, long size) {
+        this.sha256 = sha256;
+        this.size = size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,111 @@
+package com.inerio.taskmanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Pending removal of attachment files, written in the same transaction as the database change
+ * that made them obsolete and carried out after commit by the outbox worker.
+ * <p>
+ * An entry without a filename stands for the whole upload folder of a deleted task; an entry with
+ * a filename for one attachment (and its thumbnail) of a task that still exists. Failed entries
+ * are retried with a growing delay; entries that exhausted their attempts are kept for inspection.
+ * </p>
+ */
+@Entity
+@Table(
+        name = "attachment_outbox",
+        indexes = @Index(name = "ix_attachment_outbox_next_attempt", columnList = "next_attempt_at")
+)
+public class AttachmentOutboxEntry {
+
+    /** Database-generated identifier (also the processing order). */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Task whose files are to be removed. */
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    /** Sanitized filename, or {@code null} for the whole task folder. */
+    private String filename;
+
+    /** When the deletion was recorded. */
+    @Column(name = "created_at", nullable = false, columnDefinition = "timestamp(6) with time zone default now()")
+    private Instant createdAt;
+
+    /** Number of failed attempts so far. */
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int attempts;
+
+    /** Earliest time of the next attempt. */
+    @Column(name = "next_attempt_at", nullable = false, columnDefinition = "timestamp(6) with time zone default now()")
+    private Instant nextAttemptAt;
+
+    /** Message of the last failure, if any. */
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    /** Default constructor for JPA. */
+    public AttachmentOutboxEntry() { }
+
+    /**
+     * Creates an entry ready to be processed.
+     *
+     * @param taskId   task id
+     * @param filename sanitized filename, or {@code null} for the whole task folder
+     */
+    public AttachmentOutboxEntry(Long taskId, String filename) {
+        this.taskId = taskId;
+        this.filename = filename;
+        this.createdAt = Instant.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Records a failed attempt and postpones the entry.
+     *
+     * @param nextAttemptAt earliest time of the next attempt
+     * @param error         failure message (truncated to the column size)
+     */
+    public void failed(Instant nextAttemptAt, String error) {
+        this.attempts++;
+        this.nextAttemptAt = nextAttemptAt;
+        this.lastError = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
@@ -0,0 +1,118 @@
+package com.inerio.taskmanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Chunked upload in progress: the attachment being assembled in a staging file and how many of
+ * its bytes are durably received. {@code received} only advances after the bytes are flushed to
+ * disk, so a client resuming from it never skips data.
+ */
+@Entity
+@Table(
+        name = "attachment_upload",
+        indexes = @Index(name = "ix_attachment_upload_updated_at", columnList = "updated_at")
+)
+public class AttachmentUpload {
+
+    /** Random identifier handed to the client. */
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    /** Task the attachment is uploaded to. */
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    /** Sanitized filename. */
+    @Column(nullable = false)
+    private String filename;
+
+    /** MIME type declared at init. */
+    @Column(name = "content_type", nullable = false, length = 127)
+    private String contentType;
+
+    /** Declared total size in bytes. */
+    @Column(nullable = false)
+    private long size;
+
+    /** Bytes durably received so far (the offset of the next chunk). */
+    @Column(nullable = false)
+    private long received;
+
+    /** Creation timestamp. */
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /** Time of the last received chunk; idle sessions expire from it. */
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /** Default constructor for JPA. */
+    public AttachmentUpload() { }
+
+    /**
+     * Opens an upload session.
+     *
+     * @param taskId      target task id
+     * @param filename    sanitized filename
+     * @param contentType MIME type
+     * @param size        declared total size in bytes
+     */
+    public AttachmentUpload(Long taskId, String filename, String contentType, long size) {
+        this.id = UUID.randomUUID().toString();
+        this.taskId = taskId;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.size = size;
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Records durably received bytes.
+     *
+     * @param bytes number of bytes appended at the previous offset
+     */
+    public void advance(long bytes) {
+        this.received += bytes;
+        this.updatedAt = Instant.now();
+    }
+}
@@ -7,17 +7,26 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.SQLRestriction;
 
 /**
  * Kanban board aggregate.
  * Holds a set of columns and belongs to a user (soft-identity).
+ * Boards in the trash ({@code deleted_at} set) are invisible to entity queries.
  */
 @Entity
+@Table(indexes = @Index(name = "ix_board_owner_id", columnList = "owner_id"))
+@SQLRestriction("deleted_at IS NULL")
 public class Board {
 
     /** Database-generated identifier. */
@@ -36,11 +45,23 @@ public class Board {
     @Column
     private Integer position;
 
-    /** Owner of this board (anonymous soft identity). */
+    /** Owner of this board (anonymous soft identity). Deleting the account deletes its boards. */
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "owner_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private UserAccount owner;
 
+    /** When the board was moved to the trash (its columns and tasks with it); {@code null} while it is live. */
+    @Column
+    private Instant deletedAt;
+
+    /**
+     * Whether this board is a named template: kept out of the sidebar and only used as the source
+     * of new boards (see {@code BoardService#cloneBoard}).
+     */
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean template;
+
     /**
      * Columns contained in this board.
      * Deleting a board cascades to its columns and tasks.
@@ -121,4 +142,16 @@ public class Board {
     public void setOwner(UserAccount owner) {
         this.owner = owner;
     }
+
+    public boolean isTemplate() {
+        return template;
+    }
+
+    public void setTemplate(boolean template) {
+        this.template = template;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
 }
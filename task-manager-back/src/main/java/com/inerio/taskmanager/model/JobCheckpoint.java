@@ -0,0 +1,84 @@
+package com.inerio.taskmanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Progress of a long-running batch job that walks a table by key, so that a run interrupted by a
+ * restart or its time budget resumes where it stopped instead of starting over. The row is removed
+ * once a sweep completes. Writes are fenced by the token of the run that makes them (see
+ * {@code JobCoordinator}).
+ */
+@Entity
+@Table(name = "job_checkpoint")
+public class JobCheckpoint {
+
+    /** Job name. */
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    /** Largest key fully processed by the sweep in progress. */
+    @Column(name = "last_key", nullable = false)
+    private long lastKey;
+
+    /** Cutoff the sweep in progress selects rows with; kept so a resumed sweep sees the same set. */
+    @Column(nullable = false)
+    private Instant cutoff;
+
+    /** Fencing token of the run that saved the progress; runs with a smaller token may not write. */
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long fence;
+
+    /** Time of the last saved progress. */
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /** Default constructor for JPA. */
+    public JobCheckpoint() { }
+
+    /**
+     * Starts a sweep from the first key.
+     *
+     * @param name   job name
+     * @param cutoff cutoff of the sweep
+     */
+    public JobCheckpoint(String name, Instant cutoff) {
+        this.name = name;
+        this.cutoff = cutoff;
+        this.updatedAt = Instant.now();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getLastKey() {
+        return lastKey;
+    }
+
+    public Instant getCutoff() {
+        return cutoff;
+    }
+
+    public long getFence() {
+        return fence;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Records progress.
+     *
+     * @param lastKey largest key fully processed
+     */
+    public void advance(long lastKey) {
+        this.lastKey = lastKey;
+        this.updatedAt = Instant.now();
+    }
+}
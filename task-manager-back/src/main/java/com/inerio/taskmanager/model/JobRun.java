@@ -0,0 +1,125 @@
+package com.inerio.taskmanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * One run of a cluster-wide scheduled job, recorded by the node that won the job's lock.
+ * <p>
+ * The identifier doubles as the fencing token of the run: it only grows, so state written by a
+ * job can carry it and refuse writes from a run older than the last one that wrote.
+ * </p>
+ */
+@Entity
+@Table(
+        name = "job_run",
+        indexes = @Index(name = "ix_job_run_name_started", columnList = "name, started_at")
+)
+public class JobRun {
+
+    /** Outcome of a run. */
+    public enum Status {
+        /** In progress (or its node died: see {@link #ABANDONED}). */
+        RUNNING,
+        /** Completed normally. */
+        SUCCEEDED,
+        /** Ended with an exception. */
+        FAILED,
+        /** Found still running by a later run, i.e. its node stopped without finishing it. */
+        ABANDONED
+    }
+
+    /** Maximum length of {@link #getDetail()}. */
+    public static final int DETAIL_LENGTH = 1000;
+
+    /** Database-generated identifier, also the fencing token of the run. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Job name. */
+    @Column(nullable = false, length = 64)
+    private String name;
+
+    /** Node that ran the job. */
+    @Column(nullable = false)
+    private String node;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    /** Summary returned by the job, or the failure. */
+    @Column(length = DETAIL_LENGTH)
+    private String detail;
+
+    /** Default constructor for JPA. */
+    public JobRun() { }
+
+    /**
+     * Starts a run.
+     *
+     * @param name job name
+     * @param node node running it
+     */
+    public JobRun(String name, String node) {
+        this.name = name;
+        this.node = node;
+        this.status = Status.RUNNING;
+        this.startedAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    /**
+     * Records the end of the run.
+     *
+     * @param status outcome
+     * @param detail summary or failure, truncated to {@link #DETAIL_LENGTH}; may be {@code null}
+     */
+    public void finish(Status status, String detail) {
+        this.status = status;
+        this.finishedAt = Instant.now();
+        this.detail = detail != null && detail.length() > DETAIL_LENGTH ? detail.substring(0, DETAIL_LENGTH) : detail;
+    }
+}
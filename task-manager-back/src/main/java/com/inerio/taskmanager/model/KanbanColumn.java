@@ -7,19 +7,29 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
+import jakarta.persistence.Table;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.SQLRestriction;
+
 /**
  * Kanban board column entity.
  * Holds an ordered list of {@link Task} and belongs to a {@link Board}.
+ * Columns in the trash ({@code deleted_at} set) are invisible to entity queries.
  */
 @Entity
+@Table(indexes = @Index(name = "ix_kanban_column_board_id", columnList = "board_id"))
+@SQLRestriction("deleted_at IS NULL")
 public class KanbanColumn {
 
     /** Database-generated identifier. */
@@ -45,11 +55,16 @@ public class KanbanColumn {
     @OrderBy("position ASC, id ASC")
     private List<Task> tasks = new ArrayList<>();
 
-    /** Parent board (required). */
+    /** Parent board (required). Deleting the board deletes its columns in the database. */
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "board_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Board board;
 
+    /** When the column was moved to the trash (its tasks with it); {@code null} while it is live. */
+    @Column
+    private Instant deletedAt;
+
     /** Default constructor for JPA. */
     public KanbanColumn() { }
 
@@ -108,6 +123,10 @@ public class KanbanColumn {
         this.board = board;
     }
 
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
     /**
      * Adds a task to this column and sets the reverse relation.
      * @param task task to add
@@ -1,34 +1,42 @@
 package com.inerio.taskmanager.model;
 
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
-import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.SQLRestriction;
 
 /**
  * Kanban task entity.
  * Belongs to a {@link KanbanColumn}, supports ordering within the column,
  * timestamps, and optional file attachments.
+ * Tasks in the trash ({@code deleted_at} set) are invisible to entity queries.
  */
 
-@Table(
-        name = "task",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"kanbanColumn_id", "position"})
-)
+@Table(name = "task", indexes = {
+        @Index(name = "ix_task_kanban_column_id", columnList = "kanbanColumn_id"),
+        @Index(name = "ix_task_completed_at", columnList = "completedAt")
+})
 @Entity
+@SQLRestriction("deleted_at IS NULL")
 public class Task {
 
     /** Database-generated identifier. */
@@ -48,13 +56,18 @@ public class Task {
     @Column(nullable = false)
     private boolean completed;
 
+    /** When the task was last marked completed; {@code null} while it is open. */
+    @Column
+    private Instant completedAt;
+
     /** Zero-based position within the column (0 = top). */
     @Column(nullable = false)
     private int position = 0;
 
-    /** Parent column (required). */
+    /** Parent column (required). Deleting the column deletes its tasks in the database. */
     @ManyToOne(fetch = FetchType.EAGER, optional = false)
     @JoinColumn(name = "kanbanColumn_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private KanbanColumn kanbanColumn;
 
     /** Creation timestamp (set once on persist). */
@@ -65,11 +78,19 @@ public class Task {
     @Column
     private LocalDate dueDate;
 
-    /** Attachment filenames stored for this task. */
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "task_attachments", joinColumns = @JoinColumn(name = "task_id"))
-    @Column(name = "filename")
-    private List<String> attachments = new ArrayList<>();
+    /** When the task was moved to the trash; {@code null} while it is live. */
+    @Column
+    private Instant deletedAt;
+
+    /**
+     * Attachments of this task, in upload order. Read-only view: rows are written and released by
+     * {@code AttachmentStorage}, which keeps the blob reference counts and storage quotas in step.
+     */
+    @OneToMany(fetch = FetchType.EAGER)
+    @JoinColumn(name = "task_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @OrderBy("id")
+    private List<TaskAttachment> attachments = new ArrayList<>();
 
     /** Default constructor for JPA. */
     public Task() { }
@@ -113,10 +134,17 @@ public class Task {
         return completed;
     }
 
+    /** Sets the completion flag, stamping {@link #getCompletedAt()} when the task gets completed. */
     public void setCompleted(boolean completed) {
+        if (!completed) completedAt = null;
+        else if (completedAt == null) completedAt = Instant.now();
         this.completed = completed;
     }
 
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
     public int getPosition() {
         return position;
     }
@@ -145,24 +173,51 @@ public class Task {
         this.dueDate = dueDate;
     }
 
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
     /**
-     * Returns the attachment filenames. Never {@code null}; for legacy data
+     * Returns the attachment metadata. Never {@code null}; for legacy data
      * an empty list is returned if needed.
      */
-    public List<String> getAttachments() {
+    public List<TaskAttachment> getAttachments() {
         if (attachments == null) {
             attachments = new ArrayList<>();
         }
         return attachments;
     }
 
-    public void setAttachments(List<String> attachments) {
+    public void setAttachments(List<TaskAttachment> attachments) {
         this.attachments = attachments;
     }
 
+    /**
+     * Returns the attachment filenames, in upload order.
+     *
+     * @return filenames; never {@code null}
+     */
+    public List<String> getAttachmentNames() {
+        return getAttachments().stream().map(TaskAttachment::getFilename).toList();
+    }
+
+    /**
+     * Finds an attachment by its sanitized filename.
+     *
+     * @param filename sanitized filename
+     * @return the attachment, or {@code null} if the task has none with that name
+     */
+    public TaskAttachment findAttachment(String filename) {
+        for (TaskAttachment a : getAttachments()) {
+            if (a.getFilename().equals(filename)) return a;
+        }
+        return null;
+    }
+
     /** Initializes the creation timestamp before first persist. */
     @PrePersist
     protected void onCreate() {
         this.creationDate = LocalDateTime.now();
+        if (completed && completedAt == null) completedAt = Instant.now();
     }
 }
@@ -0,0 +1,122 @@
+package com.inerio.taskmanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
+
+/**
+ * Metadata of a task attachment (size, MIME type, checksum, upload time) and its link to the
+ * {@link AttachmentBlob} holding the content.
+ * <p>
+ * The task is referenced by id only (no foreign key) so that attachment references can be released
+ * after the task row is gone; references left behind by a task deletion are swept by the collector.
+ * The owner UID is denormalized so the owner's storage counters can be credited at that point too.
+ * </p>
+ */
+@Entity
+@Table(
+        name = "task_attachment",
+        uniqueConstraints = @UniqueConstraint(name = "ux_task_attachment_task_filename", columnNames = {"task_id", "filename"}),
+        indexes = @Index(name = "ix_task_attachment_blob", columnList = "blob_sha256")
+)
+public class TaskAttachment {
+
+    /** Database-generated identifier. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Owning task id. */
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    /** UID of the board owner charged for this attachment ({@code null} for legacy rows). */
+    @Column(name = "owner_uid", length = 64)
+    private String ownerUid;
+
+    /** Sanitized filename, as listed in {@link Task#getAttachments()}. */
+    @Column(nullable = false)
+    private String filename;
+
+    /** SHA-256 digest of the content ({@link AttachmentBlob} id), doubling as its checksum. */
+    @Column(name = "blob_sha256", nullable = false, length = 64)
+    private String blobSha256;
+
+    /** Content size in bytes. */
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long size;
+
+    /** MIME type declared at upload. */
+    @Column(name = "content_type", length = 127)
+    private String contentType;
+
+    /** Upload timestamp. */
+    @Column(name = "uploaded_at", nullable = false, columnDefinition = "timestamp(6) with time zone default now()")
+    private Instant uploadedAt;
+
+    /** Default constructor for JPA. */
+    public TaskAttachment() { }
+
+    /**
+     * Creates the metadata of a freshly uploaded attachment.
+     *
+     * @param taskId      owning task id
+     * @param ownerUid    UID of the board owner
+     * @param filename    sanitized filename
+     * @param blobSha256  blob digest
+     * @param size        content size in bytes
+     * @param contentType MIME type
+     */
+    public TaskAttachment(Long taskId, String ownerUid, String filename, String blobSha256,
+                          long size, String contentType) {
+        this.taskId = taskId;
+        this.ownerUid = ownerUid;
+        this.filename = filename;
+        this.blobSha256 = blobSha256;
+        this.size = size;
+        this.contentType = contentType;
+        this.uploadedAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getBlobSha256() {
+        return blobSha256;
+    }
+
+    public String getOwnerUid() {
+        return ownerUid;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public Instant getUploadedAt() {
+        return uploadedAt;
+    }
+
+    public void setUploadedAt(Instant uploadedAt) {
+        this.uploadedAt = uploadedAt;
+    }
+}
@@ -41,6 +41,17 @@ public class UserAccount {
     @Column(nullable = false)
     private Instant lastActiveAt = Instant.now();
 
+    /**
+     * Bytes of attachments charged to this account, maintained incrementally on upload and
+     * release (never recomputed from disk).
+     */
+    @Column(name = "attachment_bytes", nullable = false, columnDefinition = "bigint default 0")
+    private long attachmentBytes;
+
+    /** Number of attachments charged to this account. */
+    @Column(name = "attachment_count", nullable = false, columnDefinition = "integer default 0")
+    private int attachmentCount;
+
     /**
      * Boards owned by this account.
      * Cascade deletes ensure user data is removed when the account is deleted.
@@ -86,6 +97,14 @@ public class UserAccount {
         this.lastActiveAt = lastActiveAt;
     }
 
+    public long getAttachmentBytes() {
+        return attachmentBytes;
+    }
+
+    public int getAttachmentCount() {
+        return attachmentCount;
+    }
+
     public List<Board> getBoards() {
         return boards;
     }
@@ -3,14 +3,19 @@ package com.inerio.taskmanager.realtime;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
@@ -20,6 +25,8 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
  * - Presence tracking: who is currently connected for a given UID.
  *
  * Emits lightweight "dirty" events; clients refetch targeted resources.
+ * Data-change events raised inside a transaction are held until it commits, so a refetch they
+ * trigger always sees the committed rows; they are dropped if it rolls back.
  */
 @Component
 public class SseHub {
@@ -39,6 +46,9 @@ public class SseHub {
     /** boardId -> emitters (per-board stream) */
     private final ConcurrentHashMap<Long, CopyOnWriteArraySet<SseEmitter>> boardEmitters = new ConcurrentHashMap<>();
 
+    /** Bumped on every data-change broadcast; lets readers detect that a mutation happened. */
+    private final AtomicLong changeVersion = new AtomicLong();
+
     // ---- Presence tracking ----
 
     /** Maps an SseEmitter to the session ID that opened it. */
@@ -161,11 +171,24 @@ public class SseHub {
     }
 
     // -------------------------------
-    // Broadcast API (called by services after successful mutations)
+    // Broadcast API (called by services after successful mutations; sent after commit)
     // -------------------------------
 
+    /**
+     * Monotonic counter of data-change broadcasts (boards.* / columns.* / tasks.*).
+     * Used to keep coalesced reads from joining a query that started before a mutation.
+     */
+    public long changeVersion() {
+        return changeVersion.get();
+    }
+
     /** Notify the sidebar for a specific owner. Event types: boards.created|boards.updated|boards.deleted */
     public void emitBoards(String ownerUid, String type) {
+        afterCommit(() -> sendBoards(ownerUid, type));
+    }
+
+    private void sendBoards(String ownerUid, String type) {
+        changeVersion.incrementAndGet();
         Set<SseEmitter> subs = globalEmitters.getOrDefault(ownerUid, new CopyOnWriteArraySet<>());
         if (subs.isEmpty()) return;
 
@@ -175,6 +198,11 @@ public class SseHub {
 
     /** Notify a board page subscribers. Event types: columns.changed|tasks.changed */
     public void emitBoard(long boardId, String type) {
+        afterCommit(() -> sendBoard(boardId, type));
+    }
+
+    private void sendBoard(long boardId, String type) {
+        changeVersion.incrementAndGet();
         Set<SseEmitter> subs = boardEmitters.getOrDefault(boardId, new CopyOnWriteArraySet<>());
         if (subs.isEmpty()) return;
 
@@ -182,6 +210,26 @@ public class SseHub {
         for (SseEmitter s : subs) safeSend(s, type, payload);
     }
 
+    /**
+     * Field-scoped variant of {@code tasks.changed}: same event name (existing listeners keep working),
+     * plus the task id and the changed field names so clients can patch their state in place.
+     */
+    public void emitTaskFields(long boardId, long taskId, Collection<String> fields) {
+        afterCommit(() -> sendTaskFields(boardId, taskId, fields));
+    }
+
+    private void sendTaskFields(long boardId, long taskId, Collection<String> fields) {
+        changeVersion.incrementAndGet();
+        Set<SseEmitter> subs = boardEmitters.getOrDefault(boardId, new CopyOnWriteArraySet<>());
+        if (subs.isEmpty()) return;
+
+        final String type = EventType.TASKS_CHANGED.wire();
+        final String names = fields.stream().map(f -> "\"" + f + "\"").collect(Collectors.joining(","));
+        final String payload = "{\"type\":\"" + type + "\",\"boardId\":" + boardId + ",\"taskId\":" + taskId
+                + ",\"fields\":[" + names + "],\"ts\":\"" + Instant.now().toString() + "\"}";
+        for (SseEmitter s : subs) safeSend(s, type, payload);
+    }
+
     /* ------- Overloads to accept EventType directly (ergonomic) ------- */
 
     public void emitBoards(String ownerUid, EventType type) {
@@ -208,6 +256,24 @@ public class SseHub {
     // Helpers
     // -------------------------------
 
+    /**
+     * Runs a broadcast once the current transaction has committed, or right away outside one.
+     * The change version is bumped by the broadcast itself, so coalesced reads keyed on the new
+     * version can only start once the change is visible.
+     */
+    private static void afterCommit(Runnable broadcast) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            broadcast.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                broadcast.run();
+            }
+        });
+    }
+
     private void safeSend(SseEmitter emitter, String event, String jsonData) {
         try {
             SseEmitter.SseEventBuilder ev = SseEmitter.event()
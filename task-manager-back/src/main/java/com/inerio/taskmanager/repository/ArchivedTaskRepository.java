@@ -0,0 +1,82 @@
+package com.inerio.taskmanager.repository;
+
+import com.inerio.taskmanager.model.ArchivedTask;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Spring Data JPA repository for {@link ArchivedTask} entities.
+ * <p>
+ * Archived tasks are read a page at a time, most recently completed first; those of columns or
+ * boards in the trash are hidden with them.
+ * </p>
+ */
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    /**
+     * Returns one page of the archived tasks of an owner.
+     *
+     * @param uid      owner UID
+     * @param pageable page to read (its sort is ignored)
+     * @return the page
+     */
+    @Query("""
+           SELECT a FROM ArchivedTask a JOIN a.kanbanColumn c
+           WHERE c.board.owner.uid = :uid
+           ORDER BY a.completedAt DESC, a.id DESC
+           """)
+    Slice<ArchivedTask> findPageForOwner(@Param("uid") String uid, Pageable pageable);
+
+    /**
+     * Returns one page of the archived tasks of a board.
+     *
+     * @param boardId  board id (ownership must already be checked)
+     * @param pageable page to read (its sort is ignored)
+     * @return the page
+     */
+    @Query("""
+           SELECT a FROM ArchivedTask a JOIN a.kanbanColumn c
+           WHERE c.board.id = :boardId
+           ORDER BY a.completedAt DESC, a.id DESC
+           """)
+    Slice<ArchivedTask> findPageForBoard(@Param("boardId") Long boardId, Pageable pageable);
+
+    /**
+     * Moves up to {@code limit} tasks completed before {@code cutoff} from {@code task} to
+     * {@code archived_task}, in one statement. Tasks with attachments or uploads in progress, and
+     * tasks of templates, stay live; rows locked by a concurrent edit are skipped. Positions are
+     * left with gaps: the caller renumbers the returned columns in the same transaction.
+     *
+     * @param cutoff completion time limit
+     * @param limit  maximum number of tasks archived
+     * @return one {@code [Long columnId, Long boardId]} row per archived task
+     */
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM task t
+                WHERE t.id IN (
+                    SELECT c.id FROM task c
+                    WHERE c.completed AND c.deleted_at IS NULL AND c.completed_at < :cutoff
+                      AND NOT EXISTS (SELECT 1 FROM kanban_column k JOIN board b ON b.id = k.board_id
+                                      WHERE k.id = c.kanban_column_id AND b.template)
+                      AND NOT EXISTS (SELECT 1 FROM task_attachment a WHERE a.task_id = c.id)
+                      AND NOT EXISTS (SELECT 1 FROM attachment_upload u WHERE u.task_id = c.id)
+                    ORDER BY c.completed_at
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING t.id, t.title, t.description, t.kanban_column_id, t.creation_date, t.due_date, t.completed_at),
+            archived AS (
+                INSERT INTO archived_task (id, title, description, kanban_column_id, creation_date, due_date,
+                                           completed_at, archived_at)
+                SELECT id, title, description, kanban_column_id, creation_date, due_date, completed_at, now()
+                FROM moved)
+            SELECT m.kanban_column_id, k.board_id
+            FROM moved m JOIN kanban_column k ON k.id = m.kanban_column_id
+            """, nativeQuery = true)
+    List<Object[]> archiveCompleted(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,67 @@
+package com.inerio.taskmanager.repository;
+
+import com.inerio.taskmanager.dto.AttachmentStorageStatsDto;
+import com.inerio.taskmanager.model.AttachmentBlob;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for {@link AttachmentBlob} entities.
+ * <p>
+ * Reference counts are only changed through the atomic statements below so that concurrent
+ * uploads and deletions never lose an increment or decrement.
+ * </p>
+ */
+public interface AttachmentBlobRepository extends JpaRepository<AttachmentBlob, String> {
+
+    /**
+     * Registers one more reference to a blob, creating its row on first use.
+     *
+     * @param sha256 content digest (hex)
+     * @param size   content size in bytes
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO attachment_blob (sha256, size, ref_count, created_at)
+            VALUES (:sha256, :size, 1, NOW())
+            ON CONFLICT (sha256) DO UPDATE SET ref_count = attachment_blob.ref_count + 1
+            """, nativeQuery = true)
+    void acquire(@Param("sha256") String sha256, @Param("size") long size);
+
+    /**
+     * Returns up to {@code limit} blobs that are no longer referenced.
+     *
+     * @param limit maximum number of rows
+     * @return unreferenced blobs
+     */
+    @Query(value = "SELECT * FROM attachment_blob WHERE ref_count <= 0 LIMIT :limit", nativeQuery = true)
+    List<AttachmentBlob> findUnreferenced(@Param("limit") int limit);
+
+    /**
+     * Deletes the blob row if it is still unreferenced (an upload may have re-acquired it meanwhile).
+     *
+     * @param sha256 content digest (hex)
+     * @return {@code 1} if the row was deleted, otherwise {@code 0}
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AttachmentBlob b WHERE b.sha256 = :sha256 AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("sha256") String sha256);
+
+    /**
+     * Aggregates the live blobs: how many, how many bytes they occupy on disk, and how many bytes
+     * the attachments referencing them would occupy without deduplication.
+     */
+    @Query("""
+           SELECT new com.inerio.taskmanager.dto.AttachmentStorageStatsDto(
+                  COUNT(b), COALESCE(SUM(b.size), 0), COALESCE(SUM(b.size * b.refCount), 0))
+           FROM AttachmentBlob b
+           WHERE b.refCount > 0
+           """)
+    AttachmentStorageStatsDto computeStats();
+}
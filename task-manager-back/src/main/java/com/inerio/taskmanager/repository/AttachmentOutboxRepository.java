@@ -0,0 +1,69 @@
+package com.inerio.taskmanager.repository;
+
+import com.inerio.taskmanager.model.AttachmentOutboxEntry;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for {@link AttachmentOutboxEntry} entities.
+ * <p>
+ * Entries are claimed with {@code FOR UPDATE SKIP LOCKED}, so several instances can drain the
+ * outbox concurrently without processing an entry twice.
+ * </p>
+ */
+public interface AttachmentOutboxRepository extends JpaRepository<AttachmentOutboxEntry, Long> {
+
+    /**
+     * Records the removal of the upload folders of deleted tasks, in one statement. Joins the
+     * caller's transaction.
+     *
+     * @param taskIds task ids, bound as a single {@code bigint[]} parameter
+     * @return number of entries recorded
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO attachment_outbox (task_id, created_at, attempts, next_attempt_at)
+            SELECT t, now(), 0, now() FROM unnest(CAST(:taskIds AS bigint[])) AS t
+            """, nativeQuery = true)
+    int enqueueTasks(@Param("taskIds") Long[] taskIds);
+
+    /**
+     * Claims up to {@code limit} due entries for the current transaction, oldest first. Entries
+     * locked by another worker are skipped; entries that exhausted their attempts are ignored.
+     *
+     * @param maxAttempts attempts after which an entry is no longer retried
+     * @param limit       maximum number of entries
+     * @return claimed entries
+     */
+    @Query(value = """
+            SELECT * FROM attachment_outbox
+            WHERE next_attempt_at <= now() AND attempts < :maxAttempts
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<AttachmentOutboxEntry> claim(@Param("maxAttempts") int maxAttempts, @Param("limit") int limit);
+
+    /**
+     * Counts the entries still to be processed (due or waiting for a retry).
+     *
+     * @param maxAttempts attempts after which an entry is no longer retried
+     * @return number of pending entries
+     */
+    @Query("SELECT COUNT(e) FROM AttachmentOutboxEntry e WHERE e.attempts < :maxAttempts")
+    long countPending(@Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Counts the entries that exhausted their attempts.
+     *
+     * @param maxAttempts attempts after which an entry is no longer retried
+     * @return number of abandoned entries
+     */
+    @Query("SELECT COUNT(e) FROM AttachmentOutboxEntry e WHERE e.attempts >= :maxAttempts")
+    long countAbandoned(@Param("maxAttempts") int maxAttempts);
+}
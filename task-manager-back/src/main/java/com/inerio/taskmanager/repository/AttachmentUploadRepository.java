@@ -0,0 +1,30 @@
+package com.inerio.taskmanager.repository;
+
+import com.inerio.taskmanager.model.AttachmentUpload;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Spring Data JPA repository for {@link AttachmentUpload} entities.
+ */
+public interface AttachmentUploadRepository extends JpaRepository<AttachmentUpload, String> {
+
+    /**
+     * Finds an upload session of a task.
+     *
+     * @param id     upload id
+     * @param taskId task id
+     * @return the session, if it exists and belongs to the task
+     */
+    Optional<AttachmentUpload> findByIdAndTaskId(String id, Long taskId);
+
+    /**
+     * Returns the sessions idle since before the cutoff.
+     *
+     * @param cutoff last activity limit
+     * @return expired sessions
+     */
+    List<AttachmentUpload> findTop500ByUpdatedAtBefore(Instant cutoff);
+}
@@ -1,12 +1,15 @@
 package com.inerio.taskmanager.repository;
 
 import com.inerio.taskmanager.model.Board;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Spring Data JPA repository for {@link Board} entities.
@@ -27,7 +30,7 @@ public interface BoardRepository extends JpaRepository<Board, Long> {
 
     /**
      * Returns all boards for a given owner UID ordered by persistent position
-     * (nulls sorted last) and then by name. Columns are fetched eagerly via
+     * (nulls sorted last) and then by name, templates excluded. Columns are fetched eagerly via
      * {@link EntityGraph} to avoid N+1 issues when rendering boards.
      *
      * @param uid owner UID
@@ -37,11 +40,22 @@ public interface BoardRepository extends JpaRepository<Board, Long> {
     @Query("""
            SELECT b
            FROM Board b
-           WHERE b.owner.uid = :uid
+           WHERE b.owner.uid = :uid AND b.template = false
            ORDER BY COALESCE(b.position, 2147483647), b.name ASC
            """)
     List<Board> findAllByOwnerUidOrderByPositionAscNullsLast(String uid);
 
+    /**
+     * Returns the named templates of an owner by name. Columns are fetched eagerly via
+     * {@link EntityGraph}.
+     *
+     * @param uid owner UID
+     * @return the owner's templates
+     */
+    @EntityGraph(attributePaths = "kanbanColumns")
+    @Query("SELECT b FROM Board b WHERE b.owner.uid = :uid AND b.template = true ORDER BY b.name, b.id")
+    List<Board> findTemplatesByOwnerUid(@Param("uid") String uid);
+
     /**
      * Returns the maximum position value among the boards owned by the given UID.
      *
@@ -84,4 +98,104 @@ public interface BoardRepository extends JpaRepository<Board, Long> {
      */
     @EntityGraph(attributePaths = "kanbanColumns")
     List<Board> findAllByOwnerUid(String uid);
+
+    /**
+     * Moves a board of the owner to the trash with a single-row update; its columns and tasks stay
+     * as they are and are hidden with it.
+     *
+     * @param id  board id
+     * @param uid owner UID
+     * @return number of boards trashed (0 if the owner has no such live board)
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE board b SET deleted_at = now()
+            FROM user_account u
+            WHERE b.id = :id AND b.deleted_at IS NULL AND u.id = b.owner_id AND u.uid = :uid
+            """, nativeQuery = true)
+    int trash(@Param("id") Long id, @Param("uid") String uid);
+
+    /**
+     * Takes a board of the owner out of the trash, with everything it held, and appends it to the
+     * owner's boards.
+     *
+     * @param id  board id
+     * @param uid owner UID
+     * @return number of boards restored (0 if the owner has no such board in the trash)
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE board b SET deleted_at = NULL,
+                   position = (SELECT COALESCE(MAX(l.position) + 1, 0) FROM board l
+                               WHERE l.owner_id = b.owner_id AND l.deleted_at IS NULL)
+            FROM user_account u
+            WHERE b.id = :id AND b.deleted_at IS NOT NULL AND u.id = b.owner_id AND u.uid = :uid
+            """, nativeQuery = true)
+    int restore(@Param("id") Long id, @Param("uid") String uid);
+
+    /**
+     * Deletes up to {@code limit} boards whose trash retention has expired, with their remaining
+     * columns (database cascade). Their tasks must already be purged, so that their attachments
+     * are released.
+     *
+     * @param cutoff trash time limit
+     * @param limit  maximum number of boards deleted
+     * @return number of boards deleted
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM board
+            WHERE id IN (SELECT id FROM board WHERE deleted_at < :cutoff LIMIT :limit)
+            """, nativeQuery = true)
+    int purgeTrash(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    /**
+     * Copies the live columns and tasks of {@code sourceId} into the empty board {@code targetId},
+     * in one statement. New ids are drawn from the identity sequences up front, so the old-to-new
+     * mapping carries tasks into the copied columns and attachment rows onto the copied tasks.
+     * Attachments share their blobs: their reference counts are incremented, no content is read.
+     * The new rows are charged to nobody; the caller charges {@code ownerUid} for the returned
+     * sizes in the same transaction.
+     *
+     * @param sourceId board copied
+     * @param targetId board receiving the copy
+     * @param ownerUid UID the copied attachments are recorded against
+     * @return one {@code [Long sourceTaskId, Long taskId, String filename, String sha256, Long size]}
+     *         row per copied attachment
+     */
+    @Query(value = """
+            WITH cols AS (
+                SELECT c.id AS old_id, nextval(pg_get_serial_sequence('kanban_column', 'id')) AS new_id,
+                       c.name, c.position
+                FROM kanban_column c
+                WHERE c.board_id = :sourceId AND c.deleted_at IS NULL),
+            new_cols AS (
+                INSERT INTO kanban_column (id, name, position, board_id)
+                SELECT new_id, name, position, :targetId FROM cols),
+            tasks AS (
+                SELECT t.id AS old_id, nextval(pg_get_serial_sequence('task', 'id')) AS new_id,
+                       cols.new_id AS column_id, t.title, t.description, t.completed, t.completed_at,
+                       t.position, t.due_date
+                FROM task t JOIN cols ON cols.old_id = t.kanban_column_id
+                WHERE t.deleted_at IS NULL),
+            new_tasks AS (
+                INSERT INTO task (id, title, description, completed, completed_at, position, kanban_column_id,
+                                  creation_date, due_date)
+                SELECT new_id, title, description, completed, completed_at, position, column_id,
+                       localtimestamp, due_date
+                FROM tasks),
+            atts AS (
+                INSERT INTO task_attachment (task_id, owner_uid, filename, blob_sha256, size, content_type, uploaded_at)
+                SELECT tasks.new_id, :ownerUid, a.filename, a.blob_sha256, a.size, a.content_type, a.uploaded_at
+                FROM task_attachment a JOIN tasks ON tasks.old_id = a.task_id
+                RETURNING task_id, filename, blob_sha256, size),
+            shared AS (
+                UPDATE attachment_blob b SET ref_count = b.ref_count + g.n
+                FROM (SELECT blob_sha256, COUNT(*) AS n FROM atts GROUP BY blob_sha256) g
+                WHERE b.sha256 = g.blob_sha256)
+            SELECT tasks.old_id, atts.task_id, atts.filename, atts.blob_sha256, atts.size
+            FROM atts JOIN tasks ON tasks.new_id = atts.task_id
+            """, nativeQuery = true)
+    List<Object[]> copyContent(@Param("sourceId") Long sourceId, @Param("targetId") Long targetId,
+                               @Param("ownerUid") String ownerUid);
 }
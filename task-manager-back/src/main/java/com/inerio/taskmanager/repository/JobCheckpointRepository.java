@@ -0,0 +1,52 @@
+package com.inerio.taskmanager.repository;
+
+import com.inerio.taskmanager.model.JobCheckpoint;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for {@link JobCheckpoint} entities.
+ * <p>
+ * Progress is written through the fenced statements below, which only apply if no run with a
+ * larger fencing token has written since.
+ * </p>
+ */
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+
+    /**
+     * Creates or advances the checkpoint of a job on behalf of a run.
+     *
+     * @param name    job name
+     * @param lastKey largest key fully processed
+     * @param cutoff  cutoff of the sweep
+     * @param fence   fencing token of the run
+     * @return 1 if saved, 0 if a later run owns the checkpoint
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO job_checkpoint (name, last_key, cutoff, fence, updated_at)
+            VALUES (:name, :lastKey, :cutoff, :fence, now())
+            ON CONFLICT (name) DO UPDATE
+            SET last_key = EXCLUDED.last_key, cutoff = EXCLUDED.cutoff, fence = EXCLUDED.fence, updated_at = now()
+            WHERE job_checkpoint.fence <= EXCLUDED.fence
+            """, nativeQuery = true)
+    int saveFenced(@Param("name") String name, @Param("lastKey") long lastKey,
+                   @Param("cutoff") Instant cutoff, @Param("fence") long fence);
+
+    /**
+     * Removes the checkpoint of a completed sweep, unless a later run owns it.
+     *
+     * @param name  job name
+     * @param fence fencing token of the run
+     * @return number of rows removed
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM job_checkpoint WHERE name = :name AND fence <= :fence", nativeQuery = true)
+    int deleteFenced(@Param("name") String name, @Param("fence") long fence);
+}
@@ -0,0 +1,42 @@
+package com.inerio.taskmanager.repository;
+
+import com.inerio.taskmanager.model.JobRun;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for {@link JobRun} entities.
+ */
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+
+    /**
+     * Marks the runs of a job still recorded as running as abandoned. Only called by the holder of
+     * the job's lock, so those runs cannot be alive.
+     *
+     * @param name job name
+     * @return number of runs marked
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE job_run SET status = 'ABANDONED', finished_at = now()
+            WHERE name = :name AND status = 'RUNNING'
+            """, nativeQuery = true)
+    int abandonRunning(@Param("name") String name);
+
+    /**
+     * Removes the history of a job older than the given time.
+     *
+     * @param name   job name
+     * @param before start time limit
+     * @return number of runs removed
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM job_run WHERE name = :name AND started_at < :before", nativeQuery = true)
+    int deleteHistory(@Param("name") String name, @Param("before") Instant before);
+}
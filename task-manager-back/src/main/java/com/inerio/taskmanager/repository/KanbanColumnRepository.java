@@ -2,8 +2,14 @@ package com.inerio.taskmanager.repository;
 
 import com.inerio.taskmanager.model.Board;
 import com.inerio.taskmanager.model.KanbanColumn;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Spring Data JPA repository for {@link KanbanColumn} entities.
@@ -55,11 +61,95 @@ public interface KanbanColumnRepository extends JpaRepository<KanbanColumn, Long
 
     /**
      * Fast ownership guard used by controllers/services:
-     * checks whether a column id belongs to a board owned by the specified UID.
+     * checks whether a column id belongs to a board owned by the specified UID. Columns of a
+     * trashed board fail the guard.
      *
      * @param id  column id
      * @param uid owner UID
      * @return {@code true} if the column belongs to a board owned by the UID, otherwise {@code false}
      */
-    boolean existsByIdAndBoardOwnerUid(Long id, String uid);
+    @Query("""
+           SELECT COUNT(c) > 0
+           FROM KanbanColumn c
+           JOIN c.board b
+           WHERE c.id = :id AND b.owner.uid = :uid
+             AND c.deletedAt IS NULL AND b.deletedAt IS NULL
+           """)
+    boolean existsByIdAndBoardOwnerUid(@Param("id") Long id, @Param("uid") String uid);
+
+    /**
+     * Checks whether a live column belongs to the given board.
+     *
+     * @param id      column id
+     * @param boardId board id
+     * @return {@code true} if the column is on that board
+     */
+    boolean existsByIdAndBoardId(Long id, Long boardId);
+
+    /**
+     * Set-based ownership guard for batches: returns the columns among {@code ids} that belong to
+     * boards owned by the UID.
+     *
+     * @param ids column ids
+     * @param uid owner UID
+     * @return the owned columns (missing or foreign ids are absent)
+     */
+    List<KanbanColumn> findAllByIdInAndBoardOwnerUid(Collection<Long> ids, String uid);
+
+    /**
+     * Moves a column to the trash with a single-row update; its tasks stay as they are and are
+     * hidden with it. Must run in the caller's (read-write) transaction.
+     *
+     * @param id column id
+     * @return id of the column's board, or empty if the column is not live
+     */
+    @Query(value = "UPDATE kanban_column SET deleted_at = now() WHERE id = :id AND deleted_at IS NULL RETURNING board_id",
+           nativeQuery = true)
+    Optional<Long> trash(@Param("id") Long id);
+
+    /**
+     * Tells where a column of the owner stands with regard to the trash, whatever its state.
+     *
+     * @param id  column id
+     * @param uid owner UID
+     * @return rows as {@code [Boolean trashed, Boolean boardLive, Long boardId]}; empty if the owner has no such column
+     */
+    @Query(value = """
+            SELECT c.deleted_at IS NOT NULL, b.deleted_at IS NULL, b.id
+            FROM kanban_column c
+            JOIN board b ON b.id = c.board_id
+            JOIN user_account u ON u.id = b.owner_id
+            WHERE c.id = :id AND u.uid = :uid
+            """, nativeQuery = true)
+    List<Object[]> findTrashState(@Param("id") Long id, @Param("uid") String uid);
+
+    /**
+     * Takes a column out of the trash, with the tasks it held, and appends it to its board.
+     *
+     * @param id column id
+     * @return number of columns restored (0 if the column is not in the trash)
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE kanban_column c SET deleted_at = NULL,
+                   position = (SELECT COALESCE(MAX(l.position), 0) + 1 FROM kanban_column l
+                               WHERE l.board_id = c.board_id AND l.deleted_at IS NULL)
+            WHERE c.id = :id AND c.deleted_at IS NOT NULL
+            """, nativeQuery = true)
+    int restore(@Param("id") Long id);
+
+    /**
+     * Deletes up to {@code limit} columns whose trash retention has expired. Their tasks must
+     * already be purged, so that their attachments are released.
+     *
+     * @param cutoff trash time limit
+     * @param limit  maximum number of columns deleted
+     * @return number of columns deleted
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM kanban_column
+            WHERE id IN (SELECT id FROM kanban_column WHERE deleted_at < :cutoff LIMIT :limit)
+            """, nativeQuery = true)
+    int purgeTrash(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
 }
@@ -0,0 +1,250 @@
+package com.inerio.taskmanager.repository;
+
+import com.inerio.taskmanager.model.TaskAttachment;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for {@link TaskAttachment} entities.
+ * <p>
+ * The release statements delete attachment rows, credit their owners' storage counters and
+ * decrement the reference counts of the blobs they pointed at in a single round trip
+ * (data-modifying CTEs).
+ * </p>
+ */
+public interface TaskAttachmentRepository extends JpaRepository<TaskAttachment, Long> {
+
+    /**
+     * Releases the reference held by one attachment of a task.
+     *
+     * @param taskId   task id
+     * @param filename sanitized filename
+     * @return number of blobs whose count was decremented (0 if the attachment had no reference)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            WITH gone AS (
+                DELETE FROM task_attachment WHERE task_id = :taskId AND filename = :filename
+                RETURNING blob_sha256, owner_uid, size),
+            credited AS (
+                UPDATE user_account u
+                SET attachment_bytes = u.attachment_bytes - c.bytes, attachment_count = u.attachment_count - c.n
+                FROM (SELECT owner_uid, SUM(size) AS bytes, COUNT(*) AS n FROM gone GROUP BY owner_uid) c
+                WHERE u.uid = c.owner_uid)
+            UPDATE attachment_blob b SET ref_count = b.ref_count - g.n
+            FROM (SELECT blob_sha256, COUNT(*) AS n FROM gone GROUP BY blob_sha256) g
+            WHERE b.sha256 = g.blob_sha256
+            """, nativeQuery = true)
+    int release(@Param("taskId") Long taskId, @Param("filename") String filename);
+
+    /**
+     * Releases every reference held by the given tasks, bound as a single {@code bigint[]}
+     * parameter so the statement stays the same whatever the number of tasks.
+     *
+     * @param taskIds task ids
+     * @return number of blobs whose count was decremented
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            WITH gone AS (
+                DELETE FROM task_attachment WHERE task_id = ANY(CAST(:taskIds AS bigint[]))
+                RETURNING blob_sha256, owner_uid, size),
+            credited AS (
+                UPDATE user_account u
+                SET attachment_bytes = u.attachment_bytes - c.bytes, attachment_count = u.attachment_count - c.n
+                FROM (SELECT owner_uid, SUM(size) AS bytes, COUNT(*) AS n FROM gone GROUP BY owner_uid) c
+                WHERE u.uid = c.owner_uid)
+            UPDATE attachment_blob b SET ref_count = b.ref_count - g.n
+            FROM (SELECT blob_sha256, COUNT(*) AS n FROM gone GROUP BY blob_sha256) g
+            WHERE b.sha256 = g.blob_sha256
+            """, nativeQuery = true)
+    int releaseAll(@Param("taskIds") Long[] taskIds);
+
+    /**
+     * Releases every attachment of a task that is kept, and records the removal of their files in
+     * the attachment outbox (the task folder itself stays).
+     *
+     * @param taskId task id
+     * @return number of blobs whose count was decremented
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            WITH gone AS (
+                DELETE FROM task_attachment WHERE task_id = :taskId
+                RETURNING task_id, filename, blob_sha256, owner_uid, size),
+            queued AS (
+                INSERT INTO attachment_outbox (task_id, filename, created_at, attempts, next_attempt_at)
+                SELECT task_id, filename, now(), 0, now() FROM gone),
+            credited AS (
+                UPDATE user_account u
+                SET attachment_bytes = u.attachment_bytes - c.bytes, attachment_count = u.attachment_count - c.n
+                FROM (SELECT owner_uid, SUM(size) AS bytes, COUNT(*) AS n FROM gone GROUP BY owner_uid) c
+                WHERE u.uid = c.owner_uid)
+            UPDATE attachment_blob b SET ref_count = b.ref_count - g.n
+            FROM (SELECT blob_sha256, COUNT(*) AS n FROM gone GROUP BY blob_sha256) g
+            WHERE b.sha256 = g.blob_sha256
+            """, nativeQuery = true)
+    int releaseFiles(@Param("taskId") Long taskId);
+
+    /**
+     * Releases references whose task no longer exists (e.g. removed by a board or column cascade)
+     * and records the removal of those tasks' folders in the attachment outbox.
+     *
+     * @return number of blobs whose count was decremented
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            WITH gone AS (
+                DELETE FROM task_attachment a
+                WHERE NOT EXISTS (SELECT 1 FROM task t WHERE t.id = a.task_id)
+                RETURNING task_id, blob_sha256, owner_uid, size),
+            queued AS (
+                INSERT INTO attachment_outbox (task_id, created_at, attempts, next_attempt_at)
+                SELECT DISTINCT task_id, now(), 0, now() FROM gone),
+            credited AS (
+                UPDATE user_account u
+                SET attachment_bytes = u.attachment_bytes - c.bytes, attachment_count = u.attachment_count - c.n
+                FROM (SELECT owner_uid, SUM(size) AS bytes, COUNT(*) AS n FROM gone GROUP BY owner_uid) c
+                WHERE u.uid = c.owner_uid)
+            UPDATE attachment_blob b SET ref_count = b.ref_count - g.n
+            FROM (SELECT blob_sha256, COUNT(*) AS n FROM gone GROUP BY blob_sha256) g
+            WHERE b.sha256 = g.blob_sha256
+            """, nativeQuery = true)
+    int releaseOrphans();
+
+    /**
+     * Returns the attachment filenames of the given tasks, bound as a single {@code bigint[]}
+     * parameter.
+     *
+     * @param taskIds task ids
+     * @return rows as {@code [Long taskId, String filename]}
+     */
+    @Query(value = "SELECT task_id, filename FROM task_attachment WHERE task_id = ANY(CAST(:taskIds AS bigint[]))",
+           nativeQuery = true)
+    List<Object[]> findFilenames(@Param("taskIds") Long[] taskIds);
+
+    /**
+     * Lists the attachments of a task for an archive export, by filename.
+     *
+     * @param taskId task id
+     * @return rows as {@code [Long taskId, String taskTitle, String filename, String contentType, Instant uploadedAt]}
+     */
+    @Query(value = """
+            SELECT a.task_id, t.title, a.filename, a.content_type, a.uploaded_at
+            FROM task_attachment a
+            JOIN task t ON t.id = a.task_id
+            WHERE a.task_id = :taskId AND t.deleted_at IS NULL
+            ORDER BY a.filename
+            """, nativeQuery = true)
+    List<Object[]> findArchiveEntriesByTask(@Param("taskId") Long taskId);
+
+    /**
+     * Lists the attachments of every live task of a board for an archive export, in board order.
+     *
+     * @param boardId board id
+     * @return rows as {@code [Long taskId, String taskTitle, String filename, String contentType, Instant uploadedAt]}
+     */
+    @Query(value = """
+            SELECT a.task_id, t.title, a.filename, a.content_type, a.uploaded_at
+            FROM task_attachment a
+            JOIN task t ON t.id = a.task_id
+            JOIN kanban_column c ON c.id = t.kanban_column_id
+            WHERE c.board_id = :boardId AND c.deleted_at IS NULL AND t.deleted_at IS NULL
+            ORDER BY c.position, t.position, t.id, a.filename
+            """, nativeQuery = true)
+    List<Object[]> findArchiveEntriesByBoard(@Param("boardId") Long boardId);
+
+    /**
+     * Tells whether the task has any attachment.
+     *
+     * @param taskId task id
+     * @return {@code true} if at least one row exists
+     */
+    boolean existsByTaskId(Long taskId);
+
+    /**
+     * Tells whether an attachment of the task already has metadata.
+     *
+     * @param taskId   task id
+     * @param filename sanitized filename
+     * @return {@code true} if a row exists
+     */
+    boolean existsByTaskIdAndFilename(Long taskId, String filename);
+
+    /**
+     * Completes rows recorded before attachments carried their owner and size (size taken from the
+     * blob) and charges them to their owners, in one statement.
+     *
+     * @return number of accounts charged
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            WITH filled AS (
+                UPDATE task_attachment a SET owner_uid = u.uid, size = bl.size
+                FROM attachment_blob bl, task t, kanban_column c, board b, user_account u
+                WHERE a.owner_uid IS NULL AND bl.sha256 = a.blob_sha256 AND t.id = a.task_id
+                  AND c.id = t.kanban_column_id AND b.id = c.board_id AND u.id = b.owner_id
+                RETURNING a.owner_uid, a.size)
+            UPDATE user_account u
+            SET attachment_bytes = u.attachment_bytes + f.bytes, attachment_count = u.attachment_count + f.n
+            FROM (SELECT owner_uid, SUM(size) AS bytes, COUNT(*) AS n FROM filled GROUP BY owner_uid) f
+            WHERE u.uid = f.owner_uid
+            """, nativeQuery = true)
+    int fillMissingOwners();
+
+    /**
+     * Tells whether the pre-metadata attachment table ({@code task_attachments}) still exists.
+     *
+     * @return {@code true} if legacy rows may remain to be migrated
+     */
+    @Query(value = "SELECT to_regclass('task_attachments') IS NOT NULL", nativeQuery = true)
+    boolean legacyTableExists();
+
+    /**
+     * Returns legacy attachment rows (task id, filename, owner UID) still to be migrated.
+     *
+     * @param limit maximum number of rows
+     * @return rows as {@code [Long taskId, String filename, String ownerUid]}
+     */
+    @Query(value = """
+            SELECT l.task_id, l.filename, u.uid
+            FROM task_attachments l
+            JOIN task t ON t.id = l.task_id
+            JOIN kanban_column c ON c.id = t.kanban_column_id
+            JOIN board b ON b.id = c.board_id
+            JOIN user_account u ON u.id = b.owner_id
+            ORDER BY l.task_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findLegacy(@Param("limit") int limit);
+
+    /**
+     * Removes a migrated legacy attachment row.
+     *
+     * @param taskId   task id
+     * @param filename filename
+     * @return number of rows removed
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM task_attachments WHERE task_id = :taskId AND filename = :filename", nativeQuery = true)
+    int deleteLegacy(@Param("taskId") Long taskId, @Param("filename") String filename);
+
+    /**
+     * Drops the legacy attachment table once every row has been migrated. Its foreign key to
+     * {@code task} would otherwise keep blocking task deletions.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DROP TABLE IF EXISTS task_attachments", nativeQuery = true)
+    void dropLegacyTable();
+}
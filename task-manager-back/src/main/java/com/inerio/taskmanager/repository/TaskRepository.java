@@ -1,10 +1,14 @@
 package com.inerio.taskmanager.repository;
 
+import com.inerio.taskmanager.dto.TaskSummaryDto;
 import com.inerio.taskmanager.model.KanbanColumn;
 import com.inerio.taskmanager.model.Task;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -15,7 +19,7 @@ import org.springframework.data.repository.query.Param;
  * used to enforce per-user data scoping.
  * </p>
  */
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
 
     /**
      * Returns all tasks for the given column ordered by their persistent position (ascending).
@@ -85,13 +89,22 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
 
     /**
      * Fast ownership guard used by controllers/services:
-     * checks whether a task id belongs to a board owned by the specified UID.
+     * checks whether a task id belongs to a board owned by the specified UID. Tasks of a trashed
+     * column or board are not live and fail the guard.
      *
      * @param id  task id
      * @param uid owner UID
      * @return {@code true} if the task belongs to a board owned by the UID, otherwise {@code false}
      */
-    boolean existsByIdAndKanbanColumnBoardOwnerUid(Long id, String uid);
+    @Query("""
+           SELECT COUNT(t) > 0
+           FROM Task t
+           JOIN t.kanbanColumn c
+           JOIN c.board b
+           WHERE t.id = :id AND b.owner.uid = :uid
+             AND c.deletedAt IS NULL AND b.deletedAt IS NULL
+           """)
+    boolean existsByIdAndKanbanColumnBoardOwnerUid(@Param("id") Long id, @Param("uid") String uid);
 
     /**
      * Returns all tasks for the given column ordered by position ascending, then by id ascending.
@@ -110,27 +123,410 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     /**
      * Returns all tasks that belong to boards owned by the given UID.
      * Results are ordered to be stable for UI rendering: by board -> column -> task position.
+     * Tasks of trashed columns and boards are left out.
      */
     @Query("""
     	       SELECT t
     	       FROM Task t
-    	       WHERE t.kanbanColumn.board.owner.uid = :uid
-    	       ORDER BY t.kanbanColumn.board.id ASC,
-    	                t.kanbanColumn.position ASC,
+    	       JOIN t.kanbanColumn c
+    	       JOIN c.board b
+    	       WHERE b.owner.uid = :uid
+    	         AND c.deletedAt IS NULL AND b.deletedAt IS NULL
+    	       ORDER BY b.id ASC,
+    	                c.position ASC,
     	                t.position ASC,
     	                t.id ASC
     	       """)
     List<Task> findAllForOwnerOrdered(@Param("uid") String uid);
 
     /**
-     * Returns all tasks that belong to boards owned by the given UID (unordered).
+     * Returns all tasks that belong to live columns of live boards owned by the given UID (unordered).
      */
-    @Query("SELECT t FROM Task t WHERE t.kanbanColumn.board.owner.uid = :uid")
+    @Query("""
+           SELECT t
+           FROM Task t
+           JOIN t.kanbanColumn c
+           JOIN c.board b
+           WHERE b.owner.uid = :uid AND c.deletedAt IS NULL AND b.deletedAt IS NULL
+           """)
     List<Task> findAllByOwnerUid(@Param("uid") String uid);
 
+    /**
+     * Moves a task to the trash with a single-row update. Its position is kept: the unique
+     * {@code (column, position)} index only covers live tasks, and the gap left in the column is
+     * harmless. Must run in the caller's (read-write) transaction.
+     *
+     * @param id task id
+     * @return id of the task's board, or empty if the task is not live
+     */
+    @Query(value = """
+            UPDATE task t SET deleted_at = now()
+            FROM kanban_column c
+            WHERE t.id = :id AND t.deleted_at IS NULL AND c.id = t.kanban_column_id
+            RETURNING c.board_id
+            """, nativeQuery = true)
+    Optional<Long> trash(@Param("id") Long id);
+
+    /**
+     * Moves every live task of a column to the trash in one statement, without loading them.
+     *
+     * @param columnId column id
+     * @return number of tasks trashed
+     */
+    @Modifying
+    @Query(value = "UPDATE task SET deleted_at = now() WHERE kanban_column_id = :columnId AND deleted_at IS NULL",
+           nativeQuery = true)
+    int trashAllOfColumn(@Param("columnId") Long columnId);
+
+    /**
+     * Marks every open live task of a column as completed in one statement, stamping the
+     * completion time.
+     *
+     * @param columnId column id
+     * @return number of tasks completed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE task SET completed = true, completed_at = COALESCE(completed_at, now())
+            WHERE kanban_column_id = :columnId AND deleted_at IS NULL AND NOT completed
+            """, nativeQuery = true)
+    int completeAllOfColumn(@Param("columnId") Long columnId);
+
+    /**
+     * Moves every completed live task of a column to the trash in one statement.
+     *
+     * @param columnId column id
+     * @return number of tasks trashed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE task SET deleted_at = now()
+            WHERE kanban_column_id = :columnId AND deleted_at IS NULL AND completed
+            """, nativeQuery = true)
+    int trashCompletedOfColumn(@Param("columnId") Long columnId);
+
+    /**
+     * Moves every completed live task of a column to the end of another column in one statement,
+     * keeping their relative order. The new positions all lie past the target's last one, so the
+     * unique {@code (column, position)} index is never hit; the source is left with gaps.
+     *
+     * @param columnId       source column id
+     * @param targetColumnId target column id
+     * @return number of tasks moved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE task t SET kanban_column_id = :targetColumnId, position = m.last + r.rn
+            FROM (SELECT id, row_number() OVER (ORDER BY position, id) AS rn
+                  FROM task
+                  WHERE kanban_column_id = :columnId AND deleted_at IS NULL AND completed) r,
+                 (SELECT COALESCE(MAX(position), -1) AS last
+                  FROM task
+                  WHERE kanban_column_id = :targetColumnId AND deleted_at IS NULL) m
+            WHERE t.id = r.id
+            """, nativeQuery = true)
+    int moveCompletedOfColumn(@Param("columnId") Long columnId, @Param("targetColumnId") Long targetColumnId);
+
+    /**
+     * Moves every live task of the live columns of a board to the trash in one statement.
+     *
+     * @param boardId board id
+     * @return number of tasks trashed
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE task t SET deleted_at = now()
+            FROM kanban_column c
+            WHERE t.kanban_column_id = c.id AND c.board_id = :boardId
+              AND c.deleted_at IS NULL AND t.deleted_at IS NULL
+            """, nativeQuery = true)
+    int trashAllOfBoard(@Param("boardId") Long boardId);
+
+    /**
+     * Moves every live task of the owner's live boards to the trash in one statement. Must run in
+     * the caller's (read-write) transaction.
+     *
+     * @param uid owner UID
+     * @return ids of the boards that had tasks trashed
+     */
+    @Query(value = """
+            WITH trashed AS (
+                UPDATE task t SET deleted_at = now()
+                FROM kanban_column c, board b, user_account u
+                WHERE t.kanban_column_id = c.id AND c.board_id = b.id AND b.owner_id = u.id AND u.uid = :uid
+                  AND b.deleted_at IS NULL AND c.deleted_at IS NULL AND t.deleted_at IS NULL
+                RETURNING c.board_id)
+            SELECT DISTINCT board_id FROM trashed
+            """, nativeQuery = true)
+    List<Long> trashAllOfOwner(@Param("uid") String uid);
+
+    /**
+     * Moves the given tasks to the trash, bound as a single {@code bigint[]} parameter. Pending
+     * changes are flushed first and the persistence context is cleared afterwards.
+     *
+     * @param ids task ids
+     * @return number of tasks trashed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE task SET deleted_at = now() WHERE id = ANY(CAST(:ids AS bigint[])) AND deleted_at IS NULL",
+           nativeQuery = true)
+    int trashAll(@Param("ids") Long[] ids);
+
+    /**
+     * Tells where a task of the owner stands with regard to the trash, whatever its state.
+     *
+     * @param id  task id
+     * @param uid owner UID
+     * @return rows as {@code [Boolean trashed, Boolean parentsLive]}; empty if the owner has no such task
+     */
+    @Query(value = """
+            SELECT t.deleted_at IS NOT NULL, c.deleted_at IS NULL AND b.deleted_at IS NULL
+            FROM task t
+            JOIN kanban_column c ON c.id = t.kanban_column_id
+            JOIN board b ON b.id = c.board_id
+            JOIN user_account u ON u.id = b.owner_id
+            WHERE t.id = :id AND u.uid = :uid
+            """, nativeQuery = true)
+    List<Object[]> findTrashState(@Param("id") Long id, @Param("uid") String uid);
+
+    /**
+     * Takes a task out of the trash and appends it to its column. Must run in the caller's
+     * (read-write) transaction.
+     *
+     * @param id task id
+     * @return id of the task's board, or empty if the task is not in the trash
+     */
+    @Query(value = """
+            UPDATE task t SET deleted_at = NULL,
+                   position = (SELECT COALESCE(MAX(l.position) + 1, 0) FROM task l
+                               WHERE l.kanban_column_id = t.kanban_column_id AND l.deleted_at IS NULL)
+            FROM kanban_column c
+            WHERE t.id = :id AND t.deleted_at IS NOT NULL AND c.id = t.kanban_column_id
+            RETURNING c.board_id
+            """, nativeQuery = true)
+    Optional<Long> restore(@Param("id") Long id);
+
     /**
      * Returns the maximum position in a column, or empty if column has no tasks.
      */
     @Query("SELECT MAX(t.position) FROM Task t WHERE t.kanbanColumn = :col")
     Optional<Integer> findMaxPositionByKanbanColumn(@Param("col") KanbanColumn col);
+
+    /**
+     * Summary projection of all tasks owned by the given UID, in the same order as
+     * {@link #findAllForOwnerOrdered(String)}. Never reads descriptions nor loads the
+     * attachment collection; the attachment count is computed in SQL.
+     */
+    @Query("""
+           SELECT new com.inerio.taskmanager.dto.TaskSummaryDto(
+                  t.id, t.title, t.completed, t.dueDate, t.position, c.id, SIZE(t.attachments))
+           FROM Task t
+           JOIN t.kanbanColumn c
+           JOIN c.board b
+           WHERE b.owner.uid = :uid
+             AND c.deletedAt IS NULL AND b.deletedAt IS NULL
+           ORDER BY b.id ASC, c.position ASC, t.position ASC, t.id ASC
+           """)
+    List<TaskSummaryDto> findSummariesForOwnerOrdered(@Param("uid") String uid);
+
+    /**
+     * Same as {@link #findSummariesForOwnerOrdered(String)} without the attachment count, for
+     * {@code fields} selections that leave it out: the attachment table is not read at all.
+     */
+    @Query("""
+           SELECT new com.inerio.taskmanager.dto.TaskSummaryDto(
+                  t.id, t.title, t.completed, t.dueDate, t.position, c.id)
+           FROM Task t
+           JOIN t.kanbanColumn c
+           JOIN c.board b
+           WHERE b.owner.uid = :uid
+             AND c.deletedAt IS NULL AND b.deletedAt IS NULL
+           ORDER BY b.id ASC, c.position ASC, t.position ASC, t.id ASC
+           """)
+    List<TaskSummaryDto> findSummariesWithoutAttachmentCountForOwnerOrdered(@Param("uid") String uid);
+
+    /**
+     * Summary projection of the tasks of one column ordered by position, then id.
+     */
+    @Query("""
+           SELECT new com.inerio.taskmanager.dto.TaskSummaryDto(
+                  t.id, t.title, t.completed, t.dueDate, t.position, t.kanbanColumn.id, SIZE(t.attachments))
+           FROM Task t
+           WHERE t.kanbanColumn.id = :columnId
+           ORDER BY t.position ASC, t.id ASC
+           """)
+    List<TaskSummaryDto> findSummariesByKanbanColumnId(@Param("columnId") Long columnId);
+
+    /**
+     * Same as {@link #findSummariesByKanbanColumnId(Long)} without the attachment count.
+     */
+    @Query("""
+           SELECT new com.inerio.taskmanager.dto.TaskSummaryDto(
+                  t.id, t.title, t.completed, t.dueDate, t.position, t.kanbanColumn.id)
+           FROM Task t
+           WHERE t.kanbanColumn.id = :columnId
+           ORDER BY t.position ASC, t.id ASC
+           """)
+    List<TaskSummaryDto> findSummariesWithoutAttachmentCountByKanbanColumnId(@Param("columnId") Long columnId);
+
+    /**
+     * Returns the id of the board that contains the given task, without loading the task.
+     */
+    @Query("SELECT t.kanbanColumn.board.id FROM Task t WHERE t.id = :id")
+    Optional<Long> findBoardIdByTaskId(@Param("id") Long id);
+
+    /**
+     * Returns the UID of the owner of the board that contains the given task, without loading the task.
+     */
+    @Query("SELECT t.kanbanColumn.board.owner.uid FROM Task t WHERE t.id = :id")
+    Optional<String> findOwnerUidByTaskId(@Param("id") Long id);
+
+    /**
+     * Returns which of the given ids still denote a task; the ids are bound as a single
+     * {@code bigint[]} parameter so the statement stays the same whatever the batch size.
+     */
+    @Query(value = "SELECT id FROM task WHERE id = ANY(CAST(:ids AS bigint[]))", nativeQuery = true)
+    List<Long> findExistingIds(@Param("ids") Long[] ids);
+
+    /**
+     * Set-based ownership guard for batches: returns the tasks among {@code ids} that belong to
+     * boards owned by the UID, with their column and attachments fetched in the same query.
+     */
+    @Query("""
+           SELECT DISTINCT t
+           FROM Task t
+           JOIN FETCH t.kanbanColumn c
+           JOIN c.board b
+           LEFT JOIN FETCH t.attachments
+           WHERE t.id IN :ids AND b.owner.uid = :uid
+             AND c.deletedAt IS NULL AND b.deletedAt IS NULL
+           """)
+    List<Task> findAllByIdInForOwner(@Param("ids") Collection<Long> ids, @Param("uid") String uid);
+
+    /**
+     * Returns {@code [columnId, maxPosition]} rows for the given columns; empty columns are absent.
+     */
+    @Query("""
+           SELECT t.kanbanColumn.id, MAX(t.position)
+           FROM Task t
+           WHERE t.kanbanColumn.id IN :columnIds
+           GROUP BY t.kanbanColumn.id
+           """)
+    List<Object[]> findMaxPositionsByKanbanColumnIds(@Param("columnIds") Collection<Long> columnIds);
+
+    /**
+     * Stamps up to {@code limit} completed tasks that carry no completion time (rows completed
+     * before it was recorded) with the current time.
+     *
+     * @param limit maximum number of tasks stamped
+     * @return number of tasks stamped
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE task SET completed_at = now()
+            WHERE id IN (SELECT id FROM task WHERE completed AND completed_at IS NULL LIMIT :limit)
+            """, nativeQuery = true)
+    int stampCompletion(@Param("limit") int limit);
+
+    /**
+     * First step of a set-based renumbering: moves every position of the given columns out of the
+     * way of the unique {@code (column, position)} index of live tasks.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.position = t.position + :bump WHERE t.kanbanColumn.id IN :columnIds")
+    int bumpPositions(@Param("columnIds") Collection<Long> columnIds, @Param("bump") int bump);
+
+    /**
+     * Second step of a set-based renumbering: rewrites the positions of the live tasks of the given
+     * columns to {@code 0..n-1}, keeping the current order (ties broken by id).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+           UPDATE task t SET position = r.rn - 1
+           FROM (SELECT id, row_number() OVER (PARTITION BY kanban_column_id ORDER BY position, id) AS rn
+                 FROM task
+                 WHERE kanban_column_id IN (:columnIds) AND deleted_at IS NULL) r
+           WHERE t.id = r.id
+           """, nativeQuery = true)
+    int compactPositions(@Param("columnIds") Collection<Long> columnIds);
+
+    /**
+     * Deletes up to {@code limit} tasks of an account that is still inactive, releasing their
+     * attachments (blob references, storage counters) and queueing the removal of their folders in
+     * the attachment outbox, in one statement.
+     *
+     * @param accountId owner account id
+     * @param cutoff    last activity limit; nothing is deleted once the account is active again
+     * @param limit     maximum number of tasks deleted
+     * @return number of tasks deleted
+     */
+    @Modifying
+    @Query(value = """
+            WITH doomed AS (
+                SELECT t.id FROM task t
+                JOIN kanban_column c ON c.id = t.kanban_column_id
+                JOIN board b ON b.id = c.board_id
+                JOIN user_account u ON u.id = b.owner_id
+                WHERE u.id = :accountId AND u.last_active_at < :cutoff
+                LIMIT :limit),
+            gone AS (
+                DELETE FROM task_attachment a USING doomed d WHERE a.task_id = d.id
+                RETURNING a.task_id, a.blob_sha256, a.owner_uid, a.size),
+            queued AS (
+                INSERT INTO attachment_outbox (task_id, created_at, attempts, next_attempt_at)
+                SELECT DISTINCT task_id, now(), 0, now() FROM gone),
+            credited AS (
+                UPDATE user_account u
+                SET attachment_bytes = u.attachment_bytes - c.bytes, attachment_count = u.attachment_count - c.n
+                FROM (SELECT owner_uid, SUM(size) AS bytes, COUNT(*) AS n FROM gone GROUP BY owner_uid) c
+                WHERE u.uid = c.owner_uid),
+            released AS (
+                UPDATE attachment_blob b SET ref_count = b.ref_count - g.n
+                FROM (SELECT blob_sha256, COUNT(*) AS n FROM gone GROUP BY blob_sha256) g
+                WHERE b.sha256 = g.blob_sha256)
+            DELETE FROM task t USING doomed d WHERE t.id = d.id
+            """, nativeQuery = true)
+    int purgeStaleOwner(@Param("accountId") long accountId, @Param("cutoff") Instant cutoff,
+                        @Param("limit") int limit);
+
+    /**
+     * Deletes up to {@code limit} tasks whose trash retention has expired, on their own or with
+     * their column or board, releasing their attachments and queueing the removal of their folders
+     * in the attachment outbox, in one statement.
+     *
+     * @param cutoff trash time limit
+     * @param limit  maximum number of tasks deleted
+     * @return number of tasks deleted
+     */
+    @Modifying
+    @Query(value = """
+            WITH doomed AS (
+                (SELECT t.id FROM task t WHERE t.deleted_at < :cutoff
+                 UNION ALL
+                 SELECT t.id FROM kanban_column c JOIN task t ON t.kanban_column_id = c.id
+                 WHERE c.deleted_at < :cutoff
+                 UNION ALL
+                 SELECT t.id FROM board b
+                 JOIN kanban_column c ON c.board_id = b.id
+                 JOIN task t ON t.kanban_column_id = c.id
+                 WHERE b.deleted_at < :cutoff)
+                LIMIT :limit),
+            gone AS (
+                DELETE FROM task_attachment a USING doomed d WHERE a.task_id = d.id
+                RETURNING a.task_id, a.blob_sha256, a.owner_uid, a.size),
+            queued AS (
+                INSERT INTO attachment_outbox (task_id, created_at, attempts, next_attempt_at)
+                SELECT DISTINCT task_id, now(), 0, now() FROM gone),
+            credited AS (
+                UPDATE user_account u
+                SET attachment_bytes = u.attachment_bytes - c.bytes, attachment_count = u.attachment_count - c.n
+                FROM (SELECT owner_uid, SUM(size) AS bytes, COUNT(*) AS n FROM gone GROUP BY owner_uid) c
+                WHERE u.uid = c.owner_uid),
+            released AS (
+                UPDATE attachment_blob b SET ref_count = b.ref_count - g.n
+                FROM (SELECT blob_sha256, COUNT(*) AS n FROM gone GROUP BY blob_sha256) g
+                WHERE b.sha256 = g.blob_sha256)
+            DELETE FROM task t USING doomed d WHERE t.id = d.id
+            """, nativeQuery = true)
+    int purgeTrash(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
 }
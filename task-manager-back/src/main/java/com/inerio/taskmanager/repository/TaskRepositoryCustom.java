@@ -0,0 +1,20 @@
+package com.inerio.taskmanager.repository;
+
+import com.inerio.taskmanager.dto.TaskPatchDto;
+
+/**
+ * Custom fragment of {@link TaskRepository} for statements that Spring Data
+ * cannot derive (dynamic column lists).
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Issues a single {@code UPDATE} touching only the columns present in the patch.
+     * The entity is not loaded, so neither the column nor the attachments are fetched.
+     *
+     * @param id    task id
+     * @param patch partial update; must not be empty
+     * @return number of updated rows (0 if the task does not exist)
+     */
+    int applyPatch(Long id, TaskPatchDto patch);
+}
@@ -0,0 +1,57 @@
+package com.inerio.taskmanager.repository;
+
+import com.inerio.taskmanager.dto.TaskPatchDto;
+import com.inerio.taskmanager.model.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Criteria-based implementation of {@link TaskRepositoryCustom}.
+ */
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public int applyPatch(Long id, TaskPatchDto patch) {
+        Set<String> fields = patch.getChangedFields();
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("Patch must change at least one field");
+        }
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> t = update.from(Task.class);
+
+        if (fields.contains("title")) set(cb, update, t.get("title"), patch.getTitle(), String.class);
+        if (fields.contains("description")) set(cb, update, t.get("description"), patch.getDescription(), String.class);
+        if (fields.contains("completed")) {
+            set(cb, update, t.get("completed"), patch.getCompleted(), Boolean.class);
+            Path<Instant> completedAt = t.get("completedAt");
+            if (Boolean.TRUE.equals(patch.getCompleted())) {
+                update.set(completedAt, cb.coalesce(completedAt, Instant.now()));
+            } else {
+                update.set(completedAt, cb.nullLiteral(Instant.class));
+            }
+        }
+        if (fields.contains("dueDate")) set(cb, update, t.get("dueDate"), patch.getDueDate(), LocalDate.class);
+
+        update.where(cb.equal(t.get("id"), id));
+        return em.createQuery(update).executeUpdate();
+    }
+
+    private static <Y> void set(CriteriaBuilder cb, CriteriaUpdate<Task> update, Path<Y> path, Y value, Class<Y> type) {
+        if (value == null) {
+            update.set(path, cb.nullLiteral(type));
+        } else {
+            update.set(path, value);
+        }
+    }
+}
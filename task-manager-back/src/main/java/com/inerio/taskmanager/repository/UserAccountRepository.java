@@ -49,4 +49,85 @@ public interface UserAccountRepository extends JpaRepository<UserAccount, Long>
             ON CONFLICT (uid) DO UPDATE SET last_active_at = NOW()
             """, nativeQuery = true)
     void upsertTouch(@Param("uid") String uid);
+
+    /**
+     * Charges one attachment of {@code bytes} to the account, provided its usage stays within
+     * {@code quotaBytes}. The check and the increment are a single atomic statement, so concurrent
+     * uploads cannot overshoot the quota. Creates the account if needed.
+     *
+     * @param uid        stable client identifier
+     * @param bytes      attachment size
+     * @param quotaBytes maximum total attachment bytes for the account
+     * @return 1 if charged, 0 if the quota would be exceeded
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO user_account (uid, created_at, last_active_at, attachment_bytes, attachment_count)
+            SELECT :uid, NOW(), NOW(), :bytes, 1 WHERE :bytes <= :quotaBytes
+            ON CONFLICT (uid) DO UPDATE
+            SET attachment_bytes = user_account.attachment_bytes + EXCLUDED.attachment_bytes,
+                attachment_count = user_account.attachment_count + 1
+            WHERE user_account.attachment_bytes + EXCLUDED.attachment_bytes <= :quotaBytes
+            """, nativeQuery = true)
+    int chargeAttachment(@Param("uid") String uid, @Param("bytes") long bytes, @Param("quotaBytes") long quotaBytes);
+
+    /**
+     * Charges several attachments at once to an existing account if the total stays within
+     * {@code quotaBytes}, in one atomic statement.
+     *
+     * @param uid        stable client identifier
+     * @param bytes      total size of the attachments
+     * @param count      number of attachments
+     * @param quotaBytes maximum total attachment bytes for the account
+     * @return 1 if charged, 0 if the quota would be exceeded
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE user_account
+            SET attachment_bytes = attachment_bytes + :bytes, attachment_count = attachment_count + :count
+            WHERE uid = :uid AND attachment_bytes + :bytes <= :quotaBytes
+            """, nativeQuery = true)
+    int chargeAttachments(@Param("uid") String uid, @Param("bytes") long bytes, @Param("count") int count,
+                          @Param("quotaBytes") long quotaBytes);
+
+    /**
+     * Returns a page of accounts inactive since before the cutoff, by ascending id after
+     * {@code afterId} (keyset pagination: the cost of a page does not grow with its position).
+     *
+     * @param cutoff  last activity limit
+     * @param afterId largest id of the previous page, 0 for the first
+     * @param limit   page size
+     * @return rows as {@code [Long id, String uid]}
+     */
+    @Query(value = """
+            SELECT id, uid FROM user_account
+            WHERE last_active_at < :cutoff AND id > :afterId
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findStalePage(@Param("cutoff") Instant cutoff, @Param("afterId") long afterId,
+                                 @Param("limit") int limit);
+
+    /**
+     * Deletes an account that is still inactive, together with its boards and their columns, in one
+     * statement. The tasks must already be gone (see {@link TaskRepository#purgeStaleOwner}).
+     *
+     * @param accountId account id
+     * @param cutoff    last activity limit; an account active since then is left alone
+     * @return 1 if the account was deleted, 0 otherwise
+     */
+    @Modifying
+    @Query(value = """
+            WITH account AS (
+                SELECT id FROM user_account WHERE id = :accountId AND last_active_at < :cutoff),
+            columns AS (
+                DELETE FROM kanban_column c USING board b, account a
+                WHERE c.board_id = b.id AND b.owner_id = a.id),
+            boards AS (
+                DELETE FROM board b USING account a WHERE b.owner_id = a.id)
+            DELETE FROM user_account u USING account a WHERE u.id = a.id
+            """, nativeQuery = true)
+    int purgeStale(@Param("accountId") long accountId, @Param("cutoff") Instant cutoff);
 }
@@ -0,0 +1,178 @@
+package com.inerio.taskmanager.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.inerio.taskmanager.repository.TaskAttachmentRepository;
+
+/**
+ * ZIP export of the attachments of a task or a whole board, streamed to the client as it is built.
+ * <p>
+ * Entries are read from the upload store through {@link FileChannel}s into a single fixed buffer
+ * and written straight to the response: nothing is staged in a temporary file and memory use does
+ * not depend on the number or size of the attachments. Content types that are already compressed
+ * (images, PDFs, archives, Office Open XML documents) are {@code STORED}, which saves the CPU of
+ * deflating them for no gain; the CRC a stored entry needs up front is computed by a first pass
+ * over the open channel, which the page cache serves for the second. Everything else is deflated.
+ * </p>
+ * <p>
+ * A file is opened before its entry is written, so an attachment deleted while the archive is
+ * being built is either complete in it or absent, never truncated.
+ * </p>
+ */
+@Service
+public class AttachmentArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttachmentArchiveService.class);
+
+    /** Read buffer shared by the CRC pass and the copy. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Longest task title kept in a board archive folder name. */
+    private static final int MAX_FOLDER_TITLE = 80;
+
+    /** Content types whose payload is already compressed and gains nothing from deflating. */
+    private static final Set<String> COMPRESSED_TYPES = Set.of(
+            "image/png", "image/jpeg", "image/gif", "image/webp",
+            "application/pdf",
+            "application/zip", "application/gzip",
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"
+    );
+
+    /**
+     * One file of an archive.
+     *
+     * @param file        file in the upload store
+     * @param name        path of the entry in the archive
+     * @param contentType MIME type, deciding between STORED and DEFLATED
+     * @param modified    modification time recorded in the entry, may be {@code null}
+     */
+    public record Entry(Path file, String name, String contentType, Instant modified) { }
+
+    private final TaskAttachmentRepository attachmentRepository;
+    private final AttachmentPaths paths;
+
+    public AttachmentArchiveService(TaskAttachmentRepository attachmentRepository, AttachmentPaths paths) {
+        this.attachmentRepository = attachmentRepository;
+        this.paths = paths;
+    }
+
+    /**
+     * Lists the attachments of a task, each at the root of the archive.
+     *
+     * @param taskId task id
+     * @return archive entries, by filename
+     */
+    public List<Entry> taskEntries(Long taskId) {
+        return attachmentRepository.findArchiveEntriesByTask(taskId).stream()
+                .map(row -> entry(row, (String) row[2]))
+                .toList();
+    }
+
+    /**
+     * Lists the attachments of a board, one folder per task named after its title and id.
+     *
+     * @param boardId board id
+     * @return archive entries, in board order
+     */
+    public List<Entry> boardEntries(Long boardId) {
+        return attachmentRepository.findArchiveEntriesByBoard(boardId).stream()
+                .map(row -> entry(row, folder(((Number) row[0]).longValue(), (String) row[1]) + "/" + row[2]))
+                .toList();
+    }
+
+    /**
+     * Writes the entries as a ZIP archive. Files missing from the store are skipped. The stream is
+     * finished but not closed.
+     *
+     * @param entries files to archive
+     * @param out     destination, typically the response body
+     * @throws IOException if a file cannot be read or the destination written
+     */
+    public void write(List<Entry> entries, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        Set<String> names = new HashSet<>();
+        for (Entry entry : entries) {
+            if (!names.add(entry.name())) continue;
+            FileChannel channel;
+            try {
+                channel = FileChannel.open(entry.file(), StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                log.debug("Attachment {} vanished before archiving", entry.file());
+                continue;
+            }
+            try (channel) {
+                ZipEntry zipEntry = new ZipEntry(entry.name());
+                if (entry.modified() != null) zipEntry.setLastModifiedTime(FileTime.from(entry.modified()));
+                long size = channel.size();
+                if (COMPRESSED_TYPES.contains(entry.contentType())) {
+                    zipEntry.setMethod(ZipEntry.STORED);
+                    zipEntry.setSize(size);
+                    zipEntry.setCompressedSize(size);
+                    zipEntry.setCrc(crc(channel, size, buffer));
+                }
+                zip.putNextEntry(zipEntry);
+                copy(channel, size, buffer, zip);
+                zip.closeEntry();
+            }
+        }
+        zip.finish();
+    }
+
+    private Entry entry(Object[] row, String name) {
+        Long taskId = ((Number) row[0]).longValue();
+        return new Entry(paths.file(taskId, (String) row[2]), name, (String) row[3], (Instant) row[4]);
+    }
+
+    /** Folder of a task in a board archive: its title made safe for file systems, then its id. */
+    static String folder(long taskId, String title) {
+        String safe = title == null ? "" : title.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").strip();
+        if (safe.length() > MAX_FOLDER_TITLE) safe = safe.substring(0, MAX_FOLDER_TITLE).strip();
+        while (safe.startsWith(".")) safe = safe.substring(1);
+        return safe.isEmpty() ? String.valueOf(taskId) : safe + " (" + taskId + ")";
+    }
+
+    private static long crc(FileChannel channel, long size, ByteBuffer buffer) throws IOException {
+        CRC32 crc = new CRC32();
+        long position = 0;
+        while (position < size) {
+            buffer.clear();
+            int n = channel.read(buffer, position);
+            if (n < 0) throw new IOException("Attachment shrank while archiving");
+            buffer.flip();
+            crc.update(buffer);
+            position += n;
+        }
+        return crc.getValue();
+    }
+
+    private static void copy(FileChannel channel, long size, ByteBuffer buffer, OutputStream out) throws IOException {
+        long position = 0;
+        while (position < size) {
+            buffer.clear();
+            int n = channel.read(buffer, position);
+            if (n < 0) throw new IOException("Attachment shrank while archiving");
+            out.write(buffer.array(), 0, n);
+            position += n;
+        }
+    }
+}
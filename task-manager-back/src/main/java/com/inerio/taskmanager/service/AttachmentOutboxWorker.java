@@ -0,0 +1,244 @@
+package com.inerio.taskmanager.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.model.AttachmentOutboxEntry;
+import com.inerio.taskmanager.repository.AttachmentOutboxRepository;
+import com.inerio.taskmanager.repository.TaskAttachmentRepository;
+import com.inerio.taskmanager.repository.TaskRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Performs the file deletions recorded in the attachment outbox.
+ * <p>
+ * Deleting tasks, columns and boards only records outbox entries, in the same transaction as the
+ * rows they remove: a rolled back deletion leaves no entry, and the request never waits for the
+ * file system. The worker is woken up after each such commit and also polls every
+ * {@code app.attachment-outbox-interval-ms}, so entries left by a crash are picked up too. Each
+ * batch of entries is claimed with {@code SKIP LOCKED}, processed and removed in one transaction;
+ * a failed entry is postponed with an exponential backoff and abandoned after
+ * {@code app.attachment-outbox-max-attempts}. Deletions are re-checked against the database
+ * before touching the disk, so a folder is never removed for a task that still exists and a file
+ * is never removed once an attachment of the same name was uploaded again.
+ * </p>
+ * <p>
+ * Metrics: {@code attachments.outbox.processed} (by {@code result}), {@code attachments.outbox.lag}
+ * (time from recording to completion) and the {@code attachments.outbox.pending} and
+ * {@code attachments.outbox.abandoned} gauges, refreshed on each poll.
+ * </p>
+ */
+@Service
+public class AttachmentOutboxWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(AttachmentOutboxWorker.class);
+
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final AttachmentOutboxRepository outboxRepository;
+    private final TaskAttachmentRepository attachmentRepository;
+    private final TaskRepository taskRepository;
+    private final AttachmentPaths paths;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "attachment-outbox");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean();
+
+    private final Counter deleted;
+    private final Counter skipped;
+    private final Counter failed;
+    private final Counter abandoned;
+    private final Timer lag;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong abandonedTotal = new AtomicLong();
+
+    public AttachmentOutboxWorker(AttachmentOutboxRepository outboxRepository,
+                                  TaskAttachmentRepository attachmentRepository,
+                                  TaskRepository taskRepository,
+                                  AttachmentPaths paths,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meters,
+                                  AppProperties props) {
+        this.outboxRepository = outboxRepository;
+        this.attachmentRepository = attachmentRepository;
+        this.taskRepository = taskRepository;
+        this.paths = paths;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = props.getAttachmentOutboxBatchSize();
+        this.maxAttempts = props.getAttachmentOutboxMaxAttempts();
+
+        this.deleted = processed(meters, "deleted");
+        this.skipped = processed(meters, "skipped");
+        this.failed = processed(meters, "failed");
+        this.abandoned = processed(meters, "abandoned");
+        this.lag = Timer.builder("attachments.outbox.lag")
+                .description("Time between recording a file deletion and carrying it out")
+                .register(meters);
+        Gauge.builder("attachments.outbox.pending", pending, AtomicLong::get)
+                .description("Attachment outbox entries waiting to be processed")
+                .register(meters);
+        Gauge.builder("attachments.outbox.abandoned", abandonedTotal, AtomicLong::get)
+                .description("Attachment outbox entries that exhausted their attempts")
+                .register(meters);
+    }
+
+    private static Counter processed(MeterRegistry meters, String result) {
+        return Counter.builder("attachments.outbox.processed")
+                .description("Attachment outbox entries processed")
+                .tag("result", result)
+                .register(meters);
+    }
+
+    /**
+     * Drains the outbox once the current transaction commits (right away outside a transaction).
+     * Nothing happens on rollback: the entries were rolled back too.
+     */
+    public void wakeUpAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wakeUp();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeUp();
+            }
+        });
+    }
+
+    /** Drains the outbox on the worker thread; wake-ups arriving meanwhile are coalesced. */
+    public void wakeUp() {
+        if (!wakeUpQueued.compareAndSet(false, true)) return;
+        try {
+            executor.execute(() -> {
+                wakeUpQueued.set(false);
+                drain();
+            });
+        } catch (RejectedExecutionException shuttingDown) {
+            wakeUpQueued.set(false);
+        }
+    }
+
+    /** Periodic safety net: drains what wake-ups missed and refreshes the gauges. */
+    @Scheduled(fixedDelayString = "${app.attachment-outbox-interval-ms:30000}",
+               initialDelayString = "${app.attachment-outbox-interval-ms:30000}")
+    public void poll() {
+        drain();
+        try {
+            pending.set(outboxRepository.countPending(maxAttempts));
+            abandonedTotal.set(outboxRepository.countAbandoned(maxAttempts));
+        } catch (RuntimeException e) {
+            log.debug("Could not count attachment outbox entries: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Processes due entries batch by batch until none is left.
+     *
+     * @return number of entries completed (deleted or skipped)
+     */
+    public synchronized int drain() {
+        int completed = 0;
+        try {
+            int claimed;
+            do {
+                int[] batch = tx.execute(status -> processBatch());
+                claimed = batch[0];
+                completed += batch[1];
+            } while (claimed == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Attachment outbox processing failed: {}", e.getMessage());
+        }
+        return completed;
+    }
+
+    /** Claims, processes and settles one batch; returns {claimed, completed}. */
+    private int[] processBatch() {
+        List<AttachmentOutboxEntry> entries = outboxRepository.claim(maxAttempts, batchSize);
+        List<AttachmentOutboxEntry> done = new ArrayList<>(entries.size());
+        Instant now = Instant.now();
+        for (AttachmentOutboxEntry entry : entries) {
+            try {
+                (process(entry) ? deleted : skipped).increment();
+                lag.record(Duration.between(entry.getCreatedAt(), now));
+                done.add(entry);
+            } catch (IOException | RuntimeException e) {
+                entry.failed(now.plus(backoff(entry.getAttempts())), e.toString());
+                if (entry.getAttempts() >= maxAttempts) {
+                    abandoned.increment();
+                    log.warn("Giving up deleting files of task {} ({}) after {} attempts: {}",
+                            entry.getTaskId(), describe(entry), entry.getAttempts(), e.getMessage());
+                } else {
+                    failed.increment();
+                    log.debug("Deleting files of task {} ({}) failed, retrying at {}: {}",
+                            entry.getTaskId(), describe(entry), entry.getNextAttemptAt(), e.getMessage());
+                }
+            }
+        }
+        if (!done.isEmpty()) outboxRepository.deleteAllInBatch(done);
+        return new int[] { entries.size(), done.size() };
+    }
+
+    /**
+     * Carries out one entry.
+     *
+     * @return {@code true} if files were deleted, {@code false} if the entry no longer applies
+     */
+    private boolean process(AttachmentOutboxEntry entry) throws IOException {
+        Long taskId = entry.getTaskId();
+        String filename = entry.getFilename();
+        if (filename == null) {
+            if (taskRepository.existsById(taskId)) return false;
+            paths.deleteTask(taskId);
+            return true;
+        }
+        if (attachmentRepository.existsByTaskIdAndFilename(taskId, filename)) return false;
+        boolean any = paths.deleteFile(taskId, filename);
+        any |= paths.deleteFile(taskId, ThumbnailService.THUMB_DIR + "/" + filename + ".jpg");
+        any |= paths.deleteFile(taskId, ThumbnailService.THUMB_DIR + "/" + filename + ".png");
+        return any;
+    }
+
+    private static Duration backoff(int attempts) {
+        Duration delay = Duration.ofSeconds(1L << Math.min(attempts, 12));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private static String describe(AttachmentOutboxEntry entry) {
+        return entry.getFilename() == null ? "folder" : entry.getFilename();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
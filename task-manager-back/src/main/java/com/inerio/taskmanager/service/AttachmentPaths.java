@@ -0,0 +1,209 @@
+package com.inerio.taskmanager.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import com.inerio.taskmanager.config.AppProperties;
+
+/**
+ * Resolves where the files of a task live in the upload store.
+ * <p>
+ * Task folders are fanned out as {@code uploadDir/tasks/ab/cd/{taskId}}, where {@code abcd} are
+ * hex digits of a hash of the task id, so no directory holds more than a few dozen entries even
+ * with millions of tasks. Folders created before the fan-out sit directly under the upload dir
+ * ({@code uploadDir/{taskId}}); until {@link UploadLayoutMigrator} has moved them, reads fall back
+ * to that legacy location and writers call {@link #migrate} first, so new files always land in
+ * the sharded folder.
+ * </p>
+ */
+@Component
+public class AttachmentPaths {
+
+    /** Directory (under the upload dir) holding the sharded task folders. */
+    static final String TASKS_DIR = "tasks";
+
+    private static final int MIGRATE_LOCK_STRIPES = 64;
+
+    private final Path baseUploadDir;
+    private final Path shardRoot;
+    private final Lock[] migrateLocks = new Lock[MIGRATE_LOCK_STRIPES];
+
+    public AttachmentPaths(AppProperties props) {
+        this.baseUploadDir = Path.of(props.getUploadDir()).toAbsolutePath().normalize();
+        this.shardRoot = baseUploadDir.resolve(TASKS_DIR);
+        for (int i = 0; i < MIGRATE_LOCK_STRIPES; i++) {
+            migrateLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /** @return the upload store root */
+    public Path baseDir() {
+        return baseUploadDir;
+    }
+
+    /** @return the root of the sharded task folders ({@code uploadDir/tasks}) */
+    public Path shardRoot() {
+        return shardRoot;
+    }
+
+    /**
+     * Sharded folder of a task: where new files are written.
+     *
+     * @param taskId task id
+     * @return {@code uploadDir/tasks/ab/cd/{taskId}}
+     */
+    public Path taskDir(Long taskId) {
+        String shard = String.format("%04x", fmix(taskId) & 0xffff);
+        return shardRoot.resolve(shard.substring(0, 2)).resolve(shard.substring(2, 4)).resolve(taskId.toString());
+    }
+
+    /**
+     * Pre-fan-out folder of a task.
+     *
+     * @param taskId task id
+     * @return {@code uploadDir/{taskId}}
+     */
+    public Path legacyTaskDir(Long taskId) {
+        return baseUploadDir.resolve(taskId.toString());
+    }
+
+    /**
+     * Resolves a file of a task for reading: the sharded location if the file is there, otherwise
+     * the legacy location if it is there, otherwise the sharded location. The sharded location is
+     * checked again last so a folder moved by the migrator between the two checks is still found.
+     *
+     * @param taskId   task id
+     * @param relative path relative to the task folder (e.g. a sanitized filename)
+     * @return the file path (which may not exist)
+     */
+    public Path file(Long taskId, String relative) {
+        Path sharded = taskDir(taskId).resolve(relative).normalize();
+        if (Files.exists(sharded)) return sharded;
+        Path legacy = legacyTaskDir(taskId).resolve(relative).normalize();
+        if (Files.exists(legacy)) return legacy;
+        return sharded;
+    }
+
+    /**
+     * Removes every folder of a task, in both layouts. Best effort.
+     *
+     * @param taskId task id
+     * @throws IOException if a folder cannot be removed
+     */
+    public void deleteTask(Long taskId) throws IOException {
+        FileSystemUtils.deleteRecursively(taskDir(taskId));
+        FileSystemUtils.deleteRecursively(legacyTaskDir(taskId));
+    }
+
+    /**
+     * Removes the folders of a task that has no attachment left, in both layouts: its thumbnail
+     * folder, then the task folder. Nothing is removed recursively, so a folder that received a
+     * file meanwhile is kept.
+     *
+     * @param taskId task id
+     * @throws IOException if a folder cannot be removed for another reason than holding entries
+     */
+    public void deleteEmptyTask(Long taskId) throws IOException {
+        for (Path dir : List.of(taskDir(taskId), legacyTaskDir(taskId))) {
+            try {
+                Files.deleteIfExists(dir.resolve(ThumbnailService.THUMB_DIR));
+                Files.deleteIfExists(dir);
+            } catch (DirectoryNotEmptyException inUse) {
+                // written to meanwhile: keep it
+            }
+        }
+    }
+
+    /**
+     * Removes one file of a task, in both layouts.
+     *
+     * @param taskId   task id
+     * @param relative path relative to the task folder
+     * @return {@code true} if a file was removed
+     * @throws IOException if the file cannot be removed
+     */
+    public boolean deleteFile(Long taskId, String relative) throws IOException {
+        boolean sharded = Files.deleteIfExists(taskDir(taskId).resolve(relative).normalize());
+        boolean legacy = Files.deleteIfExists(legacyTaskDir(taskId).resolve(relative).normalize());
+        return sharded || legacy;
+    }
+
+    /**
+     * Moves a task's legacy folder into its sharded location. The folder is renamed in one step
+     * when the sharded folder does not exist yet; otherwise (a file was written there meanwhile)
+     * entries are moved one by one and the emptied legacy folder is removed. Safe to call
+     * concurrently and repeatedly.
+     *
+     * @param taskId task id
+     * @return {@code true} if a legacy folder was migrated
+     * @throws IOException if the folder cannot be moved
+     */
+    public boolean migrate(Long taskId) throws IOException {
+        Path legacy = legacyTaskDir(taskId);
+        if (!Files.isDirectory(legacy)) return false;
+        Lock lock = migrateLocks[Math.floorMod(taskId.hashCode(), MIGRATE_LOCK_STRIPES)];
+        lock.lock();
+        try {
+            if (!Files.isDirectory(legacy)) return false;
+            Path target = taskDir(taskId);
+            if (Files.exists(target)) {
+                merge(legacy, target);
+                return true;
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(legacy, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException gone) {
+                return false;
+            } catch (FileSystemException e) {
+                // target created concurrently by an upload (ENOTEMPTY surfaces as a plain
+                // FileSystemException on Linux), or the move crosses file systems
+                merge(legacy, target);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void merge(Path from, Path to) throws IOException {
+        List<Path> entries;
+        try (Stream<Path> s = Files.list(from)) {
+            entries = s.toList();
+        }
+        Files.createDirectories(to);
+        for (Path entry : entries) {
+            Path dest = to.resolve(entry.getFileName().toString());
+            if (Files.isDirectory(entry)) {
+                merge(entry, dest);
+            } else if (Files.exists(dest)) {
+                Files.delete(entry);
+            } else {
+                Files.move(entry, dest);
+            }
+        }
+        Files.delete(from);
+    }
+
+    /** MurmurHash3 64-bit finalizer: spreads consecutive ids evenly over the shards. */
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb93fe53e7b87L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,427 @@
+package com.inerio.taskmanager.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.dto.AttachmentStorageStatsDto;
+import com.inerio.taskmanager.exception.QuotaExceededException;
+import com.inerio.taskmanager.model.AttachmentBlob;
+import com.inerio.taskmanager.model.TaskAttachment;
+import com.inerio.taskmanager.repository.AttachmentBlobRepository;
+import com.inerio.taskmanager.repository.AttachmentOutboxRepository;
+import com.inerio.taskmanager.repository.TaskAttachmentRepository;
+import com.inerio.taskmanager.repository.UserAccountRepository;
+
+/**
+ * Content-addressed, deduplicated storage for task attachments.
+ * <p>
+ * Uploads are hashed (SHA-256) while they are streamed to a staging file. Each distinct content is
+ * kept once under {@code uploadDir/.blobs/ab/cd/<sha256>}, and the file in the task folder
+ * (see {@link AttachmentPaths}) is a hard link to it, so downloads and listings keep working
+ * unchanged while identical attachments share their disk blocks. Reference counts live in
+ * {@code attachment_blob}; removing an attachment only decrements them, and {@link #collect()}
+ * reclaims blobs nobody references any more. On file systems without hard links the content is
+ * copied instead (correct, but not deduplicated).
+ * </p>
+ * <p>
+ * Each attachment row carries its metadata and the UID of the owner it is charged to. The owner's
+ * usage counters on {@code user_account} are incremented (quota-checked) in the same transaction as
+ * the row insert and credited back by the same statement that releases the row, so quotas never
+ * need to walk the upload directory.
+ * </p>
+ */
+@Service
+public class AttachmentStorage {
+
+    private static final Logger log = LoggerFactory.getLogger(AttachmentStorage.class);
+
+    /** Directory (under the upload dir) holding the blobs and the staging area. */
+    static final String BLOB_DIR = ".blobs";
+
+    /** Directory (under {@link #BLOB_DIR}) holding uploads being streamed. */
+    static final String STAGING_DIR = "tmp";
+
+    /** Directory (under {@link #BLOB_DIR}) holding chunked uploads being assembled. */
+    static final String CHUNKED_DIR = "uploads";
+
+    /** Read buffer used when hashing an assembled chunked upload. */
+    private static final int HASH_BUFFER_SIZE = 1 << 20;
+
+    /** Maximum number of blobs reclaimed per collector query. */
+    private static final int COLLECT_BATCH_SIZE = 500;
+
+    private final AttachmentBlobRepository blobRepository;
+    private final TaskAttachmentRepository attachmentRepository;
+    private final UserAccountRepository userAccountRepository;
+    private final AttachmentOutboxRepository outboxRepository;
+    private final AttachmentOutboxWorker outboxWorker;
+    private final AttachmentPaths paths;
+    private final long quotaBytes;
+    private final Path blobRoot;
+    private final Path stagingDir;
+    private final Path chunkedDir;
+
+    public AttachmentStorage(AttachmentBlobRepository blobRepository,
+                             TaskAttachmentRepository attachmentRepository,
+                             UserAccountRepository userAccountRepository,
+                             AttachmentOutboxRepository outboxRepository,
+                             AttachmentOutboxWorker outboxWorker,
+                             AttachmentPaths paths,
+                             AppProperties props) {
+        this.blobRepository = blobRepository;
+        this.attachmentRepository = attachmentRepository;
+        this.userAccountRepository = userAccountRepository;
+        this.outboxRepository = outboxRepository;
+        this.outboxWorker = outboxWorker;
+        this.paths = paths;
+        this.quotaBytes = props.getAttachmentQuotaBytes();
+        this.blobRoot = paths.baseDir().resolve(BLOB_DIR);
+        this.stagingDir = blobRoot.resolve(STAGING_DIR);
+        this.chunkedDir = blobRoot.resolve(CHUNKED_DIR);
+    }
+
+    /**
+     * Streamed upload waiting to be committed. The staging file is owned by the caller, who must
+     * delete it once the upload is committed or abandoned.
+     *
+     * @param file   staging file
+     * @param sha256 content digest (hex)
+     * @param size   content size in bytes
+     */
+    public record StagedUpload(Path file, String sha256, long size) { }
+
+    /**
+     * Streams the content to a staging file on the storage file system, hashing it on the way.
+     * Takes no lock and touches no database row.
+     *
+     * @param in content
+     * @return the staged upload
+     * @throws IOException if the content cannot be written
+     */
+    public StagedUpload stage(InputStream in) throws IOException {
+        Files.createDirectories(stagingDir);
+        Path tmp = Files.createTempFile(stagingDir, "upload-", ".tmp");
+        MessageDigest digest = sha256();
+        long size;
+        try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tmp), digest)) {
+            size = in.transferTo(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        return new StagedUpload(tmp, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    /**
+     * Location of the staging file of a chunked upload, on the storage file system so that
+     * committing it is a link rather than a copy. The directory is created if needed.
+     *
+     * @param uploadId upload session id
+     * @return the staging file path (which may not exist yet)
+     * @throws IOException if the directory cannot be created
+     */
+    public Path chunkedFile(String uploadId) throws IOException {
+        Files.createDirectories(chunkedDir);
+        return chunkedDir.resolve(uploadId + ".part");
+    }
+
+    /**
+     * Hashes a fully assembled staging file in one sequential pass.
+     *
+     * @param file staging file on the storage file system
+     * @return the staged upload, still owned by the caller
+     * @throws IOException if the file cannot be read
+     */
+    public StagedUpload staged(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(HASH_BUFFER_SIZE);
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int n;
+            while ((n = channel.read(buffer)) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+                size += n;
+            }
+        }
+        return new StagedUpload(file, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    /**
+     * Charges the upload to its owner, makes it visible at {@code target} and records its metadata.
+     * If the content is already stored, {@code target} becomes a link to the existing blob and
+     * the staged bytes are simply discarded by the caller.
+     *
+     * @param upload      staged upload
+     * @param taskId      owning task
+     * @param ownerUid    UID of the board owner the attachment is charged to
+     * @param filename    sanitized filename
+     * @param contentType MIME type declared at upload
+     * @param target      per-task path of the attachment (must not exist)
+     * @return the recorded attachment metadata
+     * @throws QuotaExceededException if the owner's quota would be exceeded (nothing is stored)
+     * @throws IOException            if the attachment cannot be linked or copied into place
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public TaskAttachment commit(StagedUpload upload, Long taskId, String ownerUid, String filename,
+                                 String contentType, Path target) throws IOException {
+        if (userAccountRepository.chargeAttachment(ownerUid, upload.size(), quotaBytes) == 0) {
+            throw new QuotaExceededException("Attachment quota of " + quotaBytes + " bytes exceeded for " + ownerUid);
+        }
+        blobRepository.acquire(upload.sha256(), upload.size());
+        Path blob = blobPath(upload.sha256());
+        if (!linkToExisting(target, blob)) {
+            // First copy of this content (or the blob was just collected): publish the staged file.
+            Files.createDirectories(blob.getParent());
+            try {
+                linkOrCopy(blob, upload.file());
+            } catch (FileAlreadyExistsException raced) {
+                log.debug("Blob {} published concurrently", upload.sha256());
+            }
+            linkOrCopy(target, upload.file());
+        }
+        return attachmentRepository.save(
+                new TaskAttachment(taskId, ownerUid, filename, upload.sha256(), upload.size(), contentType));
+    }
+
+    /**
+     * Records metadata for an attachment stored before attachments had metadata: hashes the file
+     * in place, publishes it as the blob if its content is not stored yet, and charges the owner
+     * without a quota check (the bytes are already on disk).
+     *
+     * @param taskId   owning task
+     * @param ownerUid UID of the board owner
+     * @param filename sanitized filename
+     * @param file     per-task path of the attachment
+     * @return the recorded attachment metadata
+     * @throws IOException if the file cannot be read or linked
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public TaskAttachment adopt(Long taskId, String ownerUid, String filename, Path file) throws IOException {
+        MessageDigest digest = sha256();
+        long size;
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            size = in.transferTo(OutputStream.nullOutputStream());
+        }
+        String sha = HexFormat.of().formatHex(digest.digest());
+
+        userAccountRepository.chargeAttachment(ownerUid, size, Long.MAX_VALUE);
+        blobRepository.acquire(sha, size);
+        Path blob = blobPath(sha);
+        if (!Files.exists(blob)) {
+            Files.createDirectories(blob.getParent());
+            try {
+                linkOrCopy(blob, file);
+            } catch (FileAlreadyExistsException raced) {
+                log.debug("Blob {} published concurrently", sha);
+            }
+        }
+        String contentType = MediaTypeFactory.getMediaType(filename)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+        TaskAttachment attachment = new TaskAttachment(taskId, ownerUid, filename, sha, size, contentType);
+        attachment.setUploadedAt(Files.getLastModifiedTime(file).toInstant());
+        return attachmentRepository.save(attachment);
+    }
+
+    /**
+     * Charges attachment rows copied in the database (see {@code BoardRepository#copyContent}) to
+     * their owner and links them into their new task folders. The copies share the blobs of the
+     * originals: no content is read or written.
+     *
+     * @param ownerUid UID of the board owner the copies are charged to
+     * @param copies   one {@code [Long sourceTaskId, Long taskId, String filename, String sha256, Long size]}
+     *                 row per copied attachment
+     * @throws QuotaExceededException if the owner's quota would be exceeded (nothing is linked)
+     * @throws IOException            if a copy cannot be linked (the folders already filled are removed)
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public void shareCopies(String ownerUid, List<Object[]> copies) throws IOException {
+        if (copies.isEmpty()) return;
+        long bytes = 0;
+        for (Object[] c : copies) bytes += ((Number) c[4]).longValue();
+        if (userAccountRepository.chargeAttachments(ownerUid, bytes, copies.size(), quotaBytes) == 0) {
+            throw new QuotaExceededException("Attachment quota of " + quotaBytes + " bytes exceeded for " + ownerUid);
+        }
+
+        Set<Long> filled = new LinkedHashSet<>();
+        try {
+            for (Object[] c : copies) {
+                Long sourceTaskId = ((Number) c[0]).longValue();
+                Long taskId = ((Number) c[1]).longValue();
+                String filename = (String) c[2];
+                Path target = paths.taskDir(taskId).resolve(filename);
+                Files.createDirectories(target.getParent());
+                filled.add(taskId);
+                if (!linkToExisting(target, blobPath((String) c[3]))) {
+                    // Blob file missing: the original attachment holds the same content.
+                    linkOrCopy(target, paths.file(sourceTaskId, filename));
+                }
+            }
+        } catch (IOException e) {
+            for (Long taskId : filled) {
+                try {
+                    paths.deleteTask(taskId);
+                } catch (IOException cleanup) {
+                    log.warn("Could not remove copied attachments of task {}: {}", taskId, cleanup.getMessage());
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Tells whether the task has attachment metadata, as committed in the database.
+     *
+     * @param taskId task id
+     * @return {@code true} if at least one attachment is recorded
+     */
+    public boolean hasAttachments(Long taskId) {
+        return attachmentRepository.existsByTaskId(taskId);
+    }
+
+    /**
+     * Releases one attachment: credits its owner, decrements its blob's reference count and removes
+     * the per-task link.
+     *
+     * @param taskId   owning task
+     * @param filename sanitized filename
+     * @param file     per-task path of the attachment
+     * @throws IOException if the link cannot be removed
+     */
+    public void release(Long taskId, String filename, Path file) throws IOException {
+        attachmentRepository.release(taskId, filename);
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Releases every attachment of the given (deleted) tasks and records the removal of their
+     * per-task folders in the attachment outbox, in the caller's transaction. The folders are
+     * removed by {@link AttachmentOutboxWorker} once that transaction commits.
+     *
+     * @param taskIds task ids
+     */
+    @Transactional
+    public void releaseTasks(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) return;
+        Long[] ids = taskIds.toArray(Long[]::new);
+        attachmentRepository.releaseAll(ids);
+        outboxRepository.enqueueTasks(ids);
+        outboxWorker.wakeUpAfterCommit();
+    }
+
+    /**
+     * Releases every attachment of a task that is kept and records the removal of their files in
+     * the attachment outbox, in the caller's transaction.
+     *
+     * @param taskId task id
+     */
+    @Transactional
+    public void releaseFiles(Long taskId) {
+        attachmentRepository.releaseFiles(taskId);
+        outboxWorker.wakeUpAfterCommit();
+    }
+
+    /**
+     * Background collector: releases references left by deleted tasks, then deletes the blobs
+     * whose reference count reached zero and logs how much disk deduplication currently saves.
+     */
+    @Scheduled(fixedDelayString = "${app.blob-gc-interval-ms:600000}",
+               initialDelayString = "${app.blob-gc-interval-ms:600000}")
+    public void collect() {
+        if (attachmentRepository.releaseOrphans() > 0) outboxWorker.wakeUp();
+
+        long blobs = 0;
+        long bytes = 0;
+        List<AttachmentBlob> batch;
+        do {
+            batch = blobRepository.findUnreferenced(COLLECT_BATCH_SIZE);
+            for (AttachmentBlob b : batch) {
+                // Re-checked in the DELETE: an upload may have re-acquired the blob meanwhile.
+                if (blobRepository.deleteIfUnreferenced(b.getSha256()) == 0) continue;
+                try {
+                    Files.deleteIfExists(blobPath(b.getSha256()));
+                } catch (IOException e) {
+                    log.warn("Could not delete blob {}: {}", b.getSha256(), e.getMessage());
+                }
+                blobs++;
+                bytes += b.getSize();
+            }
+        } while (batch.size() == COLLECT_BATCH_SIZE);
+
+        if (blobs == 0 && !log.isDebugEnabled()) return;
+        AttachmentStorageStatsDto stats = stats();
+        log.info("Attachment storage: reclaimed {} blobs ({} bytes); {} blobs stored ({} bytes), {} bytes saved by deduplication",
+                blobs, bytes, stats.blobCount(), stats.storedBytes(), stats.savedBytes());
+    }
+
+    /**
+     * Returns the current size of the store and the disk saved by deduplication.
+     *
+     * @return storage statistics
+     */
+    public AttachmentStorageStatsDto stats() {
+        return blobRepository.computeStats();
+    }
+
+    /** Content-addressed location of a blob: {@code .blobs/ab/cd/abcd...}. */
+    Path blobPath(String sha256) {
+        return blobRoot.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private static boolean linkToExisting(Path target, Path blob) throws IOException {
+        if (!Files.exists(blob)) return false;
+        try {
+            linkOrCopy(target, blob);
+            return true;
+        } catch (NoSuchFileException collected) {
+            return false;
+        }
+    }
+
+    private static void linkOrCopy(Path link, Path existing) throws IOException {
+        try {
+            Files.createLink(link, existing);
+        } catch (FileAlreadyExistsException | NoSuchFileException e) {
+            throw e;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            log.debug("Hard links unavailable, copying attachment: {}", e.getMessage());
+            Files.copy(existing, link);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.inerio.taskmanager.service;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+import com.inerio.taskmanager.dto.AttachmentStorageStatsDto;
+
+/**
+ * Publishes the attachment store size and the disk saved by deduplication under
+ * {@code attachments} in {@code /actuator/info}.
+ */
+@Component
+public class AttachmentStorageInfoContributor implements InfoContributor {
+
+    private final AttachmentStorage attachmentStorage;
+
+    public AttachmentStorageInfoContributor(AttachmentStorage attachmentStorage) {
+        this.attachmentStorage = attachmentStorage;
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        AttachmentStorageStatsDto stats = attachmentStorage.stats();
+        builder.withDetail("attachments", Map.of(
+                "blobs", stats.blobCount(),
+                "storedBytes", stats.storedBytes(),
+                "referencedBytes", stats.referencedBytes(),
+                "savedBytes", stats.savedBytes()));
+    }
+}
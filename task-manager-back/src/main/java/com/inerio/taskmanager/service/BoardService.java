@@ -1,6 +1,7 @@
 package com.inerio.taskmanager.service;
 
-import java.nio.file.Path;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -12,19 +13,16 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
-import org.springframework.util.FileSystemUtils;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.inerio.taskmanager.config.AppProperties;
 import com.inerio.taskmanager.dto.BoardReorderDto;
 import com.inerio.taskmanager.exception.BoardNotFoundException;
+import com.inerio.taskmanager.exception.QuotaExceededException;
 import com.inerio.taskmanager.model.Board;
-import com.inerio.taskmanager.model.KanbanColumn;
 import com.inerio.taskmanager.model.UserAccount;
 import com.inerio.taskmanager.realtime.EventType;
 import com.inerio.taskmanager.realtime.SseHub;
 import com.inerio.taskmanager.repository.BoardRepository;
-import com.inerio.taskmanager.repository.KanbanColumnRepository;
-import com.inerio.taskmanager.repository.TaskRepository;
 
 /**
  * Service for managing Kanban boards and related data, scoped by an anonymous user UID.
@@ -32,29 +30,26 @@ import com.inerio.taskmanager.repository.TaskRepository;
 @Service
 public class BoardService {
 
+    /** Length of the {@code board.name} column. */
+    static final int MAX_NAME_LENGTH = 255;
+
     private final BoardRepository boardRepository;
-    private final KanbanColumnRepository kanbanColumnRepository;
-    private final TaskRepository taskRepository;
     private final UserAccountService userAccountService;
-    private final Path baseUploadDir;
     private final SseHub sse;
+    private final AttachmentStorage attachmentStorage;
 
     /** Tracks which owners have had their legacy null positions initialized. */
     private final Set<String> ownersWithPositionsInitialized =
             Collections.synchronizedSet(new HashSet<>());
 
     public BoardService(BoardRepository boardRepository,
-                        KanbanColumnRepository kanbanColumnRepository,
-                        TaskRepository taskRepository,
                         UserAccountService userAccountService,
-                        AppProperties props,
-                        SseHub sse) {
+                        SseHub sse,
+                        AttachmentStorage attachmentStorage) {
         this.boardRepository = boardRepository;
-        this.kanbanColumnRepository = kanbanColumnRepository;
-        this.taskRepository = taskRepository;
         this.userAccountService = userAccountService;
-        this.baseUploadDir = Path.of(props.getUploadDir()).toAbsolutePath().normalize();
         this.sse = sse;
+        this.attachmentStorage = attachmentStorage;
     }
 
     public List<Board> getAllBoards(String uid) {
@@ -66,6 +61,10 @@ public class BoardService {
         return boardRepository.findByIdAndOwnerUid(id, uid);
     }
 
+    public List<Board> getTemplates(String uid) {
+        return boardRepository.findTemplatesByOwnerUid(uid);
+    }
+
     public Board createBoard(String uid, Board board) {
         UserAccount owner = userAccountService.getOrCreate(uid);
         Integer max = boardRepository.findMaxPositionByOwnerUid(uid);
@@ -77,6 +76,50 @@ public class BoardService {
         return saved;
     }
 
+    /**
+     * Copies a board of the owner (or one of its templates) with its live columns, tasks and
+     * attachments, in one transaction. Columns and tasks are copied by a single
+     * {@code INSERT ... SELECT} statement; attachments share the blobs of the originals. Clients
+     * get a single {@code boards.created} event.
+     *
+     * @param uid      owner UID
+     * @param sourceId board or template copied
+     * @param name     name of the copy; blank for the source name ({@code " (copy)"} appended
+     *                 unless the copy is a template)
+     * @param template whether the copy is a named template rather than a sidebar board
+     * @return id of the copy
+     * @throws BoardNotFoundException   if the owner has no such board
+     * @throws IllegalArgumentException if the name is too long
+     * @throws QuotaExceededException   if the copied attachments do not fit in the owner's quota
+     */
+    @Transactional
+    public Long cloneBoard(String uid, Long sourceId, String name, boolean template) {
+        Board source = boardRepository.findByIdAndOwnerUid(sourceId, uid)
+                .orElseThrow(() -> new BoardNotFoundException("Board not found with id " + sourceId));
+        String copyName = (name == null || name.isBlank())
+                ? truncate(template ? source.getName() : source.getName() + " (copy)")
+                : name.strip();
+        if (copyName.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Board name longer than " + MAX_NAME_LENGTH + " characters");
+        }
+
+        Board copy = new Board(copyName);
+        copy.setTemplate(template);
+        copy.setOwner(source.getOwner());
+        Integer max = boardRepository.findMaxPositionByOwnerUid(uid);
+        copy.setPosition(max == null ? 0 : max + 1);
+        Long id = boardRepository.saveAndFlush(copy).getId();
+
+        List<Object[]> attachments = boardRepository.copyContent(sourceId, id, uid);
+        try {
+            attachmentStorage.shareCopies(uid, attachments);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not link the attachments of board " + id, e);
+        }
+        sse.emitBoards(uid, EventType.BOARDS_CREATED);
+        return id;
+    }
+
     public Board updateBoard(String uid, Long id, Board updated) {
         Board existing = boardRepository.findByIdAndOwnerUid(id, uid)
                 .orElseThrow(() -> new BoardNotFoundException("Board not found with id " + id));
@@ -114,25 +157,40 @@ public class BoardService {
         sse.emitBoards(uid, EventType.BOARDS_UPDATED);
     }
 
+    /**
+     * Moves a board to the trash with a single-row update; its columns and tasks are hidden with
+     * it and kept until the trash is purged (see {@link TrashPurgeService}).
+     */
+    @Transactional
     public void deleteBoard(String uid, Long id) {
-        Board board = boardRepository.findByIdAndOwnerUid(id, uid)
-                .orElseThrow(() -> new BoardNotFoundException("Board not found with id " + id));
-
-        List<Long> taskIds = kanbanColumnRepository.findByBoardId(board.getId()).stream()
-                .flatMap((KanbanColumn col) -> taskRepository.findByKanbanColumn(col).stream())
-                .map(t -> t.getId())
-                .toList();
-
-        boardRepository.delete(board);
-        taskIds.forEach(this::deleteTaskFolderQuiet);
-
+        if (boardRepository.trash(id, uid) == 0) {
+            throw new BoardNotFoundException("Board not found with id " + id);
+        }
         sse.emitBoards(uid, EventType.BOARDS_DELETED);
     }
 
+    /**
+     * Takes a board of the owner out of the trash, with everything it held, and appends it to the
+     * owner's boards.
+     *
+     * @throws BoardNotFoundException if the owner has no such board in the trash
+     */
+    @Transactional
+    public void restoreBoard(String uid, Long id) {
+        if (boardRepository.restore(id, uid) == 0) {
+            throw new BoardNotFoundException("Board not found in the trash with id " + id);
+        }
+        sse.emitBoards(uid, EventType.BOARDS_CREATED);
+    }
+
     public boolean ownsBoard(String uid, Long boardId) {
         return boardRepository.findByIdAndOwnerUid(boardId, uid).isPresent();
     }
 
+    private static String truncate(String name) {
+        return name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name;
+    }
+
     private void initPositionsIfMissing(String uid) {
         if (ownersWithPositionsInitialized.contains(uid)) return;
 
@@ -153,10 +211,4 @@ public class BoardService {
             ownersWithPositionsInitialized.add(uid);
         }
     }
-
-    private void deleteTaskFolderQuiet(Long taskId) {
-        try {
-            FileSystemUtils.deleteRecursively(baseUploadDir.resolve(String.valueOf(taskId)));
-        } catch (Exception ignored) { }
-    }
 }
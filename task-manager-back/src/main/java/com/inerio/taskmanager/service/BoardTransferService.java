@@ -0,0 +1,363 @@
+package com.inerio.taskmanager.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.config.PoolRoutingDataSource;
+import com.inerio.taskmanager.dto.BoardImportResultDto;
+import com.inerio.taskmanager.exception.UploadTooLargeException;
+import com.inerio.taskmanager.realtime.EventType;
+import com.inerio.taskmanager.realtime.SseHub;
+
+/**
+ * Board backups as a JSON document written and read as a stream, so that neither side holds the
+ * board in memory whatever its size.
+ * <p>
+ * The export walks the tasks with a database cursor ({@code app.board-export-fetch-size} rows per
+ * round trip) in a read-only transaction on the bulk pool, and writes each row as it arrives. The
+ * import parses the document token by token and inserts tasks in JDBC batches of
+ * {@code app.board-import-batch-size}, in one transaction on the bulk pool: a malformed document
+ * leaves nothing behind. Columns come before tasks, and tasks name their column by index:
+ * </p>
+ * <pre>
+ * {"format":"task-manager-board","version":1,
+ *  "board":{"name":"Sprint","template":false},
+ *  "columns":[{"name":"Todo"},{"name":"Done"}],
+ *  "tasks":[{"column":0,"title":"Write specs","completed":false,"creationDate":"2026-01-05T09:30:00"}],
+ *  "taskCount":1}
+ * </pre>
+ * <p>
+ * Attachment content is not part of the document (see the attachments ZIP download).
+ * </p>
+ */
+@Service
+public class BoardTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(BoardTransferService.class);
+
+    /** Value of the {@code format} field of an export. */
+    static final String FORMAT = "task-manager-board";
+
+    /** Version of the document layout written by {@link #export}. */
+    static final int VERSION = 1;
+
+    /** Length of the {@code board.name} and {@code kanban_column.name} columns. */
+    private static final int MAX_NAME_LENGTH = 255;
+
+    /** Same limits as {@code TaskDto}. */
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 5000;
+
+    private static final String SELECT_TASKS = """
+            SELECT t.kanban_column_id, t.title, t.description, t.completed, t.completed_at,
+                   t.creation_date, t.due_date
+            FROM task t JOIN kanban_column c ON c.id = t.kanban_column_id
+            WHERE c.board_id = ? AND c.deleted_at IS NULL AND t.deleted_at IS NULL
+            ORDER BY c.position, c.id, t.position
+            """;
+
+    private static final String INSERT_TASK = """
+            INSERT INTO task (title, description, completed, completed_at, position, kanban_column_id,
+                              creation_date, due_date)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    /** Board fields of an export. */
+    record ExportedBoard(String name, boolean template) { }
+
+    /** Column of an export, in board order. */
+    record ExportedColumn(String name) { }
+
+    /** Task of an export, in column and position order; {@code column} indexes the columns. */
+    record ExportedTask(Integer column, String title, String description, boolean completed,
+                        Instant completedAt, LocalDateTime creationDate, LocalDate dueDate) { }
+
+    private record Row(long columnId, int position, ExportedTask task) { }
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper mapper;
+    private final UserAccountService userAccountService;
+    private final SseHub sse;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final int fetchSize;
+    private final int batchSize;
+    private final long maxBytes;
+
+    public BoardTransferService(JdbcTemplate jdbc,
+                                ObjectMapper mapper,
+                                UserAccountService userAccountService,
+                                SseHub sse,
+                                PlatformTransactionManager transactionManager,
+                                AppProperties props) {
+        this.jdbc = jdbc;
+        this.mapper = mapper;
+        this.userAccountService = userAccountService;
+        this.sse = sse;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.fetchSize = props.getBoardExportFetchSize();
+        this.batchSize = Math.max(1, props.getBoardImportBatchSize());
+        this.maxBytes = props.getImportMaxBytes();
+    }
+
+    /**
+     * Counts the live tasks of a board, i.e. the number of tasks an export will contain.
+     *
+     * @param boardId board id
+     * @return number of tasks
+     */
+    public long countTasks(Long boardId) {
+        Long count = jdbc.queryForObject("""
+                SELECT COUNT(*) FROM task t JOIN kanban_column c ON c.id = t.kanban_column_id
+                WHERE c.board_id = ? AND c.deleted_at IS NULL AND t.deleted_at IS NULL
+                """, Long.class, boardId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Writes a board as a JSON document. Ownership must be checked by the caller.
+     *
+     * @param boardId board id
+     * @param out     destination, left open
+     * @throws IOException if the document cannot be written
+     */
+    public void export(Long boardId, OutputStream out) throws IOException {
+        try {
+            PoolRoutingDataSource.onBulkPool(() -> readTransaction.execute(status -> write(boardId, out)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Long write(Long boardId, OutputStream out) {
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartObject();
+            gen.writeStringField("format", FORMAT);
+            gen.writeNumberField("version", VERSION);
+            gen.writeObjectField("board", jdbc.queryForObject(
+                    "SELECT name, template FROM board WHERE id = ? AND deleted_at IS NULL",
+                    (rs, i) -> new ExportedBoard(rs.getString(1), rs.getBoolean(2)), boardId));
+
+            Map<Long, Integer> columnIndex = new HashMap<>();
+            gen.writeArrayFieldStart("columns");
+            jdbc.query("SELECT id, name FROM kanban_column WHERE board_id = ? AND deleted_at IS NULL ORDER BY position, id",
+                    rs -> {
+                        columnIndex.put(rs.getLong(1), columnIndex.size());
+                        writeValue(gen, new ExportedColumn(rs.getString(2)));
+                    }, boardId);
+            gen.writeEndArray();
+
+            long[] count = {0};
+            gen.writeArrayFieldStart("tasks");
+            jdbc.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_TASKS);
+                // Read-only transaction + fetch size: the driver streams the rows through a cursor.
+                ps.setFetchSize(fetchSize);
+                ps.setLong(1, boardId);
+                return ps;
+            }, rs -> {
+                OffsetDateTime completedAt = rs.getObject(5, OffsetDateTime.class);
+                writeValue(gen, new ExportedTask(columnIndex.get(rs.getLong(1)), rs.getString(2),
+                        rs.getString(3), rs.getBoolean(4), completedAt == null ? null : completedAt.toInstant(),
+                        rs.getObject(6, LocalDateTime.class), rs.getObject(7, LocalDate.class)));
+                count[0]++;
+            });
+            gen.writeEndArray();
+            gen.writeNumberField("taskCount", count[0]);
+            gen.writeEndObject();
+            log.debug("Exported board {} ({} tasks)", boardId, count[0]);
+            return count[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeValue(JsonGenerator gen, Object value) {
+        try {
+            gen.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a board of the owner from a JSON document written by {@link #export}, appended to
+     * the owner's boards (or templates). Clients get a single {@code boards.created} event.
+     * The document is copied to a temporary file first, so the transaction never waits on the
+     * client's network.
+     *
+     * @param uid owner UID
+     * @param in  the document
+     * @return the new board and what it received
+     * @throws IllegalArgumentException if the document is malformed (nothing is created)
+     * @throws UploadTooLargeException  if the document is larger than {@code app.import-max-bytes}
+     * @throws IOException              if the document cannot be read
+     */
+    public BoardImportResultDto importBoard(String uid, InputStream in) throws IOException {
+        Long ownerId = userAccountService.getOrCreate(uid).getId();
+        BoardImportResultDto result;
+        try (ImportSpool spool = ImportSpool.of(in, maxBytes)) {
+            result = PoolRoutingDataSource.onBulkPool(() -> writeTransaction.execute(status -> read(ownerId, spool)));
+        } catch (UncheckedIOException e) {
+            if (e.getCause() instanceof JsonProcessingException malformed) {
+                throw invalid(malformed.getOriginalMessage());
+            }
+            throw e.getCause();
+        }
+        log.info("Imported board {} for {}: {} columns, {} tasks", result.boardId(), uid, result.columns(), result.tasks());
+        sse.emitBoards(uid, EventType.BOARDS_CREATED);
+        return result;
+    }
+
+    private BoardImportResultDto read(Long ownerId, ImportSpool spool) {
+        try (InputStream in = spool.open(); JsonParser p = mapper.createParser(in)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) throw invalid("expected an object");
+            boolean formatSeen = false;
+            Long boardId = null;
+            List<Long> columnIds = new ArrayList<>();
+            long tasks = 0;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "format" -> {
+                        if (!FORMAT.equals(p.getValueAsString())) throw invalid("not a board export");
+                        formatSeen = true;
+                    }
+                    case "version" -> {
+                        if (p.getValueAsInt() > VERSION) throw invalid("unsupported version " + p.getText());
+                    }
+                    case "board" -> {
+                        if (!formatSeen) throw invalid("\"format\" must come first");
+                        if (boardId != null) throw invalid("more than one board");
+                        boardId = insertBoard(ownerId, p.readValueAs(ExportedBoard.class));
+                    }
+                    case "columns" -> {
+                        if (boardId == null) throw invalid("\"board\" must come before \"columns\"");
+                        insertColumns(p, boardId, columnIds);
+                    }
+                    case "tasks" -> {
+                        if (boardId == null) throw invalid("\"board\" must come before \"tasks\"");
+                        tasks += insertTasks(p, boardId, columnIds);
+                    }
+                    default -> p.skipChildren();
+                }
+            }
+            if (boardId == null) throw invalid("no board");
+            return new BoardImportResultDto(boardId, columnIds.size(), tasks);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Long insertBoard(Long ownerId, ExportedBoard board) {
+        return jdbc.queryForObject("""
+                INSERT INTO board (name, position, owner_id, template)
+                SELECT ?, COALESCE(MAX(position) + 1, 0), ?, ? FROM board
+                WHERE owner_id = ? AND deleted_at IS NULL
+                RETURNING id
+                """, Long.class, name(board.name(), "board"), ownerId, board.template(), ownerId);
+    }
+
+    private void insertColumns(JsonParser p, Long boardId, List<Long> columnIds) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) throw invalid("\"columns\" must be an array");
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            ExportedColumn column = p.readValueAs(ExportedColumn.class);
+            if (columnIds.size() >= KanbanColumnService.MAX_COLUMNS) {
+                throw invalid("more than " + KanbanColumnService.MAX_COLUMNS + " columns");
+            }
+            columnIds.add(jdbc.queryForObject(
+                    "INSERT INTO kanban_column (name, position, board_id) VALUES (?, ?, ?) RETURNING id",
+                    Long.class, name(column.name(), "column"), columnIds.size() + 1, boardId));
+        }
+    }
+
+    private long insertTasks(JsonParser p, Long boardId, List<Long> columnIds) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) throw invalid("\"tasks\" must be an array");
+        // Positions are renumbered per column in document order, so they are dense and unique.
+        int[] nextPosition = new int[columnIds.size()];
+        List<Row> batch = new ArrayList<>(batchSize);
+        long count = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            ExportedTask task = p.readValueAs(ExportedTask.class);
+            if (task.column() == null || task.column() < 0 || task.column() >= columnIds.size()) {
+                throw invalid("task " + count + " names no known column");
+            }
+            if (task.title() == null || task.title().isBlank()) throw invalid("task " + count + " has no title");
+            if (task.title().length() > MAX_TITLE_LENGTH) {
+                throw invalid("task " + count + " title longer than " + MAX_TITLE_LENGTH + " characters");
+            }
+            if (task.description() != null && task.description().length() > MAX_DESCRIPTION_LENGTH) {
+                throw invalid("task " + count + " description longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+            }
+            batch.add(new Row(columnIds.get(task.column()), nextPosition[task.column()]++, task));
+            count++;
+            if (batch.size() == batchSize) {
+                insertBatch(batch);
+                log.debug("Board {} import: {} tasks inserted", boardId, count);
+            }
+        }
+        if (!batch.isEmpty()) insertBatch(batch);
+        return count;
+    }
+
+    private void insertBatch(List<Row> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.batchUpdate(INSERT_TASK, batch, batch.size(), (ps, row) -> {
+            ExportedTask t = row.task();
+            Instant completedAt = t.completed() ? (t.completedAt() != null ? t.completedAt() : Instant.now()) : null;
+            ps.setString(1, t.title());
+            ps.setString(2, t.description());
+            ps.setBoolean(3, t.completed());
+            if (completedAt == null) ps.setNull(4, Types.TIMESTAMP_WITH_TIMEZONE);
+            else ps.setTimestamp(4, Timestamp.from(completedAt));
+            ps.setInt(5, row.position());
+            ps.setLong(6, row.columnId());
+            ps.setTimestamp(7, t.creationDate() != null ? Timestamp.valueOf(t.creationDate()) : now);
+            ps.setObject(8, t.dueDate(), Types.DATE);
+        });
+        batch.clear();
+    }
+
+    private static String name(String name, String what) {
+        if (name == null || name.isBlank()) throw invalid(what + " without a name");
+        String stripped = name.strip();
+        if (stripped.length() > MAX_NAME_LENGTH) {
+            throw invalid(what + " name longer than " + MAX_NAME_LENGTH + " characters");
+        }
+        return stripped;
+    }
+
+    private static IllegalArgumentException invalid(String reason) {
+        return new IllegalArgumentException("Invalid board export: " + reason);
+    }
+}
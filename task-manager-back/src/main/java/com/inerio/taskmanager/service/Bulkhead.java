@@ -0,0 +1,104 @@
+package com.inerio.taskmanager.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.config.PoolRoutingDataSource;
+import com.inerio.taskmanager.exception.BulkheadFullException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Concurrency limits per class of endpoint, so that one class cannot starve another.
+ * <p>
+ * Interactive requests (drag and drop moves, reorders) run on the request thread once they get
+ * one of {@code app.interactive-max-concurrent} slots, waiting at most
+ * {@code app.interactive-wait-ms} for it. Bulk operations (mass deletions) run on
+ * {@code app.bulk-threads} threads of their own, with connections from the bulk pool (see
+ * {@link PoolRoutingDataSource}), behind a queue of {@code app.bulk-queue-capacity}. A saturated
+ * class is rejected right away with {@link BulkheadFullException} (503 + {@code Retry-After})
+ * instead of piling up requests.
+ * </p>
+ */
+@Component
+public class Bulkhead {
+
+    private final Semaphore interactive;
+    private final long interactiveWaitMs;
+    private final int interactiveRetryAfter;
+    private final ThreadPoolExecutor bulk;
+    private final int bulkRetryAfter;
+
+    public Bulkhead(AppProperties props) {
+        this.interactive = new Semaphore(props.getInteractiveMaxConcurrent());
+        this.interactiveWaitMs = props.getInteractiveWaitMs();
+        this.interactiveRetryAfter = props.getInteractiveRetryAfterSeconds();
+        this.bulk = new ThreadPoolExecutor(props.getBulkThreads(), props.getBulkThreads(),
+                30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(props.getBulkQueueCapacity()), r -> {
+                    Thread t = new Thread(r, "bulk-work");
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.bulk.allowCoreThreadTimeOut(true);
+        this.bulkRetryAfter = props.getBulkRetryAfterSeconds();
+    }
+
+    /**
+     * Runs an interactive request on the calling thread.
+     *
+     * @param work the request
+     * @return its result
+     * @throws BulkheadFullException if no slot freed up in time
+     */
+    public <T> T interactive(Supplier<T> work) {
+        boolean acquired;
+        try {
+            acquired = interactive.tryAcquire(interactiveWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) throw new BulkheadFullException("Interactive requests saturated", interactiveRetryAfter);
+        try {
+            return work.get();
+        } finally {
+            interactive.release();
+        }
+    }
+
+    /**
+     * Queues a bulk operation.
+     *
+     * @param work the operation, run with connections from the bulk pool
+     * @return a future completed with its outcome
+     * @throws BulkheadFullException if the queue is full
+     */
+    public <T> CompletableFuture<T> bulk(Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            bulk.execute(() -> {
+                try {
+                    result.complete(PoolRoutingDataSource.onBulkPool(work));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new BulkheadFullException("Bulk operations saturated", bulkRetryAfter);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        bulk.shutdown();
+    }
+}
@@ -0,0 +1,305 @@
+package com.inerio.taskmanager.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.dto.AttachmentUploadDto;
+import com.inerio.taskmanager.dto.AttachmentUploadInitDto;
+import com.inerio.taskmanager.exception.QuotaExceededException;
+import com.inerio.taskmanager.exception.TaskNotFoundException;
+import com.inerio.taskmanager.exception.UploadNotFoundException;
+import com.inerio.taskmanager.exception.UploadTooLargeException;
+import com.inerio.taskmanager.model.AttachmentUpload;
+import com.inerio.taskmanager.model.Task;
+import com.inerio.taskmanager.model.UserAccount;
+import com.inerio.taskmanager.repository.AttachmentUploadRepository;
+import com.inerio.taskmanager.repository.TaskAttachmentRepository;
+import com.inerio.taskmanager.repository.TaskRepository;
+import com.inerio.taskmanager.repository.UserAccountRepository;
+
+/**
+ * Resumable upload of large attachments in chunks: init, then any number of chunk writes at the
+ * current offset, then complete.
+ * <p>
+ * Each chunk is streamed from the request body straight into a staging file on the storage file
+ * system with positional {@link FileChannel} writes (no multipart buffering, no intermediate copy)
+ * and flushed before the session's offset advances, so after a dropped connection the client asks
+ * for the offset and resumes from the last durable byte, even within a chunk. A chunk must start at
+ * the current offset; anything else is a conflict. Completing hashes the assembled file once and
+ * publishes it through {@link TaskService#commitAttachment}, i.e. as a hard link into the blob
+ * store: the content is never copied. Idle sessions are discarded after
+ * {@code app.upload-session-ttl-ms}.
+ * </p>
+ * <p>
+ * Attachments can be up to {@code app.attachment-max-bytes}, independently of the multipart limit,
+ * while no request carries more than {@code app.upload-chunk-max-bytes} and memory use per request
+ * is a fixed buffer. {@code app.attachment-quota-bytes} caps that maximum: a larger file could never
+ * fit, so it is refused as too large. Quotas are checked when the upload is opened and enforced when it completes.
+ * </p>
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    /** Number of lock stripes serialising writes to the same upload. */
+    private static final int UPLOAD_LOCK_STRIPES = 64;
+
+    /** Copy buffer between the request body and the staging file. */
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final AttachmentUploadRepository uploadRepository;
+    private final TaskRepository taskRepository;
+    private final TaskAttachmentRepository attachmentRepository;
+    private final UserAccountRepository userAccountRepository;
+    private final AttachmentStorage attachmentStorage;
+    private final TaskService taskService;
+    private final long maxBytes;
+    private final long maxChunkBytes;
+    private final long quotaBytes;
+    private final long ttlMs;
+    private final Lock[] locks = new Lock[UPLOAD_LOCK_STRIPES];
+
+    public ChunkedUploadService(AttachmentUploadRepository uploadRepository,
+                                TaskRepository taskRepository,
+                                TaskAttachmentRepository attachmentRepository,
+                                UserAccountRepository userAccountRepository,
+                                AttachmentStorage attachmentStorage,
+                                TaskService taskService,
+                                AppProperties props) {
+        this.uploadRepository = uploadRepository;
+        this.taskRepository = taskRepository;
+        this.attachmentRepository = attachmentRepository;
+        this.userAccountRepository = userAccountRepository;
+        this.attachmentStorage = attachmentStorage;
+        this.taskService = taskService;
+        this.maxBytes = props.getAttachmentMaxBytes();
+        this.maxChunkBytes = props.getUploadChunkMaxBytes();
+        this.quotaBytes = props.getAttachmentQuotaBytes();
+        this.ttlMs = props.getUploadSessionTtlMs();
+        for (int i = 0; i < UPLOAD_LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Opens an upload after validating the name, type and size and checking the owner's quota.
+     *
+     * @param taskId  target task
+     * @param request declared filename, MIME type and size
+     * @return the new session, at offset 0
+     */
+    public AttachmentUploadDto init(Long taskId, AttachmentUploadInitDto request) {
+        String contentType = taskService.checkContentType(request.contentType());
+        String safeName = taskService.checkFilename(request.filename());
+        if (request.size() <= 0) throw new IllegalArgumentException("Invalid size");
+        long limit = Math.min(maxBytes, quotaBytes);
+        if (request.size() > limit) {
+            throw new UploadTooLargeException("Attachment larger than " + limit + " bytes");
+        }
+        String ownerUid = taskRepository.findOwnerUidByTaskId(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Task not found with ID " + taskId));
+        if (attachmentRepository.existsByTaskIdAndFilename(taskId, safeName)) {
+            throw new IllegalStateException("Attachment already exists: " + safeName);
+        }
+        long used = userAccountRepository.findByUid(ownerUid).map(UserAccount::getAttachmentBytes).orElse(0L);
+        if (used + request.size() > quotaBytes) {
+            throw new QuotaExceededException("Attachment quota of " + quotaBytes + " bytes exceeded for " + ownerUid);
+        }
+        return toDto(uploadRepository.save(new AttachmentUpload(taskId, safeName, contentType, request.size())));
+    }
+
+    /**
+     * Returns the state of an upload, notably the offset to resume from.
+     *
+     * @param taskId   task id
+     * @param uploadId upload id
+     * @return the session state
+     */
+    public AttachmentUploadDto status(Long taskId, String uploadId) {
+        return toDto(find(taskId, uploadId));
+    }
+
+    /**
+     * Writes a chunk at {@code offset}, which must be the current offset. Bytes received before
+     * a failure (dropped connection, oversized chunk) are kept and counted.
+     *
+     * @param taskId   task id
+     * @param uploadId upload id
+     * @param offset   position of the chunk in the attachment
+     * @param body     chunk content
+     * @return the session state after the chunk
+     * @throws IOException if the chunk cannot be read or written
+     */
+    public AttachmentUploadDto writeChunk(Long taskId, String uploadId, long offset, InputStream body)
+            throws IOException {
+        Lock lock = lockFor(uploadId);
+        lock.lock();
+        try {
+            AttachmentUpload upload = find(taskId, uploadId);
+            if (offset != upload.getReceived()) {
+                throw new IllegalStateException("Expected offset " + upload.getReceived() + ", got " + offset);
+            }
+            long limit = Math.min(maxChunkBytes, upload.getSize() - offset);
+            long[] written = {0};
+            try (FileChannel channel = FileChannel.open(attachmentStorage.chunkedFile(uploadId),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                try {
+                    copy(body, channel, offset, limit, written);
+                    if (body.read() >= 0) {
+                        if (limit == maxChunkBytes) {
+                            throw new UploadTooLargeException("Chunk larger than " + maxChunkBytes + " bytes");
+                        }
+                        throw new IllegalArgumentException("Content exceeds the declared size");
+                    }
+                } finally {
+                    if (written[0] > 0) {
+                        channel.force(false);
+                        upload.advance(written[0]);
+                        uploadRepository.save(upload);
+                    }
+                }
+            }
+            return toDto(upload);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Publishes a fully received upload as an attachment of the task and closes the session.
+     *
+     * @param taskId   task id
+     * @param uploadId upload id
+     * @return the task with its new attachment
+     * @throws IOException if the staging file cannot be read
+     */
+    public Task complete(Long taskId, String uploadId) throws IOException {
+        Lock lock = lockFor(uploadId);
+        lock.lock();
+        try {
+            AttachmentUpload upload = find(taskId, uploadId);
+            if (upload.getReceived() != upload.getSize()) {
+                throw new IllegalStateException("Upload incomplete: " + upload.getReceived() + " of "
+                        + upload.getSize() + " bytes received");
+            }
+            Path file = attachmentStorage.chunkedFile(uploadId);
+            AttachmentStorage.StagedUpload staged = attachmentStorage.staged(file);
+            if (staged.size() != upload.getSize()) {
+                throw new IllegalStateException("Staged upload has " + staged.size() + " bytes, expected " + upload.getSize());
+            }
+            Task task = taskService.commitAttachment(taskId, upload.getFilename(), upload.getContentType(), staged);
+            discard(upload);
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Abandons an upload and deletes what was received.
+     *
+     * @param taskId   task id
+     * @param uploadId upload id
+     */
+    public void abort(Long taskId, String uploadId) {
+        Lock lock = lockFor(uploadId);
+        lock.lock();
+        try {
+            discard(find(taskId, uploadId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discards the sessions idle for longer than the TTL. A session whose lock is held (a chunk
+     * is being written) is left for the next run, and each session is re-read under its lock so
+     * that one a chunk reached meanwhile survives.
+     *
+     * @return number of sessions discarded
+     */
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT1H")
+    public int expireSessions() {
+        Instant cutoff = Instant.now().minusMillis(ttlMs);
+        int expired = 0;
+        boolean skipped = false;
+        List<AttachmentUpload> batch;
+        do {
+            batch = uploadRepository.findTop500ByUpdatedAtBefore(cutoff);
+            for (AttachmentUpload candidate : batch) {
+                Lock lock = lockFor(candidate.getId());
+                if (!lock.tryLock()) {
+                    skipped = true;
+                    continue;
+                }
+                try {
+                    AttachmentUpload upload = uploadRepository.findById(candidate.getId()).orElse(null);
+                    if (upload == null || !upload.getUpdatedAt().isBefore(cutoff)) continue;
+                    discard(upload);
+                    expired++;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            // Busy sessions would come back in every batch: stop at the first one skipped.
+        } while (batch.size() == 500 && !skipped);
+        if (expired > 0) log.info("Discarded {} idle chunked uploads", expired);
+        return expired;
+    }
+
+    private void discard(AttachmentUpload upload) {
+        uploadRepository.delete(upload);
+        try {
+            Files.deleteIfExists(attachmentStorage.chunkedFile(upload.getId()));
+        } catch (IOException e) {
+            log.debug("Could not delete chunked upload {}: {}", upload.getId(), e.getMessage());
+        }
+    }
+
+    private AttachmentUpload find(Long taskId, String uploadId) {
+        return uploadRepository.findByIdAndTaskId(uploadId, taskId)
+                .orElseThrow(() -> new UploadNotFoundException("Upload not found: " + uploadId));
+    }
+
+    private Lock lockFor(String uploadId) {
+        return locks[Math.floorMod(uploadId.hashCode(), UPLOAD_LOCK_STRIPES)];
+    }
+
+    private AttachmentUploadDto toDto(AttachmentUpload upload) {
+        return new AttachmentUploadDto(upload.getId(), upload.getFilename(), upload.getContentType(),
+                upload.getSize(), upload.getReceived(), maxChunkBytes, upload.getUpdatedAt().plusMillis(ttlMs));
+    }
+
+    /** Copies up to {@code limit} bytes to the channel at {@code position}, counting them in {@code written[0]}. */
+    private static void copy(InputStream in, FileChannel out, long position, long limit, long[] written)
+            throws IOException {
+        byte[] chunk = new byte[COPY_BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        while (written[0] < limit) {
+            int n = in.read(chunk, 0, (int) Math.min(chunk.length, limit - written[0]));
+            if (n < 0) return;
+            buffer.clear().limit(n);
+            long at = position + written[0];
+            while (buffer.hasRemaining()) {
+                at += out.write(buffer, at);
+            }
+            written[0] += n;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.inerio.taskmanager.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for RFC 4180 CSV: comma-separated fields, optionally double-quoted, with
+ * doubled quotes and line breaks allowed inside quoted fields. Records are read one at a time and
+ * fields are capped in length, so input of any size is parsed in constant memory.
+ */
+final class CsvReader {
+
+    private static final int NONE = -2;
+
+    private final Reader in;
+    private final int maxFieldLength;
+    private int pending = NONE;
+
+    /**
+     * @param in             the CSV text
+     * @param maxFieldLength longest field accepted
+     */
+    CsvReader(Reader in, int maxFieldLength) {
+        this.in = in instanceof BufferedReader ? in : new BufferedReader(in);
+        this.maxFieldLength = maxFieldLength;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return its fields, or {@code null} at the end of the input
+     * @throws IllegalArgumentException if a quoted field is not terminated or a field is too long;
+     *                                  the reader cannot resynchronize after it
+     * @throws IOException              if the input cannot be read
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) return null;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) throw new IllegalArgumentException("unterminated quoted field");
+                if (c == '"') {
+                    int n = read();
+                    if (n != '"') {
+                        quoted = false;
+                        c = n;
+                        continue;
+                    }
+                }
+                append(field, c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                int n = read();
+                if (n != '\n') pending = n;
+                break;
+            } else {
+                append(field, c);
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void append(StringBuilder field, int c) {
+        if (field.length() == maxFieldLength) {
+            throw new IllegalArgumentException("field longer than " + maxFieldLength + " characters");
+        }
+        field.append((char) c);
+    }
+
+    private int read() throws IOException {
+        if (pending == NONE) return in.read();
+        int c = pending;
+        pending = NONE;
+        return c;
+    }
+}
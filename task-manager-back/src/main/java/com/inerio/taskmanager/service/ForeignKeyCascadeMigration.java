@@ -0,0 +1,70 @@
+package com.inerio.taskmanager.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off upgrade of the foreign keys of the board hierarchy to {@code ON DELETE CASCADE}.
+ * <p>
+ * The entities declare the cascade ({@code @OnDelete}), but schema update never alters an existing
+ * constraint, so databases created earlier keep plain foreign keys. On startup each such key is
+ * replaced, under the same name, by a cascading one added {@code NOT VALID} (no table scan under
+ * the exclusive lock), then validated separately, which only takes a lock compatible with reads and
+ * writes. Keys that already cascade are left alone, so the upgrade runs once.
+ * </p>
+ */
+@Component
+public class ForeignKeyCascadeMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(ForeignKeyCascadeMigration.class);
+
+    /**
+     * Foreign keys to cascade, as {@code [table, column, referenced table]}.
+     */
+    private static final List<String[]> KEYS = List.of(
+            new String[]{"board", "owner_id", "user_account"},
+            new String[]{"kanban_column", "board_id", "board"},
+            new String[]{"task", "kanban_column_id", "kanban_column"}
+    );
+
+    private final JdbcTemplate jdbc;
+
+    public ForeignKeyCascadeMigration(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Replaces every non-cascading key of {@link #KEYS}. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        for (String[] key : KEYS) {
+            try {
+                upgrade(key[0], key[1], key[2]);
+            } catch (RuntimeException e) {
+                log.warn("Could not make {}.{} cascade on delete: {}", key[0], key[1], e.getMessage());
+            }
+        }
+    }
+
+    private void upgrade(String table, String column, String referenced) {
+        List<String> names = jdbc.queryForList("""
+                SELECT c.conname FROM pg_constraint c
+                JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+                WHERE c.contype = 'f' AND c.confdeltype <> 'c'
+                  AND c.conrelid = to_regclass(?) AND c.confrelid = to_regclass(?)
+                  AND cardinality(c.conkey) = 1 AND a.attname = ?
+                """, String.class, table, referenced, column);
+        for (String name : names) {
+            jdbc.execute("ALTER TABLE " + table + " DROP CONSTRAINT " + name
+                    + ", ADD CONSTRAINT " + name + " FOREIGN KEY (" + column + ") REFERENCES " + referenced
+                    + "(id) ON DELETE CASCADE NOT VALID");
+            jdbc.execute("ALTER TABLE " + table + " VALIDATE CONSTRAINT " + name);
+            log.info("Foreign key {} of {}.{} now cascades on delete", name, table, column);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.inerio.taskmanager.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.inerio.taskmanager.exception.UploadTooLargeException;
+
+/**
+ * Request body of an import, copied to a temporary file before any connection or lock is taken, so
+ * that the database never waits on the client's network. The copy is bounded in size; closing the
+ * spool deletes the file.
+ */
+final class ImportSpool implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+
+    private ImportSpool(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the whole body into a temporary file.
+     *
+     * @param in       request body
+     * @param maxBytes largest body accepted
+     * @return the spooled body
+     * @throws UploadTooLargeException if the body is larger than {@code maxBytes} (nothing is kept)
+     * @throws IOException             if the body cannot be read or written
+     */
+    static ImportSpool of(InputStream in, long maxBytes) throws IOException {
+        Path file = Files.createTempFile("import-", ".tmp");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long total = 0;
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                total += n;
+                if (total > maxBytes) throw new UploadTooLargeException("Import larger than " + maxBytes + " bytes");
+                out.write(buffer, 0, n);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new ImportSpool(file);
+    }
+
+    /**
+     * @return a new stream over the spooled body
+     * @throws IOException if the file cannot be opened
+     */
+    InputStream open() throws IOException {
+        return Files.newInputStream(file);
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,133 @@
+package com.inerio.taskmanager.service;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.config.PoolRoutingDataSource;
+import com.inerio.taskmanager.model.JobRun;
+import com.inerio.taskmanager.repository.JobRunRepository;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.function.LongFunction;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs cluster-wide scheduled jobs on one node at a time.
+ * <p>
+ * Every node schedules every job; when a job fires, the node tries to take a PostgreSQL session
+ * advisory lock named after it ({@code pg_try_advisory_lock}) on a connection of its own and skips
+ * the run if another node holds it. The lock lives as long as that connection, so a node that dies
+ * mid-run releases it without any lease to expire. Runs are recorded in {@code job_run}; the id of
+ * the run is passed to the job as a fencing token, for jobs that keep state across runs (see
+ * {@code JobCheckpointRepository#saveFenced}): a node that lost its connection but keeps running
+ * cannot overwrite the progress of the run that took over.
+ * </p>
+ * <p>
+ * The lock connection comes from a pool of its own ({@code jobLockDataSource}), as it is held for
+ * the whole run; the job takes its connections from the bulk pool (see {@link PoolRoutingDataSource}).
+ * </p>
+ * <p>
+ * Per-node jobs (SSE heartbeats, outbox polling, collectors whose statements are safe to race)
+ * keep plain {@code @Scheduled}.
+ * </p>
+ */
+@Component
+public class JobCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(JobCoordinator.class);
+
+    /** First key of the advisory locks of jobs ("JOBS"); the second is a hash of the job name. */
+    static final int LOCK_NAMESPACE = 0x4A4F4253;
+
+    private static final String LOCK = "SELECT pg_try_advisory_lock(?, hashtext(?))";
+    private static final String UNLOCK = "SELECT pg_advisory_unlock(?, hashtext(?))";
+
+    private final DataSource lockDataSource;
+    private final JobRunRepository runRepository;
+    private final int historyDays;
+    private final String node = ManagementFactory.getRuntimeMXBean().getName();
+
+    public JobCoordinator(@Qualifier("jobLockDataSource") DataSource lockDataSource,
+                          JobRunRepository runRepository,
+                          AppProperties props) {
+        this.lockDataSource = lockDataSource;
+        this.runRepository = runRepository;
+        this.historyDays = props.getJobHistoryDays();
+    }
+
+    /**
+     * Runs a job if no other node is running it.
+     *
+     * @param job  job name (at most 64 characters)
+     * @param body the job, given the fencing token of the run; its result is recorded as the run's detail
+     * @return {@code true} if the job ran on this node (even if it failed), {@code false} if it was skipped
+     */
+    public boolean runExclusive(String job, LongFunction<?> body) {
+        return PoolRoutingDataSource.onBulkPool(() -> lockAndRun(job, body));
+    }
+
+    private boolean lockAndRun(String job, LongFunction<?> body) {
+        try (Connection lock = lockDataSource.getConnection()) {
+            if (!advisoryLock(lock, LOCK, job)) {
+                log.debug("Job {} is running on another node, skipped", job);
+                return false;
+            }
+            try {
+                run(job, body);
+            } finally {
+                unlock(lock, job);
+            }
+            return true;
+        } catch (SQLException e) {
+            log.warn("Could not coordinate job {}: {}", job, e.getMessage());
+            return false;
+        }
+    }
+
+    private void run(String job, LongFunction<?> body) {
+        int abandoned = runRepository.abandonRunning(job);
+        if (abandoned > 0) log.warn("Job {}: {} earlier run(s) never finished", job, abandoned);
+        JobRun run = runRepository.save(new JobRun(job, node));
+        try {
+            Object result = body.apply(run.getId());
+            run.finish(JobRun.Status.SUCCEEDED, result != null ? result.toString() : null);
+        } catch (RuntimeException e) {
+            run.finish(JobRun.Status.FAILED, e.toString());
+            log.warn("Job {} failed: {}", job, e.getMessage());
+        } finally {
+            runRepository.save(run);
+            runRepository.deleteHistory(job, Instant.now().minus(historyDays, ChronoUnit.DAYS));
+        }
+    }
+
+    private static void unlock(Connection lock, String job) {
+        try {
+            if (!advisoryLock(lock, UNLOCK, job)) log.warn("Lock of job {} was not held at the end of the run", job);
+        } catch (SQLException e) {
+            // The connection must not go back to the pool still holding the lock: drop it instead.
+            log.warn("Could not release the lock of job {}: {}", job, e.getMessage());
+            try {
+                lock.abort(Runnable::run);
+            } catch (SQLException ignored) {
+                // already unusable
+            }
+        }
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql, String job) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, LOCK_NAMESPACE);
+            ps.setString(2, job);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
@@ -1,13 +1,11 @@
 package com.inerio.taskmanager.service;
 
-import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.stereotype.Service;
-import org.springframework.util.FileSystemUtils;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.inerio.taskmanager.config.AppProperties;
 import com.inerio.taskmanager.dto.KanbanColumnDto;
 import com.inerio.taskmanager.exception.BoardNotFoundException;
 import com.inerio.taskmanager.exception.ColumnNotFoundException;
@@ -17,32 +15,26 @@ import com.inerio.taskmanager.realtime.EventType;
 import com.inerio.taskmanager.realtime.SseHub;
 import com.inerio.taskmanager.repository.BoardRepository;
 import com.inerio.taskmanager.repository.KanbanColumnRepository;
-import com.inerio.taskmanager.repository.TaskRepository;
 
 /**
  * Service for managing Kanban columns.
- * Provides CRUD operations, ordering, and cleanup of task attachment folders when columns are removed.
+ * Provides CRUD operations, ordering, and moving columns to and out of the trash.
  */
 @Service
 public class KanbanColumnService {
 
-    private static final int MAX_COLUMNS = 5;
+    /** Maximum number of columns of a board. */
+    static final int MAX_COLUMNS = 5;
 
     private final KanbanColumnRepository kanbanColumnRepository;
     private final BoardRepository boardRepository;
-    private final TaskRepository taskRepository;
-    private final Path baseUploadDir;
     private final SseHub sse;
 
     public KanbanColumnService(KanbanColumnRepository kanbanColumnRepository,
                                BoardRepository boardRepository,
-                               TaskRepository taskRepository,
-                               AppProperties props,
                                SseHub sse) {
         this.kanbanColumnRepository = kanbanColumnRepository;
         this.boardRepository = boardRepository;
-        this.taskRepository = taskRepository;
-        this.baseUploadDir = Path.of(props.getUploadDir()).toAbsolutePath().normalize();
         this.sse = sse;
     }
 
@@ -89,32 +81,42 @@ public class KanbanColumnService {
         return saved;
     }
 
+    /**
+     * Moves a column to the trash with a single-row update; its tasks are hidden with it and kept
+     * until the trash is purged (see {@link TrashPurgeService}). The remaining columns are not
+     * renumbered: only their order matters.
+     */
+    @Transactional
     public void deleteKanbanColumn(Long id) {
-        KanbanColumn column = kanbanColumnRepository.findById(id)
+        Long boardId = kanbanColumnRepository.trash(id)
                 .orElseThrow(() -> new ColumnNotFoundException("KanbanColumn not found with id " + id));
-        Board board = column.getBoard();
-        Long boardId = board != null ? board.getId() : null;
-
-        var taskIds = taskRepository.findByKanbanColumn(column).stream().map(t -> t.getId()).toList();
-
-        kanbanColumnRepository.deleteById(id);
+        sse.emitBoard(boardId, EventType.COLUMNS_CHANGED);
+        sse.emitBoard(boardId, EventType.TASKS_CHANGED);
+    }
 
-        List<KanbanColumn> remaining = kanbanColumnRepository.findByBoardOrderByPositionAsc(board);
-        int pos = 1;
-        for (KanbanColumn kc : remaining) {
-            if (kc.getPosition() != pos) {
-                kc.setPosition(pos);
-                kanbanColumnRepository.save(kc);
-            }
-            pos++;
+    /**
+     * Takes a column of the owner out of the trash, with the tasks it held, and appends it to its
+     * board.
+     *
+     * @throws ColumnNotFoundException if the owner has no such column
+     * @throws IllegalStateException   if the column is not in the trash, its board is, or the board is full
+     */
+    @Transactional
+    public void restoreKanbanColumn(String uid, Long id) {
+        List<Object[]> state = kanbanColumnRepository.findTrashState(id, uid);
+        if (state.isEmpty()) throw new ColumnNotFoundException("KanbanColumn not found with id " + id);
+        Object[] row = state.get(0);
+        if (!(Boolean) row[0]) throw new IllegalStateException("KanbanColumn " + id + " is not in the trash");
+        if (!(Boolean) row[1]) throw new IllegalStateException("The board of KanbanColumn " + id + " is in the trash");
+        Long boardId = ((Number) row[2]).longValue();
+        if (kanbanColumnRepository.countByBoard(getBoardOrThrow(boardId)) >= MAX_COLUMNS) {
+            throw new IllegalStateException("Maximum number of columns (" + MAX_COLUMNS + ") reached for this board");
         }
-
-        taskIds.forEach(this::deleteTaskFolderQuiet);
-
-        if (boardId != null) {
-            sse.emitBoard(boardId, EventType.COLUMNS_CHANGED);
-            sse.emitBoard(boardId, EventType.TASKS_CHANGED);
+        if (kanbanColumnRepository.restore(id) == 0) {
+            throw new IllegalStateException("KanbanColumn " + id + " is not in the trash");
         }
+        sse.emitBoard(boardId, EventType.COLUMNS_CHANGED);
+        sse.emitBoard(boardId, EventType.TASKS_CHANGED);
     }
 
     public void moveKanbanColumn(Long kanbanColumnId, int targetPosition) {
@@ -154,10 +156,4 @@ public class KanbanColumnService {
         return boardRepository.findById(boardId)
                 .orElseThrow(() -> new BoardNotFoundException("Board not found with id " + boardId));
     }
-
-    private void deleteTaskFolderQuiet(Long taskId) {
-        try {
-            FileSystemUtils.deleteRecursively(baseUploadDir.resolve(String.valueOf(taskId)));
-        } catch (Exception ignored) { }
-    }
 }
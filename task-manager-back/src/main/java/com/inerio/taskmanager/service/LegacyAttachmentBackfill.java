@@ -0,0 +1,81 @@
+package com.inerio.taskmanager.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.inerio.taskmanager.repository.TaskAttachmentRepository;
+
+/**
+ * One-off migration of attachments recorded before attachments had metadata.
+ * <p>
+ * Those attachments are bare filenames in {@code task_attachments}. On startup each one is
+ * hashed, measured and charged to its owner through {@link AttachmentStorage#adopt}, then its
+ * legacy row is removed; when none remain the legacy table is dropped. Content-addressed rows
+ * recorded before they carried an owner and size are completed from the blob table. Every step is
+ * idempotent, so an interrupted run simply resumes at the next startup.
+ * </p>
+ */
+@Component
+public class LegacyAttachmentBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyAttachmentBackfill.class);
+
+    private static final int BATCH_SIZE = 200;
+
+    private final TaskAttachmentRepository attachmentRepository;
+    private final AttachmentStorage attachmentStorage;
+    private final AttachmentPaths paths;
+
+    public LegacyAttachmentBackfill(TaskAttachmentRepository attachmentRepository,
+                                    AttachmentStorage attachmentStorage,
+                                    AttachmentPaths paths) {
+        this.attachmentRepository = attachmentRepository;
+        this.attachmentStorage = attachmentStorage;
+        this.paths = paths;
+    }
+
+    /** Migrates every legacy attachment, then drops the legacy table. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        attachmentRepository.fillMissingOwners();
+        if (!attachmentRepository.legacyTableExists()) return;
+
+        int migrated = 0;
+        int missing = 0;
+        List<Object[]> batch;
+        do {
+            batch = attachmentRepository.findLegacy(BATCH_SIZE);
+            for (Object[] row : batch) {
+                Long taskId = ((Number) row[0]).longValue();
+                String filename = (String) row[1];
+                String ownerUid = (String) row[2];
+                Path file = paths.file(taskId, filename);
+                if (!attachmentRepository.existsByTaskIdAndFilename(taskId, filename)) {
+                    if (Files.isRegularFile(file)) {
+                        try {
+                            attachmentStorage.adopt(taskId, ownerUid, filename, file);
+                            migrated++;
+                        } catch (IOException e) {
+                            log.warn("Legacy attachment migration stopped at {}: {}", file, e.getMessage());
+                            return;
+                        }
+                    } else {
+                        missing++;
+                    }
+                }
+                attachmentRepository.deleteLegacy(taskId, filename);
+            }
+        } while (batch.size() == BATCH_SIZE);
+
+        attachmentRepository.dropLegacyTable();
+        log.info("Legacy attachments migrated: {} recorded, {} dropped (file missing)", migrated, missing);
+    }
+}
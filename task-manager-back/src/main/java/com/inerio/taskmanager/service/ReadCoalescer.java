@@ -0,0 +1,74 @@
+package com.inerio.taskmanager.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.inerio.taskmanager.realtime.SseHub;
+
+/**
+ * Single-flight layer for hot, per-owner list reads.
+ * <p>
+ * When a {@code tasks.changed} event lands, every open tab of the same UID refetches the same
+ * resource within milliseconds. Concurrent calls with the same (uid, endpoint, argument, version)
+ * key share one in-flight load and its mapped result instead of running N identical queries.
+ * The version is {@link SseHub#changeVersion()}, which only moves once a mutation has committed,
+ * so a read issued after a mutation was broadcast never joins a load that started before it
+ * (and may have read the pre-commit rows). Nothing is cached once the load completes.
+ * </p>
+ * Loaded values are handed to several callers and must therefore be immutable.
+ */
+@Component
+public class ReadCoalescer {
+
+    private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final SseHub sse;
+
+    public ReadCoalescer(SseHub sse) {
+        this.sse = sse;
+    }
+
+    /**
+     * Runs {@code loader} unless an identical load is already in flight, in which case its result is shared.
+     *
+     * @param uid      owner UID
+     * @param endpoint logical endpoint name (e.g. {@code "tasks"})
+     * @param arg      additional key part (column id, view, fields...); may be {@code null}
+     * @param loader   the actual read
+     * @return the loaded (possibly shared) value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String uid, String endpoint, Object arg, Supplier<T> loader) {
+        Key key = new Key(uid, endpoint, arg, sse.changeVersion());
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            return (T) await(leader);
+        }
+        try {
+            T value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    private record Key(String uid, String endpoint, Object arg, long version) { }
+}
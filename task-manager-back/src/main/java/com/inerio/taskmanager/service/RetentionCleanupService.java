@@ -1,21 +1,50 @@
 package com.inerio.taskmanager.service;
 
-import com.inerio.taskmanager.model.UserAccount;
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.config.PoolRoutingDataSource;
+import com.inerio.taskmanager.model.JobCheckpoint;
+import com.inerio.taskmanager.repository.JobCheckpointRepository;
+import com.inerio.taskmanager.repository.TaskRepository;
 import com.inerio.taskmanager.repository.UserAccountRepository;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Scheduled service that removes data for accounts inactive beyond a configured retention period.
  * <p>
- * Deletes all boards (and related on-disk attachments via {@link BoardService}) for stale accounts,
- * then removes the corresponding user accounts.
+ * Stale accounts are paged by ascending id (keyset pagination) and purged by
+ * {@code app.retention-workers} concurrent workers. Each account is purged with set-based
+ * statements: its tasks go {@code app.retention-batch-size} at a time, each batch in its own short
+ * transaction that also releases their attachments and queues the removal of their folders in the
+ * attachment outbox; then its columns, boards and the account itself go in one last statement.
+ * Every statement re-checks that the account is still inactive, so a user coming back mid-purge
+ * stops it.
+ * </p>
+ * <p>
+ * After each page the largest id fully handled is saved in {@code job_checkpoint}, with the
+ * cutoff of the sweep: a run stopped by a restart or by its time budget
+ * ({@code app.retention-budget-ms}) is resumed by the next one instead of starting over. The
+ * checkpoint is removed when a sweep completes.
+ * </p>
+ * <p>
+ * The nightly run goes through {@link JobCoordinator}, so that one node of the cluster sweeps at a
+ * time; checkpoint writes are fenced by the token of the run, so a run that lost its lock to a later
+ * one stops instead of moving the checkpoint back.
  * </p>
  */
 @Service
@@ -23,48 +52,199 @@ public class RetentionCleanupService {
 
     private static final Logger log = LoggerFactory.getLogger(RetentionCleanupService.class);
 
-    private final UserAccountRepository userAccountRepository;
-    private final BoardService boardService;
+    /** Name of this job, of its lock and of its checkpoint row. */
+    static final String JOB = "retention-purge";
 
-    @Value("${app.retention-days:90}")
-    private int retentionDays;
+    /** Attempts of a task batch that keeps losing lock conflicts before the account is skipped. */
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+
+    /**
+     * Outcome of a retention run.
+     *
+     * @param accounts accounts deleted
+     * @param tasks    tasks deleted
+     * @param failed   accounts whose purge failed (retried by the next sweep)
+     * @param complete whether the sweep reached the last stale account
+     */
+    public record Report(long accounts, long tasks, long failed, boolean complete) { }
+
+    private final UserAccountRepository userAccountRepository;
+    private final TaskRepository taskRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final AttachmentOutboxWorker outboxWorker;
+    private final JobCoordinator jobs;
+    private final TransactionTemplate tx;
+    private final int retentionDays;
+    private final int workers;
+    private final int pageSize;
+    private final int batchSize;
+    private final long budgetMs;
 
     public RetentionCleanupService(UserAccountRepository userAccountRepository,
-                                   BoardService boardService) {
+                                   TaskRepository taskRepository,
+                                   JobCheckpointRepository checkpointRepository,
+                                   AttachmentOutboxWorker outboxWorker,
+                                   JobCoordinator jobs,
+                                   PlatformTransactionManager transactionManager,
+                                   AppProperties props) {
         this.userAccountRepository = userAccountRepository;
-        this.boardService = boardService;
+        this.taskRepository = taskRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.outboxWorker = outboxWorker;
+        this.jobs = jobs;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.retentionDays = props.getRetentionDays();
+        this.workers = props.getRetentionWorkers();
+        this.pageSize = props.getRetentionPageSize();
+        this.batchSize = props.getRetentionBatchSize();
+        this.budgetMs = props.getRetentionBudgetMs();
+    }
+
+    /** Runs once per day at 03:00 server time, on one node of the cluster. */
+    @Scheduled(cron = "0 0 3 * * *", zone = "Europe/Paris")
+    public void scheduledCleanup() {
+        jobs.runExclusive(JOB, this::cleanupInactiveAccounts);
     }
 
     /**
-     * Runs once per day at 03:00 server time.
-     * <p>
-     * For each user whose {@code lastActiveAt} is older than the retention window,
-     * deletes all their boards (including attachment folders) and then removes the account.
-     * </p>
+     * Sweeps the inactive accounts, resuming the previous sweep if it did not complete.
+     *
+     * @param fence fencing token of the run, guarding the checkpoint writes
+     * @return what was purged
      */
-    @Scheduled(cron = "0 0 3 * * *", zone = "Europe/Paris")
-    public void cleanupInactiveAccounts() {
-        Instant cutoff = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
-        List<UserAccount> stale = userAccountRepository.findByLastActiveAtBefore(cutoff);
-        if (stale.isEmpty()) {
-            return;
+    public synchronized Report cleanupInactiveAccounts(long fence) {
+        long deadline = System.nanoTime() + budgetMs * 1_000_000;
+        JobCheckpoint checkpoint = checkpointRepository.findById(JOB)
+                .orElseGet(() -> new JobCheckpoint(JOB, Instant.now().minus(retentionDays, ChronoUnit.DAYS)));
+        if (checkpoint.getLastKey() > 0) {
+            log.info("Resuming retention sweep after account id {} (cutoff {})",
+                    checkpoint.getLastKey(), checkpoint.getCutoff());
         }
 
-        for (UserAccount ua : stale) {
-            String uid = ua.getUid();
-            try {
-                boardService.getAllBoards(uid).forEach(b -> {
-                    try {
-                        boardService.deleteBoard(uid, b.getId());
-                    } catch (Exception ex) {
-                        log.warn("Failed deleting board {} for uid {}: {}", b.getId(), uid, ex.getMessage());
+        Run run = new Run(checkpoint.getCutoff(), deadline);
+        boolean complete = false;
+        try (ExecutorService pool = Executors.newThreadPerTaskExecutor(
+                PoolRoutingDataSource.inheritPool(Thread.ofVirtual().factory()))) {
+            Semaphore permits = new Semaphore(workers);
+            while (!run.expired()) {
+                List<Object[]> page = userAccountRepository.findStalePage(
+                        checkpoint.getCutoff(), checkpoint.getLastKey(), pageSize);
+                if (page.isEmpty()) {
+                    complete = true;
+                    break;
+                }
+                List<Future<Boolean>> results = new ArrayList<>(page.size());
+                for (Object[] row : page) {
+                    long id = ((Number) row[0]).longValue();
+                    String uid = (String) row[1];
+                    results.add(pool.submit(() -> withPermit(permits, () -> purge(id, uid, run))));
+                }
+                // The checkpoint only moves past accounts that were fully handled (purged or failed).
+                long handled = checkpoint.getLastKey();
+                for (int i = 0; i < page.size(); i++) {
+                    if (!await(results.get(i))) break;
+                    handled = ((Number) page.get(i)[0]).longValue();
+                }
+                if (handled > checkpoint.getLastKey()) {
+                    checkpoint.advance(handled);
+                    if (checkpointRepository.saveFenced(JOB, handled, checkpoint.getCutoff(), fence) == 0) {
+                        log.warn("Retention sweep superseded by a later run, stopping");
+                        break;
                     }
-                });
-                userAccountRepository.delete(ua);
+                }
+                if (handled != ((Number) page.get(page.size() - 1)[0]).longValue()) break;
+            }
+        }
+        if (complete) checkpointRepository.deleteFenced(JOB, fence);
+        if (run.tasks.sum() > 0) outboxWorker.wakeUp();
+
+        Report report = new Report(run.accounts.sum(), run.tasks.sum(), run.failed.sum(), complete);
+        if (report.accounts() + report.tasks() + report.failed() > 0 || !complete) {
+            log.info("Retention purge: {} accounts and {} tasks deleted, {} failures{}", report.accounts(),
+                    report.tasks(), report.failed(), complete ? "" : "; time budget exhausted, will resume");
+        }
+        return report;
+    }
+
+    /**
+     * Purges one account in bounded transactions.
+     *
+     * @return {@code false} if the time budget ran out first, {@code true} once handled (even on failure)
+     */
+    private boolean purge(long accountId, String uid, Run run) {
+        try {
+            int deleted;
+            do {
+                if (run.expired()) return false;
+                deleted = purgeBatch(accountId, run.cutoff);
+                run.tasks.add(deleted);
+            } while (deleted == batchSize);
+            Integer removed = tx.execute(s -> userAccountRepository.purgeStale(accountId, run.cutoff));
+            if (removed != null && removed > 0) {
+                run.accounts.increment();
                 log.info("Deleted inactive user data for uid={}", uid);
-            } catch (Exception e) {
-                log.warn("Retention cleanup failed for uid={}: {}", uid, e.getMessage());
             }
+        } catch (RuntimeException e) {
+            run.failed.increment();
+            log.warn("Retention cleanup failed for uid={}: {}", uid, e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Deletes one batch of tasks. Workers purging accounts that share deduplicated blobs update the
+     * same {@code attachment_blob} rows and may deadlock; the losing batch is simply retried.
+     */
+    private int purgeBatch(long accountId, Instant cutoff) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return tx.execute(s -> taskRepository.purgeStaleOwner(accountId, cutoff, batchSize));
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt == MAX_BATCH_ATTEMPTS) throw e;
+                log.debug("Retention batch for account {} lost a lock conflict, retrying", accountId);
+            }
+        }
+    }
+
+    private interface Unit {
+        boolean run();
+    }
+
+    private static boolean withPermit(Semaphore permits, Unit unit) throws InterruptedException {
+        permits.acquire();
+        try {
+            return unit.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static boolean await(Future<Boolean> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    /** Shared state of one run. */
+    private static final class Run {
+        final Instant cutoff;
+        final long deadline;
+        final LongAdder accounts = new LongAdder();
+        final LongAdder tasks = new LongAdder();
+        final LongAdder failed = new LongAdder();
+
+        Run(Instant cutoff, long deadline) {
+            this.cutoff = cutoff;
+            this.deadline = deadline;
+        }
+
+        boolean expired() {
+            return System.nanoTime() - deadline > 0;
         }
     }
 }
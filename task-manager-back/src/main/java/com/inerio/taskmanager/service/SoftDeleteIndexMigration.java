@@ -0,0 +1,88 @@
+package com.inerio.taskmanager.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the partial indexes of the trash, which schema update cannot express.
+ * <p>
+ * Reads only ever look at live rows ({@code deleted_at IS NULL}), so the indexes serving them
+ * leave trashed rows out; the purge only looks at trashed rows, so its indexes hold nothing else.
+ * The unique {@code (column, position)} constraint of tasks becomes a partial unique index too, so
+ * that a task in the trash does not hold its position: once the index exists the old constraint
+ * is dropped. Indexes are built {@code CONCURRENTLY} (no write lock on the tables); one left
+ * invalid by an interrupted build is rebuilt on the next startup.
+ * </p>
+ */
+@Component
+public class SoftDeleteIndexMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(SoftDeleteIndexMigration.class);
+
+    /** Partial indexes, as {@code [name, definition]}. */
+    private static final List<String[]> INDEXES = List.of(
+            new String[]{"ux_task_live_position",
+                    "UNIQUE INDEX %s ON task (kanban_column_id, position) WHERE deleted_at IS NULL"},
+            new String[]{"ix_kanban_column_live_position",
+                    "INDEX %s ON kanban_column (board_id, position) WHERE deleted_at IS NULL"},
+            new String[]{"ix_board_live_position",
+                    "INDEX %s ON board (owner_id, position) WHERE deleted_at IS NULL"},
+            new String[]{"ix_task_trash", "INDEX %s ON task (deleted_at) WHERE deleted_at IS NOT NULL"},
+            new String[]{"ix_kanban_column_trash", "INDEX %s ON kanban_column (deleted_at) WHERE deleted_at IS NOT NULL"},
+            new String[]{"ix_board_trash", "INDEX %s ON board (deleted_at) WHERE deleted_at IS NOT NULL"}
+    );
+
+    private final JdbcTemplate jdbc;
+
+    public SoftDeleteIndexMigration(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Creates the missing indexes of {@link #INDEXES}, then drops the superseded task constraint. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        for (String[] index : INDEXES) {
+            try {
+                ensure(index[0], index[1]);
+            } catch (RuntimeException e) {
+                log.warn("Could not create index {}: {}", index[0], e.getMessage());
+            }
+        }
+        try {
+            dropTaskPositionConstraint();
+        } catch (RuntimeException e) {
+            log.warn("Could not drop the unique (column, position) constraint of tasks: {}", e.getMessage());
+        }
+    }
+
+    private void ensure(String name, String definition) {
+        List<Boolean> valid = jdbc.queryForList(
+                "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)", Boolean.class, name);
+        if (!valid.isEmpty() && valid.get(0)) return;
+        if (!valid.isEmpty()) jdbc.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+        jdbc.execute("CREATE " + definition.replaceFirst("INDEX %s", "INDEX CONCURRENTLY " + name));
+        log.info("Created index {}", name);
+    }
+
+    private void dropTaskPositionConstraint() {
+        List<Boolean> live = jdbc.queryForList(
+                "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass('ux_task_live_position')", Boolean.class);
+        if (live.isEmpty() || !live.get(0)) return;
+        List<String> names = jdbc.queryForList("""
+                SELECT c.conname FROM pg_constraint c
+                WHERE c.contype = 'u' AND c.conrelid = to_regclass('task')
+                  AND (SELECT array_agg(a.attname::text ORDER BY a.attname) FROM pg_attribute a
+                       WHERE a.attrelid = c.conrelid AND a.attnum = ANY(c.conkey)) = ARRAY['kanban_column_id', 'position']
+                """, String.class);
+        for (String name : names) {
+            jdbc.execute("ALTER TABLE task DROP CONSTRAINT " + name);
+            log.info("Dropped constraint {}, superseded by ux_task_live_position", name);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.inerio.taskmanager.service;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.dto.ArchivedTaskDto;
+import com.inerio.taskmanager.dto.ArchivedTaskPageDto;
+import com.inerio.taskmanager.model.ArchivedTask;
+import com.inerio.taskmanager.realtime.EventType;
+import com.inerio.taskmanager.realtime.SseHub;
+import com.inerio.taskmanager.repository.ArchivedTaskRepository;
+import com.inerio.taskmanager.repository.TaskRepository;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves tasks completed more than {@code app.task-archive-after-days} ago out of the live
+ * {@code task} table into {@code archived_task}, so that board loads and position shifts only
+ * deal with the working set.
+ * <p>
+ * Each batch of {@code app.task-archive-batch-size} tasks is one short transaction: one statement
+ * moves the rows, then the positions of the columns they left are renumbered set-based (bumped out
+ * of the way of the unique index, then rewritten with {@code row_number()}), as the batch endpoint
+ * does. Tasks completed before completion times were recorded are first stamped with the time of
+ * the sweep, so their age counts from there. Tasks holding attachments stay live. The scheduled
+ * run goes through {@link JobCoordinator}, so that one node of the cluster archives at a time.
+ * </p>
+ */
+@Service
+public class TaskArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiveService.class);
+
+    /** Name of this job and of its lock. */
+    static final String JOB = "task-archive";
+
+    /** Offset moving positions out of the way of the unique index before renumbering. */
+    private static final int POSITION_BUMP = 100_000;
+
+    /** Largest page accepted by {@link #findArchived}. */
+    static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Outcome of an archive run.
+     *
+     * @param stamped  completed tasks given a completion time
+     * @param archived tasks archived
+     */
+    public record Report(long stamped, long archived) { }
+
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final SseHub sse;
+    private final JobCoordinator jobs;
+    private final TransactionTemplate tx;
+    private final int afterDays;
+    private final int batchSize;
+
+    public TaskArchiveService(TaskRepository taskRepository,
+                              ArchivedTaskRepository archivedTaskRepository,
+                              SseHub sse,
+                              JobCoordinator jobs,
+                              PlatformTransactionManager transactionManager,
+                              AppProperties props) {
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.sse = sse;
+        this.jobs = jobs;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.afterDays = props.getTaskArchiveAfterDays();
+        this.batchSize = props.getTaskArchiveBatchSize();
+    }
+
+    /** Periodic run, on one node of the cluster. */
+    @Scheduled(fixedDelayString = "${app.task-archive-interval-ms:3600000}",
+               initialDelayString = "${app.task-archive-interval-ms:3600000}")
+    public void scheduledArchive() {
+        jobs.runExclusive(JOB, fence -> archiveCompleted());
+    }
+
+    /**
+     * Archives every task completed before the configured age.
+     *
+     * @return what was stamped and archived
+     */
+    public synchronized Report archiveCompleted() {
+        Instant cutoff = Instant.now().minus(afterDays, ChronoUnit.DAYS);
+        long stamped = 0;
+        long archived = 0;
+        Set<Long> boardIds = new HashSet<>();
+        try {
+            int n;
+            do {
+                Integer s = tx.execute(status -> taskRepository.stampCompletion(batchSize));
+                n = s != null ? s : 0;
+                stamped += n;
+            } while (n == batchSize);
+            do {
+                List<Object[]> moved = tx.execute(status -> archiveBatch(cutoff));
+                n = moved != null ? moved.size() : 0;
+                archived += n;
+                if (moved != null) moved.forEach(row -> boardIds.add(((Number) row[1]).longValue()));
+            } while (n == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Task archiving interrupted, will resume on the next run: {}", e.getMessage());
+        }
+        for (Long boardId : boardIds) {
+            sse.emitBoard(boardId, EventType.TASKS_CHANGED);
+        }
+
+        if (stamped + archived > 0) {
+            log.info("Task archiving: {} tasks archived, {} completion times stamped", archived, stamped);
+        }
+        return new Report(stamped, archived);
+    }
+
+    /** Moves one batch and renumbers the columns it left; runs in the caller's transaction. */
+    private List<Object[]> archiveBatch(Instant cutoff) {
+        List<Object[]> moved = archivedTaskRepository.archiveCompleted(cutoff, batchSize);
+        Set<Long> columnIds = new HashSet<>();
+        for (Object[] row : moved) columnIds.add(((Number) row[0]).longValue());
+        if (!columnIds.isEmpty()) {
+            taskRepository.bumpPositions(columnIds, POSITION_BUMP);
+            taskRepository.compactPositions(columnIds);
+        }
+        return moved;
+    }
+
+    /**
+     * Returns one page of archived tasks, most recently completed first.
+     *
+     * @param uid     owner UID
+     * @param boardId board to restrict to (ownership must already be checked), or {@code null} for all boards
+     * @param page    zero-based page number
+     * @param size    page size, at most {@value #MAX_PAGE_SIZE}
+     * @return the page
+     * @throws IllegalArgumentException if the page or size is out of range
+     */
+    public ArchivedTaskPageDto findArchived(String uid, Long boardId, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Invalid page " + page + " of size " + size);
+        }
+        PageRequest request = PageRequest.of(page, size);
+        Slice<ArchivedTask> slice = boardId != null
+                ? archivedTaskRepository.findPageForBoard(boardId, request)
+                : archivedTaskRepository.findPageForOwner(uid, request);
+        return new ArchivedTaskPageDto(slice.map(ArchivedTaskDto::of).getContent(), page, size, slice.hasNext());
+    }
+}
@@ -0,0 +1,213 @@
+package com.inerio.taskmanager.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.inerio.taskmanager.dto.TaskBatchOpDto;
+import com.inerio.taskmanager.dto.TaskBatchResultDto;
+import com.inerio.taskmanager.dto.TaskMapperDto;
+import com.inerio.taskmanager.dto.TaskPatchDto;
+import com.inerio.taskmanager.exception.ColumnNotFoundException;
+import com.inerio.taskmanager.exception.TaskNotFoundException;
+import com.inerio.taskmanager.model.KanbanColumn;
+import com.inerio.taskmanager.model.Task;
+import com.inerio.taskmanager.realtime.EventType;
+import com.inerio.taskmanager.realtime.SseHub;
+import com.inerio.taskmanager.repository.KanbanColumnRepository;
+import com.inerio.taskmanager.repository.TaskRepository;
+
+/**
+ * Applies an ordered list of task operations (create / update / move / delete) all-or-nothing.
+ * <p>
+ * Every referenced task and column is authorised and loaded with one set-based query each, the
+ * operations are then applied in memory in request order, and the resulting writes go out
+ * together: dirty tasks are flushed as JDBC batches, deletions move the tasks to the trash in a
+ * single bulk statement, and the columns that lost tasks are renumbered set-based. One
+ * {@code tasks.changed} event is emitted per affected board.
+ * </p>
+ */
+@Service
+public class TaskBatchService {
+
+    private static final int POSITION_BUMP = 100_000;
+
+    private final TaskRepository taskRepository;
+    private final KanbanColumnRepository kanbanColumnRepository;
+    private final SseHub sse;
+
+    public TaskBatchService(TaskRepository taskRepository,
+                            KanbanColumnRepository kanbanColumnRepository,
+                            SseHub sse) {
+        this.taskRepository = taskRepository;
+        this.kanbanColumnRepository = kanbanColumnRepository;
+        this.sse = sse;
+    }
+
+    /**
+     * Applies the operations in order within one transaction.
+     *
+     * @param uid owner UID; every task and column referenced must belong to it
+     * @param ops operations in application order
+     * @return one result per operation, in request order
+     * @throws TaskNotFoundException    if a referenced task does not exist or is not owned
+     * @throws ColumnNotFoundException  if a referenced column does not exist or is not owned
+     * @throws IllegalArgumentException if an operation is malformed (nothing is applied)
+     */
+    @Transactional
+    public List<TaskBatchResultDto> apply(String uid, List<TaskBatchOpDto> ops) {
+        Set<Long> taskIds = new HashSet<>();
+        Set<Long> columnIds = new HashSet<>();
+        for (int i = 0; i < ops.size(); i++) {
+            TaskBatchOpDto op = ops.get(i);
+            switch (op.getOp()) {
+                case "create" -> columnIds.add(require(i, "task.kanbanColumnId",
+                        op.getTask() != null ? op.getTask().getKanbanColumnId() : null));
+                case "update" -> {
+                    taskIds.add(require(i, "id", op.getId()));
+                    validatePatch(i, op.getPatch());
+                }
+                case "move" -> {
+                    taskIds.add(require(i, "id", op.getId()));
+                    columnIds.add(require(i, "targetKanbanColumnId", op.getTargetKanbanColumnId()));
+                }
+                case "delete" -> taskIds.add(require(i, "id", op.getId()));
+                default -> throw new IllegalArgumentException("Operation " + i + ": unknown op " + op.getOp());
+            }
+        }
+
+        Map<Long, Task> tasks = taskIds.isEmpty() ? Map.of()
+                : taskRepository.findAllByIdInForOwner(taskIds, uid).stream()
+                        .collect(Collectors.toMap(Task::getId, Function.identity()));
+        Map<Long, KanbanColumn> columns = columnIds.isEmpty() ? Map.of()
+                : kanbanColumnRepository.findAllByIdInAndBoardOwnerUid(columnIds, uid).stream()
+                        .collect(Collectors.toMap(KanbanColumn::getId, Function.identity()));
+        for (Long id : taskIds) {
+            if (!tasks.containsKey(id)) throw new TaskNotFoundException("Task not found with ID " + id);
+        }
+        for (Long id : columnIds) {
+            if (!columns.containsKey(id)) throw new ColumnNotFoundException("KanbanColumn not found with ID " + id);
+        }
+
+        Map<Long, Integer> nextPosition = new HashMap<>();
+        if (!columnIds.isEmpty()) {
+            for (Object[] row : taskRepository.findMaxPositionsByKanbanColumnIds(columnIds)) {
+                nextPosition.put((Long) row[0], (Integer) row[1] + 1);
+            }
+        }
+
+        List<TaskBatchResultDto> results = new ArrayList<>(ops.size());
+        List<Task> created = new ArrayList<>();
+        List<Integer> createdIndexes = new ArrayList<>();
+        Set<Long> deleted = new LinkedHashSet<>();
+        Set<Long> columnsToCompact = new HashSet<>();
+        Set<Long> boardIds = new HashSet<>();
+
+        for (int i = 0; i < ops.size(); i++) {
+            TaskBatchOpDto op = ops.get(i);
+            Task task = op.getId() != null ? tasks.get(op.getId()) : null;
+            if (task != null && deleted.contains(task.getId())) {
+                throw new IllegalArgumentException("Operation " + i + ": task " + task.getId() + " is deleted earlier in the batch");
+            }
+            switch (op.getOp()) {
+                case "create" -> {
+                    KanbanColumn column = columns.get(op.getTask().getKanbanColumnId());
+                    Task entity = TaskMapperDto.toEntity(op.getTask(), column);
+                    entity.setPosition(nextPosition.merge(column.getId(), 1, Integer::sum) - 1);
+                    created.add(entity);
+                    createdIndexes.add(i);
+                    boardIds.add(boardIdOf(column));
+                    results.add(null);
+                }
+                case "update" -> {
+                    applyPatch(task, op.getPatch());
+                    boardIds.add(boardIdOf(task.getKanbanColumn()));
+                    results.add(new TaskBatchResultDto(i, op.getOp(), task.getId(), "updated"));
+                }
+                case "move" -> {
+                    KanbanColumn source = task.getKanbanColumn();
+                    KanbanColumn target = columns.get(op.getTargetKanbanColumnId());
+                    if (source.getId().equals(target.getId())) {
+                        results.add(new TaskBatchResultDto(i, op.getOp(), task.getId(), "unchanged"));
+                        continue;
+                    }
+                    task.setKanbanColumn(target);
+                    task.setPosition(nextPosition.merge(target.getId(), 1, Integer::sum) - 1);
+                    columnsToCompact.add(source.getId());
+                    boardIds.add(boardIdOf(source));
+                    boardIds.add(boardIdOf(target));
+                    results.add(new TaskBatchResultDto(i, op.getOp(), task.getId(), "moved"));
+                }
+                default -> {
+                    deleted.add(task.getId());
+                    columnsToCompact.add(task.getKanbanColumn().getId());
+                    boardIds.add(boardIdOf(task.getKanbanColumn()));
+                    results.add(new TaskBatchResultDto(i, op.getOp(), task.getId(), "deleted"));
+                }
+            }
+        }
+
+        // New positions are all past each column's current maximum, so neither the inserts nor
+        // the flushed moves can collide with an existing (column, position) pair.
+        taskRepository.saveAll(created);
+        for (int k = 0; k < created.size(); k++) {
+            int i = createdIndexes.get(k);
+            results.set(i, new TaskBatchResultDto(i, "create", created.get(k).getId(), "created"));
+        }
+        if (!deleted.isEmpty()) {
+            taskRepository.trashAll(deleted.toArray(Long[]::new));
+        }
+        if (!columnsToCompact.isEmpty()) {
+            taskRepository.bumpPositions(columnsToCompact, POSITION_BUMP);
+            taskRepository.compactPositions(columnsToCompact);
+        } else {
+            taskRepository.flush();
+        }
+
+        boardIds.remove(null);
+        for (Long boardId : boardIds) {
+            sse.emitBoard(boardId, EventType.TASKS_CHANGED);
+        }
+        return results;
+    }
+
+    private static Long require(int index, String field, Long value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Operation " + index + ": " + field + " is required");
+        }
+        return value;
+    }
+
+    private static void validatePatch(int index, TaskPatchDto patch) {
+        if (patch == null || patch.isEmpty()) {
+            throw new IllegalArgumentException("Operation " + index + ": patch must change at least one field");
+        }
+        if (patch.getChangedFields().contains("title") && patch.getTitle() == null) {
+            throw new IllegalArgumentException("Operation " + index + ": title must not be null");
+        }
+        if (patch.getChangedFields().contains("completed") && patch.getCompleted() == null) {
+            throw new IllegalArgumentException("Operation " + index + ": completed must not be null");
+        }
+    }
+
+    private static void applyPatch(Task task, TaskPatchDto patch) {
+        Set<String> fields = patch.getChangedFields();
+        if (fields.contains("title")) task.setTitle(patch.getTitle());
+        if (fields.contains("description")) task.setDescription(patch.getDescription());
+        if (fields.contains("completed")) task.setCompleted(patch.getCompleted());
+        if (fields.contains("dueDate")) task.setDueDate(patch.getDueDate());
+    }
+
+    private static Long boardIdOf(KanbanColumn column) {
+        return column.getBoard() != null ? column.getBoard().getId() : null;
+    }
+}
@@ -0,0 +1,323 @@
+package com.inerio.taskmanager.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.config.PoolRoutingDataSource;
+import com.inerio.taskmanager.dto.TaskImportResultDto;
+import com.inerio.taskmanager.exception.ConcurrentChangeException;
+import com.inerio.taskmanager.realtime.EventType;
+import com.inerio.taskmanager.realtime.SseHub;
+
+/**
+ * Bulk import of tasks from a CSV file into the columns of a board.
+ * <p>
+ * The body is first copied to a bounded temporary file and every row is validated, with no
+ * connection held; if any row is invalid nothing is imported and the errors (up to
+ * {@link #MAX_ERRORS}) are reported. The file is then streamed from disk straight into a Postgres
+ * {@code COPY task FROM STDIN}, in one transaction on the bulk pool, with positions precomputed per
+ * column from a single query (the board's columns are locked {@code FOR NO KEY UPDATE} meanwhile,
+ * which serialises imports; a task created or moved interactively into one of those positions
+ * fails the import with a retryable conflict). Clients get a single {@code tasks.changed} event.
+ * </p>
+ * <p>
+ * The first line is a header. {@code title} is required; {@code description}, {@code completed}
+ * ({@code true/false}, {@code yes/no}, {@code 1/0}, {@code x}), {@code dueDate}
+ * ({@code yyyy-MM-dd}) and {@code column} (a column name of the board) are optional, in any order;
+ * other headers are ignored. Rows without a column go to the first column.
+ * </p>
+ */
+@Service
+public class TaskImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskImportService.class);
+
+    /** Number of row errors reported before the file is no longer read. */
+    static final int MAX_ERRORS = 20;
+
+    /** Same limits as {@code TaskDto}. */
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 5000;
+
+    /** Characters buffered before they are sent to the server. */
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+
+    private static final String COPY_TASKS = """
+            COPY task (title, description, completed, completed_at, position, kanban_column_id, creation_date, due_date)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    private record Slot(long columnId, int nextPosition) { }
+
+    /** The board's columns in order, and their index by lower-cased name. */
+    private record Columns(List<Slot> slots, Map<String, Integer> byName) {
+        Columns(List<Object[]> rows) {
+            this(new ArrayList<>(), new HashMap<>());
+            for (Object[] c : rows) {
+                byName.putIfAbsent(key((String) c[1]), slots.size());
+                slots.add(new Slot((Long) c[0], (Integer) c[2]));
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final SseHub sse;
+    private final TransactionTemplate transaction;
+    private final int maxRows;
+    private final long maxBytes;
+
+    public TaskImportService(JdbcTemplate jdbc,
+                             SseHub sse,
+                             PlatformTransactionManager transactionManager,
+                             AppProperties props) {
+        this.jdbc = jdbc;
+        this.sse = sse;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.maxRows = props.getTaskImportMaxRows();
+        this.maxBytes = props.getImportMaxBytes();
+    }
+
+    /**
+     * Imports the tasks of a CSV file into a board. Ownership must be checked by the caller.
+     *
+     * @param boardId board id
+     * @param in      CSV content (UTF-8)
+     * @return the number of tasks imported, or the row errors if nothing was imported
+     * @throws IllegalArgumentException  if the board has no column
+     * @throws ConcurrentChangeException if a task took one of the computed positions meanwhile (nothing is imported)
+     * @throws IOException               if the file cannot be read
+     */
+    public TaskImportResultDto importCsv(Long boardId, InputStream in) throws IOException {
+        TaskImportResultDto result;
+        try (ImportSpool spool = ImportSpool.of(in, maxBytes)) {
+            // Validate the whole file first, against the columns as they are, without any lock.
+            TaskImportResultDto checked;
+            try (InputStream file = spool.open()) {
+                checked = copyRows(file, new Columns(columns(boardId, "")), null);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Validation of an import does not copy", e);
+            }
+            if (!checked.errors().isEmpty()) return checked;
+            result = PoolRoutingDataSource.onBulkPool(() -> transaction.execute(status -> load(boardId, spool)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (DuplicateKeyException e) {
+            // The column lock only holds the positions against other imports: a task created or
+            // moved interactively meanwhile can take one of them. The whole file was rolled back.
+            throw new ConcurrentChangeException("Tasks of board " + boardId + " changed during the import", e);
+        }
+        if (result.imported() > 0) {
+            log.info("Imported {} tasks into board {}", result.imported(), boardId);
+            sse.emitBoard(boardId, EventType.TASKS_CHANGED);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the board's columns: id, name and next free position of each.
+     *
+     * @param lock row lock clause, or an empty string
+     */
+    private List<Object[]> columns(Long boardId, String lock) {
+        List<Object[]> columns = jdbc.query("""
+                SELECT c.id, c.name,
+                       (SELECT COALESCE(MAX(t.position) + 1, 0) FROM task t
+                        WHERE t.kanban_column_id = c.id AND t.deleted_at IS NULL)
+                FROM kanban_column c
+                WHERE c.board_id = ? AND c.deleted_at IS NULL
+                ORDER BY c.position, c.id
+                """ + lock, (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getInt(3)}, boardId);
+        if (columns.isEmpty()) throw new IllegalArgumentException("Board " + boardId + " has no column");
+        return columns;
+    }
+
+    private TaskImportResultDto load(Long boardId, ImportSpool spool) {
+        // Locked until commit, which serialises imports of the board. NO KEY UPDATE still lets the
+        // foreign key checks of interactive task inserts and moves (FOR KEY SHARE) through.
+        Columns columns = new Columns(columns(boardId, "FOR NO KEY UPDATE"));
+        return jdbc.execute((ConnectionCallback<TaskImportResultDto>) con -> {
+            CopyIn copy = con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_TASKS);
+            try (InputStream file = spool.open()) {
+                TaskImportResultDto result = copyRows(file, columns, copy);
+                if (!result.errors().isEmpty()) {
+                    // The file was valid a moment ago: a column was renamed or removed since.
+                    throw new ConcurrentChangeException("Columns of board " + boardId + " changed during the import", null);
+                }
+                copy.endCopy();
+                return result;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (copy.isActive()) copy.cancelCopy();
+            }
+        });
+    }
+
+    /**
+     * Parses and validates the file and, if {@code copy} is given, streams the valid rows into it.
+     *
+     * @param copy the COPY to feed, or {@code null} to validate only
+     */
+    private TaskImportResultDto copyRows(InputStream in, Columns columns, CopyIn copy)
+            throws IOException, SQLException {
+        List<Slot> slots = columns.slots();
+        Map<String, Integer> byName = columns.byName();
+        CsvReader csv = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8), MAX_DESCRIPTION_LENGTH + 1);
+        List<String> errors = new ArrayList<>();
+        List<String> header;
+        try {
+            header = csv.next();
+        } catch (IllegalArgumentException e) {
+            return new TaskImportResultDto(0, List.of("Row 1: " + e.getMessage()));
+        }
+        if (header == null) return new TaskImportResultDto(0, List.of("Row 1: missing header"));
+        Map<String, Integer> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            fields.putIfAbsent(key(header.get(i).replace("\uFEFF", "")), i);
+        }
+        Integer title = fields.get("title");
+        if (title == null) return new TaskImportResultDto(0, List.of("Row 1: no \"title\" column"));
+        Integer description = fields.get("description");
+        Integer completed = fields.get("completed");
+        Integer dueDate = fields.get("duedate");
+        Integer column = fields.get("column");
+
+        int[] nextPosition = slots.stream().mapToInt(Slot::nextPosition).toArray();
+        String now = LocalDateTime.now().toString();
+        StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+        int imported = 0;
+        int records = 0;
+        int row = 1;
+        while (errors.size() < MAX_ERRORS) {
+            List<String> record;
+            row++;
+            try {
+                record = csv.next();
+            } catch (IllegalArgumentException e) {
+                errors.add("Row " + row + ": " + e.getMessage());
+                break;
+            }
+            if (record == null) break;
+            if (record.size() == 1 && record.get(0).isBlank()) continue;
+            if (++records > maxRows) {
+                errors.add("More than " + maxRows + " rows");
+                break;
+            }
+            try {
+                String t = required(field(record, title), "title", MAX_TITLE_LENGTH);
+                String d = optional(field(record, description), "description", MAX_DESCRIPTION_LENGTH);
+                boolean done = bool(field(record, completed));
+                String due = date(field(record, dueDate));
+                int slot = slot(field(record, column), byName);
+                if (!errors.isEmpty()) continue;
+                appendRow(buffer, t, d, done, done ? Instant.now().toString() : null,
+                        nextPosition[slot]++, slots.get(slot).columnId(), now, due);
+                imported++;
+                if (buffer.length() >= COPY_BUFFER_CHARS) flush(buffer, copy);
+            } catch (IllegalArgumentException e) {
+                errors.add("Row " + row + ": " + e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) return new TaskImportResultDto(0, errors);
+        flush(buffer, copy);
+        return new TaskImportResultDto(imported, List.of());
+    }
+
+    private static String field(List<String> record, Integer index) {
+        return index == null || index >= record.size() ? null : record.get(index).strip();
+    }
+
+    private static String required(String value, String name, int maxLength) {
+        if (value == null || value.isEmpty()) throw new IllegalArgumentException(name + " is required");
+        return optional(value, name, maxLength);
+    }
+
+    private static String optional(String value, String name, int maxLength) {
+        if (value == null || value.isEmpty()) return null;
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(name + " must be at most " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static boolean bool(String value) {
+        if (value == null) return false;
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "", "false", "no", "0" -> false;
+            case "true", "yes", "1", "x" -> true;
+            default -> throw new IllegalArgumentException("completed must be true or false");
+        };
+    }
+
+    private static String date(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return LocalDate.parse(value).toString();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("dueDate must be a yyyy-MM-dd date");
+        }
+    }
+
+    private static int slot(String column, Map<String, Integer> byName) {
+        if (column == null || column.isEmpty()) return 0;
+        Integer slot = byName.get(key(column));
+        if (slot == null) throw new IllegalArgumentException("no column named \"" + column + "\" on the board");
+        return slot;
+    }
+
+    private static String key(String name) {
+        return name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /** Appends one {@code COPY ... (FORMAT csv)} line: nulls unquoted, every text quoted. */
+    private static void appendRow(StringBuilder out, String title, String description, boolean completed,
+                                  String completedAt, int position, long columnId, String creationDate,
+                                  String dueDate) {
+        quote(out, title).append(',');
+        quote(out, description).append(',');
+        out.append(completed).append(',');
+        quote(out, completedAt).append(',');
+        out.append(position).append(',').append(columnId).append(',');
+        quote(out, creationDate).append(',');
+        quote(out, dueDate).append('\n');
+    }
+
+    private static StringBuilder quote(StringBuilder out, String value) {
+        if (value == null) return out;
+        return out.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void flush(StringBuilder buffer, CopyIn copy) throws SQLException {
+        if (buffer.isEmpty()) return;
+        if (copy != null) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copy.writeToCopy(bytes, 0, bytes.length);
+        }
+        buffer.setLength(0);
+    }
+}
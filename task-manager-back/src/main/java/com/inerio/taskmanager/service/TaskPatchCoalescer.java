@@ -0,0 +1,155 @@
+package com.inerio.taskmanager.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.dto.TaskPatchDto;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Merges rapid successive PATCHes of the same task (e.g. description autosaves) into one write.
+ * <p>
+ * A patch for a task with nothing pending is written at once. Patches that arrive while that
+ * write runs are folded into the next one (last value wins per field), which starts when the
+ * previous write is done and at least {@code app.patch-merge-window-ms} after the first of them
+ * arrived; a burst of autosaves thus costs one write per window. Every request completes once
+ * the write containing it has been applied, so nothing is acknowledged before it is written. If
+ * a merged write fails, its requests are written again one by one in arrival order, so each one
+ * completes with its own outcome instead of failing with the others.
+ * </p>
+ */
+@Component
+public class TaskPatchCoalescer {
+
+    private final TaskService taskService;
+    private final long windowMs;
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, r -> {
+        Thread t = new Thread(r, "task-patch-merge");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public TaskPatchCoalescer(TaskService taskService, AppProperties props) {
+        this.taskService = taskService;
+        this.windowMs = props.getPatchMergeWindowMs();
+    }
+
+    /**
+     * Queues a patch for the given task.
+     *
+     * @param taskId task id (ownership must already be checked)
+     * @param patch  partial update
+     * @return a future completed once the write containing this patch has been applied
+     */
+    public CompletableFuture<Void> submit(Long taskId, TaskPatchDto patch) {
+        if (windowMs <= 0) {
+            RuntimeException failure = write(taskId, patch);
+            return failure == null ? CompletableFuture.completedFuture(null) : CompletableFuture.failedFuture(failure);
+        }
+
+        Request request = new Request(patch.copy());
+        Pending[] opened = new Pending[1];
+        pending.compute(taskId, (id, cur) -> {
+            if (cur != null && !cur.flushing) {
+                cur.add(request);
+                return cur;
+            }
+            Pending next = new Pending(request, cur != null ? cur.written : null);
+            opened[0] = next;
+            return next;
+        });
+
+        Pending next = opened[0];
+        if (next != null) {
+            if (next.after == null) {
+                // Nothing to merge with: no reason to wait.
+                flush(taskId, next);
+            } else {
+                next.after.whenComplete((v, e) -> scheduler.schedule(() -> flush(taskId, next),
+                        Math.max(0, next.openedAt + windowMs - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+            }
+        }
+        return request.done();
+    }
+
+    private void flush(Long taskId, Pending p) {
+        // Mark under the map lock so no further patch is merged into a window being written.
+        pending.computeIfPresent(taskId, (id, cur) -> {
+            if (cur == p) cur.flushing = true;
+            return cur;
+        });
+        try {
+            RuntimeException failure = write(taskId, p.merged);
+            if (failure == null || p.requests.size() == 1) {
+                p.requests.forEach(r -> r.complete(failure));
+                return;
+            }
+            // One bad patch must not fail the others: find out which ones by writing them separately.
+            for (Request r : p.requests) {
+                r.complete(write(taskId, r.patch()));
+            }
+        } finally {
+            pending.remove(taskId, p);
+            p.written.complete(null);
+        }
+    }
+
+    /** Writes a patch and returns its failure, or {@code null} if it was applied. */
+    private RuntimeException write(Long taskId, TaskPatchDto patch) {
+        try {
+            taskService.patchTask(taskId, patch);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdown();
+    }
+
+    /** One request taking part in a merged write, with its own outcome. */
+    private record Request(TaskPatchDto patch, CompletableFuture<Void> done) {
+        Request(TaskPatchDto patch) {
+            this(patch, new CompletableFuture<>());
+        }
+
+        void complete(RuntimeException failure) {
+            if (failure == null) done.complete(null);
+            else done.completeExceptionally(failure);
+        }
+    }
+
+    /** The patches of one task waiting for the same write. Fields are only touched under the map's per-key lock. */
+    private static final class Pending {
+        final TaskPatchDto merged;
+        final List<Request> requests = new ArrayList<>();
+        final CompletableFuture<Void> written = new CompletableFuture<>();
+        /** Previous write of the task, which this one waits for; {@code null} if there was none. */
+        final CompletableFuture<Void> after;
+        final long openedAt = System.currentTimeMillis();
+        boolean flushing;
+
+        Pending(Request first, CompletableFuture<Void> after) {
+            this.merged = first.patch().copy();
+            this.after = after;
+            requests.add(first);
+        }
+
+        void add(Request request) {
+            merged.merge(request.patch());
+            requests.add(request);
+        }
+    }
+}
@@ -1,39 +1,46 @@
 package com.inerio.taskmanager.service;
 
 import java.io.IOException;
-import java.nio.file.DirectoryStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.inerio.taskmanager.config.AppProperties;
 import com.inerio.taskmanager.dto.TaskDto;
 import com.inerio.taskmanager.dto.TaskMapperDto;
+import com.inerio.taskmanager.dto.TaskPatchDto;
 import com.inerio.taskmanager.dto.TaskReorderDto;
+import com.inerio.taskmanager.dto.TaskSummaryDto;
 import com.inerio.taskmanager.exception.ColumnNotFoundException;
 import com.inerio.taskmanager.exception.TaskNotFoundException;
 import com.inerio.taskmanager.model.KanbanColumn;
 import com.inerio.taskmanager.model.Task;
+import com.inerio.taskmanager.model.TaskAttachment;
 import com.inerio.taskmanager.realtime.SseHub;
 import com.inerio.taskmanager.repository.KanbanColumnRepository;
 import com.inerio.taskmanager.repository.TaskRepository;
@@ -46,6 +53,12 @@ public class TaskService {
     private static final int POSITION_BUMP = 100_000;
     private static final int MAX_FILENAME_LENGTH = 255;
 
+    /** Number of lock stripes serialising attachment commits per task (tasks sharing a stripe wait on each other). */
+    private static final int UPLOAD_LOCK_STRIPES = 64;
+
+    /** Appended to the content digest to form a thumbnail's ETag. */
+    private static final String THUMBNAIL_TAG_SUFFIX = "-thumb";
+
     /** Allowed MIME types for file uploads. */
     private static final Set<String> ALLOWED_MIME_TYPES = Set.of(
             "image/png", "image/jpeg", "image/gif", "image/webp", "image/bmp", "image/svg+xml",
@@ -61,17 +74,27 @@ public class TaskService {
 
     private final TaskRepository taskRepository;
     private final KanbanColumnRepository kanbanColumnRepository;
-    private final Path baseUploadDir;
+    private final AttachmentPaths paths;
     private final SseHub sse;
+    private final AttachmentStorage attachmentStorage;
+    private final ThumbnailService thumbnails;
+    private final Lock[] uploadLocks = new Lock[UPLOAD_LOCK_STRIPES];
 
     public TaskService(TaskRepository taskRepository,
                        KanbanColumnRepository kanbanColumnRepository,
-                       AppProperties appProperties,
-                       SseHub sse) {
+                       AttachmentPaths paths,
+                       SseHub sse,
+                       AttachmentStorage attachmentStorage,
+                       ThumbnailService thumbnails) {
         this.taskRepository = taskRepository;
         this.kanbanColumnRepository = kanbanColumnRepository;
-        this.baseUploadDir = Path.of(appProperties.getUploadDir()).toAbsolutePath().normalize();
+        this.paths = paths;
         this.sse = sse;
+        this.attachmentStorage = attachmentStorage;
+        this.thumbnails = thumbnails;
+        for (int i = 0; i < UPLOAD_LOCK_STRIPES; i++) {
+            uploadLocks[i] = new ReentrantLock();
+        }
     }
 
     @Transactional(readOnly = true)
@@ -89,6 +112,16 @@ public class TaskService {
         return taskRepository.findAllForOwnerOrdered(uid);
     }
 
+    /**
+     * Summaries of the owner's tasks; the attachment count is only computed when asked for.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskSummaryDto> getTaskSummariesForOwner(String uid, boolean withAttachmentCount) {
+        return withAttachmentCount
+                ? taskRepository.findSummariesForOwnerOrdered(uid)
+                : taskRepository.findSummariesWithoutAttachmentCountForOwnerOrdered(uid);
+    }
+
     @Transactional(readOnly = true)
     public Optional<Task> getTaskById(Long id) {
         return taskRepository.findById(id);
@@ -101,6 +134,19 @@ public class TaskService {
         return taskRepository.findByKanbanColumnOrderByPositionAscIdAsc(kanbanColumn);
     }
 
+    /**
+     * Summaries of a column's tasks; the attachment count is only computed when asked for.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskSummaryDto> getTaskSummariesByKanbanColumnId(Long kanbanColumnId, boolean withAttachmentCount) {
+        if (!kanbanColumnRepository.existsById(kanbanColumnId)) {
+            throw new ColumnNotFoundException("KanbanColumn not found with ID " + kanbanColumnId);
+        }
+        return withAttachmentCount
+                ? taskRepository.findSummariesByKanbanColumnId(kanbanColumnId)
+                : taskRepository.findSummariesWithoutAttachmentCountByKanbanColumnId(kanbanColumnId);
+    }
+
     @Transactional
     public Task createTaskFromDto(TaskDto dto, KanbanColumn kanbanColumn) {
         Task task = TaskMapperDto.toEntity(dto, kanbanColumn);
@@ -164,24 +210,53 @@ public class TaskService {
         return saved;
     }
 
+    /**
+     * Applies a partial update with a single {@code UPDATE} limited to the changed columns,
+     * then emits a field-scoped {@code tasks.changed} event. The task entity is not loaded.
+     */
     @Transactional
-    public void deleteTask(Long id) {
-        Task task = taskRepository.findById(id)
+    public void patchTask(Long id, TaskPatchDto patch) {
+        if (patch.isEmpty()) return;
+        if (patch.getChangedFields().contains("title") && patch.getTitle() == null) {
+            throw new IllegalArgumentException("Title must not be null");
+        }
+        if (patch.getChangedFields().contains("completed") && patch.getCompleted() == null) {
+            throw new IllegalArgumentException("Completed must not be null");
+        }
+        Long boardId = taskRepository.findBoardIdByTaskId(id)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found with ID " + id));
-        KanbanColumn kanbanColumn = task.getKanbanColumn();
-        int deletedPos = task.getPosition();
-        Long boardId = kanbanColumn != null && kanbanColumn.getBoard() != null ? kanbanColumn.getBoard().getId() : null;
+        taskRepository.applyPatch(id, patch);
+        sse.emitTaskFields(boardId, id, patch.getChangedFields());
+    }
 
-        deleteAttachmentsFolder(id);
-        taskRepository.deleteById(id);
+    /**
+     * Moves a task to the trash with a single-row update; the task keeps its attachments until the
+     * trash is purged (see {@link TrashPurgeService}) and the gap left in its column is harmless.
+     */
+    @Transactional
+    public void deleteTask(Long id) {
+        Long boardId = taskRepository.trash(id)
+                .orElseThrow(() -> new TaskNotFoundException("Task not found with ID " + id));
+        sse.emitBoard(boardId, EventType.TASKS_CHANGED);
+    }
 
-        List<Task> toShift = taskRepository.findByKanbanColumnAndPositionGreaterThanOrderByPositionAsc(kanbanColumn, deletedPos);
-        for (Task t : toShift) {
-            t.setPosition(t.getPosition() - 1);
+    /**
+     * Takes a task of the owner out of the trash and appends it to its column.
+     *
+     * @throws TaskNotFoundException if the owner has no such task
+     * @throws IllegalStateException if the task is not in the trash, or its column or board is
+     */
+    @Transactional
+    public void restoreTask(String uid, Long id) {
+        List<Object[]> state = taskRepository.findTrashState(id, uid);
+        if (state.isEmpty()) throw new TaskNotFoundException("Task not found with ID " + id);
+        if (!(Boolean) state.get(0)[0]) throw new IllegalStateException("Task " + id + " is not in the trash");
+        if (!(Boolean) state.get(0)[1]) {
+            throw new IllegalStateException("The column or board of task " + id + " is in the trash");
         }
-        taskRepository.saveAll(toShift);
-
-        if (boardId != null) sse.emitBoard(boardId, EventType.TASKS_CHANGED);
+        Long boardId = taskRepository.restore(id)
+                .orElseThrow(() -> new IllegalStateException("Task " + id + " is not in the trash"));
+        sse.emitBoard(boardId, EventType.TASKS_CHANGED);
     }
 
     @Transactional
@@ -190,34 +265,90 @@ public class TaskService {
             .orElseThrow(() -> new ColumnNotFoundException("KanbanColumn not found with ID " + kanbanColumnId));
         Long boardId = kanbanColumn.getBoard() != null ? kanbanColumn.getBoard().getId() : null;
 
-        List<Task> tasks = taskRepository.findByKanbanColumn(kanbanColumn);
-        for (Task task : tasks) {
-            deleteAttachmentsFolder(task.getId());
-        }
-        taskRepository.deleteAll(tasks);
+        taskRepository.trashAllOfColumn(kanbanColumnId);
 
         if (boardId != null) sse.emitBoard(boardId, EventType.TASKS_CHANGED);
     }
 
+    /**
+     * Marks every open task of a column as completed with one statement; positions do not change.
+     *
+     * @return number of tasks completed
+     * @throws ColumnNotFoundException if the column is not a live column of the board
+     */
+    @Transactional
+    public int completeAllOfColumn(Long boardId, Long columnId) {
+        requireColumnOfBoard(boardId, columnId);
+        int completed = taskRepository.completeAllOfColumn(columnId);
+        if (completed > 0) sse.emitBoard(boardId, EventType.TASKS_CHANGED);
+        return completed;
+    }
+
+    /**
+     * Moves the completed tasks of a column to the trash with one statement, then renumbers the
+     * column set-based.
+     *
+     * @return number of tasks trashed
+     * @throws ColumnNotFoundException if the column is not a live column of the board
+     */
+    @Transactional
+    public int deleteCompletedOfColumn(Long boardId, Long columnId) {
+        requireColumnOfBoard(boardId, columnId);
+        int trashed = taskRepository.trashCompletedOfColumn(columnId);
+        if (trashed > 0) {
+            compact(List.of(columnId));
+            sse.emitBoard(boardId, EventType.TASKS_CHANGED);
+        }
+        return trashed;
+    }
+
+    /**
+     * Appends the completed tasks of a column to another column of the same board with one
+     * statement, keeping their order, then renumbers the source column set-based.
+     *
+     * @return number of tasks moved
+     * @throws ColumnNotFoundException  if either column is not a live column of the board
+     * @throws IllegalArgumentException if both columns are the same
+     */
+    @Transactional
+    public int moveCompletedOfColumn(Long boardId, Long columnId, Long targetColumnId) {
+        if (columnId.equals(targetColumnId)) {
+            throw new IllegalArgumentException("Target column must differ from the source column");
+        }
+        requireColumnOfBoard(boardId, columnId);
+        requireColumnOfBoard(boardId, targetColumnId);
+        int moved = taskRepository.moveCompletedOfColumn(columnId, targetColumnId);
+        if (moved > 0) {
+            compact(List.of(columnId));
+            sse.emitBoard(boardId, EventType.TASKS_CHANGED);
+        }
+        return moved;
+    }
+
+    private void requireColumnOfBoard(Long boardId, Long columnId) {
+        if (!kanbanColumnRepository.existsByIdAndBoardId(columnId, boardId)) {
+            throw new ColumnNotFoundException("KanbanColumn not found with ID " + columnId);
+        }
+    }
+
+    private void compact(List<Long> columnIds) {
+        taskRepository.bumpPositions(columnIds, POSITION_BUMP);
+        taskRepository.compactPositions(columnIds);
+    }
+
     @Transactional
     public void deleteTasksByBoardId(Long boardId) {
-        kanbanColumnRepository.findByBoardId(boardId)
-                .forEach(column -> deleteTasksByKanbanColumnId(column.getId()));
+        taskRepository.trashAllOfBoard(boardId);
         sse.emitBoard(boardId, EventType.TASKS_CHANGED);
     }
 
+    /**
+     * Moves every task of the owner to the trash in one statement, which returns the boards to
+     * notify. No task is loaded.
+     */
     @Transactional
     public void deleteAllTasksForOwner(String uid) {
-        List<Task> tasks = taskRepository.findAllByOwnerUid(uid);
-        Set<Long> boardIds = new HashSet<>();
-        for (Task t : tasks) {
-            deleteAttachmentsFolder(t.getId());
-            if (t.getKanbanColumn() != null && t.getKanbanColumn().getBoard() != null) {
-                boardIds.add(t.getKanbanColumn().getBoard().getId());
-            }
-        }
-        taskRepository.deleteAll(tasks);
-        for (Long boardId : boardIds) {
+        for (Long boardId : taskRepository.trashAllOfOwner(uid)) {
             sse.emitBoard(boardId, EventType.TASKS_CHANGED);
         }
     }
@@ -319,97 +450,288 @@ public class TaskService {
     }
 
     public Task uploadAttachment(Long taskId, MultipartFile file) {
-        Path uploadPath = baseUploadDir.resolve(taskId.toString()).normalize();
-        try { Files.createDirectories(uploadPath); } catch (IOException e) {
-            throw new RuntimeException("Failed to create upload directory", e);
+        String contentType = checkContentType(file.getContentType());
+        String safeName = checkFilename(file.getOriginalFilename());
+
+        // Stream (and hash) the upload into the storage staging area before taking any lock:
+        // a slow client only holds up its own request.
+        AttachmentStorage.StagedUpload staged;
+        try (var in = file.getInputStream()) {
+            staged = attachmentStorage.stage(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save uploaded file", e);
         }
 
-        String contentType = file.getContentType();
+        try {
+            return commitAttachment(taskId, safeName, contentType, staged);
+        } finally {
+            try {
+                Files.deleteIfExists(staged.file());
+            } catch (IOException e) {
+                log.debug("Could not delete staged upload {}: {}", staged.file(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Validates the MIME type of an upload.
+     *
+     * @param contentType declared MIME type
+     * @return the MIME type, lower-cased
+     * @throws IllegalArgumentException if the type is not allowed
+     */
+    public String checkContentType(String contentType) {
         if (contentType == null || !ALLOWED_MIME_TYPES.contains(contentType.toLowerCase())) {
             throw new IllegalArgumentException("File type not allowed");
         }
+        return contentType.toLowerCase();
+    }
 
-        String original = file.getOriginalFilename();
+    /**
+     * Validates and sanitizes the filename of an upload.
+     *
+     * @param original filename sent by the client
+     * @return the name the attachment is stored under
+     * @throws IllegalArgumentException if the name is empty or unusable
+     */
+    public String checkFilename(String original) {
         if (original == null || original.isBlank()) throw new IllegalArgumentException("Invalid filename");
+        return sanitizeFilename(original);
+    }
 
-        String safeName = sanitizeFilename(original);
+    /**
+     * Publishes staged content as an attachment of the task: charges the owner, links the content
+     * into the task folder, records its metadata and queues its thumbnail. The staged file stays
+     * owned by the caller.
+     *
+     * @param taskId      task id
+     * @param safeName    sanitized filename (see {@link #checkFilename})
+     * @param contentType allowed MIME type (see {@link #checkContentType})
+     * @param staged      content staged on the storage file system
+     * @return the task with its new attachment
+     */
+    public Task commitAttachment(Long taskId, String safeName, String contentType,
+                                 AttachmentStorage.StagedUpload staged) {
+        Path uploadPath = paths.taskDir(taskId);
         Path filePath = uploadPath.resolve(safeName).normalize();
-
         if (!filePath.toAbsolutePath().startsWith(uploadPath.toAbsolutePath())) {
             throw new IllegalArgumentException("Invalid filename");
         }
 
-        synchronized (this) {
+        Lock lock = uploadLock(taskId);
+        lock.lock();
+        try {
+            // Under the lock: deleting the last attachment removes the task folder under it too.
+            try {
+                paths.migrate(taskId);
+                Files.createDirectories(uploadPath);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to create upload directory", e);
+            }
+
             Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found with ID " + taskId));
 
-            if (task.getAttachments().contains(safeName)) {
+            if (task.findAttachment(safeName) != null) {
                 throw new IllegalStateException("Attachment already exists: " + safeName);
             }
             if (Files.exists(filePath)) {
                 throw new IllegalStateException("A file with this name already exists on the server: " + safeName);
             }
+            String ownerUid = taskRepository.findOwnerUidByTaskId(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Task not found with ID " + taskId));
 
-            try (var in = file.getInputStream()) {
-                Files.copy(in, filePath);
+            try {
+                task.getAttachments().add(attachmentStorage.commit(
+                        staged, taskId, ownerUid, safeName, contentType, filePath));
             } catch (IOException e) {
                 throw new RuntimeException("Failed to save uploaded file", e);
             }
-            task.getAttachments().add(safeName);
-            Task saved = taskRepository.save(task);
 
             Long boardId = (task.getKanbanColumn() != null && task.getKanbanColumn().getBoard() != null)
                     ? task.getKanbanColumn().getBoard().getId()
                     : null;
             if (boardId != null) sse.emitBoard(boardId, EventType.TASKS_CHANGED);
 
-            return saved;
+            thumbnails.schedule(taskId, safeName, contentType);
+            return task;
+        } finally {
+            lock.unlock();
         }
     }
 
     public ResponseEntity<Resource> downloadAttachment(Long taskId, String filename) {
+        return downloadAttachment(taskId, filename, null);
+    }
+
+    /**
+     * Serves an attachment with validators for conditional and ranged requests
+     * (see {@link #serveFile}).
+     *
+     * @param taskId   task id
+     * @param filename attachment name
+     * @param version  optional content version the client embedded in the URL: the attachment's
+     *                 {@code sha256}
+     * @return 200 with the file, 404 if missing, 400 on an invalid name
+     */
+    public ResponseEntity<Resource> downloadAttachment(Long taskId, String filename, String version) {
+        String safeName;
         try {
-            String safeName = sanitizeFilename(filename);
-            Path file = baseUploadDir.resolve(Paths.get(taskId.toString(), safeName)).normalize();
-            Resource resource = new UrlResource(file.toUri());
-            if (!resource.exists()) return ResponseEntity.notFound().build();
-
-            MediaType mediaType = MediaTypeFactory.getMediaType(resource)
-                .orElse(MediaType.APPLICATION_OCTET_STREAM);
-
-            return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + safeName + "\"")
-                .contentType(mediaType)
-                .body(resource);
+            safeName = sanitizeFilename(filename);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        TaskAttachment attachment = findAttachment(taskId, safeName);
+        try {
+            return serveAttachment(taskId, safeName, attachment, version);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Serves the downscaled preview of an image attachment, with the same validators and caching
+     * rules as {@link #downloadAttachment(Long, String, String)} (its ETag differs from the
+     * original's, its version is the same {@code sha256}).
+     * <p>
+     * Until the thumbnail has been generated (or for image types ImageIO cannot decode) the
+     * original is served instead, without immutable caching, and generation is (re)queued.
+     * </p>
+     *
+     * @param taskId   task id
+     * @param filename attachment name
+     * @param version  optional content version the client embedded in the URL: the attachment's
+     *                 {@code sha256}
+     * @return 200 with the thumbnail or the original, 404 if missing or not an image, 400 on an invalid name
+     */
+    public ResponseEntity<Resource> downloadThumbnail(Long taskId, String filename, String version) {
+        String safeName;
+        try {
+            safeName = sanitizeFilename(filename);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        TaskAttachment attachment = findAttachment(taskId, safeName);
+        String contentType = attachment != null ? attachment.getContentType() : null;
+        if (contentType == null || !contentType.startsWith("image/")) return ResponseEntity.notFound().build();
+
+        if (thumbnails.supports(contentType)) {
+            Path thumb = thumbnails.thumbnailPath(taskId, safeName, contentType);
+            if (Files.isRegularFile(thumb)) {
+                try {
+                    return serveFile(thumb, "inline", attachment.getBlobSha256() + THUMBNAIL_TAG_SUFFIX,
+                            attachment.getBlobSha256().equals(version));
+                } catch (IOException e) {
+                    log.debug("Thumbnail {} unreadable, serving original: {}", thumb, e.getMessage());
+                }
+            }
+            thumbnails.schedule(taskId, safeName, contentType);
+        }
+        try {
+            return serveAttachment(taskId, safeName, attachment, null);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private TaskAttachment findAttachment(Long taskId, String safeName) {
+        return taskRepository.findById(taskId)
+                .map(t -> t.findAttachment(safeName))
+                .orElse(null);
+    }
+
+    /**
+     * Serves an original with its content digest as ETag. A file without metadata yet (not
+     * migrated) gets a tag derived from its identity instead, and is never cached as immutable.
+     */
+    private ResponseEntity<Resource> serveAttachment(Long taskId, String safeName, TaskAttachment attachment,
+                                                     String version) throws IOException {
+        Path file = paths.file(taskId, safeName);
+        String disposition = "attachment; filename=\"" + safeName + "\"";
+        if (attachment == null) return serveFile(file, disposition, null, false);
+        return serveFile(file, disposition, attachment.getBlobSha256(), attachment.getBlobSha256().equals(version));
+    }
+
+    /**
+     * Builds a file response with a strong ETag and Last-Modified. The tag is a content digest
+     * recorded at upload (stored files are never rewritten in place), or, when {@code tag} is
+     * {@code null}, derived from the file identity (inode, size, modification time). Spring MVC
+     * answers conditional requests with 304 and {@code Range} with 206. A content-versioned URL
+     * ({@code immutable}) is cacheable as immutable; otherwise clients must revalidate.
+     */
+    private static ResponseEntity<Resource> serveFile(Path file, String disposition, String tag, boolean immutable)
+            throws IOException {
+        if (!Files.isRegularFile(file)) return ResponseEntity.notFound().build();
+
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        if (tag == null) {
+            String identity = (attrs.fileKey() != null ? attrs.fileKey() : file)
+                    + ":" + attrs.size() + ":" + attrs.lastModifiedTime().toMillis();
+            tag = DigestUtils.md5DigestAsHex(identity.getBytes(StandardCharsets.UTF_8));
+        }
+        CacheControl cacheControl = immutable
+                ? CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable()
+                : CacheControl.noCache().cachePrivate();
+
+        Resource resource = new FileSystemResource(file);
+        MediaType mediaType = MediaTypeFactory.getMediaType(resource)
+            .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, disposition)
+            .contentType(mediaType)
+            .eTag(tag)
+            .lastModified(attrs.lastModifiedTime().toInstant())
+            .cacheControl(cacheControl)
+            .body(resource);
+    }
+
     public Task deleteAttachment(Long taskId, String filename) {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new TaskNotFoundException("Task not found with ID " + taskId));
         String safeName = sanitizeFilename(filename);
-        Path filePath = baseUploadDir.resolve(Paths.get(taskId.toString(), safeName)).normalize();
+        Path filePath = paths.file(taskId, safeName);
 
         Long boardId = (task.getKanbanColumn() != null && task.getKanbanColumn().getBoard() != null)
                 ? task.getKanbanColumn().getBoard().getId()
                 : null;
 
+        TaskAttachment attachment = task.findAttachment(safeName);
+        if (attachment == null) return task;
+
         try {
-            Files.deleteIfExists(filePath);
-            task.getAttachments().remove(safeName);
-            Task saved = taskRepository.save(task);
-            Path dirPath = baseUploadDir.resolve(taskId.toString());
-            try (DirectoryStream<Path> s = Files.newDirectoryStream(dirPath)) {
-                if (!s.iterator().hasNext()) Files.deleteIfExists(dirPath);
-            }
-            if (boardId != null) sse.emitBoard(boardId, EventType.TASKS_CHANGED);
-            return saved;
+            attachmentStorage.release(taskId, safeName, filePath);
+            Files.deleteIfExists(thumbnails.thumbnailPath(taskId, safeName, attachment.getContentType()));
+            task.getAttachments().remove(attachment);
         } catch (Exception e) {
             log.warn("Failed to delete attachment file '{}' for task {}", filename, taskId, e);
             return task;
         }
+        if (task.getAttachments().isEmpty()) deleteEmptyTaskDirs(taskId);
+        if (boardId != null) sse.emitBoard(boardId, EventType.TASKS_CHANGED);
+        return task;
+    }
+
+    /**
+     * Removes the folders of a task whose last attachment was just deleted. The task as loaded may
+     * be stale: a commit can have added a file since, so the database decides, under the task's
+     * upload lock, and only empty folders are removed.
+     */
+    private void deleteEmptyTaskDirs(Long taskId) {
+        Lock lock = uploadLock(taskId);
+        lock.lock();
+        try {
+            if (attachmentStorage.hasAttachments(taskId)) return;
+            paths.deleteEmptyTask(taskId);
+        } catch (IOException e) {
+            log.debug("Could not delete upload dir for task {}: {}", taskId, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lock uploadLock(Long taskId) {
+        return uploadLocks[Math.floorMod(taskId.hashCode(), UPLOAD_LOCK_STRIPES)];
     }
 
     @Transactional
@@ -421,29 +743,11 @@ public class TaskService {
                 ? task.getKanbanColumn().getBoard().getId()
                 : null;
 
-        deleteAttachmentsFolder(taskId);
-
+        attachmentStorage.releaseFiles(taskId);
         task.getAttachments().clear();
-        Task saved = taskRepository.save(task);
 
         if (boardId != null) sse.emitBoard(boardId, EventType.TASKS_CHANGED);
-        return saved;
-    }
-
-    private void deleteAttachmentsFolder(Long taskId) {
-        Path taskUploadDir = baseUploadDir.resolve(taskId.toString()).normalize();
-        try (var walk = Files.walk(taskUploadDir)) {
-            walk.sorted(Comparator.reverseOrder())
-                .forEach(path -> {
-                    try {
-                        Files.deleteIfExists(path);
-                    } catch (Exception e) {
-                        log.debug("Could not delete path {}: {}", path, e.getMessage());
-                    }
-                });
-        } catch (Exception e) {
-            log.debug("Could not walk upload dir for task {}: {}", taskId, e.getMessage());
-        }
+        return task;
     }
 
     private static String sanitizeFilename(String name) {
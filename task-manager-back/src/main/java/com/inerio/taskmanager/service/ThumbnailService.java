@@ -0,0 +1,194 @@
+package com.inerio.taskmanager.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.inerio.taskmanager.config.AppProperties;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Background generation of downscaled previews for image attachments.
+ * <p>
+ * After an upload, {@link #schedule} queues the attachment on a small bounded executor; when the
+ * queue is full the request is dropped and retried the next time the thumbnail is asked for. The
+ * image is decoded with {@code javax.imageio}, subsampled while reading so large originals never
+ * have to be fully decoded, scaled to fit {@code app.thumbnail-size} and written to
+ * {@code .thumbs/} in the task folder, next to the original. The file is published atomically, so readers
+ * only ever see complete thumbnails. Only MIME types with an ImageIO reader are handled
+ * (PNG, JPEG, GIF, BMP on a stock JDK).
+ * </p>
+ */
+@Service
+public class ThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    /** Sub-directory of a task's upload folder holding its thumbnails. */
+    static final String THUMB_DIR = ".thumbs";
+
+    /** Images above this many pixels are not decoded (decompression bomb guard). */
+    private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+
+    private final AttachmentPaths paths;
+    private final int maxSize;
+    private final ThreadPoolExecutor executor;
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ThumbnailService(AttachmentPaths paths, AppProperties props) {
+        this.paths = paths;
+        this.maxSize = props.getThumbnailSize();
+        this.executor = new ThreadPoolExecutor(props.getThumbnailThreads(), props.getThumbnailThreads(),
+                30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(props.getThumbnailQueueCapacity()), r -> {
+                    Thread t = new Thread(r, "thumbnail");
+                    t.setDaemon(true);
+                    t.setPriority(Thread.MIN_PRIORITY);
+                    return t;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Tells whether thumbnails can be generated for the given MIME type.
+     *
+     * @param contentType MIME type of the original
+     * @return {@code true} if an ImageIO reader exists for it
+     */
+    public boolean supports(String contentType) {
+        return contentType != null && contentType.startsWith("image/")
+                && ImageIO.getImageReadersByMIMEType(contentType).hasNext();
+    }
+
+    /**
+     * Location of the thumbnail of an attachment (which may not exist yet).
+     *
+     * @param taskId      owning task
+     * @param filename    sanitized filename of the original
+     * @param contentType MIME type of the original
+     * @return thumbnail path
+     */
+    public Path thumbnailPath(Long taskId, String filename, String contentType) {
+        return paths.file(taskId, THUMB_DIR + "/" + filename + "." + formatFor(contentType));
+    }
+
+    /**
+     * Queues thumbnail generation for an attachment, unless it is not an image, is already queued,
+     * or the queue is full. Returns immediately.
+     *
+     * @param taskId      owning task
+     * @param filename    sanitized filename of the original
+     * @param contentType MIME type of the original
+     */
+    public void schedule(Long taskId, String filename, String contentType) {
+        if (!supports(contentType)) return;
+        Path source = paths.file(taskId, filename);
+        Path target = thumbnailPath(taskId, filename, contentType);
+        if (Files.exists(target) || !inFlight.add(target)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(source, target, formatFor(contentType));
+                } catch (Exception e) {
+                    log.debug("Thumbnail generation failed for {}: {}", source, e.getMessage());
+                } finally {
+                    inFlight.remove(target);
+                }
+            });
+        } catch (RejectedExecutionException full) {
+            inFlight.remove(target);
+            log.debug("Thumbnail queue full, skipping {}", source);
+        }
+    }
+
+    /**
+     * Decodes {@code source} (subsampled), scales it to fit the configured size and atomically
+     * publishes it at {@code target}. Does nothing if the source vanished meanwhile.
+     */
+    void generate(Path source, Path target, String format) throws IOException {
+        if (!Files.isRegularFile(source)) return;
+        BufferedImage image;
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int w = reader.getWidth(0);
+                int h = reader.getHeight(0);
+                if ((long) w * h > MAX_SOURCE_PIXELS) {
+                    log.debug("Image too large for a thumbnail: {} ({}x{})", source, w, h);
+                    return;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(w, h) / (2 * maxSize));
+                param.setSourceSubsampling(step, step, 0, 0);
+                image = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        BufferedImage thumb = scale(image, "jpg".equals(format));
+        Path dir = target.getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "thumb-", ".tmp");
+        try {
+            if (!ImageIO.write(thumb, format, tmp.toFile())) return;
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private BufferedImage scale(BufferedImage image, boolean opaque) {
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int w = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int h = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        BufferedImage out = new BufferedImage(w, h, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    /** JPEG stays JPEG; everything else becomes PNG to keep transparency. */
+    private static String formatFor(String contentType) {
+        return "image/jpeg".equals(contentType) ? "jpg" : "png";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,117 @@
+package com.inerio.taskmanager.service;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.repository.BoardRepository;
+import com.inerio.taskmanager.repository.KanbanColumnRepository;
+import com.inerio.taskmanager.repository.TaskRepository;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.function.IntSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Scheduled service that empties the trash: boards, columns and tasks deleted more than
+ * {@code app.trash-retention-days} ago are removed for good.
+ * <p>
+ * Deleting from the UI only sets {@code deleted_at} on one row; everything the real deletion
+ * involves (releasing attachments, queueing the removal of their files in the attachment outbox,
+ * cascading through the hierarchy) happens here, off the request path. Expired tasks go first,
+ * {@code app.trash-purge-batch-size} at a time, including the tasks of expired columns and boards,
+ * so that their attachments are released; then the expired columns and boards themselves. Each
+ * batch runs in its own short transaction. The scheduled run goes through {@link JobCoordinator},
+ * so that one node of the cluster purges at a time.
+ * </p>
+ */
+@Service
+public class TrashPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrashPurgeService.class);
+
+    /** Name of this job and of its lock. */
+    static final String JOB = "trash-purge";
+
+    /**
+     * Outcome of a purge run.
+     *
+     * @param tasks   tasks deleted
+     * @param columns columns deleted
+     * @param boards  boards deleted
+     */
+    public record Report(long tasks, long columns, long boards) { }
+
+    private final TaskRepository taskRepository;
+    private final KanbanColumnRepository kanbanColumnRepository;
+    private final BoardRepository boardRepository;
+    private final AttachmentOutboxWorker outboxWorker;
+    private final JobCoordinator jobs;
+    private final TransactionTemplate tx;
+    private final int retentionDays;
+    private final int batchSize;
+
+    public TrashPurgeService(TaskRepository taskRepository,
+                             KanbanColumnRepository kanbanColumnRepository,
+                             BoardRepository boardRepository,
+                             AttachmentOutboxWorker outboxWorker,
+                             JobCoordinator jobs,
+                             PlatformTransactionManager transactionManager,
+                             AppProperties props) {
+        this.taskRepository = taskRepository;
+        this.kanbanColumnRepository = kanbanColumnRepository;
+        this.boardRepository = boardRepository;
+        this.outboxWorker = outboxWorker;
+        this.jobs = jobs;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.retentionDays = props.getTrashRetentionDays();
+        this.batchSize = props.getTrashPurgeBatchSize();
+    }
+
+    /** Periodic run, on one node of the cluster. */
+    @Scheduled(fixedDelayString = "${app.trash-purge-interval-ms:3600000}",
+               initialDelayString = "${app.trash-purge-interval-ms:3600000}")
+    public void scheduledPurge() {
+        jobs.runExclusive(JOB, fence -> purgeExpired());
+    }
+
+    /**
+     * Purges everything whose trash retention has expired.
+     *
+     * @return what was purged
+     */
+    public synchronized Report purgeExpired() {
+        Instant cutoff = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
+        long tasks = 0;
+        long columns = 0;
+        long boards = 0;
+        try {
+            tasks = drain(() -> taskRepository.purgeTrash(cutoff, batchSize));
+            columns = drain(() -> kanbanColumnRepository.purgeTrash(cutoff, batchSize));
+            boards = drain(() -> boardRepository.purgeTrash(cutoff, batchSize));
+        } catch (RuntimeException e) {
+            log.warn("Trash purge interrupted, will resume on the next run: {}", e.getMessage());
+        }
+        if (tasks > 0) outboxWorker.wakeUp();
+
+        Report report = new Report(tasks, columns, boards);
+        if (tasks + columns + boards > 0) {
+            log.info("Trash purge: {} tasks, {} columns and {} boards deleted", tasks, columns, boards);
+        }
+        return report;
+    }
+
+    /** Runs one statement per transaction until it deletes nothing more. */
+    private long drain(IntSupplier batch) {
+        long total = 0;
+        int deleted;
+        do {
+            Integer n = tx.execute(s -> batch.getAsInt());
+            deleted = n != null ? n : 0;
+            total += deleted;
+        } while (deleted > 0);
+        return total;
+    }
+}
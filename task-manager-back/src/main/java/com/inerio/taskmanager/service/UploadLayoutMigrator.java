@@ -0,0 +1,93 @@
+package com.inerio.taskmanager.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.inerio.taskmanager.config.AppProperties;
+
+/**
+ * Background migration of task folders from the flat layout ({@code uploadDir/{taskId}}) to the
+ * sharded one (see {@link AttachmentPaths}), while the application keeps serving.
+ * <p>
+ * Each run streams the upload dir and moves at most {@code app.upload-migration-batch-size}
+ * numeric folders. Progress is the file system itself: migrated folders leave the upload dir, so
+ * a restarted or interrupted migration simply resumes with the folders that are left, and folders
+ * that failed to move are retried. Once a run finds no legacy folder at all the migrator goes idle.
+ * </p>
+ */
+@Component
+public class UploadLayoutMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadLayoutMigrator.class);
+
+    private final AttachmentPaths paths;
+    private final int batchSize;
+    private volatile boolean done;
+    private long migrated;
+
+    public UploadLayoutMigrator(AttachmentPaths paths, AppProperties props) {
+        this.paths = paths;
+        this.batchSize = props.getUploadMigrationBatchSize();
+    }
+
+    /**
+     * Migrates the next batch of legacy folders.
+     *
+     * @return number of folders migrated by this run
+     */
+    @Scheduled(fixedDelayString = "${app.upload-migration-interval-ms:5000}",
+               initialDelayString = "${app.upload-migration-interval-ms:5000}")
+    public synchronized int migrateBatch() {
+        if (done) return 0;
+        Path base = paths.baseDir();
+        if (!Files.isDirectory(base)) {
+            done = true;
+            return 0;
+        }
+
+        int found = 0;
+        int moved = 0;
+        int failed = 0;
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(base,
+                p -> p.getFileName().toString().chars().allMatch(Character::isDigit) && Files.isDirectory(p))) {
+            for (Path dir : dirs) {
+                if (moved >= batchSize) break;
+                found++;
+                Long taskId = Long.valueOf(dir.getFileName().toString());
+                try {
+                    if (paths.migrate(taskId)) moved++;
+                } catch (IOException e) {
+                    failed++;
+                    log.warn("Could not migrate upload folder {}: {}", dir, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Upload layout migration failed: {}", e.getMessage());
+            return moved;
+        }
+
+        migrated += moved;
+        if (found == 0) {
+            done = true;
+            if (migrated > 0) log.info("Upload layout migration complete: {} task folders moved", migrated);
+        } else if (failed > 0) {
+            // Left in place and retried by the next runs.
+            log.warn("Upload layout migration: {} task folders moved so far, {} failed in this run", migrated, failed);
+        } else {
+            log.debug("Upload layout migration: {} task folders moved so far", migrated);
+        }
+        return moved;
+    }
+
+    /** @return {@code true} once no legacy folder remains */
+    public boolean isDone() {
+        return done;
+    }
+}
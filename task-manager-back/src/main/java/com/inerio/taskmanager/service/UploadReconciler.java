@@ -0,0 +1,392 @@
+package com.inerio.taskmanager.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.config.PoolRoutingDataSource;
+import com.inerio.taskmanager.repository.TaskAttachmentRepository;
+import com.inerio.taskmanager.repository.TaskRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Reconciles the upload tree with the database: files the database no longer knows about are
+ * quarantined, then deleted.
+ * <p>
+ * The sharded tree is walked one top-level shard ({@code tasks/ab}) per virtual thread, at most
+ * {@code app.upload-gc-parallelism} at a time; legacy folders still sitting directly under the
+ * upload dir form one more unit. Task folders are streamed and checked against the database in
+ * batches of {@code app.upload-gc-batch-size} ({@code WHERE id = ANY(?)}), so memory stays bounded
+ * by parallelism × batch size however large the tree is. Orphans are:
+ * </p>
+ * <ul>
+ *   <li>folders of tasks that no longer exist;</li>
+ *   <li>files (and thumbnails) in the folder of a live task with no attachment row;</li>
+ *   <li>staged uploads abandoned by a crash.</li>
+ * </ul>
+ * <p>
+ * Only entries unchanged for {@code app.upload-gc-grace-ms} are considered, so uploads in progress
+ * are never touched (the inode change time is used where available: a fresh hard link keeps the
+ * blob's modification time). Orphans are first moved to {@code .quarantine/<run>/} under the
+ * upload dir and deleted by a later run once older than {@code app.upload-gc-quarantine-ms}.
+ * Reclaimed bytes count only files whose last link goes away. The upload dir is shared by the
+ * nodes of the cluster, so the nightly run goes through {@link JobCoordinator}.
+ * </p>
+ */
+@Service
+public class UploadReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadReconciler.class);
+
+    /** Directory (under the upload dir) holding quarantined orphans, one sub-directory per run. */
+    static final String QUARANTINE_DIR = ".quarantine";
+
+    /** Name of this job and of its lock. */
+    static final String JOB = "upload-gc";
+
+    /**
+     * Outcome of a reconciliation run.
+     *
+     * @param folders          task folders examined
+     * @param orphanFolders    folders of deleted tasks quarantined
+     * @param orphanFiles      untracked files quarantined in live task folders
+     * @param staleUploads     abandoned staged uploads quarantined
+     * @param quarantinedBytes bytes that deleting this run's quarantine will reclaim
+     * @param purgedBytes      bytes reclaimed by deleting expired quarantines
+     * @param errors           entries that could not be examined or moved
+     */
+    public record Report(long folders, long orphanFolders, long orphanFiles, long staleUploads,
+                         long quarantinedBytes, long purgedBytes, long errors) { }
+
+    private final TaskRepository taskRepository;
+    private final TaskAttachmentRepository attachmentRepository;
+    private final AttachmentPaths paths;
+    private final JobCoordinator jobs;
+    private final int batchSize;
+    private final int parallelism;
+    private final long graceMs;
+    private final long quarantineMs;
+    private final Counter reclaimed;
+
+    public UploadReconciler(TaskRepository taskRepository,
+                            TaskAttachmentRepository attachmentRepository,
+                            AttachmentPaths paths,
+                            JobCoordinator jobs,
+                            MeterRegistry meters,
+                            AppProperties props) {
+        this.taskRepository = taskRepository;
+        this.attachmentRepository = attachmentRepository;
+        this.paths = paths;
+        this.jobs = jobs;
+        this.batchSize = props.getUploadGcBatchSize();
+        this.parallelism = props.getUploadGcParallelism();
+        this.graceMs = props.getUploadGcGraceMs();
+        this.quarantineMs = props.getUploadGcQuarantineMs();
+        this.reclaimed = Counter.builder("attachments.reconcile.reclaimed")
+                .description("Bytes reclaimed by deleting quarantined orphan uploads")
+                .baseUnit("bytes")
+                .register(meters);
+    }
+
+    /** Nightly run, on one node of the cluster. */
+    @Scheduled(cron = "${app.upload-gc-cron:0 30 4 * * *}", zone = "Europe/Paris")
+    public void scheduledRun() {
+        jobs.runExclusive(JOB, fence -> reconcile());
+    }
+
+    /**
+     * Purges expired quarantines, then quarantines the current orphans.
+     *
+     * @return what was found and reclaimed
+     */
+    public synchronized Report reconcile() {
+        Path base = paths.baseDir();
+        if (!Files.isDirectory(base)) return new Report(0, 0, 0, 0, 0, 0, 0);
+        Instant now = Instant.now();
+        Run run = new Run(base.resolve(QUARANTINE_DIR).resolve(Long.toString(now.toEpochMilli())),
+                now.minusMillis(graceMs));
+
+        purgeQuarantine(base.resolve(QUARANTINE_DIR), now.minusMillis(quarantineMs), run);
+
+        Semaphore permits = new Semaphore(parallelism);
+        try (ExecutorService pool = Executors.newThreadPerTaskExecutor(
+                PoolRoutingDataSource.inheritPool(Thread.ofVirtual().factory()))) {
+            if (Files.isDirectory(paths.shardRoot())) {
+                try (DirectoryStream<Path> shards = Files.newDirectoryStream(paths.shardRoot(), Files::isDirectory)) {
+                    for (Path shard : shards) {
+                        pool.execute(() -> withPermit(permits, run, () -> scanShard(shard, run)));
+                    }
+                } catch (IOException e) {
+                    run.error("Could not list " + paths.shardRoot(), e);
+                }
+            }
+            pool.execute(() -> withPermit(permits, run, () -> scanLegacy(base, run)));
+            pool.execute(() -> withPermit(permits, run, () -> scanStaging(run)));
+        }
+
+        Report report = run.report();
+        reclaimed.increment(report.purgedBytes());
+        if (report.orphanFolders() + report.orphanFiles() + report.staleUploads() + report.purgedBytes() > 0
+                || report.errors() > 0) {
+            log.info("Upload reconciliation: {} folders checked; quarantined {} orphan folders, {} orphan files, "
+                    + "{} stale uploads ({} bytes); purged {} bytes; {} errors",
+                    report.folders(), report.orphanFolders(), report.orphanFiles(), report.staleUploads(),
+                    report.quarantinedBytes(), report.purgedBytes(), report.errors());
+        }
+        return report;
+    }
+
+    private interface Scan {
+        void run() throws IOException;
+    }
+
+    private static void withPermit(Semaphore permits, Run run, Scan scan) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            scan.run();
+        } catch (IOException | RuntimeException e) {
+            run.error("Upload reconciliation unit failed", e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /** Walks {@code tasks/ab/cd/{taskId}} for one {@code ab}. */
+    private void scanShard(Path shard, Run run) throws IOException {
+        List<Path> batch = new ArrayList<>(batchSize);
+        try (DirectoryStream<Path> subShards = Files.newDirectoryStream(shard, Files::isDirectory)) {
+            for (Path subShard : subShards) {
+                try (DirectoryStream<Path> dirs = Files.newDirectoryStream(subShard, UploadReconciler::isTaskDir)) {
+                    for (Path dir : dirs) {
+                        batch.add(dir);
+                        if (batch.size() == batchSize) {
+                            checkBatch(batch, run);
+                            batch.clear();
+                        }
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) checkBatch(batch, run);
+    }
+
+    /** Walks the flat {@code uploadDir/{taskId}} folders not yet migrated. */
+    private void scanLegacy(Path base, Run run) throws IOException {
+        List<Path> batch = new ArrayList<>(batchSize);
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(base, UploadReconciler::isTaskDir)) {
+            for (Path dir : dirs) {
+                batch.add(dir);
+                if (batch.size() == batchSize) {
+                    checkBatch(batch, run);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) checkBatch(batch, run);
+    }
+
+    /** Quarantines staged uploads older than the grace period (left by a crash mid-upload). */
+    private void scanStaging(Run run) throws IOException {
+        Path staging = paths.baseDir().resolve(AttachmentStorage.BLOB_DIR).resolve(AttachmentStorage.STAGING_DIR);
+        if (!Files.isDirectory(staging)) return;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(staging, Files::isRegularFile)) {
+            for (Path file : files) {
+                if (isSettled(file, run) && quarantine(file, run)) run.staleUploads.increment();
+            }
+        }
+    }
+
+    private void checkBatch(List<Path> dirs, Run run) {
+        Long[] ids = dirs.stream().map(d -> Long.valueOf(d.getFileName().toString())).toArray(Long[]::new);
+        Set<Long> existing = new HashSet<>(taskRepository.findExistingIds(ids));
+        Map<Long, Set<String>> tracked = new HashMap<>();
+        if (!existing.isEmpty()) {
+            for (Object[] row : attachmentRepository.findFilenames(existing.toArray(Long[]::new))) {
+                tracked.computeIfAbsent(((Number) row[0]).longValue(), k -> new HashSet<>()).add((String) row[1]);
+            }
+        }
+        run.folders.add(dirs.size());
+
+        for (int i = 0; i < ids.length; i++) {
+            Path dir = dirs.get(i);
+            try {
+                if (!existing.contains(ids[i])) {
+                    if (isSettled(dir, run) && quarantine(dir, run)) run.orphanFolders.increment();
+                } else {
+                    checkFiles(dir, tracked.getOrDefault(ids[i], Set.of()), run);
+                }
+            } catch (IOException e) {
+                run.error("Could not reconcile " + dir, e);
+            }
+        }
+    }
+
+    /** Quarantines the files of a live task that no attachment row accounts for. */
+    private void checkFiles(Path dir, Set<String> tracked, Run run) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, Files::isRegularFile)) {
+            for (Path file : files) {
+                if (!tracked.contains(file.getFileName().toString()) && isSettled(file, run) && quarantine(file, run)) {
+                    run.orphanFiles.increment();
+                }
+            }
+        }
+        Path thumbs = dir.resolve(ThumbnailService.THUMB_DIR);
+        if (!Files.isDirectory(thumbs)) return;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(thumbs, Files::isRegularFile)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int dot = name.lastIndexOf('.');
+                String original = dot > 0 ? name.substring(0, dot) : name;
+                if (!tracked.contains(original) && isSettled(file, run) && quarantine(file, run)) {
+                    run.orphanFiles.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves an orphan to this run's quarantine, keeping its path relative to the upload dir.
+     *
+     * @return {@code false} if the entry vanished meanwhile
+     */
+    private boolean quarantine(Path path, Run run) throws IOException {
+        long bytes = reclaimableBytes(path);
+        Path target = run.quarantine.resolve(paths.baseDir().relativize(path));
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException gone) {
+            return false;
+        }
+        run.quarantinedBytes.add(bytes);
+        return true;
+    }
+
+    /** Deletes the quarantines of runs older than the cutoff. */
+    private void purgeQuarantine(Path root, Instant cutoff, Run run) {
+        if (!Files.isDirectory(root)) return;
+        try (DirectoryStream<Path> runs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path dir : runs) {
+                long startedAt;
+                try {
+                    startedAt = Long.parseLong(dir.getFileName().toString());
+                } catch (NumberFormatException notARun) {
+                    continue;
+                }
+                if (startedAt > cutoff.toEpochMilli()) continue;
+                long bytes = reclaimableBytes(dir);
+                FileSystemUtils.deleteRecursively(dir);
+                run.purgedBytes.add(bytes);
+            }
+        } catch (IOException e) {
+            run.error("Could not purge quarantine " + root, e);
+        }
+    }
+
+    /** Tells whether an entry has not changed since the grace cutoff. */
+    private static boolean isSettled(Path path, Run run) throws IOException {
+        return !lastChange(path).toInstant().isAfter(run.settledBefore);
+    }
+
+    /** Latest of the modification and (where supported) inode change times. */
+    private static FileTime lastChange(Path path) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(path);
+        try {
+            FileTime changed = (FileTime) Files.getAttribute(path, "unix:ctime");
+            return changed.compareTo(modified) > 0 ? changed : modified;
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            return modified;
+        }
+    }
+
+    /** Bytes freed by deleting the entry: files still linked elsewhere (shared blobs) do not count. */
+    private static long reclaimableBytes(Path path) throws IOException {
+        long[] total = {0};
+        Files.walkFileTree(path, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile() && linkCount(file) <= 1) total[0] += attrs.size();
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return total[0];
+    }
+
+    private static int linkCount(Path file) throws IOException {
+        try {
+            return (Integer) Files.getAttribute(file, "unix:nlink");
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            return 1;
+        }
+    }
+
+    private static boolean isTaskDir(Path p) {
+        String name = p.getFileName().toString();
+        return !name.isEmpty() && name.length() <= 18 && name.chars().allMatch(Character::isDigit) && Files.isDirectory(p);
+    }
+
+    /** Counters of one run, shared by its scanning threads. */
+    private static final class Run {
+        final Path quarantine;
+        final Instant settledBefore;
+        final LongAdder folders = new LongAdder();
+        final LongAdder orphanFolders = new LongAdder();
+        final LongAdder orphanFiles = new LongAdder();
+        final LongAdder staleUploads = new LongAdder();
+        final LongAdder quarantinedBytes = new LongAdder();
+        final LongAdder purgedBytes = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        Run(Path quarantine, Instant settledBefore) {
+            this.quarantine = quarantine;
+            this.settledBefore = settledBefore;
+        }
+
+        void error(String what, Exception e) {
+            errors.increment();
+            log.warn("{}: {}", what, e.getMessage());
+        }
+
+        Report report() {
+            return new Report(folders.sum(), orphanFolders.sum(), orphanFiles.sum(), staleUploads.sum(),
+                    quarantinedBytes.sum(), purgedBytes.sum(), errors.sum());
+        }
+    }
+}
@@ -148,4 +148,187 @@ class TaskApiIT {
 
     assertThat(idsAsc).containsExactly(id2, id0, id1);
   }
+
+  @Test
+  void move_out_of_column_whose_ids_disagree_with_positions() {
+    final Long[] ids = new Long[4];
+
+    tx.execute(status -> {
+      var user = new UserAccount(UID);
+      em.persist(user);
+
+      var board = new Board();
+      board.setName("IT Board");
+      board.setOwner(user);
+      em.persist(board);
+
+      var source = new KanbanColumn();
+      source.setName("Todo");
+      source.setPosition(0);
+      source.setBoard(board);
+      em.persist(source);
+
+      var target = new KanbanColumn();
+      target.setName("Done");
+      target.setPosition(1);
+      target.setBoard(board);
+      em.persist(target);
+
+      // Ids ascending: last (pos 2), moved (pos 0), below (pos 1) — as after any reorder.
+      var last = new Task();
+      last.setTitle("last");
+      last.setPosition(2);
+      last.setKanbanColumn(source);
+      em.persist(last);
+
+      var moved = new Task();
+      moved.setTitle("moved");
+      moved.setPosition(0);
+      moved.setKanbanColumn(source);
+      em.persist(moved);
+
+      var below = new Task();
+      below.setTitle("below");
+      below.setPosition(1);
+      below.setKanbanColumn(source);
+      em.persist(below);
+
+      em.flush();
+
+      ids[0] = moved.getId();
+      ids[1] = last.getId();
+      ids[2] = source.getId();
+      ids[3] = target.getId();
+      return null;
+    });
+
+    Long movedId = ids[0], lastId = ids[1], sourceId = ids[2], targetId = ids[3];
+    assertThat(movedId).isGreaterThan(lastId);
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    headers.set("X-Client-Id", UID);
+
+    ResponseEntity<Void> resp = rest.exchange(
+      "http://localhost:" + port + "/api/v1/tasks/move",
+      HttpMethod.POST,
+      new HttpEntity<>(Map.of("taskId", movedId, "targetKanbanColumnId", targetId, "targetPosition", 0), headers),
+      Void.class
+    );
+    assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
+
+    em.clear();
+    List<Object[]> sourceRows = em.createQuery(
+      "select t.title, t.position from Task t where t.kanbanColumn.id = :cid order by t.position asc", Object[].class)
+      .setParameter("cid", sourceId)
+      .getResultList();
+    assertThat(sourceRows).extracting(r -> r[0]).containsExactly("below", "last");
+    assertThat(sourceRows).extracting(r -> r[1]).containsExactly(0, 1);
+
+    Long movedColumn = em.createQuery("select t.kanbanColumn.id from Task t where t.id = :id", Long.class)
+      .setParameter("id", movedId)
+      .getSingleResult();
+    assertThat(movedColumn).isEqualTo(targetId);
+  }
+
+  @Test
+  void csv_import_copies_rows_after_existing_tasks() {
+    Long[] ids = boardWithTodoAndDone();
+    Long boardId = ids[0], todoId = ids[1], doneId = ids[2];
+
+    String csv = "title,description,completed,dueDate,column\r\n"
+      + "\"Write, then ship\",\"two\nlines\",,2026-03-01,\r\n"
+      + "Shipped,,yes,,done\r\n"
+      + "Third,,,,Todo\r\n";
+    ResponseEntity<String> resp = importCsv(boardId, csv);
+    assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(resp.getBody()).contains("\"imported\":3");
+
+    em.clear();
+    List<Object[]> todo = em.createQuery(
+      "select t.title, t.position, t.description, t.dueDate from Task t where t.kanbanColumn.id = :cid order by t.position",
+      Object[].class).setParameter("cid", todoId).getResultList();
+    assertThat(todo).extracting(r -> r[0]).containsExactly("existing", "Write, then ship", "Third");
+    assertThat(todo).extracting(r -> r[1]).containsExactly(0, 1, 2);
+    assertThat(todo.get(1)[2]).isEqualTo("two\nlines");
+    assertThat(todo.get(1)[3]).isEqualTo(java.time.LocalDate.parse("2026-03-01"));
+
+    Task shipped = em.createQuery("select t from Task t where t.kanbanColumn.id = :cid", Task.class)
+      .setParameter("cid", doneId).getSingleResult();
+    assertThat(shipped.getTitle()).isEqualTo("Shipped");
+    assertThat(shipped.getPosition()).isZero();
+    assertThat(shipped.isCompleted()).isTrue();
+    assertThat(shipped.getCompletedAt()).isNotNull();
+    assertThat(shipped.getCreationDate()).isNotNull();
+  }
+
+  @Test
+  void csv_import_with_row_errors_inserts_nothing_and_leaves_the_connection_usable() {
+    Long[] ids = boardWithTodoAndDone();
+    Long boardId = ids[0];
+
+    ResponseEntity<String> rejected = importCsv(boardId, "title,column\nok,\n,\nlost,Backlog\n");
+    assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(rejected.getBody()).contains("Row 3: title is required", "Row 4: no column named");
+
+    em.clear();
+    assertThat(em.createQuery("select count(t) from Task t", Long.class).getSingleResult()).isEqualTo(1L);
+
+    // The cancelled COPY must not leave a broken connection behind in the bulk pool.
+    for (int i = 0; i < 3; i++) {
+      assertThat(importCsv(boardId, "title\nagain\n").getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+    assertThat(em.createQuery("select count(t) from Task t", Long.class).getSingleResult()).isEqualTo(4L);
+  }
+
+  /** Creates a board of {@link #UID} with a Todo column holding one task and an empty Done column. */
+  private Long[] boardWithTodoAndDone() {
+    Long[] ids = new Long[3];
+    tx.execute(status -> {
+      var user = new UserAccount(UID);
+      em.persist(user);
+
+      var board = new Board();
+      board.setName("CSV Board");
+      board.setOwner(user);
+      em.persist(board);
+
+      var todo = new KanbanColumn();
+      todo.setName("Todo");
+      todo.setPosition(1);
+      todo.setBoard(board);
+      em.persist(todo);
+
+      var done = new KanbanColumn();
+      done.setName("Done");
+      done.setPosition(2);
+      done.setBoard(board);
+      em.persist(done);
+
+      var existing = new Task();
+      existing.setTitle("existing");
+      existing.setPosition(0);
+      existing.setKanbanColumn(todo);
+      em.persist(existing);
+
+      em.flush();
+      ids[0] = board.getId();
+      ids[1] = todo.getId();
+      ids[2] = done.getId();
+      return null;
+    });
+    return ids;
+  }
+
+  private ResponseEntity<String> importCsv(Long boardId, String csv) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.parseMediaType("text/csv"));
+    headers.set("X-Client-Id", UID);
+    return rest.exchange(
+      "http://localhost:" + port + "/api/v1/tasks/import?boardId=" + boardId,
+      HttpMethod.POST,
+      new HttpEntity<>(csv, headers),
+      String.class
+    );
+  }
 }
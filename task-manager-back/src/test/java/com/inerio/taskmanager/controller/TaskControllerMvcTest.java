@@ -1,11 +1,27 @@
 package com.inerio.taskmanager.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.inerio.taskmanager.config.BinaryFormatsConfig;
 import com.inerio.taskmanager.dto.TaskDto;
+import com.inerio.taskmanager.dto.TaskImportResultDto;
+import com.inerio.taskmanager.dto.TaskSummaryDto;
+import com.inerio.taskmanager.exception.BulkheadFullException;
+import com.inerio.taskmanager.exception.ConcurrentChangeException;
 import com.inerio.taskmanager.model.KanbanColumn;
 import com.inerio.taskmanager.model.Task;
+import com.inerio.taskmanager.realtime.SseHub;
+import com.inerio.taskmanager.service.AttachmentArchiveService;
 import com.inerio.taskmanager.service.BoardService;
+import com.inerio.taskmanager.service.Bulkhead;
+import com.inerio.taskmanager.service.ChunkedUploadService;
 import com.inerio.taskmanager.service.KanbanColumnService;
+import com.inerio.taskmanager.service.ReadCoalescer;
+import com.inerio.taskmanager.service.TaskArchiveService;
+import com.inerio.taskmanager.service.TaskBatchService;
+import com.inerio.taskmanager.service.TaskImportService;
+import com.inerio.taskmanager.service.TaskPatchCoalescer;
 import com.inerio.taskmanager.service.TaskService;
 import com.inerio.taskmanager.service.UserAccountService;
 import org.junit.jupiter.api.AfterEach;
@@ -21,18 +37,27 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.hasKey;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = TaskController.class)
-@Import(TaskControllerMvcTest.MockConfig.class)
+@Import({TaskControllerMvcTest.MockConfig.class, BinaryFormatsConfig.class})
 class TaskControllerMvcTest {
 
     @TestConfiguration
@@ -41,6 +66,14 @@ class TaskControllerMvcTest {
         @Bean KanbanColumnService kanbanColumnService() { return mock(KanbanColumnService.class); }
         @Bean UserAccountService userAccountService() { return mock(UserAccountService.class); }
         @Bean BoardService boardService() { return mock(BoardService.class); }
+        @Bean ReadCoalescer readCoalescer() { return new ReadCoalescer(mock(SseHub.class)); }
+        @Bean TaskPatchCoalescer taskPatchCoalescer() { return mock(TaskPatchCoalescer.class); }
+        @Bean TaskBatchService taskBatchService() { return mock(TaskBatchService.class); }
+        @Bean ChunkedUploadService chunkedUploadService() { return mock(ChunkedUploadService.class); }
+        @Bean AttachmentArchiveService attachmentArchiveService() { return mock(AttachmentArchiveService.class); }
+        @Bean Bulkhead bulkhead() { return mock(Bulkhead.class); }
+        @Bean TaskArchiveService taskArchiveService() { return mock(TaskArchiveService.class); }
+        @Bean TaskImportService taskImportService() { return mock(TaskImportService.class); }
     }
 
     @Autowired MockMvc mvc;
@@ -50,10 +83,12 @@ class TaskControllerMvcTest {
     @Autowired KanbanColumnService kanbanColumnService;
     @Autowired UserAccountService userAccountService;
     @Autowired BoardService boardService;
+    @Autowired Bulkhead bulkhead;
+    @Autowired TaskImportService imports;
 
     @AfterEach
     void resetMocks() {
-        reset(taskService, kanbanColumnService, userAccountService, boardService);
+        reset(taskService, kanbanColumnService, userAccountService, boardService, bulkhead, imports);
     }
 
     private static final String UID = "e2e-smoke-uid";
@@ -103,6 +138,38 @@ class TaskControllerMvcTest {
         verifyNoInteractions(boardService);
     }
 
+    @Test
+    @DisplayName("GET /api/v1/tasks/kanbanColumn/{id} -> CBOR or Smile body when the client accepts it")
+    void getTasksByColumn_binaryFormats() throws Exception {
+        KanbanColumn col = new KanbanColumn();
+        col.setId(10L);
+        Task task = new Task();
+        task.setTitle("Binary");
+        task.setKanbanColumn(col);
+        task.setPosition(3);
+        given(taskService.ownsColumn(UID, 10L)).willReturn(true);
+        given(taskService.getTasksByKanbanColumnId(10L)).willReturn(List.of(task));
+
+        assertBinaryTasks(MediaType.APPLICATION_CBOR, new CBORMapper());
+        assertBinaryTasks(MediaType.parseMediaType("application/x-jackson-smile"), new SmileMapper());
+    }
+
+    private void assertBinaryTasks(MediaType type, ObjectMapper decoder) throws Exception {
+        byte[] body = mvc.perform(get(BASE + "/kanbanColumn/10")
+                .header("X-Client-Id", UID)
+                .accept(type))
+           .andExpect(status().isOk())
+           .andExpect(content().contentTypeCompatibleWith(type))
+           .andReturn().getResponse().getContentAsByteArray();
+
+        TaskDto[] tasks = decoder.findAndRegisterModules().readValue(body, TaskDto[].class);
+        assertThat(tasks).singleElement().satisfies(t -> {
+            assertThat(t.getTitle()).isEqualTo("Binary");
+            assertThat(t.getKanbanColumnId()).isEqualTo(10L);
+            assertThat(t.getPosition()).isEqualTo(3);
+        });
+    }
+
     @Test
     @DisplayName("POST /api/v1/tasks -> 404 when column is not owned by UID")
     void createTask_404_whenNotOwner() throws Exception {
@@ -148,4 +215,116 @@ class TaskControllerMvcTest {
         verifyNoMoreInteractions(taskService, kanbanColumnService, userAccountService);
         verifyNoInteractions(boardService);
     }
+
+    @Test
+    @DisplayName("GET /api/v1/tasks?fields=title -> summary projection trimmed to the requested fields")
+    void getAllTasks_sparseFieldset() throws Exception {
+        given(taskService.getTaskSummariesForOwner(UID, false)).willReturn(List.of(
+                new TaskSummaryDto(1L, "A", true, null, 0, 10L)));
+
+        mvc.perform(get(BASE).header("X-Client-Id", UID).param("fields", "title"))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$[0].id", is(1)))
+           .andExpect(jsonPath("$[0].title", is("A")))
+           .andExpect(jsonPath("$[0]", not(hasKey("completed"))))
+           .andExpect(jsonPath("$[0]", not(hasKey("attachmentCount"))))
+           .andExpect(jsonPath("$[0]", not(hasKey("description"))));
+
+        verify(userAccountService).touch(UID);
+        verify(taskService).getTaskSummariesForOwner(UID, false);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tasks?fields=attachmentCount -> the count is only computed when requested")
+    void getAllTasks_attachmentCountRequested() throws Exception {
+        given(taskService.getTaskSummariesForOwner(UID, true)).willReturn(List.of(
+                new TaskSummaryDto(1L, "A", true, null, 0, 10L, 2)));
+
+        mvc.perform(get(BASE).header("X-Client-Id", UID).param("fields", "attachmentCount"))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$[0].attachmentCount", is(2)))
+           .andExpect(jsonPath("$[0]", not(hasKey("title"))));
+
+        verify(taskService).getTaskSummariesForOwner(UID, true);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tasks?fields=description -> 400 before any query runs")
+    void getAllTasks_unknownField_400() throws Exception {
+        mvc.perform(get(BASE).header("X-Client-Id", UID).param("fields", "description"))
+           .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/v1/tasks/all -> 204 once the bulk operation has run")
+    void deleteAllTasks_bulk204() throws Exception {
+        given(bulkhead.bulk(any())).willAnswer(inv ->
+                CompletableFuture.completedFuture(inv.<Supplier<?>>getArgument(0).get()));
+
+        var started = mvc.perform(delete(BASE + "/all").header("X-Client-Id", UID))
+                         .andExpect(request().asyncStarted())
+                         .andReturn();
+        mvc.perform(asyncDispatch(started))
+           .andExpect(status().isNoContent());
+
+        verify(taskService).deleteAllTasksForOwner(UID);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/v1/tasks/all -> 503 + Retry-After when bulk operations are saturated")
+    void deleteAllTasks_saturated503() throws Exception {
+        given(bulkhead.bulk(any())).willThrow(new BulkheadFullException("Bulk operations saturated", 30));
+
+        mvc.perform(delete(BASE + "/all").header("X-Client-Id", UID))
+           .andExpect(status().isServiceUnavailable())
+           .andExpect(header().string("Retry-After", "30"));
+
+        verify(taskService, never()).deleteAllTasksForOwner(any());
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/tasks/import -> 400 with the row errors when a row is invalid")
+    void importTasks_rowErrors400() throws Exception {
+        given(boardService.ownsBoard(UID, 7L)).willReturn(true);
+        given(imports.importCsv(eq(7L), any()))
+                .willReturn(new TaskImportResultDto(0, List.of("Row 3: title is required")));
+
+        mvc.perform(post(BASE + "/import").param("boardId", "7")
+                .header("X-Client-Id", UID)
+                .contentType("text/csv")
+                .content("title\na\n\"\"\n"))
+           .andExpect(status().isBadRequest())
+           .andExpect(jsonPath("$.imported", is(0)))
+           .andExpect(jsonPath("$.errors[0]", is("Row 3: title is required")));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/tasks/import -> 409 with a retry message when the board changed meanwhile")
+    void importTasks_conflict409() throws Exception {
+        given(boardService.ownsBoard(UID, 7L)).willReturn(true);
+        given(imports.importCsv(eq(7L), any()))
+                .willThrow(new ConcurrentChangeException("Tasks of board 7 changed during the import", null));
+
+        mvc.perform(post(BASE + "/import").param("boardId", "7")
+                .header("X-Client-Id", UID)
+                .contentType("text/csv")
+                .content("title\na\n"))
+           .andExpect(status().isConflict())
+           .andExpect(jsonPath("$.error", is("Concurrent change, retry the request")));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/tasks/import -> 404 when the board is not owned by UID")
+    void importTasks_404_whenNotOwner() throws Exception {
+        mvc.perform(post(BASE + "/import").param("boardId", "7")
+                .header("X-Client-Id", UID)
+                .contentType("text/csv")
+                .content("title\na\n"))
+           .andExpect(status().isNotFound());
+
+        verifyNoInteractions(imports);
+    }
 }
@@ -0,0 +1,99 @@
+package com.inerio.taskmanager.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Micro-benchmark comparing payload size and (de)serialization time of a 5k-task board
+ * across JSON, CBOR and Smile. Tagged {@code benchmark}, so it is left out of the unit test run;
+ * the figures go to the test report, and only sizes and round-trips are asserted, never timings.
+ */
+@Tag("benchmark")
+class PayloadFormatBenchmarkTest {
+
+    private static final int TASKS = 5_000;
+    private static final int WARMUP = 5;
+    private static final int ROUNDS = 20;
+
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    private static List<TaskDto> board() {
+        List<TaskDto> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            TaskDto t = new TaskDto();
+            t.setId((long) i + 1);
+            t.setTitle("Task number " + i);
+            t.setDescription("Some description for task " + i + " with a bit of body text to be realistic.");
+            t.setCompleted(i % 3 == 0);
+            t.setKanbanColumnId((long) (i % 5) + 1);
+            t.setPosition(i / 5);
+            t.setCreationDate(LocalDateTime.of(2025, 1, 1, 12, 0).plusMinutes(i));
+            t.setDueDate(i % 4 == 0 ? LocalDate.of(2025, 6, 1).plusDays(i % 30) : null);
+            t.setAttachments(i % 10 == 0 ? List.of("spec-" + i + ".pdf") : List.of());
+            tasks.add(t);
+        }
+        return tasks;
+    }
+
+    private record Result(String format, int bytes, double writeMs, double readMs) { }
+
+    private static Result measure(String format, ObjectMapper om, List<TaskDto> payload) throws Exception {
+        byte[] bytes = om.writeValueAsBytes(payload);
+        for (int i = 0; i < WARMUP; i++) {
+            om.readValue(om.writeValueAsBytes(payload), TaskDto[].class);
+        }
+        long write = 0;
+        long read = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long t0 = System.nanoTime();
+            bytes = om.writeValueAsBytes(payload);
+            long t1 = System.nanoTime();
+            TaskDto[] back = om.readValue(bytes, TaskDto[].class);
+            long t2 = System.nanoTime();
+            write += t1 - t0;
+            read += t2 - t1;
+            assertThat(back).hasSize(payload.size());
+        }
+        return new Result(format, bytes.length, write / 1e6 / ROUNDS, read / 1e6 / ROUNDS);
+    }
+
+    @Test
+    @DisplayName("5k-task board: CBOR and Smile are smaller than JSON and round-trip the same DTOs")
+    void compareFormats(TestReporter reporter) throws Exception {
+        List<TaskDto> payload = board();
+
+        Result json = measure("json", mapper(new JsonFactory()), payload);
+        Result cbor = measure("cbor", mapper(new CBORFactory()), payload);
+        Result smile = measure("smile", mapper(new SmileFactory()), payload);
+
+        for (Result r : List.of(json, cbor, smile)) {
+            reporter.publishEntry(r.format(), String.format(Locale.ROOT, "%d bytes, write %.2f ms, read %.2f ms",
+                    r.bytes(), r.writeMs(), r.readMs()));
+        }
+
+        assertThat(cbor.bytes()).isLessThan(json.bytes());
+        assertThat(smile.bytes()).isLessThan(json.bytes());
+    }
+}
@@ -0,0 +1,153 @@
+package com.inerio.taskmanager.repository;
+
+import com.inerio.taskmanager.model.AttachmentBlob;
+import com.inerio.taskmanager.model.Board;
+import com.inerio.taskmanager.model.KanbanColumn;
+import com.inerio.taskmanager.model.Task;
+import com.inerio.taskmanager.model.TaskAttachment;
+import com.inerio.taskmanager.model.UserAccount;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs the server-side board copy ({@code copyContent}) and the attachment charge it is paired
+ * with against PostgreSQL.
+ */
+@DataJpaTest
+@Testcontainers
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BoardRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final String SHA_A = "d".repeat(64);
+    private static final String SHA_B = "e".repeat(64);
+
+    @Autowired UserAccountRepository userAccountRepository;
+    @Autowired BoardRepository boardRepository;
+    @Autowired KanbanColumnRepository kanbanColumnRepository;
+    @Autowired TaskRepository taskRepository;
+    @Autowired TaskAttachmentRepository attachmentRepository;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired EntityManager em;
+
+    @Test
+    @DisplayName("copyContent: copies live columns and tasks into the target and shares attachment blobs")
+    void copyContent_copiesLiveContent() {
+        UserAccount owner = userAccountRepository.save(new UserAccount("copy-owner"));
+        Board source = board(owner, "Source");
+        KanbanColumn todo = column(source, "Todo", 1);
+        KanbanColumn done = column(source, "Done", 2);
+        KanbanColumn trashedColumn = column(source, "Trashed", 3);
+        Task first = taskRepository.save(task("first", todo, 0));
+        Task second = taskRepository.save(task("second", todo, 1));
+        second.setCompleted(true);
+        Task finished = taskRepository.save(task("finished", done, 0));
+        Task trashedTask = taskRepository.save(task("trashed", done, 1));
+        taskRepository.save(task("in-trashed-column", trashedColumn, 0));
+        em.persist(new AttachmentBlob(SHA_A, 10));
+        em.persist(new AttachmentBlob(SHA_B, 4));
+        attachmentRepository.save(new TaskAttachment(first.getId(), "copy-owner", "a.txt", SHA_A, 10, "text/plain"));
+        attachmentRepository.save(new TaskAttachment(finished.getId(), "copy-owner", "b.txt", SHA_B, 4, "text/plain"));
+        attachmentRepository.save(new TaskAttachment(trashedTask.getId(), "copy-owner", "t.txt", SHA_A, 10, "text/plain"));
+        em.flush();
+        jdbc.update("UPDATE attachment_blob SET ref_count = CASE sha256 WHEN ? THEN 2 ELSE 1 END", SHA_A);
+        jdbc.update("UPDATE task SET deleted_at = now() WHERE id = ?", trashedTask.getId());
+        jdbc.update("UPDATE kanban_column SET deleted_at = now() WHERE id = ?", trashedColumn.getId());
+        Board target = board(owner, "Target");
+        em.flush();
+        em.clear();
+
+        List<Object[]> copies = boardRepository.copyContent(source.getId(), target.getId(), "copy-owner");
+
+        assertThat(copies).extracting(r -> ((Number) r[0]).longValue(), r -> r[2], r -> r[3], r -> ((Number) r[4]).longValue())
+                .containsExactlyInAnyOrder(tuple(first.getId(), "a.txt", SHA_A, 10L),
+                        tuple(finished.getId(), "b.txt", SHA_B, 4L));
+        List<KanbanColumn> columns = kanbanColumnRepository.findByBoardIdOrderByPositionAsc(target.getId());
+        assertThat(columns).extracting(KanbanColumn::getName, KanbanColumn::getPosition)
+                .containsExactly(tuple("Todo", 1), tuple("Done", 2));
+        List<Map<String, Object>> tasks = jdbc.queryForList("""
+                SELECT c.name AS col, t.title, t.position, t.completed, t.creation_date IS NOT NULL AS created
+                FROM task t JOIN kanban_column c ON c.id = t.kanban_column_id
+                WHERE c.board_id = ? ORDER BY c.position, t.position
+                """, target.getId());
+        assertThat(tasks).extracting(r -> r.get("col"), r -> r.get("title"), r -> r.get("position"), r -> r.get("completed"))
+                .containsExactly(tuple("Todo", "first", 0, false), tuple("Todo", "second", 1, true),
+                        tuple("Done", "finished", 0, false));
+        assertThat(tasks).allMatch(r -> Boolean.TRUE.equals(r.get("created")));
+        for (Object[] copy : copies) {
+            Long copiedTask = ((Number) copy[1]).longValue();
+            assertThat(copiedTask).isNotIn(first.getId(), finished.getId());
+            assertThat(attachmentRepository.existsByTaskIdAndFilename(copiedTask, (String) copy[2])).isTrue();
+        }
+        assertThat(jdbc.queryForObject("SELECT ref_count FROM attachment_blob WHERE sha256 = ?", Integer.class, SHA_A))
+                .isEqualTo(3);
+        assertThat(jdbc.queryForObject("SELECT ref_count FROM attachment_blob WHERE sha256 = ?", Integer.class, SHA_B))
+                .isEqualTo(2);
+        assertThat(kanbanColumnRepository.findByBoardIdOrderByPositionAsc(source.getId())).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("copyContent: copying an empty board copies nothing")
+    void copyContent_emptySource() {
+        UserAccount owner = userAccountRepository.save(new UserAccount("copy-empty"));
+        Board source = board(owner, "Empty");
+        Board target = board(owner, "Target");
+        em.flush();
+
+        assertThat(boardRepository.copyContent(source.getId(), target.getId(), "copy-empty")).isEmpty();
+        assertThat(kanbanColumnRepository.findByBoardIdOrderByPositionAsc(target.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("chargeAttachments: charges the copy only while it fits in the quota")
+    void chargeAttachments_respectsQuota() {
+        userAccountRepository.save(new UserAccount("charged"));
+        em.flush();
+
+        assertThat(userAccountRepository.chargeAttachments("charged", 60, 2, 100)).isEqualTo(1);
+        assertThat(userAccountRepository.chargeAttachments("charged", 60, 2, 100)).isZero();
+        assertThat(userAccountRepository.chargeAttachments("charged", 40, 1, 100)).isEqualTo(1);
+        assertThat(jdbc.queryForMap("SELECT attachment_bytes, attachment_count FROM user_account WHERE uid = 'charged'"))
+                .containsEntry("attachment_bytes", 100L).containsEntry("attachment_count", 3);
+    }
+
+    private Board board(UserAccount owner, String name) {
+        Board b = new Board(name);
+        b.setOwner(owner);
+        return boardRepository.save(b);
+    }
+
+    private KanbanColumn column(Board board, String name, int pos) {
+        KanbanColumn c = new KanbanColumn(name, pos);
+        c.setBoard(board);
+        return kanbanColumnRepository.save(c);
+    }
+
+    private static Task task(String title, KanbanColumn column, int pos) {
+        Task t = new Task();
+        t.setTitle(title);
+        t.setKanbanColumn(column);
+        t.setPosition(pos);
+        return t;
+    }
+}
@@ -0,0 +1,156 @@
+package com.inerio.taskmanager.repository;
+
+import com.inerio.taskmanager.model.AttachmentBlob;
+import com.inerio.taskmanager.model.Board;
+import com.inerio.taskmanager.model.KanbanColumn;
+import com.inerio.taskmanager.model.Task;
+import com.inerio.taskmanager.model.TaskAttachment;
+import com.inerio.taskmanager.model.UserAccount;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the attachment release statements (data-modifying CTEs) against PostgreSQL: each one must
+ * delete the rows, credit the owner's counters and decrement the blob reference counts together.
+ */
+@DataJpaTest
+@Testcontainers
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TaskAttachmentRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final String SHA_A = "a".repeat(64);
+    private static final String SHA_B = "b".repeat(64);
+
+    @Autowired UserAccountRepository userAccountRepository;
+    @Autowired BoardRepository boardRepository;
+    @Autowired KanbanColumnRepository kanbanColumnRepository;
+    @Autowired TaskRepository taskRepository;
+    @Autowired TaskAttachmentRepository attachmentRepository;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired EntityManager em;
+
+    private Long t1;
+    private Long t2;
+
+    /** Task 1 holds x.txt (blob A) and y.txt (blob B), task 2 holds z.txt (blob A again). */
+    @BeforeEach
+    void setUp() {
+        UserAccount owner = new UserAccount("att-owner");
+        userAccountRepository.save(owner);
+        Board board = new Board("B");
+        board.setOwner(owner);
+        boardRepository.save(board);
+        KanbanColumn column = new KanbanColumn("C", 0);
+        column.setBoard(board);
+        kanbanColumnRepository.save(column);
+        t1 = taskRepository.save(task("t1", column, 0)).getId();
+        t2 = taskRepository.save(task("t2", column, 1)).getId();
+
+        em.persist(new AttachmentBlob(SHA_A, 10));
+        em.persist(new AttachmentBlob(SHA_B, 5));
+        attachmentRepository.save(new TaskAttachment(t1, "att-owner", "x.txt", SHA_A, 10, "text/plain"));
+        attachmentRepository.save(new TaskAttachment(t1, "att-owner", "y.txt", SHA_B, 5, "text/plain"));
+        attachmentRepository.save(new TaskAttachment(t2, "att-owner", "z.txt", SHA_A, 10, "text/plain"));
+        em.flush();
+        jdbc.update("UPDATE attachment_blob SET ref_count = CASE sha256 WHEN ? THEN 2 ELSE 1 END", SHA_A);
+        jdbc.update("UPDATE user_account SET attachment_bytes = 25, attachment_count = 3 WHERE uid = 'att-owner'");
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("release: drops one attachment, credits its owner and decrements its blob only")
+    void release_one() {
+        assertThat(attachmentRepository.release(t1, "x.txt")).isEqualTo(1);
+
+        assertThat(refCounts()).containsEntry(SHA_A, 1).containsEntry(SHA_B, 1);
+        assertThat(usage()).containsExactly(15L, 2L);
+        assertThat(filenames()).containsExactly("y.txt", "z.txt");
+        assertThat(attachmentRepository.release(t1, "x.txt")).isZero();
+    }
+
+    @Test
+    @DisplayName("releaseAll: a blob shared by several tasks is decremented once per reference")
+    void releaseAll_sharedBlob() {
+        assertThat(attachmentRepository.releaseAll(new Long[]{t1, t2})).isEqualTo(2);
+
+        assertThat(refCounts()).containsEntry(SHA_A, 0).containsEntry(SHA_B, 0);
+        assertThat(usage()).containsExactly(0L, 0L);
+        assertThat(filenames()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("releaseFiles: releases a kept task's attachments and queues one outbox entry per file")
+    void releaseFiles_queuesFiles() {
+        assertThat(attachmentRepository.releaseFiles(t1)).isEqualTo(2);
+
+        assertThat(refCounts()).containsEntry(SHA_A, 1).containsEntry(SHA_B, 0);
+        assertThat(usage()).containsExactly(10L, 1L);
+        assertThat(jdbc.queryForList("SELECT filename FROM attachment_outbox WHERE task_id = ? ORDER BY filename",
+                String.class, t1)).containsExactly("x.txt", "y.txt");
+    }
+
+    @Test
+    @DisplayName("releaseOrphans: releases the attachments of deleted tasks and queues their folders")
+    void releaseOrphans_afterTaskDeletion() {
+        jdbc.update("DELETE FROM task WHERE id = ?", t2);
+
+        assertThat(attachmentRepository.releaseOrphans()).isEqualTo(1);
+
+        assertThat(refCounts()).containsEntry(SHA_A, 1).containsEntry(SHA_B, 1);
+        assertThat(usage()).containsExactly(15L, 2L);
+        assertThat(filenames()).containsExactly("x.txt", "y.txt");
+        List<Map<String, Object>> outbox = jdbc.queryForList("SELECT task_id, filename FROM attachment_outbox");
+        assertThat(outbox).hasSize(1);
+        assertThat(((Number) outbox.get(0).get("task_id")).longValue()).isEqualTo(t2);
+        assertThat(outbox.get(0).get("filename")).isNull();
+        assertThat(attachmentRepository.releaseOrphans()).isZero();
+    }
+
+    private Map<String, Integer> refCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        jdbc.query("SELECT sha256, ref_count FROM attachment_blob",
+                (RowCallbackHandler) rs -> counts.put(rs.getString(1), rs.getInt(2)));
+        return counts;
+    }
+
+    private List<Long> usage() {
+        return jdbc.queryForObject(
+                "SELECT attachment_bytes, attachment_count FROM user_account WHERE uid = 'att-owner'",
+                (rs, i) -> List.of(rs.getLong(1), rs.getLong(2)));
+    }
+
+    private List<String> filenames() {
+        return jdbc.queryForList("SELECT filename FROM task_attachment ORDER BY filename", String.class);
+    }
+
+    private static Task task(String title, KanbanColumn column, int pos) {
+        Task t = new Task();
+        t.setTitle(title);
+        t.setKanbanColumn(column);
+        t.setPosition(pos);
+        return t;
+    }
+}
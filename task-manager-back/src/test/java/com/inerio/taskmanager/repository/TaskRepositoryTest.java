@@ -1,5 +1,6 @@
 package com.inerio.taskmanager.repository;
 
+import com.inerio.taskmanager.dto.TaskSummaryDto;
 import com.inerio.taskmanager.model.Board;
 import com.inerio.taskmanager.model.KanbanColumn;
 import com.inerio.taskmanager.model.Task;
@@ -19,6 +20,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 @Testcontainers
@@ -127,6 +129,75 @@ class TaskRepositoryTest {
                 );
     }
 
+    @Test
+    @DisplayName("tasks of a trashed board are hidden from owner reads and the ownership guard")
+    void trashedBoard_hidesItsTasks() {
+        UserAccount owner = userAccount("trash-b");
+        Board live = board(owner, "Live");
+        Board trashed = board(owner, "Trashed");
+        Task kept = taskRepository.save(task("kept", column(live, "C", 0), 0));
+        Task hidden = taskRepository.save(task("hidden", column(trashed, "C", 0), 0));
+        em.flush();
+
+        assertThat(boardRepository.trash(trashed.getId(), "trash-b")).isEqualTo(1);
+        em.clear();
+
+        assertOnlyVisible("trash-b", kept, hidden);
+        assertThat(kanbanColumnRepository.existsByIdAndBoardOwnerUid(hidden.getKanbanColumn().getId(), "trash-b"))
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("tasks of a trashed column are hidden from owner reads and the ownership guard")
+    void trashedColumn_hidesItsTasks() {
+        UserAccount owner = userAccount("trash-c");
+        Board board = board(owner, "B");
+        KanbanColumn trashed = column(board, "Trashed", 1);
+        Task kept = taskRepository.save(task("kept", column(board, "Live", 0), 0));
+        Task hidden = taskRepository.save(task("hidden", trashed, 0));
+        em.flush();
+
+        assertThat(kanbanColumnRepository.trash(trashed.getId())).contains(board.getId());
+        em.clear();
+
+        assertOnlyVisible("trash-c", kept, hidden);
+        assertThat(kanbanColumnRepository.existsByIdAndBoardOwnerUid(trashed.getId(), "trash-c")).isFalse();
+    }
+
+    @Test
+    @DisplayName("summaries without the attachment count match the counted ones, count aside")
+    void summariesWithoutAttachmentCount() {
+        UserAccount owner = userAccount("lean");
+        KanbanColumn col = column(board(owner, "B"), "Todo", 0);
+        taskRepository.save(task("second", col, 1));
+        taskRepository.save(task("first", col, 0));
+        em.flush();
+        em.clear();
+
+        for (List<TaskSummaryDto> lean : List.of(
+                taskRepository.findSummariesWithoutAttachmentCountForOwnerOrdered("lean"),
+                taskRepository.findSummariesWithoutAttachmentCountByKanbanColumnId(col.getId()))) {
+            assertThat(lean).extracting(TaskSummaryDto::getTitle, TaskSummaryDto::getPosition,
+                            TaskSummaryDto::getKanbanColumnId, TaskSummaryDto::getAttachmentCount)
+                    .containsExactly(tuple("first", 0, col.getId(), null), tuple("second", 1, col.getId(), null));
+        }
+        assertThat(taskRepository.findSummariesByKanbanColumnId(col.getId()))
+                .extracting(TaskSummaryDto::getAttachmentCount).containsExactly(0, 0);
+    }
+
+    private void assertOnlyVisible(String uid, Task kept, Task hidden) {
+        assertThat(taskRepository.findAllForOwnerOrdered(uid)).extracting(Task::getId).containsExactly(kept.getId());
+        assertThat(taskRepository.findAllByOwnerUid(uid)).extracting(Task::getId).containsExactly(kept.getId());
+        assertThat(taskRepository.findSummariesForOwnerOrdered(uid)).extracting(TaskSummaryDto::getId)
+                .containsExactly(kept.getId());
+        assertThat(taskRepository.findSummariesWithoutAttachmentCountForOwnerOrdered(uid))
+                .extracting(TaskSummaryDto::getId).containsExactly(kept.getId());
+        assertThat(taskRepository.findAllByIdInForOwner(List.of(kept.getId(), hidden.getId()), uid))
+                .extracting(Task::getId).containsExactly(kept.getId());
+        assertThat(taskRepository.existsByIdAndKanbanColumnBoardOwnerUid(kept.getId(), uid)).isTrue();
+        assertThat(taskRepository.existsByIdAndKanbanColumnBoardOwnerUid(hidden.getId(), uid)).isFalse();
+    }
+
     private UserAccount userAccount(String uid) {
         UserAccount u = new UserAccount();
         u.setUid(uid);
@@ -0,0 +1,192 @@
+package com.inerio.taskmanager.repository;
+
+import com.inerio.taskmanager.model.AttachmentBlob;
+import com.inerio.taskmanager.model.Board;
+import com.inerio.taskmanager.model.KanbanColumn;
+import com.inerio.taskmanager.model.Task;
+import com.inerio.taskmanager.model.TaskAttachment;
+import com.inerio.taskmanager.model.UserAccount;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs the trash statements (trash, restore, purge) of tasks, columns and boards against
+ * PostgreSQL, with the live-position unique index in place.
+ */
+@DataJpaTest
+@Testcontainers
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TrashRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final String SHA = "c".repeat(64);
+
+    @Autowired UserAccountRepository userAccountRepository;
+    @Autowired BoardRepository boardRepository;
+    @Autowired KanbanColumnRepository kanbanColumnRepository;
+    @Autowired TaskRepository taskRepository;
+    @Autowired TaskAttachmentRepository attachmentRepository;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired EntityManager em;
+
+    private UserAccount owner;
+
+    @BeforeEach
+    void setUp() {
+        // Created at startup by SoftDeleteIndexMigration, which does not run in a JPA slice.
+        jdbc.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_task_live_position "
+                + "ON task (kanban_column_id, position) WHERE deleted_at IS NULL");
+        owner = userAccountRepository.save(new UserAccount("trash-owner"));
+    }
+
+    @Test
+    @DisplayName("a trashed task frees its position and is appended to its column when restored")
+    void task_trashAndRestore() {
+        Board board = board("B", 0);
+        KanbanColumn column = column(board, "C", 1);
+        Task a = taskRepository.save(task("a", column, 0));
+        taskRepository.save(task("b", column, 1));
+        em.flush();
+
+        assertThat(taskRepository.trash(a.getId())).contains(board.getId());
+        taskRepository.save(task("c", column, 0));
+        em.flush();
+        assertThat(taskRepository.findTrashState(a.getId(), "trash-owner").get(0)).containsExactly(true, true);
+
+        assertThat(taskRepository.restore(a.getId())).contains(board.getId());
+        assertThat(taskRepository.restore(a.getId())).isEmpty();
+        em.clear();
+
+        assertThat(taskRepository.findByKanbanColumnOrderByPositionAscIdAsc(column))
+                .extracting(Task::getTitle, Task::getPosition)
+                .containsExactly(tuple("c", 0), tuple("b", 1), tuple("a", 2));
+    }
+
+    @Test
+    @DisplayName("columns and boards come back from the trash with their content, appended after the live ones")
+    void columnAndBoard_trashAndRestore() {
+        Board board = board("B", 0);
+        KanbanColumn first = column(board, "First", 1);
+        column(board, "Second", 2);
+        Task kept = taskRepository.save(task("kept", first, 0));
+        Board other = board("Other", 1);
+        em.flush();
+
+        assertThat(kanbanColumnRepository.trash(first.getId())).contains(board.getId());
+        column(board, "Third", 3);
+        em.flush();
+        assertThat(kanbanColumnRepository.restore(first.getId())).isEqualTo(1);
+        assertThat(kanbanColumnRepository.restore(first.getId())).isZero();
+
+        assertThat(boardRepository.trash(board.getId(), "trash-owner")).isEqualTo(1);
+        assertThat(boardRepository.restore(board.getId(), "someone-else")).isZero();
+        assertThat(boardRepository.restore(board.getId(), "trash-owner")).isEqualTo(1);
+        em.clear();
+
+        assertThat(kanbanColumnRepository.findByBoardIdOrderByPositionAsc(board.getId()))
+                .extracting(KanbanColumn::getName).containsExactly("Second", "Third", "First");
+        assertThat(jdbc.queryForObject("SELECT position FROM board WHERE id = ?", Integer.class, board.getId()))
+                .isGreaterThan(jdbc.queryForObject("SELECT position FROM board WHERE id = ?", Integer.class, other.getId()));
+        assertThat(taskRepository.findAllForOwnerOrdered("trash-owner")).extracting(Task::getId).containsExactly(kept.getId());
+    }
+
+    @Test
+    @DisplayName("purge: expired tasks go first in batches, on their own or under an expired column or board, releasing their attachments")
+    void purge_expiredOnly() {
+        Board liveBoard = board("Live", 0);
+        KanbanColumn liveColumn = column(liveBoard, "Live", 1);
+        KanbanColumn expiredColumn = column(liveBoard, "Expired", 2);
+        Board expiredBoard = board("Expired", 1);
+        KanbanColumn underExpiredBoard = column(expiredBoard, "C", 1);
+
+        Task live = taskRepository.save(task("live", liveColumn, 0));
+        Task recent = taskRepository.save(task("recent", liveColumn, 1));
+        Task expired = taskRepository.save(task("expired", liveColumn, 2));
+        taskRepository.save(task("in-expired-column", expiredColumn, 0));
+        taskRepository.save(task("in-expired-board", underExpiredBoard, 0));
+        em.persist(new AttachmentBlob(SHA, 7));
+        attachmentRepository.save(new TaskAttachment(expired.getId(), "trash-owner", "e.txt", SHA, 7, "text/plain"));
+        attachmentRepository.save(new TaskAttachment(live.getId(), "trash-owner", "l.txt", SHA, 7, "text/plain"));
+        em.flush();
+        jdbc.update("UPDATE attachment_blob SET ref_count = 2");
+        jdbc.update("UPDATE user_account SET attachment_bytes = 14, attachment_count = 2 WHERE uid = 'trash-owner'");
+
+        Timestamp old = Timestamp.from(Instant.now().minus(40, ChronoUnit.DAYS));
+        jdbc.update("UPDATE task SET deleted_at = now() WHERE id = ?", recent.getId());
+        jdbc.update("UPDATE task SET deleted_at = ? WHERE id = ?", old, expired.getId());
+        jdbc.update("UPDATE kanban_column SET deleted_at = ? WHERE id = ?", old, expiredColumn.getId());
+        jdbc.update("UPDATE board SET deleted_at = ? WHERE id = ?", old, expiredBoard.getId());
+        em.clear();
+
+        Instant cutoff = Instant.now().minus(30, ChronoUnit.DAYS);
+        assertThat(taskRepository.purgeTrash(cutoff, 2)).isEqualTo(2);
+        assertThat(taskRepository.purgeTrash(cutoff, 2)).isEqualTo(1);
+        assertThat(taskRepository.purgeTrash(cutoff, 2)).isZero();
+        assertThat(kanbanColumnRepository.purgeTrash(cutoff, 10)).isEqualTo(1);
+        assertThat(boardRepository.purgeTrash(cutoff, 10)).isEqualTo(1);
+
+        assertThat(jdbc.queryForList("""
+                SELECT t.title FROM task t
+                JOIN kanban_column c ON c.id = t.kanban_column_id
+                JOIN board b ON b.id = c.board_id
+                WHERE b.owner_id = ? ORDER BY t.title
+                """, String.class, owner.getId())).containsExactly("live", "recent");
+        assertThat(jdbc.queryForList(
+                "SELECT c.name FROM kanban_column c JOIN board b ON b.id = c.board_id WHERE b.owner_id = ?",
+                String.class, owner.getId())).containsExactly("Live");
+        assertThat(jdbc.queryForList("SELECT name FROM board WHERE owner_id = ?", String.class, owner.getId()))
+                .containsExactly("Live");
+        assertThat(jdbc.queryForList("SELECT filename FROM task_attachment WHERE blob_sha256 = ?", String.class, SHA))
+                .containsExactly("l.txt");
+        assertThat(jdbc.queryForObject("SELECT ref_count FROM attachment_blob WHERE sha256 = ?", Integer.class, SHA))
+                .isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT attachment_bytes FROM user_account WHERE uid = 'trash-owner'", Long.class))
+                .isEqualTo(7L);
+        assertThat(jdbc.queryForList("SELECT task_id FROM attachment_outbox WHERE task_id IN (?, ?)", Long.class,
+                expired.getId(), live.getId())).containsExactly(expired.getId());
+    }
+
+    private Board board(String name, int position) {
+        Board b = new Board(name);
+        b.setOwner(owner);
+        b.setPosition(position);
+        return boardRepository.save(b);
+    }
+
+    private KanbanColumn column(Board board, String name, int pos) {
+        KanbanColumn c = new KanbanColumn(name, pos);
+        c.setBoard(board);
+        return kanbanColumnRepository.save(c);
+    }
+
+    private static Task task(String title, KanbanColumn column, int pos) {
+        Task t = new Task();
+        t.setTitle(title);
+        t.setKanbanColumn(column);
+        t.setPosition(pos);
+        return t;
+    }
+}
@@ -0,0 +1,100 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.repository.TaskAttachmentRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentArchiveServiceTest {
+
+    @Mock TaskAttachmentRepository attachmentRepository;
+
+    @TempDir Path tmp;
+
+    private AttachmentPaths paths;
+    private AttachmentArchiveService service;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties props = new AppProperties();
+        props.setUploadDir(tmp.toString());
+        paths = new AttachmentPaths(props);
+        service = new AttachmentArchiveService(attachmentRepository, paths);
+    }
+
+    private void store(long taskId, String name, byte[] content) throws IOException {
+        Path dir = paths.taskDir(taskId);
+        Files.createDirectories(dir);
+        Files.write(dir.resolve(name), content);
+    }
+
+    /** Reads back an archive as entry name -> [method, content]. */
+    private static Map<String, Object[]> unzip(byte[] zip) throws IOException {
+        Map<String, Object[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry e;
+            while ((e = in.getNextEntry()) != null) {
+                entries.put(e.getName(), new Object[]{e.getMethod(), new String(in.readAllBytes())});
+            }
+        }
+        return entries;
+    }
+
+    @Test
+    @DisplayName("write: stores compressed types, deflates the rest and skips missing files")
+    void write_methods() throws IOException {
+        store(1L, "notes.txt", "hello hello hello".getBytes());
+        store(1L, "pic.png", "not really a png".getBytes());
+        when(attachmentRepository.findArchiveEntriesByTask(1L)).thenReturn(List.of(
+                new Object[]{1L, "T", "gone.txt", "text/plain", Instant.now()},
+                new Object[]{1L, "T", "notes.txt", "text/plain", Instant.now()},
+                new Object[]{1L, "T", "pic.png", "image/png", Instant.now()}));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.write(service.taskEntries(1L), out);
+
+        Map<String, Object[]> entries = unzip(out.toByteArray());
+        assertThat(entries).containsOnlyKeys("notes.txt", "pic.png");
+        assertThat(entries.get("notes.txt")).containsExactly(ZipEntry.DEFLATED, "hello hello hello");
+        assertThat(entries.get("pic.png")).containsExactly(ZipEntry.STORED, "not really a png");
+    }
+
+    @Test
+    @DisplayName("boardEntries: one folder per task named after its title and id")
+    void boardEntries_folders() throws IOException {
+        store(1L, "a.txt", "one".getBytes());
+        store(2L, "a.txt", "two".getBytes());
+        when(attachmentRepository.findArchiveEntriesByBoard(9L)).thenReturn(List.of(
+                new Object[]{1L, "Fix: a/b", "a.txt", "text/plain", null},
+                new Object[]{2L, "..", "a.txt", "text/plain", null}));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.write(service.boardEntries(9L), out);
+
+        Map<String, Object[]> entries = unzip(out.toByteArray());
+        assertThat(entries).containsOnlyKeys("Fix_ a_b (1)/a.txt", "2/a.txt");
+        assertThat(entries.get("2/a.txt")[1]).isEqualTo("two");
+    }
+}
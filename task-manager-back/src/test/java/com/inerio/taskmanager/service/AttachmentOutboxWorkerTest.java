@@ -0,0 +1,127 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.model.AttachmentOutboxEntry;
+import com.inerio.taskmanager.repository.AttachmentOutboxRepository;
+import com.inerio.taskmanager.repository.TaskAttachmentRepository;
+import com.inerio.taskmanager.repository.TaskRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentOutboxWorkerTest {
+
+    @Mock AttachmentOutboxRepository outboxRepository;
+    @Mock TaskAttachmentRepository attachmentRepository;
+    @Mock TaskRepository taskRepository;
+    @Mock PlatformTransactionManager transactionManager;
+
+    @TempDir Path tmp;
+
+    private AttachmentPaths paths;
+    private SimpleMeterRegistry meters;
+    private AttachmentOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties props = new AppProperties();
+        props.setUploadDir(tmp.toString());
+        props.setAttachmentOutboxMaxAttempts(2);
+        paths = new AttachmentPaths(props);
+        meters = new SimpleMeterRegistry();
+        worker = new AttachmentOutboxWorker(outboxRepository, attachmentRepository, taskRepository, paths,
+                transactionManager, meters, props);
+    }
+
+    private Path file(Long taskId, String relative) throws Exception {
+        Path f = paths.taskDir(taskId).resolve(relative);
+        Files.createDirectories(f.getParent());
+        Files.writeString(f, "x");
+        return f;
+    }
+
+    private double processed(String result) {
+        return meters.get("attachments.outbox.processed").tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("drain: removes the folders of deleted tasks, keeps those of live tasks")
+    void drain_folders() throws Exception {
+        file(1L, "a.txt");
+        file(2L, "b.txt");
+        AttachmentOutboxEntry gone = new AttachmentOutboxEntry(1L, null);
+        AttachmentOutboxEntry alive = new AttachmentOutboxEntry(2L, null);
+        when(outboxRepository.claim(anyInt(), anyInt())).thenReturn(List.of(gone, alive));
+        when(taskRepository.existsById(1L)).thenReturn(false);
+        when(taskRepository.existsById(2L)).thenReturn(true);
+
+        assertThat(worker.drain()).isEqualTo(2);
+
+        assertThat(paths.taskDir(1L)).doesNotExist();
+        assertThat(paths.taskDir(2L).resolve("b.txt")).exists();
+        verify(outboxRepository).deleteAllInBatch(List.of(gone, alive));
+        assertThat(processed("deleted")).isEqualTo(1);
+        assertThat(processed("skipped")).isEqualTo(1);
+        assertThat(meters.get("attachments.outbox.lag").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("drain: removes a file and its thumbnail unless it was uploaded again")
+    void drain_files() throws Exception {
+        Path old = file(3L, "old.png");
+        Path thumb = file(3L, ThumbnailService.THUMB_DIR + "/old.png.png");
+        Path again = file(3L, "again.txt");
+        when(outboxRepository.claim(anyInt(), anyInt())).thenReturn(List.of(
+                new AttachmentOutboxEntry(3L, "old.png"), new AttachmentOutboxEntry(3L, "again.txt")));
+        when(attachmentRepository.existsByTaskIdAndFilename(3L, "old.png")).thenReturn(false);
+        when(attachmentRepository.existsByTaskIdAndFilename(3L, "again.txt")).thenReturn(true);
+
+        worker.drain();
+
+        assertThat(old).doesNotExist();
+        assertThat(thumb).doesNotExist();
+        assertThat(again).exists();
+    }
+
+    @Test
+    @DisplayName("drain: failed entries are postponed, then abandoned after the maximum attempts")
+    void drain_retriesThenAbandons() {
+        AttachmentOutboxEntry entry = new AttachmentOutboxEntry(4L, null);
+        when(outboxRepository.claim(anyInt(), anyInt())).thenReturn(List.of(entry));
+        when(taskRepository.existsById(4L)).thenThrow(new IllegalStateException("boom"));
+
+        Instant before = Instant.now();
+        assertThat(worker.drain()).isZero();
+
+        assertThat(entry.getAttempts()).isEqualTo(1);
+        assertThat(entry.getNextAttemptAt()).isAfter(before);
+        assertThat(entry.getLastError()).contains("boom");
+        assertThat(processed("failed")).isEqualTo(1);
+        verify(outboxRepository, never()).deleteAllInBatch(List.of(entry));
+
+        worker.drain();
+
+        assertThat(entry.getAttempts()).isEqualTo(2);
+        assertThat(processed("abandoned")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,132 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.inerio.taskmanager.config.AppProperties;
+
+class AttachmentPathsTest {
+
+    @TempDir Path tmp;
+
+    private AppProperties props;
+    private AttachmentPaths paths;
+
+    @BeforeEach
+    void setUp() {
+        props = new AppProperties();
+        props.setUploadDir(tmp.toString());
+        paths = new AttachmentPaths(props);
+    }
+
+    private Path legacyFile(long taskId, String name, String content) throws Exception {
+        Path file = tmp.resolve(String.valueOf(taskId)).resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        return file;
+    }
+
+    @Test
+    @DisplayName("taskDir: two hex levels under tasks/, consecutive ids spread over shards")
+    void taskDir_fansOut() {
+        Path dir = paths.taskDir(42L);
+        Path relative = tmp.resolve(AttachmentPaths.TASKS_DIR).relativize(dir);
+
+        assertThat(relative.getNameCount()).isEqualTo(3);
+        assertThat(relative.getName(0).toString()).matches("[0-9a-f]{2}");
+        assertThat(relative.getName(1).toString()).matches("[0-9a-f]{2}");
+        assertThat(relative.getFileName().toString()).isEqualTo("42");
+        assertThat(paths.taskDir(42L)).isEqualTo(dir);
+
+        Set<Path> shards = new HashSet<>();
+        for (long id = 1; id <= 1_000; id++) shards.add(paths.taskDir(id).getParent());
+        assertThat(shards).hasSizeGreaterThan(900);
+    }
+
+    @Test
+    @DisplayName("file: reads fall back to the legacy folder until it is migrated")
+    void file_fallsBackThenMigrates() throws Exception {
+        Path legacy = legacyFile(7L, "a.txt", "old");
+        assertThat(paths.file(7L, "a.txt")).isEqualTo(legacy);
+        assertThat(paths.file(7L, "missing.txt")).isEqualTo(paths.taskDir(7L).resolve("missing.txt"));
+
+        assertThat(paths.migrate(7L)).isTrue();
+
+        assertThat(tmp.resolve("7")).doesNotExist();
+        assertThat(Files.readString(paths.file(7L, "a.txt"))).isEqualTo("old");
+        assertThat(paths.file(7L, "a.txt")).startsWith(paths.taskDir(7L));
+        assertThat(paths.migrate(7L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("migrate: merges into a sharded folder written meanwhile")
+    void migrate_mergesIntoExistingFolder() throws Exception {
+        legacyFile(8L, "old.txt", "old");
+        legacyFile(8L, ".thumbs/old.txt.png", "thumb");
+        Files.createDirectories(paths.taskDir(8L));
+        Files.writeString(paths.taskDir(8L).resolve("new.txt"), "new");
+
+        assertThat(paths.migrate(8L)).isTrue();
+
+        assertThat(tmp.resolve("8")).doesNotExist();
+        assertThat(paths.taskDir(8L).resolve("old.txt")).hasContent("old");
+        assertThat(paths.taskDir(8L).resolve("new.txt")).hasContent("new");
+        assertThat(paths.taskDir(8L).resolve(".thumbs/old.txt.png")).hasContent("thumb");
+    }
+
+    @Test
+    @DisplayName("migrator: moves legacy folders in bounded batches, resumes, then goes idle")
+    void migrator_batchesAndResumes() throws Exception {
+        for (long id = 1; id <= 5; id++) legacyFile(id, "f.txt", "x" + id);
+        Files.createDirectories(tmp.resolve(".blobs"));
+        props.setUploadMigrationBatchSize(2);
+        UploadLayoutMigrator migrator = new UploadLayoutMigrator(paths, props);
+
+        assertThat(migrator.migrateBatch()).isEqualTo(2);
+        assertThat(migrator.migrateBatch()).isEqualTo(2);
+        assertThat(migrator.migrateBatch()).isEqualTo(1);
+        assertThat(migrator.isDone()).isFalse();
+        assertThat(migrator.migrateBatch()).isZero();
+        assertThat(migrator.isDone()).isTrue();
+
+        for (long id = 1; id <= 5; id++) {
+            assertThat(tmp.resolve(String.valueOf(id))).doesNotExist();
+            assertThat(paths.taskDir(id).resolve("f.txt")).hasContent("x" + id);
+        }
+        assertThat(tmp.resolve(".blobs")).isDirectory();
+    }
+
+    @Test
+    @DisplayName("migrator: a folder that fails to move keeps the migrator active until it is moved")
+    void migrator_retriesFailures() throws Exception {
+        legacyFile(7L, "f.txt", "x");
+        boolean[] failing = {true};
+        AttachmentPaths flaky = new AttachmentPaths(props) {
+            @Override
+            public boolean migrate(Long taskId) throws IOException {
+                if (failing[0]) throw new IOException("busy");
+                return super.migrate(taskId);
+            }
+        };
+        UploadLayoutMigrator migrator = new UploadLayoutMigrator(flaky, props);
+
+        assertThat(migrator.migrateBatch()).isZero();
+        assertThat(migrator.isDone()).isFalse();
+
+        failing[0] = false;
+        assertThat(migrator.migrateBatch()).isEqualTo(1);
+        assertThat(migrator.migrateBatch()).isZero();
+        assertThat(migrator.isDone()).isTrue();
+        assertThat(paths.taskDir(7L).resolve("f.txt")).hasContent("x");
+    }
+}
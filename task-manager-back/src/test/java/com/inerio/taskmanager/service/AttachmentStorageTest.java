@@ -0,0 +1,196 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.dto.AttachmentStorageStatsDto;
+import com.inerio.taskmanager.exception.QuotaExceededException;
+import com.inerio.taskmanager.model.AttachmentBlob;
+import com.inerio.taskmanager.model.TaskAttachment;
+import com.inerio.taskmanager.repository.AttachmentBlobRepository;
+import com.inerio.taskmanager.repository.AttachmentOutboxRepository;
+import com.inerio.taskmanager.repository.TaskAttachmentRepository;
+import com.inerio.taskmanager.repository.UserAccountRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentStorageTest {
+
+    @Mock AttachmentBlobRepository blobRepository;
+    @Mock TaskAttachmentRepository attachmentRepository;
+    @Mock UserAccountRepository userAccountRepository;
+    @Mock AttachmentOutboxRepository outboxRepository;
+    @Mock AttachmentOutboxWorker outboxWorker;
+
+    @TempDir Path tmp;
+
+    private AttachmentStorage storage;
+    private AppProperties props;
+
+    @BeforeEach
+    void setUp() {
+        props = new AppProperties();
+        props.setUploadDir(tmp.toString());
+        storage = new AttachmentStorage(blobRepository, attachmentRepository, userAccountRepository,
+                outboxRepository, outboxWorker, new AttachmentPaths(props), props);
+    }
+
+    private Path attach(Long taskId, String name, String content) throws Exception {
+        Path target = tmp.resolve(taskId.toString()).resolve(name);
+        Files.createDirectories(target.getParent());
+        AttachmentStorage.StagedUpload staged =
+                storage.stage(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        when(userAccountRepository.chargeAttachment(eq("u"), anyLong(), anyLong())).thenReturn(1);
+        try {
+            storage.commit(staged, taskId, "u", name, "text/plain", target);
+        } finally {
+            Files.deleteIfExists(staged.file());
+        }
+        return target;
+    }
+
+    private static String sha256(String content) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    @Test
+    @DisplayName("stage: hashes the content while streaming it")
+    void stage_computesSha256() throws Exception {
+        AttachmentStorage.StagedUpload staged =
+                storage.stage(new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(staged.sha256()).isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+        assertThat(staged.size()).isEqualTo(3);
+        assertThat(Files.readString(staged.file())).isEqualTo("abc");
+    }
+
+    @Test
+    @DisplayName("commit: identical content attached twice is stored once and referenced twice")
+    void commit_deduplicates() throws Exception {
+        Path first = attach(1L, "report.pdf", "same bytes");
+        Path second = attach(2L, "copy.pdf", "same bytes");
+
+        String sha = sha256("same bytes");
+        Path blob = storage.blobPath(sha);
+        assertThat(Files.readString(first)).isEqualTo("same bytes");
+        assertThat(Files.isSameFile(first, blob)).isTrue();
+        assertThat(Files.isSameFile(second, blob)).isTrue();
+        try (var blobs = Files.list(blob.getParent())) {
+            assertThat(blobs).hasSize(1);
+        }
+        verify(blobRepository, times(2)).acquire(sha, 10L);
+        verify(attachmentRepository, times(2)).save(any(TaskAttachment.class));
+    }
+
+    @Test
+    @DisplayName("shareCopies: charges the copies once and links them to the original blob")
+    void shareCopies_linksBlob() throws Exception {
+        attach(1L, "a.txt", "shared");
+        String sha = sha256("shared");
+        when(userAccountRepository.chargeAttachments(eq("u"), eq(6L), eq(1), anyLong())).thenReturn(1);
+
+        storage.shareCopies("u", List.<Object[]>of(new Object[]{1L, 7L, "a.txt", sha, 6L}));
+
+        Path copy = new AttachmentPaths(props).taskDir(7L).resolve("a.txt");
+        assertThat(Files.isSameFile(copy, storage.blobPath(sha))).isTrue();
+    }
+
+    @Test
+    @DisplayName("shareCopies: over quota links nothing")
+    void shareCopies_overQuota() throws Exception {
+        when(userAccountRepository.chargeAttachments(eq("u"), anyLong(), anyInt(), anyLong())).thenReturn(0);
+
+        assertThatThrownBy(() -> storage.shareCopies("u", List.<Object[]>of(new Object[]{1L, 7L, "a.txt", "ab12", 6L})))
+                .isInstanceOf(QuotaExceededException.class);
+        assertThat(new AttachmentPaths(props).taskDir(7L)).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("release: decrements the reference and removes only the task's link")
+    void release_keepsBlob() throws Exception {
+        Path first = attach(1L, "a.txt", "shared");
+        Path second = attach(2L, "b.txt", "shared");
+
+        storage.release(1L, "a.txt", first);
+
+        verify(attachmentRepository).release(1L, "a.txt");
+        assertThat(first).doesNotExist();
+        assertThat(Files.readString(second)).isEqualTo("shared");
+    }
+
+    @Test
+    @DisplayName("collect: deletes unreferenced blobs that were not re-acquired")
+    void collect_reclaimsUnreferencedBlobs() throws Exception {
+        Path file = attach(1L, "a.txt", "gone soon");
+        String sha = sha256("gone soon");
+        Path blob = storage.blobPath(sha);
+        storage.releaseTasks(List.of(1L));
+
+        when(blobRepository.findUnreferenced(anyInt()))
+                .thenReturn(List.of(new AttachmentBlob(sha, 9L)));
+        when(blobRepository.deleteIfUnreferenced(sha)).thenReturn(1);
+        when(blobRepository.computeStats()).thenReturn(new AttachmentStorageStatsDto(0L, 0L, 0L));
+
+        storage.collect();
+
+        verify(attachmentRepository).releaseAll(new Long[] { 1L });
+        verify(outboxRepository).enqueueTasks(new Long[] { 1L });
+        verify(outboxWorker).wakeUpAfterCommit();
+        verify(attachmentRepository).releaseOrphans();
+        assertThat(blob).doesNotExist();
+        // the task folder is left to the outbox worker; the link keeps its own copy of the inode
+        assertThat(file).hasContent("gone soon");
+    }
+
+    @Test
+    @DisplayName("stats: saved bytes are the referenced bytes not physically stored")
+    void stats_savedBytes() {
+        when(blobRepository.computeStats()).thenReturn(new AttachmentStorageStatsDto(2L, 300L, 1_200L));
+
+        assertThat(storage.stats().savedBytes()).isEqualTo(900L);
+    }
+
+    @Test
+    @DisplayName("adopt: records metadata for a pre-existing file and publishes it as the blob")
+    void adopt_legacyFile() throws Exception {
+        Path file = tmp.resolve("3").resolve("old.pdf");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "legacy");
+        when(attachmentRepository.save(any(TaskAttachment.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        TaskAttachment adopted = storage.adopt(3L, "u", "old.pdf", file);
+
+        String sha = sha256("legacy");
+        assertThat(adopted.getBlobSha256()).isEqualTo(sha);
+        assertThat(adopted.getSize()).isEqualTo(6);
+        assertThat(adopted.getContentType()).isEqualTo("application/pdf");
+        assertThat(adopted.getUploadedAt()).isEqualTo(Files.getLastModifiedTime(file).toInstant());
+        assertThat(Files.isSameFile(file, storage.blobPath(sha))).isTrue();
+        verify(blobRepository).acquire(sha, 6L);
+        verify(userAccountRepository).chargeAttachment("u", 6L, Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,97 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.inerio.taskmanager.exception.BoardNotFoundException;
+import com.inerio.taskmanager.model.Board;
+import com.inerio.taskmanager.realtime.EventType;
+import com.inerio.taskmanager.realtime.SseHub;
+import com.inerio.taskmanager.repository.BoardRepository;
+
+@ExtendWith(MockitoExtension.class)
+class BoardServiceTest {
+
+    @Mock BoardRepository boardRepository;
+    @Mock UserAccountService userAccountService;
+    @Mock SseHub sse;
+    @Mock AttachmentStorage attachmentStorage;
+
+    private BoardService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BoardService(boardRepository, userAccountService, sse, attachmentStorage);
+    }
+
+    @Test
+    @DisplayName("cloneBoard: copies content into a new board appended to the owner's and emits one event")
+    void cloneBoard_copiesContent() throws Exception {
+        Board source = new Board("Sprint");
+        when(boardRepository.findByIdAndOwnerUid(1L, "u")).thenReturn(Optional.of(source));
+        when(boardRepository.findMaxPositionByOwnerUid("u")).thenReturn(4);
+        when(boardRepository.saveAndFlush(any(Board.class))).thenAnswer(inv -> {
+            Board b = inv.getArgument(0);
+            ReflectionTestUtils.setField(b, "id", 9L);
+            return b;
+        });
+        List<Object[]> copies = List.<Object[]>of(new Object[]{3L, 30L, "a.txt", "ab12", 6L});
+        when(boardRepository.copyContent(1L, 9L, "u")).thenReturn(copies);
+
+        assertThat(service.cloneBoard("u", 1L, " ", false)).isEqualTo(9L);
+
+        ArgumentCaptor<Board> saved = ArgumentCaptor.forClass(Board.class);
+        verify(boardRepository).saveAndFlush(saved.capture());
+        assertThat(saved.getValue().getName()).isEqualTo("Sprint (copy)");
+        assertThat(saved.getValue().getPosition()).isEqualTo(5);
+        assertThat(saved.getValue().isTemplate()).isFalse();
+        verify(attachmentStorage).shareCopies("u", copies);
+        verify(sse).emitBoards("u", EventType.BOARDS_CREATED);
+    }
+
+    @Test
+    @DisplayName("cloneBoard: a template keeps the given name")
+    void cloneBoard_template() {
+        when(boardRepository.findByIdAndOwnerUid(1L, "u")).thenReturn(Optional.of(new Board("Sprint")));
+        when(boardRepository.findMaxPositionByOwnerUid("u")).thenReturn(null);
+        when(boardRepository.saveAndFlush(any(Board.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.cloneBoard("u", 1L, " Weekly ", true);
+
+        ArgumentCaptor<Board> saved = ArgumentCaptor.forClass(Board.class);
+        verify(boardRepository).saveAndFlush(saved.capture());
+        assertThat(saved.getValue().getName()).isEqualTo("Weekly");
+        assertThat(saved.getValue().isTemplate()).isTrue();
+        assertThat(saved.getValue().getPosition()).isZero();
+    }
+
+    @Test
+    @DisplayName("cloneBoard: another owner's board is not found and nothing is copied")
+    void cloneBoard_notOwned() {
+        when(boardRepository.findByIdAndOwnerUid(1L, "u")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.cloneBoard("u", 1L, null, false))
+                .isInstanceOf(BoardNotFoundException.class);
+        verify(boardRepository, never()).copyContent(anyLong(), anyLong(), anyString());
+        verifyNoInteractions(sse);
+    }
+}
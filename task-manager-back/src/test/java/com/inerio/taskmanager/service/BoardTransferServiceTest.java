@@ -0,0 +1,152 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.dto.BoardImportResultDto;
+import com.inerio.taskmanager.exception.UploadTooLargeException;
+import com.inerio.taskmanager.model.UserAccount;
+import com.inerio.taskmanager.realtime.EventType;
+import com.inerio.taskmanager.realtime.SseHub;
+
+@ExtendWith(MockitoExtension.class)
+class BoardTransferServiceTest {
+
+    @Mock JdbcTemplate jdbc;
+    @Mock UserAccountService userAccountService;
+    @Mock SseHub sse;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private BoardTransferService service;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties props = new AppProperties();
+        props.setBoardImportBatchSize(2);
+        props.setImportMaxBytes(8 * 1024);
+        service = new BoardTransferService(jdbc, new ObjectMapper().findAndRegisterModules(), userAccountService,
+                sse, transactionManager, props);
+        UserAccount owner = new UserAccount("u");
+        ReflectionTestUtils.setField(owner, "id", 5L);
+        when(userAccountService.getOrCreate("u")).thenReturn(owner);
+    }
+
+    private static ParameterizedPreparedStatementSetter<Object> anySetter() {
+        return ArgumentMatchers.any();
+    }
+
+    private BoardImportResultDto importJson(String json) throws Exception {
+        return service.importBoard("u", new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("importBoard: inserts tasks in batches with positions renumbered per column, then emits one event")
+    void import_batches() throws Exception {
+        when(jdbc.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(1L, 10L, 11L);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        List<Integer> batchSizes = new ArrayList<>();
+        when(jdbc.batchUpdate(anyString(), anyCollection(), anyInt(), anySetter()))
+                .thenAnswer(inv -> {
+                    Collection<Object> rows = inv.getArgument(1);
+                    ParameterizedPreparedStatementSetter<Object> setter = inv.getArgument(3);
+                    batchSizes.add(rows.size());
+                    for (Object row : rows) setter.setValues(ps, row);
+                    return new int[0][];
+                });
+
+        BoardImportResultDto result = importJson("""
+                {"format":"task-manager-board","version":1,"board":{"name":" Sprint ","template":false},
+                 "columns":[{"name":"Todo"},{"name":"Done"}],
+                 "tasks":[{"column":0,"title":"a"},{"column":1,"title":"b","completed":true},{"column":0,"title":"c"}],
+                 "taskCount":3}
+                """);
+
+        assertThat(result).isEqualTo(new BoardImportResultDto(1L, 2, 3));
+        assertThat(batchSizes).containsExactly(2, 1);
+        verify(ps, times(2)).setInt(5, 0);
+        verify(ps).setInt(5, 1);
+        verify(ps, times(2)).setLong(6, 10L);
+        verify(ps).setLong(6, 11L);
+        verify(jdbc).queryForObject(anyString(), eq(Long.class), eq("Sprint"), eq(5L), eq(false), eq(5L));
+        verify(sse).emitBoards("u", EventType.BOARDS_CREATED);
+    }
+
+    @Test
+    @DisplayName("importBoard: a document that is not a board export is rejected before any insert")
+    void import_notAnExport() {
+        assertThatThrownBy(() -> importJson("{\"format\":\"other\",\"board\":{\"name\":\"x\"}}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> importJson("{\"format\":\"task-manager-board\",\"board\":"))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jdbc, sse);
+    }
+
+    @Test
+    @DisplayName("importBoard: a task naming an unknown column fails the import")
+    void import_unknownColumn() {
+        when(jdbc.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(1L, 10L);
+
+        assertThatThrownBy(() -> importJson("""
+                {"format":"task-manager-board","board":{"name":"B"},"columns":[{"name":"Todo"}],
+                 "tasks":[{"column":3,"title":"a"}]}
+                """)).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("column");
+        verify(jdbc, never()).batchUpdate(anyString(), anyCollection(), anyInt(), anySetter());
+        verifyNoInteractions(sse);
+    }
+
+    @Test
+    @DisplayName("importBoard: a title or description over the column length fails the import before it is inserted")
+    void import_tooLong() {
+        when(jdbc.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(1L, 10L, 2L, 20L);
+        String head = "{\"format\":\"task-manager-board\",\"board\":{\"name\":\"B\"},\"columns\":[{\"name\":\"Todo\"}],\"tasks\":";
+
+        assertThatThrownBy(() -> importJson(head + "[{\"column\":0,\"title\":\"" + "t".repeat(256) + "\"}]}"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("title longer than 255");
+        assertThatThrownBy(() -> importJson(head + "[{\"column\":0,\"title\":\"a\",\"description\":\""
+                + "d".repeat(5001) + "\"}]}"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("description longer than 5000");
+        verify(jdbc, never()).batchUpdate(anyString(), anyCollection(), anyInt(), anySetter());
+        verifyNoInteractions(sse);
+    }
+
+    @Test
+    @DisplayName("importBoard: a document over the size limit is rejected before any insert")
+    void import_tooLarge() {
+        assertThatThrownBy(() -> importJson("{\"format\":\"task-manager-board\",\"board\":{\"name\":\""
+                + "b".repeat(9000) + "\"}}"))
+                .isInstanceOf(UploadTooLargeException.class);
+        verifyNoInteractions(jdbc, transactionManager, sse);
+    }
+}
@@ -0,0 +1,96 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.exception.BulkheadFullException;
+
+class BulkheadTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Bulkhead bulkhead;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        bulkhead.shutdown();
+    }
+
+    private Bulkhead bulkhead(int threads, int queue, int interactive) {
+        AppProperties props = new AppProperties();
+        props.setBulkThreads(threads);
+        props.setBulkQueueCapacity(queue);
+        props.setBulkRetryAfterSeconds(30);
+        props.setInteractiveMaxConcurrent(interactive);
+        props.setInteractiveWaitMs(10);
+        props.setInteractiveRetryAfterSeconds(1);
+        bulkhead = new Bulkhead(props);
+        return bulkhead;
+    }
+
+    private String blocked() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+
+    @Test
+    @DisplayName("bulk: runs off the calling thread and rejects once threads and queue are full")
+    void bulk_rejectsWhenSaturated() throws Exception {
+        Bulkhead b = bulkhead(1, 1, 1);
+        String caller = Thread.currentThread().getName();
+
+        CompletableFuture<String> running = b.bulk(() -> Thread.currentThread().getName() + ":" + blocked());
+        CompletableFuture<String> queued = b.bulk(() -> "queued");
+
+        assertThatThrownBy(() -> b.bulk(() -> "rejected"))
+                .isInstanceOf(BulkheadFullException.class)
+                .extracting(e -> ((BulkheadFullException) e).getRetryAfterSeconds()).isEqualTo(30);
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("bulk-work:done").doesNotStartWith(caller);
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    @DisplayName("bulk: a failing operation completes its future exceptionally")
+    void bulk_failure() {
+        Bulkhead b = bulkhead(1, 1, 1);
+
+        CompletableFuture<String> failed = b.bulk(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("interactive: rejects once every slot is taken, and frees the slot afterwards")
+    void interactive_rejectsWhenSaturated() throws Exception {
+        Bulkhead b = bulkhead(1, 1, 1);
+        CountDownLatch inside = new CountDownLatch(1);
+        CompletableFuture<String> holder = CompletableFuture.supplyAsync(() -> b.interactive(() -> {
+            inside.countDown();
+            return blocked();
+        }));
+        assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> b.interactive(() -> "rejected"))
+                .isInstanceOf(BulkheadFullException.class)
+                .extracting(e -> ((BulkheadFullException) e).getRetryAfterSeconds()).isEqualTo(1);
+        release.countDown();
+        assertThat(holder.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(b.interactive(() -> "again")).isEqualTo("again");
+    }
+}
@@ -0,0 +1,250 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.dto.AttachmentUploadDto;
+import com.inerio.taskmanager.dto.AttachmentUploadInitDto;
+import com.inerio.taskmanager.exception.QuotaExceededException;
+import com.inerio.taskmanager.exception.UploadTooLargeException;
+import com.inerio.taskmanager.model.AttachmentUpload;
+import com.inerio.taskmanager.model.KanbanColumn;
+import com.inerio.taskmanager.model.Task;
+import com.inerio.taskmanager.model.TaskAttachment;
+import com.inerio.taskmanager.model.UserAccount;
+import com.inerio.taskmanager.realtime.SseHub;
+import com.inerio.taskmanager.repository.AttachmentBlobRepository;
+import com.inerio.taskmanager.repository.AttachmentOutboxRepository;
+import com.inerio.taskmanager.repository.AttachmentUploadRepository;
+import com.inerio.taskmanager.repository.KanbanColumnRepository;
+import com.inerio.taskmanager.repository.TaskAttachmentRepository;
+import com.inerio.taskmanager.repository.TaskRepository;
+import com.inerio.taskmanager.repository.UserAccountRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedUploadServiceTest {
+
+    @Mock AttachmentUploadRepository uploadRepository;
+    @Mock TaskRepository taskRepository;
+    @Mock KanbanColumnRepository kanbanColumnRepository;
+    @Mock SseHub sse;
+    @Mock AttachmentBlobRepository blobRepository;
+    @Mock TaskAttachmentRepository taskAttachmentRepository;
+    @Mock UserAccountRepository userAccountRepository;
+    @Mock AttachmentOutboxRepository outboxRepository;
+    @Mock AttachmentOutboxWorker outboxWorker;
+
+    @TempDir Path tmp;
+
+    private ChunkedUploadService service;
+    private AttachmentStorage storage;
+    private AttachmentPaths paths;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties props = new AppProperties();
+        props.setUploadDir(tmp.toString());
+        props.setAttachmentMaxBytes(100);
+        props.setUploadChunkMaxBytes(8);
+        props.setAttachmentQuotaBytes(50);
+        paths = new AttachmentPaths(props);
+        storage = new AttachmentStorage(blobRepository, taskAttachmentRepository, userAccountRepository,
+                outboxRepository, outboxWorker, paths, props);
+        TaskService tasks = new TaskService(taskRepository, kanbanColumnRepository, paths, sse, storage,
+                new ThumbnailService(paths, props));
+        service = new ChunkedUploadService(uploadRepository, taskRepository, taskAttachmentRepository,
+                userAccountRepository, storage, tasks, props);
+    }
+
+    private AttachmentUpload session(long size) {
+        AttachmentUpload upload = new AttachmentUpload(1L, "big.txt", "text/plain", size);
+        when(uploadRepository.findByIdAndTaskId(upload.getId(), 1L)).thenReturn(Optional.of(upload));
+        return upload;
+    }
+
+    private static InputStream bytes(String s) {
+        return new ByteArrayInputStream(s.getBytes());
+    }
+
+    @Test
+    @DisplayName("init: validates size and quota before opening a session")
+    void init_limits() {
+        assertThatThrownBy(() -> service.init(1L, new AttachmentUploadInitDto("a.txt", "text/plain", 101)))
+                .isInstanceOf(UploadTooLargeException.class);
+        // Over the quota itself: no account could take it, so it is the size that is refused.
+        assertThatThrownBy(() -> service.init(1L, new AttachmentUploadInitDto("a.txt", "text/plain", 51)))
+                .isInstanceOf(UploadTooLargeException.class);
+
+        when(taskRepository.findOwnerUidByTaskId(1L)).thenReturn(Optional.of("u"));
+        UserAccount account = mock(UserAccount.class);
+        when(account.getAttachmentBytes()).thenReturn(45L);
+        when(userAccountRepository.findByUid("u")).thenReturn(Optional.of(account));
+        assertThatThrownBy(() -> service.init(1L, new AttachmentUploadInitDto("a.txt", "text/plain", 10)))
+                .isInstanceOf(QuotaExceededException.class);
+
+        when(uploadRepository.save(any(AttachmentUpload.class))).thenAnswer(inv -> inv.getArgument(0));
+        AttachmentUploadDto dto = service.init(1L, new AttachmentUploadInitDto("../a.txt", "text/plain", 5));
+        assertThat(dto.filename()).isEqualTo("a.txt");
+        assertThat(dto.offset()).isZero();
+        assertThat(dto.maxChunkSize()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("writeChunk: chunks append at the current offset; others conflict")
+    void writeChunk_offsets() throws IOException {
+        AttachmentUpload upload = session(12);
+
+        assertThat(service.writeChunk(1L, upload.getId(), 0, bytes("hello ")).offset()).isEqualTo(6);
+        assertThatThrownBy(() -> service.writeChunk(1L, upload.getId(), 0, bytes("again")))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(service.writeChunk(1L, upload.getId(), 6, bytes("world!")).offset()).isEqualTo(12);
+
+        assertThat(Files.readString(storage.chunkedFile(upload.getId()))).isEqualTo("hello world!");
+    }
+
+    @Test
+    @DisplayName("writeChunk: bytes received before a dropped connection are kept")
+    void writeChunk_partial() throws IOException {
+        AttachmentUpload upload = session(12);
+        InputStream dropped = new FilterInputStream(bytes("hell")) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n < 0) throw new IOException("connection reset");
+                return n;
+            }
+        };
+
+        assertThatThrownBy(() -> service.writeChunk(1L, upload.getId(), 0, dropped))
+                .isInstanceOf(IOException.class);
+
+        assertThat(upload.getReceived()).isEqualTo(4);
+        assertThat(service.writeChunk(1L, upload.getId(), 4, bytes("o")).offset()).isEqualTo(5);
+        assertThat(Files.readString(storage.chunkedFile(upload.getId()))).isEqualTo("hello");
+    }
+
+    @Test
+    @DisplayName("writeChunk: rejects chunks over the limit and content over the declared size")
+    void writeChunk_tooLarge() {
+        AttachmentUpload upload = session(20);
+        assertThatThrownBy(() -> service.writeChunk(1L, upload.getId(), 0, bytes("123456789")))
+                .isInstanceOf(UploadTooLargeException.class);
+        assertThat(upload.getReceived()).isEqualTo(8);
+
+        AttachmentUpload small = session(3);
+        assertThatThrownBy(() -> service.writeChunk(1L, small.getId(), 0, bytes("1234")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("complete: publishes the assembled file as an attachment and closes the session")
+    void complete_commits() throws IOException {
+        AttachmentUpload upload = session(12);
+        Task task = new Task();
+        task.setKanbanColumn(new KanbanColumn());
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findOwnerUidByTaskId(1L)).thenReturn(Optional.of("u"));
+        when(userAccountRepository.chargeAttachment(eq("u"), eq(12L), anyLong())).thenReturn(1);
+        when(taskAttachmentRepository.save(any(TaskAttachment.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertThatThrownBy(() -> service.complete(1L, upload.getId()))
+                .isInstanceOf(IllegalStateException.class);
+        service.writeChunk(1L, upload.getId(), 0, bytes("hello "));
+        service.writeChunk(1L, upload.getId(), 6, bytes("world!"));
+
+        Task updated = service.complete(1L, upload.getId());
+
+        assertThat(updated.getAttachmentNames()).contains("big.txt");
+        assertThat(Files.readString(paths.taskDir(1L).resolve("big.txt"))).isEqualTo("hello world!");
+        assertThat(storage.chunkedFile(upload.getId())).doesNotExist();
+        verify(uploadRepository).delete(upload);
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    @DisplayName("expireSessions: skips sessions being written and sessions a chunk refreshed meanwhile")
+    void expireSessions_skipsBusyAndRefreshed() throws Exception {
+        Instant old = Instant.now().minus(Duration.ofDays(30));
+        // Ids on distinct lock stripes.
+        AttachmentUpload busy = idle("a", old);
+        AttachmentUpload stale = idle("b", old);
+        AttachmentUpload refreshed = idle("c", old);
+        when(uploadRepository.findByIdAndTaskId("a", 1L)).thenReturn(Optional.of(busy));
+        when(uploadRepository.findTop500ByUpdatedAtBefore(any(Instant.class)))
+                .thenReturn(List.of(busy, stale, refreshed));
+        when(uploadRepository.findById("b")).thenReturn(Optional.of(stale));
+        when(uploadRepository.findById("c")).thenReturn(Optional.of(idle("c", Instant.now())));
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream slow = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return -1;
+            }
+        };
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            Future<AttachmentUploadDto> chunk = writer.submit(() -> service.writeChunk(1L, "a", 0, slow));
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(service.expireSessions()).isEqualTo(1);
+
+            release.countDown();
+            chunk.get(5, TimeUnit.SECONDS);
+        } finally {
+            writer.shutdownNow();
+        }
+        verify(uploadRepository).delete(stale);
+        verify(uploadRepository, never()).delete(busy);
+        verify(uploadRepository, never()).findById("a");
+        verify(uploadRepository, times(1)).delete(any(AttachmentUpload.class));
+    }
+
+    private static AttachmentUpload idle(String id, Instant updatedAt) {
+        AttachmentUpload upload = new AttachmentUpload(1L, id + ".txt", "text/plain", 12);
+        ReflectionTestUtils.setField(upload, "id", id);
+        ReflectionTestUtils.setField(upload, "updatedAt", updatedAt);
+        return upload;
+    }
+}
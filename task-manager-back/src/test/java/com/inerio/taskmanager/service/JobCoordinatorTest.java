@@ -0,0 +1,127 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.model.JobRun;
+import com.inerio.taskmanager.repository.JobRunRepository;
+
+@ExtendWith(MockitoExtension.class)
+class JobCoordinatorTest {
+
+    @Mock DataSource dataSource;
+    @Mock Connection connection;
+    @Mock PreparedStatement lock;
+    @Mock PreparedStatement unlock;
+    @Mock ResultSet lockResult;
+    @Mock ResultSet unlockResult;
+    @Mock JobRunRepository runRepository;
+
+    private JobCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenAnswer(inv ->
+                ((String) inv.getArgument(0)).contains("pg_try_advisory_lock") ? lock : unlock);
+        when(lock.executeQuery()).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+        coordinator = new JobCoordinator(dataSource, runRepository, new AppProperties());
+    }
+
+    @Test
+    @DisplayName("runExclusive: with the lock, runs the job with the run id as fence and records it")
+    void runExclusive_locked() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(unlock.executeQuery()).thenReturn(unlockResult);
+        when(unlockResult.next()).thenReturn(true);
+        when(unlockResult.getBoolean(1)).thenReturn(true);
+        List<String> details = new ArrayList<>();
+        when(runRepository.save(any(JobRun.class))).thenAnswer(inv -> {
+            JobRun run = inv.getArgument(0);
+            if (run.getId() == null) ReflectionTestUtils.setField(run, "id", 12L);
+            details.add(run.getStatus() + ":" + run.getDetail());
+            return run;
+        });
+        List<Long> fences = new ArrayList<>();
+
+        boolean ran = coordinator.runExclusive("trash-purge", fence -> {
+            fences.add(fence);
+            return "done";
+        });
+
+        assertThat(ran).isTrue();
+        assertThat(fences).containsExactly(12L);
+        assertThat(details).containsExactly("RUNNING:null", "SUCCEEDED:done");
+        verify(lock).setInt(1, JobCoordinator.LOCK_NAMESPACE);
+        verify(lock).setString(2, "trash-purge");
+        verify(runRepository).abandonRunning("trash-purge");
+        verify(runRepository).deleteHistory(eq("trash-purge"), any());
+        verify(unlock).executeQuery();
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("runExclusive: a failing job is recorded as failed and still releases the lock")
+    void runExclusive_failure() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(unlock.executeQuery()).thenReturn(unlockResult);
+        when(unlockResult.next()).thenReturn(true);
+        when(unlockResult.getBoolean(1)).thenReturn(true);
+        when(runRepository.save(any(JobRun.class))).thenAnswer(inv -> {
+            JobRun run = inv.getArgument(0);
+            ReflectionTestUtils.setField(run, "id", 13L);
+            return run;
+        });
+
+        boolean ran = coordinator.runExclusive("upload-gc", fence -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThat(ran).isTrue();
+        ArgumentCaptor<JobRun> saved = ArgumentCaptor.forClass(JobRun.class);
+        verify(runRepository, times(2)).save(saved.capture());
+        assertThat(saved.getValue().getStatus()).isEqualTo(JobRun.Status.FAILED);
+        assertThat(saved.getValue().getDetail()).contains("boom");
+        verify(unlock).executeQuery();
+    }
+
+    @Test
+    @DisplayName("runExclusive: skips the job while another node holds the lock")
+    void runExclusive_busy() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(false);
+
+        boolean ran = coordinator.runExclusive("retention-purge", fence -> {
+            throw new AssertionError("must not run");
+        });
+
+        assertThat(ran).isFalse();
+        verify(runRepository, never()).save(any());
+        verify(unlock, never()).executeQuery();
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,149 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.inerio.taskmanager.realtime.EventType;
+import com.inerio.taskmanager.realtime.SseHub;
+
+class ReadCoalescerTest {
+
+    private SseHub sse;
+    private ReadCoalescer reads;
+
+    @BeforeEach
+    void setUp() {
+        sse = mock(SseHub.class);
+        reads = new ReadCoalescer(sse);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("concurrent identical reads share a single in-flight load")
+    void concurrentIdenticalReads_shareOneLoad() throws Exception {
+        int tabs = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(tabs);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < tabs; i++) {
+                results.add(pool.submit(() -> reads.load("uid", "tasks", null, () -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return List.of("t1", "t2");
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<List<String>> f : results) {
+                assertThat(f.get(5, TimeUnit.SECONDS)).containsExactly("t1", "t2");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("sequential reads and reads after a change broadcast are not shared")
+    void completedOrNewerVersion_loadsAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        reads.load("uid", "tasks", null, loads::incrementAndGet);
+        reads.load("uid", "tasks", null, loads::incrementAndGet);
+        when(sse.changeVersion()).thenReturn(1L);
+        reads.load("uid", "tasks", null, loads::incrementAndGet);
+
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("a load started before a mutation commits is not shared with reads issued after the commit")
+    void loadBeforeCommit_notSharedAfterCommit() throws Exception {
+        SseHub hub = new SseHub();
+        ReadCoalescer coalescer = new ReadCoalescer(hub);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            TransactionSynchronizationManager.initSynchronization();
+            hub.emitBoard(7L, EventType.TASKS_CHANGED);
+            assertThat(hub.changeVersion()).isZero();
+
+            // A refetch racing the transaction reads the pre-commit rows...
+            Future<String> stale = pool.submit(() -> coalescer.load("uid", "tasks", null, () -> {
+                loads.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "before";
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // ...and once the transaction commits, the broadcast moves readers to a new load.
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+            TransactionSynchronizationManager.clearSynchronization();
+            assertThat(hub.changeVersion()).isEqualTo(1L);
+
+            String fresh = coalescer.load("uid", "tasks", null, () -> {
+                loads.incrementAndGet();
+                return "after";
+            });
+            release.countDown();
+
+            assertThat(fresh).isEqualTo("after");
+            assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("before");
+            assertThat(loads.get()).isEqualTo(2);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("broadcasts of a rolled-back transaction are dropped")
+    void rollback_dropsBroadcast() {
+        SseHub hub = new SseHub();
+        TransactionSynchronizationManager.initSynchronization();
+        hub.emitBoards("uid", EventType.BOARDS_UPDATED);
+        hub.emitTaskFields(7L, 3L, List.of("title"));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(hub.changeVersion()).isZero();
+        hub.emitBoard(7L, EventType.TASKS_CHANGED);
+        assertThat(hub.changeVersion()).isEqualTo(1L);
+    }
+}
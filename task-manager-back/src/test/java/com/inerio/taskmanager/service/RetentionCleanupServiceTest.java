@@ -0,0 +1,148 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.model.JobCheckpoint;
+import com.inerio.taskmanager.repository.JobCheckpointRepository;
+import com.inerio.taskmanager.repository.TaskRepository;
+import com.inerio.taskmanager.repository.UserAccountRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RetentionCleanupServiceTest {
+
+    @Mock UserAccountRepository userAccountRepository;
+    @Mock TaskRepository taskRepository;
+    @Mock JobCheckpointRepository checkpointRepository;
+    @Mock AttachmentOutboxWorker outboxWorker;
+    @Mock JobCoordinator jobs;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private AppProperties props;
+
+    @BeforeEach
+    void setUp() {
+        props = new AppProperties();
+        props.setRetentionPageSize(2);
+        props.setRetentionBatchSize(2);
+        props.setRetentionWorkers(2);
+    }
+
+    private RetentionCleanupService service() {
+        return new RetentionCleanupService(userAccountRepository, taskRepository, checkpointRepository,
+                outboxWorker, jobs, transactionManager, props);
+    }
+
+    private static Object[] account(long id) {
+        return new Object[]{id, "u" + id};
+    }
+
+    @Test
+    @DisplayName("cleanupInactiveAccounts: pages by key, purges tasks in batches, then clears the checkpoint")
+    void cleanup_sweep() {
+        when(checkpointRepository.findById(RetentionCleanupService.JOB)).thenReturn(Optional.empty());
+        when(checkpointRepository.saveFenced(eq(RetentionCleanupService.JOB), anyLong(), any(), eq(7L))).thenReturn(1);
+        when(userAccountRepository.findStalePage(any(), eq(0L), eq(2))).thenReturn(List.of(account(1), account(2)));
+        when(userAccountRepository.findStalePage(any(), eq(2L), eq(2))).thenReturn(List.<Object[]>of(account(5)));
+        when(userAccountRepository.findStalePage(any(), eq(5L), eq(2))).thenReturn(List.of());
+        when(taskRepository.purgeStaleOwner(eq(1L), any(), eq(2))).thenReturn(2, 1);
+        when(taskRepository.purgeStaleOwner(eq(2L), any(), eq(2))).thenReturn(0);
+        when(taskRepository.purgeStaleOwner(eq(5L), any(), eq(2))).thenReturn(1);
+        when(userAccountRepository.purgeStale(anyLong(), any())).thenReturn(1);
+
+        RetentionCleanupService.Report report = service().cleanupInactiveAccounts(7);
+
+        assertThat(report).isEqualTo(new RetentionCleanupService.Report(3, 4, 0, true));
+        verify(taskRepository, times(2)).purgeStaleOwner(eq(1L), any(), eq(2));
+        ArgumentCaptor<Long> saved = ArgumentCaptor.forClass(Long.class);
+        verify(checkpointRepository, times(2)).saveFenced(eq(RetentionCleanupService.JOB), saved.capture(), any(), eq(7L));
+        assertThat(saved.getValue()).isEqualTo(5);
+        verify(checkpointRepository).deleteFenced(RetentionCleanupService.JOB, 7);
+        verify(outboxWorker).wakeUp();
+    }
+
+    @Test
+    @DisplayName("cleanupInactiveAccounts: resumes after the checkpoint with its cutoff")
+    void cleanup_resumes() {
+        Instant cutoff = Instant.parse("2026-01-01T00:00:00Z");
+        JobCheckpoint checkpoint = new JobCheckpoint(RetentionCleanupService.JOB, cutoff);
+        checkpoint.advance(42);
+        when(checkpointRepository.findById(RetentionCleanupService.JOB)).thenReturn(Optional.of(checkpoint));
+        when(userAccountRepository.findStalePage(cutoff, 42L, 2)).thenReturn(List.of());
+
+        assertThat(service().cleanupInactiveAccounts(7).complete()).isTrue();
+
+        verify(checkpointRepository).deleteFenced(RetentionCleanupService.JOB, 7);
+        verify(outboxWorker, never()).wakeUp();
+    }
+
+    @Test
+    @DisplayName("cleanupInactiveAccounts: an exhausted budget keeps the checkpoint for the next run")
+    void cleanup_budget() {
+        props.setRetentionBudgetMs(0);
+        when(checkpointRepository.findById(RetentionCleanupService.JOB)).thenReturn(Optional.empty());
+
+        RetentionCleanupService.Report report = service().cleanupInactiveAccounts(7);
+
+        assertThat(report.complete()).isFalse();
+        verify(userAccountRepository, never()).findStalePage(any(), anyLong(), anyInt());
+        verify(checkpointRepository, never()).deleteFenced(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("cleanupInactiveAccounts: stops when a later run owns the checkpoint")
+    void cleanup_superseded() {
+        when(checkpointRepository.findById(RetentionCleanupService.JOB)).thenReturn(Optional.empty());
+        when(checkpointRepository.saveFenced(eq(RetentionCleanupService.JOB), eq(2L), any(), eq(7L))).thenReturn(0);
+        when(userAccountRepository.findStalePage(any(), eq(0L), eq(2))).thenReturn(List.of(account(1), account(2)));
+        when(taskRepository.purgeStaleOwner(anyLong(), any(), eq(2))).thenReturn(0);
+        when(userAccountRepository.purgeStale(anyLong(), any())).thenReturn(1);
+
+        RetentionCleanupService.Report report = service().cleanupInactiveAccounts(7);
+
+        assertThat(report.complete()).isFalse();
+        verify(userAccountRepository, never()).findStalePage(any(), eq(2L), anyInt());
+        verify(checkpointRepository, never()).deleteFenced(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("cleanupInactiveAccounts: retries lock conflicts and skips accounts that keep failing")
+    void cleanup_failures() {
+        when(checkpointRepository.findById(RetentionCleanupService.JOB)).thenReturn(Optional.empty());
+        when(checkpointRepository.saveFenced(any(), anyLong(), any(), anyLong())).thenReturn(1);
+        when(userAccountRepository.findStalePage(any(), eq(0L), eq(2))).thenReturn(List.of(account(1), account(2)));
+        when(userAccountRepository.findStalePage(any(), eq(2L), eq(2))).thenReturn(List.of());
+        when(taskRepository.purgeStaleOwner(eq(1L), any(), eq(2)))
+                .thenThrow(new CannotAcquireLockException("deadlock"))
+                .thenReturn(1);
+        when(taskRepository.purgeStaleOwner(eq(2L), any(), eq(2))).thenThrow(new IllegalStateException("boom"));
+        when(userAccountRepository.purgeStale(eq(1L), any())).thenReturn(1);
+
+        RetentionCleanupService.Report report = service().cleanupInactiveAccounts(7);
+
+        assertThat(report).isEqualTo(new RetentionCleanupService.Report(1, 1, 1, true));
+        verify(userAccountRepository, never()).purgeStale(eq(2L), any());
+    }
+}
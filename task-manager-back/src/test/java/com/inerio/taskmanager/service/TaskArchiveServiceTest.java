@@ -0,0 +1,101 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.realtime.EventType;
+import com.inerio.taskmanager.realtime.SseHub;
+import com.inerio.taskmanager.repository.ArchivedTaskRepository;
+import com.inerio.taskmanager.repository.TaskRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TaskArchiveServiceTest {
+
+    @Mock TaskRepository taskRepository;
+    @Mock ArchivedTaskRepository archivedTaskRepository;
+    @Mock SseHub sse;
+    @Mock JobCoordinator jobs;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private AppProperties props;
+
+    @BeforeEach
+    void setUp() {
+        props = new AppProperties();
+        props.setTaskArchiveAfterDays(30);
+        props.setTaskArchiveBatchSize(2);
+    }
+
+    private TaskArchiveService service() {
+        return new TaskArchiveService(taskRepository, archivedTaskRepository, sse, jobs, transactionManager, props);
+    }
+
+    @Test
+    @DisplayName("archiveCompleted: stamps legacy rows, archives in batches and renumbers the columns left")
+    void archive_batches() {
+        when(taskRepository.stampCompletion(2)).thenReturn(2, 0);
+        when(archivedTaskRepository.archiveCompleted(any(), eq(2))).thenReturn(
+                List.of(new Object[]{10L, 1L}, new Object[]{11L, 1L}),
+                List.<Object[]>of(new Object[]{20L, 2L}));
+
+        TaskArchiveService.Report report = service().archiveCompleted();
+
+        assertThat(report).isEqualTo(new TaskArchiveService.Report(2, 3));
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(archivedTaskRepository, times(2)).archiveCompleted(cutoff.capture(), eq(2));
+        assertThat(cutoff.getValue()).isBefore(Instant.now().minus(29, ChronoUnit.DAYS));
+        verify(taskRepository).bumpPositions(eq(Set.of(10L, 11L)), anyInt());
+        verify(taskRepository).compactPositions(Set.of(10L, 11L));
+        verify(taskRepository).compactPositions(Set.of(20L));
+        verify(sse).emitBoard(1L, EventType.TASKS_CHANGED);
+        verify(sse).emitBoard(2L, EventType.TASKS_CHANGED);
+    }
+
+    @Test
+    @DisplayName("archiveCompleted: nothing old enough leaves positions and clients alone")
+    void archive_nothing() {
+        when(taskRepository.stampCompletion(2)).thenReturn(0);
+        when(archivedTaskRepository.archiveCompleted(any(), eq(2))).thenReturn(List.of());
+
+        assertThat(service().archiveCompleted()).isEqualTo(new TaskArchiveService.Report(0, 0));
+
+        verify(taskRepository, never()).compactPositions(any());
+        verifyNoInteractions(sse);
+    }
+
+    @Test
+    @DisplayName("findArchived: rejects out-of-range pages before any query runs")
+    void findArchived_invalidPage() {
+        TaskArchiveService service = service();
+
+        assertThatThrownBy(() -> service.findArchived("u", null, 0, TaskArchiveService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.findArchived("u", null, -1, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(archivedTaskRepository, never()).findPageForOwner(anyString(), any());
+    }
+}
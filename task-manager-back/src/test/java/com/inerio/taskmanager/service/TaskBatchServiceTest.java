@@ -0,0 +1,160 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.inerio.taskmanager.dto.TaskBatchOpDto;
+import com.inerio.taskmanager.dto.TaskBatchResultDto;
+import com.inerio.taskmanager.dto.TaskDto;
+import com.inerio.taskmanager.dto.TaskPatchDto;
+import com.inerio.taskmanager.exception.TaskNotFoundException;
+import com.inerio.taskmanager.model.Board;
+import com.inerio.taskmanager.model.KanbanColumn;
+import com.inerio.taskmanager.model.Task;
+import com.inerio.taskmanager.realtime.EventType;
+import com.inerio.taskmanager.realtime.SseHub;
+import com.inerio.taskmanager.repository.KanbanColumnRepository;
+import com.inerio.taskmanager.repository.TaskRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TaskBatchServiceTest {
+
+    @Mock TaskRepository taskRepository;
+    @Mock KanbanColumnRepository kanbanColumnRepository;
+    @Mock SseHub sse;
+
+    private TaskBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TaskBatchService(taskRepository, kanbanColumnRepository, sse);
+    }
+
+    private static void setId(Object entity, Long id) {
+        try {
+            Field f = entity.getClass().getDeclaredField("id");
+            f.setAccessible(true);
+            f.set(entity, id);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static KanbanColumn column(Long id, Board board) {
+        KanbanColumn c = new KanbanColumn();
+        c.setBoard(board);
+        setId(c, id);
+        return c;
+    }
+
+    private static Task task(Long id, int pos, KanbanColumn col) {
+        Task t = new Task();
+        t.setTitle("t-" + id);
+        t.setPosition(pos);
+        t.setKanbanColumn(col);
+        setId(t, id);
+        return t;
+    }
+
+    private static TaskBatchOpDto op(String kind, Long id) {
+        TaskBatchOpDto op = new TaskBatchOpDto();
+        op.setOp(kind);
+        op.setId(id);
+        return op;
+    }
+
+    @Test
+    @DisplayName("apply: mixed ops use one ownership query each, one renumbering and one event per board")
+    void apply_mixedOperations() {
+        Board board = new Board();
+        setId(board, 7L);
+        KanbanColumn todo = column(10L, board);
+        KanbanColumn done = column(20L, board);
+        Task t1 = task(1L, 0, todo);
+        Task t2 = task(2L, 1, todo);
+        Task t3 = task(3L, 2, todo);
+
+        when(taskRepository.findAllByIdInForOwner(Set.of(1L, 2L, 3L), "u")).thenReturn(List.of(t1, t2, t3));
+        when(kanbanColumnRepository.findAllByIdInAndBoardOwnerUid(Set.of(10L, 20L), "u")).thenReturn(List.of(todo, done));
+        List<Object[]> maxRows = new ArrayList<>();
+        maxRows.add(new Object[] {10L, 2});
+        maxRows.add(new Object[] {20L, 4});
+        when(taskRepository.findMaxPositionsByKanbanColumnIds(any())).thenReturn(maxRows);
+        when(taskRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Task> created = inv.getArgument(0);
+            created.forEach(t -> setId(t, 99L));
+            return created;
+        });
+
+        TaskPatchDto patch = new TaskPatchDto();
+        patch.setCompleted(true);
+        TaskBatchOpDto update = op("update", 1L);
+        update.setPatch(patch);
+        TaskBatchOpDto move = op("move", 2L);
+        move.setTargetKanbanColumnId(20L);
+        TaskDto dto = new TaskDto();
+        dto.setTitle("new");
+        dto.setKanbanColumnId(10L);
+        TaskBatchOpDto create = op("create", null);
+        create.setTask(dto);
+
+        List<TaskBatchResultDto> results = service.apply("u", List.of(update, move, op("delete", 3L), create));
+
+        assertThat(results).extracting(TaskBatchResultDto::status)
+                .containsExactly("updated", "moved", "deleted", "created");
+        assertThat(results.get(3).id()).isEqualTo(99L);
+        assertThat(t1.isCompleted()).isTrue();
+        assertThat(t2.getKanbanColumn()).isSameAs(done);
+        assertThat(t2.getPosition()).isEqualTo(5);
+
+        verify(taskRepository, times(1)).findAllByIdInForOwner(anyCollection(), eq("u"));
+        verify(taskRepository).trashAll(new Long[]{3L});
+        verify(taskRepository).bumpPositions(eq(Set.of(10L)), anyInt());
+        verify(taskRepository).compactPositions(Set.of(10L));
+        verify(sse, times(1)).emitBoard(7L, EventType.TASKS_CHANGED);
+    }
+
+    @Test
+    @DisplayName("apply: a task outside the caller's boards rejects the whole batch")
+    void apply_foreignTask_404() {
+        when(taskRepository.findAllByIdInForOwner(Set.of(1L), "u")).thenReturn(List.of());
+
+        assertThatThrownBy(() -> service.apply("u", List.of(op("delete", 1L))))
+                .isInstanceOf(TaskNotFoundException.class);
+
+        verify(taskRepository, never()).trashAll(any());
+        verifyNoInteractions(sse);
+    }
+
+    @Test
+    @DisplayName("apply: malformed operation fails before any query")
+    void apply_missingId_400() {
+        assertThatThrownBy(() -> service.apply("u", List.of(op("move", 1L))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("targetKanbanColumnId");
+
+        verifyNoInteractions(taskRepository, kanbanColumnRepository, sse);
+    }
+}
@@ -0,0 +1,167 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.dto.TaskImportResultDto;
+import com.inerio.taskmanager.exception.ConcurrentChangeException;
+import com.inerio.taskmanager.exception.UploadTooLargeException;
+import com.inerio.taskmanager.realtime.EventType;
+import com.inerio.taskmanager.realtime.SseHub;
+
+@ExtendWith(MockitoExtension.class)
+class TaskImportServiceTest {
+
+    @Mock JdbcTemplate jdbc;
+    @Mock SseHub sse;
+    @Mock PlatformTransactionManager transactionManager;
+    @Mock CopyIn copy;
+
+    private final Connection con = mock(Connection.class);
+    private final ByteArrayOutputStream copied = new ByteArrayOutputStream();
+    private TaskImportService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        AppProperties props = new AppProperties();
+        props.setTaskImportMaxRows(100);
+        props.setImportMaxBytes(1024);
+        service = new TaskImportService(jdbc, sse, transactionManager, props);
+
+        lenient().when(jdbc.query(anyString(), any(RowMapper.class), eq(7L))).thenReturn(List.of(
+                new Object[]{10L, "Todo", 0}, new Object[]{11L, "Done", 4}));
+        PGConnection pg = mock(PGConnection.class);
+        CopyManager copyApi = mock(CopyManager.class);
+        lenient().when(con.unwrap(PGConnection.class)).thenReturn(pg);
+        lenient().when(pg.getCopyAPI()).thenReturn(copyApi);
+        lenient().when(copyApi.copyIn(anyString())).thenReturn(copy);
+        lenient().when(jdbc.execute(any(ConnectionCallback.class)))
+                .thenAnswer(inv -> ((ConnectionCallback<?>) inv.getArgument(0)).doInConnection(con));
+        lenient().doAnswer(inv -> {
+            copied.write(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2));
+            return null;
+        }).when(copy).writeToCopy(any(byte[].class), anyInt(), anyInt());
+    }
+
+    private TaskImportResultDto importCsv(String csv) throws Exception {
+        return service.importCsv(7L, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("importCsv: streams valid rows into COPY with positions continuing each column, then emits one event")
+    void import_copiesRows() throws Exception {
+        TaskImportResultDto result = importCsv("\uFEFFTitle,Column,Completed,dueDate,notes\r\n"
+                + "\"Fix \"\"login\"\"\",done,yes,2026-03-01,ignored\r\n"
+                + "\"Two\nlines\",,,,\r\n"
+                + "\r\n"
+                + "Third,TODO,,,\r\n");
+
+        assertThat(result).isEqualTo(new TaskImportResultDto(3, List.of()));
+        String[] lines = copied.toString(StandardCharsets.UTF_8).split("\n(?=\")");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("\"Fix \"\"login\"\"\",,true,\"").contains(",4,11,").endsWith(",\"2026-03-01\"");
+        assertThat(lines[1]).startsWith("\"Two\nlines\",,false,,0,10,");
+        assertThat(lines[2]).startsWith("\"Third\",,false,,1,10,");
+        verify(copy).endCopy();
+        verify(sse).emitBoard(7L, EventType.TASKS_CHANGED);
+    }
+
+    @Test
+    @DisplayName("importCsv: invalid rows are all reported before any transaction or copy starts")
+    @SuppressWarnings("unchecked")
+    void import_rowErrors() throws Exception {
+        TaskImportResultDto result = importCsv("""
+                title,column,dueDate
+                ok,,
+                ,,
+                late,,tomorrow
+                lost,Backlog,
+                """);
+
+        assertThat(result.imported()).isZero();
+        assertThat(result.errors()).containsExactly(
+                "Row 3: title is required",
+                "Row 4: dueDate must be a yyyy-MM-dd date",
+                "Row 5: no column named \"Backlog\" on the board");
+        verify(jdbc, never()).execute(any(ConnectionCallback.class));
+        verifyNoInteractions(transactionManager, copy, sse);
+    }
+
+    @Test
+    @DisplayName("importCsv: a body over the size limit is rejected before the board is read")
+    void import_tooLarge() {
+        assertThatThrownBy(() -> importCsv("title\n" + "x\n".repeat(600)))
+                .isInstanceOf(UploadTooLargeException.class);
+        verifyNoInteractions(transactionManager, copy, sse);
+    }
+
+    @Test
+    @DisplayName("importCsv: a column renamed between validation and copy rolls back with a conflict")
+    @SuppressWarnings("unchecked")
+    void import_columnRenamed_conflict() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbc.query(anyString(), any(RowMapper.class), eq(7L))).thenReturn(
+                List.of(new Object[]{10L, "Todo", 0}, new Object[]{11L, "Done", 4}),
+                List.<Object[]>of(new Object[]{10L, "Todo", 0}, new Object[]{11L, "Finished", 4}));
+        when(copy.isActive()).thenReturn(true);
+
+        assertThatThrownBy(() -> importCsv("title,column\nok,Done\n"))
+                .isInstanceOf(ConcurrentChangeException.class);
+        verify(copy).cancelCopy();
+        verify(copy, never()).endCopy();
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(sse);
+    }
+
+    @Test
+    @DisplayName("importCsv: a position taken by a concurrent insert surfaces as a retryable conflict")
+    @SuppressWarnings("unchecked")
+    void import_concurrentInsert_conflict() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        // The unique violation is reported when the copy ends; JdbcTemplate translates it.
+        when(jdbc.execute(any(ConnectionCallback.class))).thenAnswer(inv -> {
+            ((ConnectionCallback<?>) inv.getArgument(0)).doInConnection(con);
+            throw new DuplicateKeyException("duplicate key value violates unique constraint \"ux_task_live_position\"");
+        });
+
+        assertThatThrownBy(() -> importCsv("title\nok\n"))
+                .isInstanceOf(ConcurrentChangeException.class)
+                .hasCauseInstanceOf(DuplicateKeyException.class);
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(sse);
+    }
+}
@@ -0,0 +1,156 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.dto.TaskPatchDto;
+
+class TaskPatchCoalescerTest {
+
+    private TaskService taskService;
+    private TaskPatchCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        taskService = mock(TaskService.class);
+        AppProperties props = new AppProperties();
+        props.setPatchMergeWindowMs(100);
+        coalescer = new TaskPatchCoalescer(taskService, props);
+    }
+
+    private static TaskPatchDto description(String text) {
+        TaskPatchDto p = new TaskPatchDto();
+        p.setDescription(text);
+        return p;
+    }
+
+    /** Makes the first write of task 1 block until the returned latch is released. */
+    private CountDownLatch holdFirstWrite(CountDownLatch entered) {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            entered.countDown();
+            assertThat(release.await(2, TimeUnit.SECONDS)).isTrue();
+            return null;
+        }).doNothing().when(taskService).patchTask(eq(1L), any());
+        return release;
+    }
+
+    @Test
+    @DisplayName("a patch with nothing pending for its task is written at once, without waiting for the window")
+    void idlePatchWrittenAtOnce() throws Exception {
+        AppProperties props = new AppProperties();
+        props.setPatchMergeWindowMs(60_000);
+        TaskPatchCoalescer slowWindow = new TaskPatchCoalescer(taskService, props);
+
+        slowWindow.submit(1L, description("a")).get(2, TimeUnit.SECONDS);
+
+        verify(taskService).patchTask(eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("patches arriving during a write are merged into the next single write (last value wins)")
+    void mergesWhileWriting() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = holdFirstWrite(entered);
+        ExecutorService client = Executors.newSingleThreadExecutor();
+        try {
+            Future<CompletableFuture<Void>> f1 = client.submit(() -> coalescer.submit(1L, description("d")));
+            assertThat(entered.await(2, TimeUnit.SECONDS)).isTrue();
+
+            TaskPatchDto done = new TaskPatchDto();
+            done.setCompleted(true);
+            CompletableFuture<Void> f2 = coalescer.submit(1L, done);
+            CompletableFuture<Void> f3 = coalescer.submit(1L, description("draft final"));
+            release.countDown();
+
+            CompletableFuture.allOf(f1.get(2, TimeUnit.SECONDS), f2, f3).get(2, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            client.shutdownNow();
+        }
+
+        ArgumentCaptor<TaskPatchDto> cap = ArgumentCaptor.forClass(TaskPatchDto.class);
+        verify(taskService, times(2)).patchTask(eq(1L), cap.capture());
+        TaskPatchDto merged = cap.getAllValues().get(1);
+        assertThat(merged.getChangedFields()).containsExactlyInAnyOrder("description", "completed");
+        assertThat(merged.getDescription()).isEqualTo("draft final");
+        assertThat(merged.getCompleted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("a failing patch fails only its own request, not the ones merged with it")
+    void mergedFailureIsPerRequest() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = holdFirstWrite(entered);
+        IllegalArgumentException invalid = new IllegalArgumentException("bad title");
+        ExecutorService client = Executors.newSingleThreadExecutor();
+        CompletableFuture<Void> good;
+        CompletableFuture<Void> bad;
+        try {
+            client.submit(() -> coalescer.submit(1L, description("first")));
+            assertThat(entered.await(2, TimeUnit.SECONDS)).isTrue();
+            doAnswer(inv -> {
+                if (inv.<TaskPatchDto>getArgument(1).getChangedFields().contains("title")) throw invalid;
+                return null;
+            }).when(taskService).patchTask(eq(1L), any());
+
+            good = coalescer.submit(1L, description("kept"));
+            TaskPatchDto title = new TaskPatchDto();
+            title.setTitle("");
+            bad = coalescer.submit(1L, title);
+            release.countDown();
+
+            good.get(2, TimeUnit.SECONDS);
+            assertThatThrownBy(() -> bad.get(2, TimeUnit.SECONDS)).hasCause(invalid);
+        } finally {
+            release.countDown();
+            client.shutdownNow();
+        }
+
+        // First write, the failed merged one, then each request on its own.
+        ArgumentCaptor<TaskPatchDto> cap = ArgumentCaptor.forClass(TaskPatchDto.class);
+        verify(taskService, times(4)).patchTask(eq(1L), cap.capture());
+        assertThat(cap.getAllValues().get(2).getDescription()).isEqualTo("kept");
+        assertThat(cap.getAllValues().get(2).getChangedFields()).containsExactly("description");
+    }
+
+    @Test
+    @DisplayName("different tasks are written independently")
+    void separateTasks() throws Exception {
+        CompletableFuture.allOf(
+                coalescer.submit(1L, description("a")),
+                coalescer.submit(2L, description("b"))
+        ).get(2, TimeUnit.SECONDS);
+
+        verify(taskService).patchTask(eq(1L), any());
+        verify(taskService).patchTask(eq(2L), any());
+    }
+
+    @Test
+    @DisplayName("a patch arriving after the window closed triggers a second write")
+    void secondWindowAfterFlush() throws Exception {
+        coalescer.submit(1L, description("a")).get(2, TimeUnit.SECONDS);
+        coalescer.submit(1L, description("b")).get(2, TimeUnit.SECONDS);
+
+        verify(taskService, times(2)).patchTask(eq(1L), any());
+    }
+}
@@ -6,17 +6,33 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.awt.image.BufferedImage;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -33,12 +49,22 @@ import org.springframework.mock.web.MockMultipartFile;
 
 import com.inerio.taskmanager.config.AppProperties;
 import com.inerio.taskmanager.dto.TaskDto;
+import com.inerio.taskmanager.dto.TaskPatchDto;
 import com.inerio.taskmanager.dto.TaskReorderDto;
+import com.inerio.taskmanager.exception.ColumnNotFoundException;
+import com.inerio.taskmanager.exception.QuotaExceededException;
+import com.inerio.taskmanager.exception.TaskNotFoundException;
 import com.inerio.taskmanager.model.KanbanColumn;
 import com.inerio.taskmanager.model.Task;
+import com.inerio.taskmanager.model.TaskAttachment;
+import com.inerio.taskmanager.realtime.EventType;
 import com.inerio.taskmanager.realtime.SseHub;
+import com.inerio.taskmanager.repository.AttachmentBlobRepository;
+import com.inerio.taskmanager.repository.AttachmentOutboxRepository;
 import com.inerio.taskmanager.repository.KanbanColumnRepository;
+import com.inerio.taskmanager.repository.TaskAttachmentRepository;
 import com.inerio.taskmanager.repository.TaskRepository;
+import com.inerio.taskmanager.repository.UserAccountRepository;
 
 @ExtendWith(MockitoExtension.class)
 class TaskServiceTest {
@@ -46,10 +72,16 @@ class TaskServiceTest {
     @Mock TaskRepository taskRepository;
     @Mock KanbanColumnRepository kanbanColumnRepository;
     @Mock SseHub sse;
+    @Mock AttachmentBlobRepository blobRepository;
+    @Mock TaskAttachmentRepository taskAttachmentRepository;
+    @Mock UserAccountRepository userAccountRepository;
+    @Mock AttachmentOutboxRepository outboxRepository;
+    @Mock AttachmentOutboxWorker outboxWorker;
 
     @TempDir Path tmp;
 
     private TaskService service;
+    private AttachmentPaths paths;
 
     @Captor ArgumentCaptor<List<Task>> listCaptor;
 
@@ -57,7 +89,18 @@ class TaskServiceTest {
     void setUp() {
         AppProperties props = new AppProperties();
         props.setUploadDir(tmp.toString());
-        service = new TaskService(taskRepository, kanbanColumnRepository, props, sse);
+        paths = new AttachmentPaths(props);
+        service = new TaskService(taskRepository, kanbanColumnRepository, paths, sse,
+                new AttachmentStorage(blobRepository, taskAttachmentRepository, userAccountRepository,
+                        outboxRepository, outboxWorker, paths, props),
+                new ThumbnailService(paths, props));
+    }
+
+    /** Owner "u" has quota left; recorded attachment rows are returned as saved. */
+    private void stubCommit() {
+        when(taskRepository.findOwnerUidByTaskId(any())).thenReturn(Optional.of("u"));
+        when(userAccountRepository.chargeAttachment(eq("u"), anyLong(), anyLong())).thenReturn(1);
+        when(taskAttachmentRepository.save(any(TaskAttachment.class))).thenAnswer(inv -> inv.getArgument(0));
     }
 
     private static void setId(Object entity, Long id) {
@@ -203,24 +246,73 @@ class TaskServiceTest {
     }
 
     @Test
-    @DisplayName("deleteTask: deletes and compacts positions > deletedPos")
-    void deleteTask_compacts() {
-        KanbanColumn col = new KanbanColumn("A", 0);
-        setId(col, 1L);
+    @DisplayName("patchTask: writes only the patch (no entity load) and emits a field-scoped event")
+    void patchTask_updatesWithoutLoading() {
+        TaskPatchDto patch = new TaskPatchDto();
+        patch.setCompleted(true);
+        when(taskRepository.findBoardIdByTaskId(5L)).thenReturn(Optional.of(9L));
 
-        Task t1 = task(11L, 1, col);
-        Task t2 = task(12L, 2, col);
+        service.patchTask(5L, patch);
 
-        when(taskRepository.findById(11L)).thenReturn(Optional.of(t1));
-        when(taskRepository.findByKanbanColumnAndPositionGreaterThanOrderByPositionAsc(col, 1))
-                .thenReturn(List.of(t2));
+        verify(taskRepository).applyPatch(5L, patch);
+        verify(taskRepository, never()).findById(any());
+        verify(sse).emitTaskFields(eq(9L), eq(5L), eq(patch.getChangedFields()));
+    }
+
+    @Test
+    @DisplayName("patchTask: rejects a null title")
+    void patchTask_nullTitle() {
+        TaskPatchDto patch = new TaskPatchDto();
+        patch.setTitle(null);
+
+        assertThatThrownBy(() -> service.patchTask(5L, patch)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("deleteTask: moves the task to the trash with one update, without loading or renumbering")
+    void deleteTask_trashes() {
+        when(taskRepository.trash(11L)).thenReturn(Optional.of(7L));
 
         service.deleteTask(11L);
 
-        verify(taskRepository).deleteById(11L);
-        verify(taskRepository).saveAll(listCaptor.capture());
-        assertThat(listCaptor.getValue()).containsExactly(t2);
-        assertThat(t2.getPosition()).isEqualTo(1);
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).saveAll(any());
+        verifyNoInteractions(taskAttachmentRepository);
+        verify(sse).emitBoard(7L, EventType.TASKS_CHANGED);
+    }
+
+    @Test
+    @DisplayName("deleteTask: a task that is not live is not found")
+    void deleteTask_missing() {
+        when(taskRepository.trash(11L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.deleteTask(11L)).isInstanceOf(TaskNotFoundException.class);
+        verifyNoInteractions(sse);
+    }
+
+    @Test
+    @DisplayName("restoreTask: appends the task back to its live column")
+    void restoreTask_ok() {
+        when(taskRepository.findTrashState(11L, "u")).thenReturn(List.<Object[]>of(new Object[]{true, true}));
+        when(taskRepository.restore(11L)).thenReturn(Optional.of(7L));
+
+        service.restoreTask("u", 11L);
+
+        verify(sse).emitBoard(7L, EventType.TASKS_CHANGED);
+    }
+
+    @Test
+    @DisplayName("restoreTask: refuses tasks not in the trash or whose column is, and foreign tasks")
+    void restoreTask_refused() {
+        when(taskRepository.findTrashState(11L, "u")).thenReturn(List.<Object[]>of(new Object[]{false, true}));
+        when(taskRepository.findTrashState(12L, "u")).thenReturn(List.<Object[]>of(new Object[]{true, false}));
+        when(taskRepository.findTrashState(13L, "u")).thenReturn(List.of());
+
+        assertThatThrownBy(() -> service.restoreTask("u", 11L)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> service.restoreTask("u", 12L)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> service.restoreTask("u", 13L)).isInstanceOf(TaskNotFoundException.class);
+        verify(taskRepository, never()).restore(any());
     }
 
     @Test
@@ -233,21 +325,154 @@ class TaskServiceTest {
     }
 
     @Test
-    @DisplayName("uploadAttachment: writes to disk and updates DB")
+    @DisplayName("uploadAttachment: writes to disk and records metadata charged to the owner")
     void uploadAttachment_ok() throws Exception {
         Task t = task(1L, 0, new KanbanColumn());
         when(taskRepository.findById(1L)).thenReturn(Optional.of(t));
-        // stub local
-        when(taskRepository.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
+        stubCommit();
 
         MockMultipartFile file = new MockMultipartFile("file", "hello.txt", "text/plain", "hi".getBytes());
 
         Task updated = service.uploadAttachment(1L, file);
 
-        Path expected = tmp.resolve("1").resolve("hello.txt");
+        Path expected = paths.taskDir(1L).resolve("hello.txt");
         assertThat(Files.exists(expected)).isTrue();
-        assertThat(updated.getAttachments()).contains("hello.txt");
-        verify(taskRepository).save(t);
+        assertThat(updated.getAttachmentNames()).contains("hello.txt");
+        TaskAttachment meta = updated.findAttachment("hello.txt");
+        assertThat(meta.getSize()).isEqualTo(2);
+        assertThat(meta.getContentType()).isEqualTo("text/plain");
+        assertThat(meta.getBlobSha256()).hasSize(64);
+        assertThat(meta.getOwnerUid()).isEqualTo("u");
+        assertThat(meta.getUploadedAt()).isNotNull();
+        verify(userAccountRepository).chargeAttachment(eq("u"), eq(2L), anyLong());
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    @DisplayName("uploadAttachment: over quota stores nothing")
+    void uploadAttachment_quotaExceeded() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task(1L, 0, new KanbanColumn())));
+        when(taskRepository.findOwnerUidByTaskId(1L)).thenReturn(Optional.of("u"));
+        when(userAccountRepository.chargeAttachment(eq("u"), eq(2L), anyLong())).thenReturn(0);
+
+        MockMultipartFile file = new MockMultipartFile("file", "hello.txt", "text/plain", "hi".getBytes());
+
+        assertThatThrownBy(() -> service.uploadAttachment(1L, file))
+                .isInstanceOf(QuotaExceededException.class);
+
+        assertThat(paths.taskDir(1L).resolve("hello.txt")).doesNotExist();
+        verifyNoInteractions(blobRepository, taskAttachmentRepository);
+    }
+
+    /** Multipart file whose stream stalls before delivering its bytes, like a slow client. */
+    private static MockMultipartFile slowFile(String name, long stallMs) {
+        return new MockMultipartFile("file", name, "text/plain", "payload".getBytes()) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                InputStream delegate = super.getInputStream();
+                return new FilterInputStream(delegate) {
+                    private boolean stalled;
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        if (!stalled) {
+                            stalled = true;
+                            try {
+                                Thread.sleep(stallMs);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        return super.read(b, off, len);
+                    }
+                };
+            }
+        };
+    }
+
+    /** Multipart file whose stream signals {@code entered} on the first read, then blocks until {@code release}. */
+    private static MockMultipartFile heldFile(String name, CountDownLatch entered, CountDownLatch release) {
+        return new MockMultipartFile("file", name, "text/plain", "payload".getBytes()) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return new FilterInputStream(super.getInputStream()) {
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        entered.countDown();
+                        try {
+                            if (!release.await(10, TimeUnit.SECONDS)) throw new IOException("never released");
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IOException(e);
+                        }
+                        return super.read(b, off, len);
+                    }
+                };
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("uploadAttachment: an upload stalled in its stream does not hold up another task's upload")
+    void uploadAttachment_stalledUploadDoesNotBlockOthers() throws Exception {
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task(1L, 0, new KanbanColumn())));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(task(2L, 0, new KanbanColumn())));
+        stubCommit();
+
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Task> stalled = pool.submit(() -> service.uploadAttachment(1L, heldFile("slow.txt", entered, release)));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<Task> other = pool.submit(() -> service.uploadAttachment(2L,
+                    new MockMultipartFile("file", "fast.txt", "text/plain", "hi".getBytes())));
+            assertThat(other.get(5, TimeUnit.SECONDS).getAttachmentNames()).containsExactly("fast.txt");
+            assertThat(stalled).isNotDone();
+
+            release.countDown();
+            assertThat(stalled.get(5, TimeUnit.SECONDS).getAttachmentNames()).containsExactly("slow.txt");
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("uploadAttachment: concurrent uploads of the same name to one task commit once")
+    void uploadAttachment_sameNameRace() throws Exception {
+        Task t = task(1L, 0, new KanbanColumn());
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(t));
+        stubCommit();
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        int committed = 0;
+        int rejected = 0;
+        try {
+            List<Future<Task>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(pool.submit(() -> service.uploadAttachment(1L, slowFile("same.txt", 50))));
+            }
+            for (Future<Task> f : futures) {
+                try {
+                    f.get(10, TimeUnit.SECONDS);
+                    committed++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+                    rejected++;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(committed).isEqualTo(1);
+        assertThat(rejected).isEqualTo(3);
+        assertThat(t.getAttachmentNames()).containsExactly("same.txt");
+        try (var files = Files.list(paths.taskDir(1L))) {
+            assertThat(files.map(f -> f.getFileName().toString())).containsExactly("same.txt");
+        }
     }
 
     @Test
@@ -277,6 +502,80 @@ class TaskServiceTest {
         assertThat(body.exists()).isTrue();
     }
 
+    @Test
+    @DisplayName("downloadAttachment: content digest as ETag; immutable caching only for the versioned URL")
+    void downloadAttachment_validatorsAndCaching() throws Exception {
+        Path dir = tmp.resolve("5");
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("a.txt"), "yo");
+        String sha = "a".repeat(64);
+        Task t = task(5L, 0, new KanbanColumn());
+        t.getAttachments().add(new TaskAttachment(5L, "u", "a.txt", sha, 2, "text/plain"));
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(t));
+
+        ResponseEntity<Resource> plain = service.downloadAttachment(5L, "a.txt");
+        assertThat(plain.getHeaders().getETag()).isEqualTo("\"" + sha + "\"");
+        assertThat(plain.getHeaders().getLastModified()).isPositive();
+        assertThat(plain.getHeaders().getCacheControl()).contains("no-cache").doesNotContain("immutable");
+
+        ResponseEntity<Resource> versioned = service.downloadAttachment(5L, "a.txt", sha);
+        assertThat(versioned.getHeaders().getETag()).isEqualTo("\"" + sha + "\"");
+        assertThat(versioned.getHeaders().getCacheControl()).contains("immutable", "max-age=31536000");
+
+        assertThat(service.downloadAttachment(5L, "a.txt", "b".repeat(64)).getHeaders().getCacheControl())
+                .contains("no-cache");
+    }
+
+    @Test
+    @DisplayName("downloadAttachment: a file without metadata gets an identity tag and no immutable caching")
+    void downloadAttachment_withoutMetadata() throws Exception {
+        Path dir = tmp.resolve("5");
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("a.txt"), "yo");
+
+        String etag = service.downloadAttachment(5L, "a.txt").getHeaders().getETag();
+        assertThat(etag).matches("\"[0-9a-f]{32}\"");
+        assertThat(service.downloadAttachment(5L, "a.txt", etag.substring(1, 33)).getHeaders().getCacheControl())
+                .contains("no-cache");
+
+        Files.writeString(dir.resolve("a.txt"), "changed content");
+        assertThat(service.downloadAttachment(5L, "a.txt").getHeaders().getETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("downloadThumbnail: original until generated, then the thumbnail; 404 for non-images")
+    void downloadThumbnail_fallbackThenThumbnail() throws Exception {
+        Path dir = tmp.resolve("5");
+        Files.createDirectories(dir);
+        BufferedImage image = new BufferedImage(1200, 600, BufferedImage.TYPE_INT_RGB);
+        ImageIO.write(image, "png", dir.resolve("pic.png").toFile());
+        Files.writeString(dir.resolve("a.txt"), "yo");
+        Task t = task(5L, 0, new KanbanColumn());
+        t.getAttachments().add(new TaskAttachment(5L, "u", "pic.png", "0".repeat(64), 10, "image/png"));
+        t.getAttachments().add(new TaskAttachment(5L, "u", "a.txt", "1".repeat(64), 2, "text/plain"));
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(t));
+
+        ResponseEntity<Resource> first = service.downloadThumbnail(5L, "pic.png", "0".repeat(64));
+        assertThat(first.getStatusCode().value()).isEqualTo(200);
+        assertThat(first.getHeaders().getETag()).isEqualTo("\"" + "0".repeat(64) + "\"");
+        assertThat(first.getHeaders().getCacheControl()).contains("no-cache");
+
+        // Originals in the legacy folder are read in place; the thumbnail is written to the sharded one.
+        Path thumb = paths.taskDir(5L).resolve(ThumbnailService.THUMB_DIR).resolve("pic.png.png");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!Files.exists(thumb) && System.currentTimeMillis() < deadline) Thread.sleep(20);
+
+        ResponseEntity<Resource> second = service.downloadThumbnail(5L, "pic.png", "0".repeat(64));
+        assertThat(Objects.requireNonNull(second.getBody()).getFile().toPath()).isEqualTo(thumb);
+        assertThat(second.getHeaders().getETag()).isEqualTo("\"" + "0".repeat(64) + "-thumb\"");
+        assertThat(second.getHeaders().getCacheControl()).contains("immutable");
+        BufferedImage read = ImageIO.read(thumb.toFile());
+        assertThat(read.getWidth()).isEqualTo(256);
+        assertThat(read.getHeight()).isEqualTo(128);
+
+        assertThat(service.downloadThumbnail(5L, "a.txt", null).getStatusCode().value()).isEqualTo(404);
+    }
+
     @Test
     @DisplayName("downloadAttachment: 404 if missing; 400 if invalid name")
     void downloadAttachment_404_and_400() {
@@ -290,10 +589,8 @@ class TaskServiceTest {
     @DisplayName("deleteAttachment: deletes file and updates attachments")
     void deleteAttachment_ok() throws Exception {
         Task t = task(7L, 0, new KanbanColumn());
-        t.getAttachments().add("del.txt");
+        t.getAttachments().add(new TaskAttachment(7L, "u", "del.txt", "0".repeat(64), 3, "text/plain"));
         when(taskRepository.findById(7L)).thenReturn(Optional.of(t));
-        // stub local
-        when(taskRepository.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Path dir = tmp.resolve("7");
         Files.createDirectories(dir);
@@ -302,7 +599,90 @@ class TaskServiceTest {
         Task out = service.deleteAttachment(7L, "del.txt");
 
         assertThat(Files.exists(dir.resolve("del.txt"))).isFalse();
-        assertThat(out.getAttachments()).doesNotContain("del.txt");
-        verify(taskRepository).save(t);
+        assertThat(out.getAttachmentNames()).doesNotContain("del.txt");
+        assertThat(dir).doesNotExist();
+        verify(taskAttachmentRepository).release(7L, "del.txt");
+    }
+
+    @Test
+    @DisplayName("deleteAttachment: a file committed since the task was loaded keeps the folder")
+    void deleteAttachment_concurrentCommitKeepsFolder() throws Exception {
+        Task t = task(7L, 0, new KanbanColumn());
+        t.getAttachments().add(new TaskAttachment(7L, "u", "del.txt", "0".repeat(64), 3, "text/plain"));
+        when(taskRepository.findById(7L)).thenReturn(Optional.of(t));
+        when(taskAttachmentRepository.existsByTaskId(7L)).thenReturn(true);
+
+        Path dir = paths.taskDir(7L);
+        Files.createDirectories(dir.resolve(ThumbnailService.THUMB_DIR));
+        Files.writeString(dir.resolve("del.txt"), "bye");
+        Files.writeString(dir.resolve("new.txt"), "just committed");
+
+        service.deleteAttachment(7L, "del.txt");
+
+        assertThat(dir.resolve("del.txt")).doesNotExist();
+        assertThat(dir.resolve("new.txt")).hasContent("just committed");
+    }
+
+    @Test
+    @DisplayName("deleteAttachment: the last attachment gone, only empty folders are removed")
+    void deleteAttachment_lastRemovesEmptyFoldersOnly() throws Exception {
+        Task t = task(7L, 0, new KanbanColumn());
+        t.getAttachments().add(new TaskAttachment(7L, "u", "del.txt", "0".repeat(64), 3, "text/plain"));
+        when(taskRepository.findById(7L)).thenReturn(Optional.of(t));
+
+        Path dir = paths.taskDir(7L);
+        Files.createDirectories(dir.resolve(ThumbnailService.THUMB_DIR));
+        Files.writeString(dir.resolve("del.txt"), "bye");
+        Path legacy = paths.legacyTaskDir(7L);
+        Files.createDirectories(legacy);
+        Files.writeString(legacy.resolve("stray.txt"), "not tracked");
+
+        service.deleteAttachment(7L, "del.txt");
+
+        assertThat(dir).doesNotExist();
+        assertThat(legacy.resolve("stray.txt")).exists();
+    }
+
+    @Test
+    @DisplayName("deleteAllTasksForOwner: one set-based update to the trash drives the notifications")
+    void deleteAllTasksForOwner_setBased() {
+        when(taskRepository.trashAllOfOwner("u")).thenReturn(List.of(10L, 20L));
+
+        service.deleteAllTasksForOwner("u");
+
+        verify(sse).emitBoard(10L, EventType.TASKS_CHANGED);
+        verify(sse).emitBoard(20L, EventType.TASKS_CHANGED);
+        verify(taskRepository, never()).findAllByOwnerUid(any());
+        verifyNoInteractions(taskAttachmentRepository);
+    }
+
+    @Test
+    @DisplayName("deleteCompletedOfColumn: one set-based trash, one renumbering, one event")
+    void deleteCompletedOfColumn_setBased() {
+        when(kanbanColumnRepository.existsByIdAndBoardId(3L, 7L)).thenReturn(true);
+        when(taskRepository.trashCompletedOfColumn(3L)).thenReturn(40);
+
+        assertThat(service.deleteCompletedOfColumn(7L, 3L)).isEqualTo(40);
+
+        verify(taskRepository).bumpPositions(List.of(3L), 100_000);
+        verify(taskRepository).compactPositions(List.of(3L));
+        verify(taskRepository, never()).saveAll(anyList());
+        verify(sse, times(1)).emitBoard(7L, EventType.TASKS_CHANGED);
+    }
+
+    @Test
+    @DisplayName("moveCompletedOfColumn: both columns must be on the board; nothing moved means no renumbering nor event")
+    void moveCompletedOfColumn_checksColumns() {
+        when(kanbanColumnRepository.existsByIdAndBoardId(3L, 7L)).thenReturn(true);
+        when(kanbanColumnRepository.existsByIdAndBoardId(4L, 7L)).thenReturn(false);
+        when(kanbanColumnRepository.existsByIdAndBoardId(5L, 7L)).thenReturn(true);
+
+        assertThatThrownBy(() -> service.moveCompletedOfColumn(7L, 3L, 4L)).isInstanceOf(ColumnNotFoundException.class);
+        assertThatThrownBy(() -> service.moveCompletedOfColumn(7L, 3L, 3L)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.moveCompletedOfColumn(7L, 3L, 5L)).isZero();
+
+        verify(taskRepository).moveCompletedOfColumn(3L, 5L);
+        verify(taskRepository, never()).compactPositions(any());
+        verifyNoInteractions(sse);
     }
 }
@@ -0,0 +1,79 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.repository.BoardRepository;
+import com.inerio.taskmanager.repository.KanbanColumnRepository;
+import com.inerio.taskmanager.repository.TaskRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TrashPurgeServiceTest {
+
+    @Mock TaskRepository taskRepository;
+    @Mock KanbanColumnRepository kanbanColumnRepository;
+    @Mock BoardRepository boardRepository;
+    @Mock AttachmentOutboxWorker outboxWorker;
+    @Mock JobCoordinator jobs;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private AppProperties props;
+
+    @BeforeEach
+    void setUp() {
+        props = new AppProperties();
+        props.setTrashRetentionDays(30);
+        props.setTrashPurgeBatchSize(2);
+    }
+
+    private TrashPurgeService service() {
+        return new TrashPurgeService(taskRepository, kanbanColumnRepository, boardRepository,
+                outboxWorker, jobs, transactionManager, props);
+    }
+
+    @Test
+    @DisplayName("purgeExpired: drains tasks, then columns, then boards in batches past the retention")
+    void purge_batches() {
+        when(taskRepository.purgeTrash(any(), eq(2))).thenReturn(2, 1, 0);
+        when(kanbanColumnRepository.purgeTrash(any(), eq(2))).thenReturn(1, 0);
+        when(boardRepository.purgeTrash(any(), eq(2))).thenReturn(0);
+
+        TrashPurgeService.Report report = service().purgeExpired();
+
+        assertThat(report).isEqualTo(new TrashPurgeService.Report(3, 1, 0));
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(taskRepository, times(3)).purgeTrash(cutoff.capture(), eq(2));
+        assertThat(cutoff.getValue()).isBefore(Instant.now().minus(29, ChronoUnit.DAYS));
+        verify(outboxWorker).wakeUp();
+    }
+
+    @Test
+    @DisplayName("purgeExpired: a failing batch stops the run, which resumes next time")
+    void purge_failure() {
+        when(taskRepository.purgeTrash(any(), eq(2))).thenThrow(new IllegalStateException("boom"));
+
+        TrashPurgeService.Report report = service().purgeExpired();
+
+        assertThat(report).isEqualTo(new TrashPurgeService.Report(0, 0, 0));
+        verify(kanbanColumnRepository, never()).purgeTrash(any(), eq(2));
+        verify(outboxWorker, never()).wakeUp();
+    }
+}
@@ -0,0 +1,119 @@
+package com.inerio.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.inerio.taskmanager.config.AppProperties;
+import com.inerio.taskmanager.repository.TaskAttachmentRepository;
+import com.inerio.taskmanager.repository.TaskRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class UploadReconcilerTest {
+
+    @Mock TaskRepository taskRepository;
+    @Mock TaskAttachmentRepository attachmentRepository;
+    @Mock JobCoordinator jobs;
+
+    @TempDir Path tmp;
+
+    private AppProperties props;
+    private AttachmentPaths paths;
+
+    @BeforeEach
+    void setUp() {
+        props = new AppProperties();
+        props.setUploadDir(tmp.toString());
+        props.setUploadGcBatchSize(2);
+        props.setUploadGcGraceMs(0);
+        props.setUploadGcQuarantineMs(0);
+        paths = new AttachmentPaths(props);
+
+        // Only task 1 still exists; it has a single attachment, "a.txt".
+        lenient().when(taskRepository.findExistingIds(any())).thenAnswer(inv ->
+                Arrays.stream((Long[]) inv.getArgument(0)).filter(id -> id == 1L).toList());
+        lenient().when(attachmentRepository.findFilenames(any()))
+                .thenReturn(List.<Object[]>of(new Object[] { 1L, "a.txt" }));
+    }
+
+    private UploadReconciler reconciler() {
+        return new UploadReconciler(taskRepository, attachmentRepository, paths, jobs, new SimpleMeterRegistry(), props);
+    }
+
+    private static Path write(Path file, String content) throws Exception {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        return file;
+    }
+
+    @Test
+    @DisplayName("reconcile: quarantines orphan folders, untracked files and stale uploads, then purges them")
+    void reconcile_quarantinesThenPurges() throws Exception {
+        Path tracked = write(paths.taskDir(1L).resolve("a.txt"), "keep");
+        Path trackedThumb = write(paths.taskDir(1L).resolve(".thumbs/a.txt.png"), "keep");
+        write(paths.taskDir(1L).resolve("junk.txt"), "12345");
+        write(paths.taskDir(1L).resolve(".thumbs/gone.png.png"), "123");
+        write(paths.taskDir(2L).resolve("b.txt"), "1234567");
+        write(paths.legacyTaskDir(3L).resolve("c.txt"), "12");
+        write(tmp.resolve(".blobs/tmp/upload-1.tmp"), "1");
+
+        UploadReconciler.Report report = reconciler().reconcile();
+
+        assertThat(report.folders()).isEqualTo(3);
+        assertThat(report.orphanFolders()).isEqualTo(2);
+        assertThat(report.orphanFiles()).isEqualTo(2);
+        assertThat(report.staleUploads()).isEqualTo(1);
+        assertThat(report.quarantinedBytes()).isEqualTo(5 + 3 + 7 + 2 + 1);
+        assertThat(report.errors()).isZero();
+
+        assertThat(tracked).hasContent("keep");
+        assertThat(trackedThumb).hasContent("keep");
+        assertThat(paths.taskDir(1L).resolve("junk.txt")).doesNotExist();
+        assertThat(paths.taskDir(2L)).doesNotExist();
+        assertThat(paths.legacyTaskDir(3L)).doesNotExist();
+        Path quarantine = tmp.resolve(UploadReconciler.QUARANTINE_DIR);
+        try (var runs = Files.list(quarantine)) {
+            Path run = runs.findFirst().orElseThrow();
+            assertThat(run.resolve(tmp.relativize(paths.taskDir(2L))).resolve("b.txt")).hasContent("1234567");
+            assertThat(run.resolve("3/c.txt")).hasContent("12");
+        }
+
+        UploadReconciler.Report next = reconciler().reconcile();
+
+        assertThat(next.purgedBytes()).isEqualTo(report.quarantinedBytes());
+        assertThat(next.orphanFolders() + next.orphanFiles() + next.staleUploads()).isZero();
+        try (var runs = Files.list(quarantine)) {
+            assertThat(runs).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("reconcile: entries changed within the grace period are left alone")
+    void reconcile_respectsGracePeriod() throws Exception {
+        props.setUploadGcGraceMs(3_600_000);
+        Path orphan = write(paths.taskDir(2L).resolve("b.txt"), "fresh");
+        Path untracked = write(paths.taskDir(1L).resolve("uploading.txt"), "fresh");
+
+        UploadReconciler.Report report = reconciler().reconcile();
+
+        assertThat(report.folders()).isEqualTo(2);
+        assertThat(report.orphanFolders() + report.orphanFiles()).isZero();
+        assertThat(orphan).exists();
+        assertThat(untracked).exists();
+    }
+}